@@ -0,0 +1,61 @@
+package com.imovel.api.booking.config;
+
+import com.imovel.api.logger.ApiLogger;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Keeps the id sequences of bookings, booking guests and property availability ahead of the ids
+ * already in their tables.
+ * <p>
+ * These entities used to take identity ids. On PostgreSQL, schema update creates their sequences
+ * starting at 1, so before the application serves requests each sequence is moved past the
+ * highest id in its table. It is never moved backwards, since other nodes may hold id blocks
+ * above the current maximum.
+ */
+@Component
+public class BookingIdSequences implements SmartInitializingSingleton {
+
+    private static final String LOGGER_NAME = "BookingIdSequences";
+
+    // Sequence name -> table it generates ids for
+    static final Map<String, String> SEQUENCES = Map.of(
+            "bookings_seq", "bookings",
+            "booking_guests_seq", "booking_guests",
+            "property_availability_seq", "property_availability");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Schema update runs while the entity manager factory starts, so it must exist first
+    public BookingIdSequences(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String sequence, String table) {
+        try {
+            // setval only when behind, so a node starting up never races others fetching ids
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT CASE WHEN m.max_id >= s.last_value THEN setval('" + sequence + "', m.max_id) " +
+                    "ELSE s.last_value END FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM " + table + ") m, " +
+                    sequence + " s", Long.class);
+            ApiLogger.debug(LOGGER_NAME, () -> sequence + " at " + value);
+        } catch (Exception e) {
+            ApiLogger.error(LOGGER_NAME, "Could not align " + sequence + " with " + table + ": " + e.getMessage());
+        }
+    }
+}
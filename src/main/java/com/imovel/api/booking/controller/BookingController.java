@@ -3,7 +3,9 @@ package com.imovel.api.booking.controller;
 import com.imovel.api.booking.request.BookingCreateRequest;
 import com.imovel.api.booking.request.BookingUpdateRequest;
 import com.imovel.api.booking.response.BookingResponse;
+import com.imovel.api.booking.response.HostDashboardResponse;
 import com.imovel.api.booking.service.BookingService;
+import com.imovel.api.booking.service.HostDashboardService;
 import com.imovel.api.error.ApiCode;
 import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.pagination.PaginationResult;
@@ -34,11 +36,14 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final HostDashboardService hostDashboardService;
     private final SessionManager sessionManager;
 
     @Autowired
-    public BookingController(BookingService bookingService, SessionManager sessionManager) {
+    public BookingController(BookingService bookingService, HostDashboardService hostDashboardService,
+                             SessionManager sessionManager) {
         this.bookingService = bookingService;
+        this.hostDashboardService = hostDashboardService;
         this.sessionManager = sessionManager;
     }
 
@@ -530,4 +535,31 @@ public class BookingController {
             );
         }
     }
+
+    /**
+     * Get the dashboard of the current host: upcoming arrivals and departures, and monthly occupancy and revenue
+     */
+    @GetMapping("/host-dashboard")
+    public ResponseEntity<ApplicationResponse<HostDashboardResponse>> getHostDashboard(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "6") int months,
+            HttpSession session) {
+        final String TAG = "getHostDashboard";
+        ApiLogger.info(buildLogTag(TAG), "Received request to get host dashboard");
+
+        ResponseEntity<ApplicationResponse<?>> authCheck = verifyAuthentication(session);
+        if (authCheck != null) {
+            return new ResponseEntity<>(
+                ApplicationResponse.error(
+                    ApiCode.AUTHENTICATION_FAILED.getCode(),
+                    "Authentication required",
+                    ApiCode.AUTHENTICATION_FAILED.getHttpStatus()
+                ),
+                HttpStatus.UNAUTHORIZED
+            );
+        }
+
+        ApplicationResponse<HostDashboardResponse> response = hostDashboardService.getHostDashboard(days, months, session);
+        return new ResponseEntity<>(response, response.isSuccess() ? HttpStatus.OK : response.getError().getStatus());
+    }
 }
@@ -1,8 +1,13 @@
 package com.imovel.api.booking.controller;
 
 import com.imovel.api.booking.request.AvailabilityCheckRequest;
+import com.imovel.api.booking.request.AvailabilityRangeRequest;
+import com.imovel.api.booking.request.AvailabilitySearchRequest;
 import com.imovel.api.booking.request.PropertyAvailabilityRequest;
 import com.imovel.api.booking.response.AvailabilityCheckResponse;
+import com.imovel.api.booking.response.AvailabilityRangeResponse;
+import com.imovel.api.booking.response.AvailablePropertyResponse;
+import com.imovel.api.booking.response.CompactCalendarResponse;
 import com.imovel.api.booking.response.PropertyAvailabilityResponse;
 import com.imovel.api.booking.service.PropertyAvailabilityService;
 import com.imovel.api.error.ApiCode;
@@ -106,6 +111,40 @@ public class PropertyAvailabilityController {
         }
     }
 
+    /**
+     * Search the properties free for a whole stay
+     */
+    @PostMapping("/search")
+    public ResponseEntity<ApplicationResponse<PaginationResult<AvailablePropertyResponse>>> searchAvailableProperties(
+            @Valid @RequestBody AvailabilitySearchRequest request,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "price") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+        final String TAG = "searchAvailableProperties";
+        ApiLogger.info(buildLogTag(TAG), "Received availability search from " + request.getCheckInDate() +
+                " to " + request.getCheckOutDate());
+
+        try {
+            Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+            Pageable pageable = PageRequest.of(page - 1, size, Sort.by(direction, sortBy).and(Sort.by("id")));
+
+            ApplicationResponse<PaginationResult<AvailablePropertyResponse>> response =
+                availabilityService.searchAvailableProperties(request, pageable);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            ApiLogger.error(buildLogTag(TAG), "Error searching available properties: " + e.getMessage(), e);
+            return new ResponseEntity<>(
+                ApplicationResponse.error(
+                    ApiCode.SYSTEM_ERROR.getCode(),
+                    "Failed to search available properties: " + e.getMessage(),
+                    ApiCode.SYSTEM_ERROR.getHttpStatus()
+                ),
+                HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+
     /**
      * Get availability for a property within a date range
      */
@@ -343,6 +382,74 @@ public class PropertyAvailabilityController {
         }
     }
 
+    /**
+     * Edit date ranges of a property calendar in one transaction
+     */
+    @PostMapping("/property/{propertyId}/ranges")
+    public ResponseEntity<ApplicationResponse<List<AvailabilityRangeResponse>>> editAvailabilityRanges(
+            @PathVariable Long propertyId,
+            @Valid @RequestBody List<AvailabilityRangeRequest> requests,
+            HttpSession session) {
+        final String TAG = "editAvailabilityRanges";
+        ApiLogger.info(buildLogTag(TAG), "Received availability range edit for property: " + propertyId);
+
+        ResponseEntity<ApplicationResponse<?>> authCheck = verifyAuthentication(session);
+        if (authCheck != null) {
+            return new ResponseEntity<>(
+                ApplicationResponse.error(
+                    ApiCode.AUTHENTICATION_FAILED.getCode(),
+                    "Authentication required",
+                    ApiCode.AUTHENTICATION_FAILED.getHttpStatus()
+                ),
+                HttpStatus.UNAUTHORIZED
+            );
+        }
+
+        try {
+            ApplicationResponse<List<AvailabilityRangeResponse>> response =
+                availabilityService.editAvailabilityRanges(propertyId, requests, session);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            ApiLogger.error(buildLogTag(TAG), "Error editing availability ranges: " + e.getMessage(), e);
+            return new ResponseEntity<>(
+                ApplicationResponse.error(
+                    ApiCode.SYSTEM_ERROR.getCode(),
+                    "Failed to edit availability ranges: " + e.getMessage(),
+                    ApiCode.SYSTEM_ERROR.getHttpStatus()
+                ),
+                HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+
+    /**
+     * Get availability ranges for a property
+     */
+    @GetMapping("/property/{propertyId}/ranges")
+    public ResponseEntity<ApplicationResponse<List<AvailabilityRangeResponse>>> getAvailabilityRanges(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        final String TAG = "getAvailabilityRanges";
+        ApiLogger.info(buildLogTag(TAG), "Received request to get availability ranges for property: " + propertyId);
+
+        try {
+            ApplicationResponse<List<AvailabilityRangeResponse>> response =
+                availabilityService.getAvailabilityRanges(propertyId, startDate, endDate);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            ApiLogger.error(buildLogTag(TAG), "Error retrieving availability ranges: " + e.getMessage(), e);
+            return new ResponseEntity<>(
+                ApplicationResponse.error(
+                    ApiCode.SYSTEM_ERROR.getCode(),
+                    "Failed to retrieve availability ranges: " + e.getMessage(),
+                    ApiCode.SYSTEM_ERROR.getHttpStatus()
+                ),
+                HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+
     /**
      * Get availability calendar for a property
      */
@@ -378,6 +485,35 @@ public class PropertyAvailabilityController {
         }
     }
 
+    /**
+     * Get the availability calendar for a property as a bitmap or as runs of nights
+     */
+    @GetMapping("/property/{propertyId}/calendar/compact")
+    public ResponseEntity<ApplicationResponse<CompactCalendarResponse>> getCompactCalendar(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = CompactCalendarResponse.FORMAT_BITMAP) String format) {
+        final String TAG = "getCompactCalendar";
+        ApiLogger.info(buildLogTag(TAG), "Received request to get compact calendar for property: " + propertyId);
+
+        try {
+            ApplicationResponse<CompactCalendarResponse> response =
+                availabilityService.getCompactCalendar(propertyId, startDate, endDate, format);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            ApiLogger.error(buildLogTag(TAG), "Error retrieving compact calendar: " + e.getMessage(), e);
+            return new ResponseEntity<>(
+                ApplicationResponse.error(
+                    ApiCode.SYSTEM_ERROR.getCode(),
+                    "Failed to retrieve compact calendar: " + e.getMessage(),
+                    ApiCode.SYSTEM_ERROR.getHttpStatus()
+                ),
+                HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+
     /**
      * Get blocked dates for a property
      */
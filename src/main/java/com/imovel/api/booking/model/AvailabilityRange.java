@@ -0,0 +1,237 @@
+package com.imovel.api.booking.model;
+
+import com.imovel.api.model.Property;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Calendar settings shared by the nights {@code [startDate, endDate)} of a property.
+ * <p>
+ * Ranges of a property never overlap, and neighbouring ranges always differ in their terms. A
+ * {@link PropertyAvailability} row for a night takes precedence over the range that covers it.
+ */
+@Entity
+@Table(name = "property_availability_ranges",
+       indexes = @Index(name = "idx_availability_ranges_property_start", columnList = "property_id, start_date"))
+public class AvailabilityRange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "property_id", nullable = false)
+    private Property property;
+
+    @NotNull
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Exclusive
+    @NotNull
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @NotNull
+    @Column(name = "is_available")
+    private Boolean isAvailable = true;
+
+    @Column(name = "price")
+    private BigDecimal price;
+
+    @PositiveOrZero
+    @Column(name = "min_stay")
+    private Integer minStay = 1;
+
+    @PositiveOrZero
+    @Column(name = "max_stay")
+    private Integer maxStay = 365;
+
+    @Column(name = "blocked_reason")
+    private String blockedReason;
+
+    @Column(name = "is_instant_book")
+    private Boolean isInstantBook = false;
+
+    @Column(name = "check_in_allowed")
+    private Boolean checkInAllowed = true;
+
+    @Column(name = "check_out_allowed")
+    private Boolean checkOutAllowed = true;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AvailabilityRange() {}
+
+    public AvailabilityRange(Property property, LocalDate startDate, LocalDate endDate, AvailabilityTerms terms) {
+        this.property = property;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        terms.applyTo(this);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public void setProperty(Property property) {
+        this.property = property;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getMinStay() {
+        return minStay;
+    }
+
+    public void setMinStay(Integer minStay) {
+        this.minStay = minStay;
+    }
+
+    public Integer getMaxStay() {
+        return maxStay;
+    }
+
+    public void setMaxStay(Integer maxStay) {
+        this.maxStay = maxStay;
+    }
+
+    public String getBlockedReason() {
+        return blockedReason;
+    }
+
+    public void setBlockedReason(String blockedReason) {
+        this.blockedReason = blockedReason;
+    }
+
+    public Boolean getIsInstantBook() {
+        return isInstantBook;
+    }
+
+    public void setIsInstantBook(Boolean isInstantBook) {
+        this.isInstantBook = isInstantBook;
+    }
+
+    public Boolean getCheckInAllowed() {
+        return checkInAllowed;
+    }
+
+    public void setCheckInAllowed(Boolean checkInAllowed) {
+        this.checkInAllowed = checkInAllowed;
+    }
+
+    public Boolean getCheckOutAllowed() {
+        return checkOutAllowed;
+    }
+
+    public void setCheckOutAllowed(Boolean checkOutAllowed) {
+        this.checkOutAllowed = checkOutAllowed;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AvailabilityRange that = (AvailabilityRange) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilityRange{" +
+                "id=" + id +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                ", isAvailable=" + isAvailable +
+                ", price=" + price +
+                '}';
+    }
+}
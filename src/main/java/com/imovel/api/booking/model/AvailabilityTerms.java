@@ -0,0 +1,179 @@
+package com.imovel.api.booking.model;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Immutable calendar settings of a night or of a run of nights: availability, price and stay rules.
+ * Two runs with equal terms next to each other are stored as one range.
+ */
+public final class AvailabilityTerms {
+
+    /**
+     * Terms of a night that has never been edited, as a new {@link PropertyAvailability} has them
+     */
+    public static final AvailabilityTerms DEFAULT = new AvailabilityTerms(true, null, 1, 365, null, false, true, true, null);
+
+    private final Boolean isAvailable;
+    private final BigDecimal price;
+    private final Integer minStay;
+    private final Integer maxStay;
+    private final String blockedReason;
+    private final Boolean isInstantBook;
+    private final Boolean checkInAllowed;
+    private final Boolean checkOutAllowed;
+    private final String notes;
+
+    public AvailabilityTerms(Boolean isAvailable, BigDecimal price, Integer minStay, Integer maxStay,
+                             String blockedReason, Boolean isInstantBook, Boolean checkInAllowed,
+                             Boolean checkOutAllowed, String notes) {
+        this.isAvailable = isAvailable;
+        this.price = price;
+        this.minStay = minStay;
+        this.maxStay = maxStay;
+        this.blockedReason = blockedReason;
+        this.isInstantBook = isInstantBook;
+        this.checkInAllowed = checkInAllowed;
+        this.checkOutAllowed = checkOutAllowed;
+        this.notes = notes;
+    }
+
+    public static AvailabilityTerms of(PropertyAvailability availability) {
+        return new AvailabilityTerms(availability.getIsAvailable(), availability.getPrice(),
+                availability.getMinStay(), availability.getMaxStay(), availability.getBlockedReason(),
+                availability.getIsInstantBook(), availability.getCheckInAllowed(),
+                availability.getCheckOutAllowed(), availability.getNotes());
+    }
+
+    public static AvailabilityTerms of(AvailabilityRange range) {
+        return new AvailabilityTerms(range.getIsAvailable(), range.getPrice(), range.getMinStay(),
+                range.getMaxStay(), range.getBlockedReason(), range.getIsInstantBook(),
+                range.getCheckInAllowed(), range.getCheckOutAllowed(), range.getNotes());
+    }
+
+    /**
+     * Copy these terms onto a night
+     */
+    public void applyTo(PropertyAvailability availability) {
+        availability.setIsAvailable(isAvailable);
+        availability.setPrice(price);
+        availability.setMinStay(minStay);
+        availability.setMaxStay(maxStay);
+        availability.setBlockedReason(blockedReason);
+        availability.setIsInstantBook(isInstantBook);
+        availability.setCheckInAllowed(checkInAllowed);
+        availability.setCheckOutAllowed(checkOutAllowed);
+        availability.setNotes(notes);
+    }
+
+    /**
+     * Copy these terms onto a range
+     */
+    public void applyTo(AvailabilityRange range) {
+        range.setIsAvailable(isAvailable);
+        range.setPrice(price);
+        range.setMinStay(minStay);
+        range.setMaxStay(maxStay);
+        range.setBlockedReason(blockedReason);
+        range.setIsInstantBook(isInstantBook);
+        range.setCheckInAllowed(checkInAllowed);
+        range.setCheckOutAllowed(checkOutAllowed);
+        range.setNotes(notes);
+    }
+
+    public AvailabilityTerms blocked(String reason) {
+        return new AvailabilityTerms(false, price, minStay, maxStay, reason, isInstantBook,
+                checkInAllowed, checkOutAllowed, notes);
+    }
+
+    public AvailabilityTerms released() {
+        return new AvailabilityTerms(true, price, minStay, maxStay, null, isInstantBook,
+                checkInAllowed, checkOutAllowed, notes);
+    }
+
+    /**
+     * These terms with every non-null value of the patch applied
+     */
+    public AvailabilityTerms patchedWith(AvailabilityTerms patch) {
+        return new AvailabilityTerms(
+                patch.isAvailable != null ? patch.isAvailable : isAvailable,
+                patch.price != null ? patch.price : price,
+                patch.minStay != null ? patch.minStay : minStay,
+                patch.maxStay != null ? patch.maxStay : maxStay,
+                patch.blockedReason != null ? patch.blockedReason : blockedReason,
+                patch.isInstantBook != null ? patch.isInstantBook : isInstantBook,
+                patch.checkInAllowed != null ? patch.checkInAllowed : checkInAllowed,
+                patch.checkOutAllowed != null ? patch.checkOutAllowed : checkOutAllowed,
+                patch.notes != null ? patch.notes : notes);
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Integer getMinStay() {
+        return minStay;
+    }
+
+    public Integer getMaxStay() {
+        return maxStay;
+    }
+
+    public String getBlockedReason() {
+        return blockedReason;
+    }
+
+    public Boolean getIsInstantBook() {
+        return isInstantBook;
+    }
+
+    public Boolean getCheckInAllowed() {
+        return checkInAllowed;
+    }
+
+    public Boolean getCheckOutAllowed() {
+        return checkOutAllowed;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    // Prices are compared by value, so 120 and 120.00 do not split a range
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AvailabilityTerms that = (AvailabilityTerms) o;
+        return Objects.equals(isAvailable, that.isAvailable)
+                && (price == null ? that.price == null : that.price != null && price.compareTo(that.price) == 0)
+                && Objects.equals(minStay, that.minStay)
+                && Objects.equals(maxStay, that.maxStay)
+                && Objects.equals(blockedReason, that.blockedReason)
+                && Objects.equals(isInstantBook, that.isInstantBook)
+                && Objects.equals(checkInAllowed, that.checkInAllowed)
+                && Objects.equals(checkOutAllowed, that.checkOutAllowed)
+                && Objects.equals(notes, that.notes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(isAvailable, price == null ? null : price.stripTrailingZeros(), minStay, maxStay,
+                blockedReason, isInstantBook, checkInAllowed, checkOutAllowed, notes);
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilityTerms{" +
+                "isAvailable=" + isAvailable +
+                ", price=" + price +
+                ", minStay=" + minStay +
+                ", maxStay=" + maxStay +
+                ", blockedReason='" + blockedReason + '\'' +
+                '}';
+    }
+}
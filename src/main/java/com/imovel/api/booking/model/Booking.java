@@ -17,11 +17,17 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings",
+       indexes = {
+           @Index(name = "idx_bookings_property_dates", columnList = "property_id, check_in_date, check_out_date"),
+           @Index(name = "idx_bookings_host_check_in", columnList = "host_id, check_in_date"),
+           @Index(name = "idx_bookings_host_check_out", columnList = "host_id, check_out_date")
+       })
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
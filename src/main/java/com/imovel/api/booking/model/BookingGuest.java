@@ -1,5 +1,6 @@
 package com.imovel.api.booking.model;
 
+import com.imovel.api.booking.util.GuestLookupKeys;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -8,14 +9,24 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 @Entity
-@Table(name = "booking_guests")
+@Table(name = "booking_guests",
+       indexes = {
+           @Index(name = "idx_booking_guests_booking", columnList = "booking_id"),
+           @Index(name = "idx_booking_guests_host_created", columnList = "host_id, created_at"),
+           @Index(name = "idx_booking_guests_property_created", columnList = "property_id, created_at"),
+           @Index(name = "idx_booking_guests_email_normalized", columnList = "email_normalized"),
+           @Index(name = "idx_booking_guests_phone_e164", columnList = "phone_e164")
+       })
 public class BookingGuest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_guests_seq")
+    @SequenceGenerator(name = "booking_guests_seq", sequenceName = "booking_guests_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -34,6 +45,26 @@ public class BookingGuest {
     @Column(name = "phone")
     private String phone;
 
+    // Copies of the booking's property and host, so per-host lookups need no join
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(name = "host_id")
+    private Long hostId;
+
+    // Lookup keys derived from email, phone and full name by GuestLookupKeys
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
+    @Column(name = "phone_e164", length = 32)
+    private String phoneE164;
+
+    // Primary key is (gram, guest_id), which also serves the n-gram lookups
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "booking_guest_name_grams", joinColumns = @JoinColumn(name = "guest_id"))
+    @Column(name = "gram", length = GuestLookupKeys.GRAM_LENGTH, nullable = false)
+    private Set<String> nameGrams = new HashSet<>();
+
     @Column(name = "age")
     private Integer age;
 
@@ -64,10 +95,19 @@ public class BookingGuest {
     public BookingGuest() {}
 
     public BookingGuest(Booking booking, String fullName, String email, String phone) {
-        this.booking = booking;
-        this.fullName = fullName;
-        this.email = email;
-        this.phone = phone;
+        setBooking(booking);
+        setFullName(fullName);
+        setEmail(email);
+        setPhone(phone);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void copyBookingScope() {
+        if (booking != null) {
+            propertyId = booking.getProperty() != null ? booking.getProperty().getId() : null;
+            hostId = booking.getHost() != null ? booking.getHost().getId() : null;
+        }
     }
 
     // Getters and Setters
@@ -93,6 +133,8 @@ public class BookingGuest {
 
     public void setFullName(String fullName) {
         this.fullName = fullName;
+        this.nameGrams.clear();
+        this.nameGrams.addAll(GuestLookupKeys.nameGrams(fullName));
     }
 
     public String getEmail() {
@@ -101,6 +143,7 @@ public class BookingGuest {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = GuestLookupKeys.email(email);
     }
 
     public String getPhone() {
@@ -109,6 +152,27 @@ public class BookingGuest {
 
     public void setPhone(String phone) {
         this.phone = phone;
+        this.phoneE164 = GuestLookupKeys.phone(phone);
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public Long getHostId() {
+        return hostId;
+    }
+
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+
+    public String getPhoneE164() {
+        return phoneE164;
+    }
+
+    public Set<String> getNameGrams() {
+        return nameGrams;
     }
 
     public Integer getAge() {
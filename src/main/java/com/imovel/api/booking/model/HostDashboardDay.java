@@ -0,0 +1,118 @@
+package com.imovel.api.booking.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Host dashboard read model: what happens on one day across a host's properties.
+ * <p>
+ * Rows are derived from bookings and booking payments by {@code HostDashboardProjector} and are
+ * only stored for days with activity. Rows are kept per day rather than per month because the
+ * upcoming arrivals and departures need day precision for any horizon, and because a booking
+ * change then only recomputes the days between its old and new dates. The monthly totals are
+ * summed from at most a month of rows per host when the dashboard is read.
+ */
+@Entity
+@Table(name = "host_dashboard_days",
+       indexes = @Index(name = "uk_host_dashboard_days_host_day", columnList = "host_id, activity_date", unique = true))
+public class HostDashboardDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "host_dashboard_days_seq")
+    @SequenceGenerator(name = "host_dashboard_days_seq", sequenceName = "host_dashboard_days_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "host_id", nullable = false)
+    private Long hostId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate day;
+
+    // Confirmed bookings checking in on this day
+    @Column(name = "arrivals", nullable = false)
+    private int arrivals;
+
+    // Checked-in bookings checking out on this day
+    @Column(name = "departures", nullable = false)
+    private int departures;
+
+    // Booked nights starting on this day
+    @Column(name = "occupied_nights", nullable = false)
+    private int occupiedNights;
+
+    // Completed payments received on this day
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    public HostDashboardDay() {
+    }
+
+    public HostDashboardDay(Long hostId, LocalDate day) {
+        this.hostId = hostId;
+        this.day = day;
+    }
+
+    public boolean isEmpty() {
+        return arrivals == 0 && departures == 0 && occupiedNights == 0 && revenue.signum() == 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getHostId() {
+        return hostId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getArrivals() {
+        return arrivals;
+    }
+
+    public void setArrivals(int arrivals) {
+        this.arrivals = arrivals;
+    }
+
+    public int getDepartures() {
+        return departures;
+    }
+
+    public void setDepartures(int departures) {
+        this.departures = departures;
+    }
+
+    public int getOccupiedNights() {
+        return occupiedNights;
+    }
+
+    public void setOccupiedNights(int occupiedNights) {
+        this.occupiedNights = occupiedNights;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HostDashboardDay that = (HostDashboardDay) o;
+        return Objects.equals(hostId, that.hostId) && Objects.equals(day, that.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hostId, day);
+    }
+}
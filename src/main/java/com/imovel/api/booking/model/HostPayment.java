@@ -0,0 +1,26 @@
+package com.imovel.api.booking.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Date and amount of a completed payment for one of a host's bookings
+ */
+public final class HostPayment {
+
+    private final LocalDateTime paymentDate;
+    private final BigDecimal amount;
+
+    public HostPayment(LocalDateTime paymentDate, BigDecimal amount) {
+        this.paymentDate = paymentDate;
+        this.amount = amount;
+    }
+
+    public LocalDateTime getPaymentDate() {
+        return paymentDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
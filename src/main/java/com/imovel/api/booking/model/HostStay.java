@@ -0,0 +1,33 @@
+package com.imovel.api.booking.model;
+
+import com.imovel.api.booking.model.enums.BookingStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Dates and status of one of a host's bookings, as the host dashboard projection reads them
+ */
+public final class HostStay {
+
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final BookingStatus status;
+
+    public HostStay(LocalDate checkInDate, LocalDate checkOutDate, BookingStatus status) {
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.status = status;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+}
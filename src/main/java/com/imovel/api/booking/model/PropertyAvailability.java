@@ -14,11 +14,14 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "property_availability", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"property_id", "date"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"property_id", "date"}),
+       indexes = @Index(name = "idx_property_availability_property_status_date",
+                        columnList = "property_id, is_available, date"))
 public class PropertyAvailability {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_availability_seq")
+    @SequenceGenerator(name = "property_availability_seq", sequenceName = "property_availability_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
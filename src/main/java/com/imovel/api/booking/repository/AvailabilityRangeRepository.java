@@ -0,0 +1,38 @@
+package com.imovel.api.booking.repository;
+
+import com.imovel.api.booking.model.AvailabilityRange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AvailabilityRangeRepository extends JpaRepository<AvailabilityRange, Long> {
+
+    // Find ranges covering at least one night of [startDate, endDate)
+    @Query("SELECT ar FROM AvailabilityRange ar WHERE ar.property.id = :propertyId " +
+           "AND ar.startDate < :endDate AND ar.endDate > :startDate ORDER BY ar.startDate")
+    List<AvailabilityRange> findOverlapping(@Param("propertyId") Long propertyId,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    // Find ranges with the given availability covering at least one night of [startDate, endDate)
+    @Query("SELECT ar FROM AvailabilityRange ar WHERE ar.property.id = :propertyId " +
+           "AND ar.startDate < :endDate AND ar.endDate > :startDate AND ar.isAvailable = :isAvailable " +
+           "AND (:instantBookOnly = false OR ar.isInstantBook = true) ORDER BY ar.startDate")
+    List<AvailabilityRange> findOverlappingWithStatus(@Param("propertyId") Long propertyId,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate,
+                                                      @Param("isAvailable") Boolean isAvailable,
+                                                      @Param("instantBookOnly") boolean instantBookOnly);
+
+    // Find ranges overlapping or touching [startDate, endDate), so that edits can merge with their neighbours
+    @Query("SELECT ar FROM AvailabilityRange ar WHERE ar.property.id = :propertyId " +
+           "AND ar.startDate <= :endDate AND ar.endDate >= :startDate ORDER BY ar.startDate")
+    List<AvailabilityRange> findTouching(@Param("propertyId") Long propertyId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+}
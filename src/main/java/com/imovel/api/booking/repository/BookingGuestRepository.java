@@ -1,17 +1,26 @@
 package com.imovel.api.booking.repository;
 
 import com.imovel.api.booking.model.BookingGuest;
+import com.imovel.api.booking.util.GuestLookupKeys;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface BookingGuestRepository extends JpaRepository<BookingGuest, Long> {
 
+    // Guests whose name has every one of the given n-grams, found through the n-gram index
+    String GUESTS_WITH_ALL_GRAMS = "SELECT g.id FROM BookingGuest g JOIN g.nameGrams gram " +
+                                   "WHERE gram IN :grams GROUP BY g.id HAVING COUNT(gram) = :gramCount";
+
     // Find all guests for a booking
     @Query("SELECT bg FROM BookingGuest bg WHERE bg.booking.id = :bookingId ORDER BY bg.isPrimaryGuest DESC, bg.createdAt")
     List<BookingGuest> findByBookingId(@Param("bookingId") Long bookingId);
@@ -24,13 +33,21 @@ public interface BookingGuestRepository extends JpaRepository<BookingGuest, Long
     @Query("SELECT bg FROM BookingGuest bg WHERE bg.booking.id = :bookingId AND bg.isPrimaryGuest = false ORDER BY bg.createdAt")
     List<BookingGuest> findAdditionalGuestsByBookingId(@Param("bookingId") Long bookingId);
 
-    // Find guest by email
-    @Query("SELECT bg FROM BookingGuest bg WHERE bg.email = :email ORDER BY bg.createdAt DESC")
-    List<BookingGuest> findByEmail(@Param("email") String email);
+    // Find guest by email, ignoring case and surrounding blanks
+    default List<BookingGuest> findByEmail(String email) {
+        return findByEmailNormalized(GuestLookupKeys.email(email));
+    }
+
+    @Query("SELECT bg FROM BookingGuest bg WHERE bg.emailNormalized = :email ORDER BY bg.createdAt DESC")
+    List<BookingGuest> findByEmailNormalized(@Param("email") String email);
+
+    // Find guest by phone, ignoring formatting
+    default List<BookingGuest> findByPhone(String phone) {
+        return findByPhoneE164(GuestLookupKeys.phone(phone));
+    }
 
-    // Find guest by phone
-    @Query("SELECT bg FROM BookingGuest bg WHERE bg.phone = :phone ORDER BY bg.createdAt DESC")
-    List<BookingGuest> findByPhone(@Param("phone") String phone);
+    @Query("SELECT bg FROM BookingGuest bg WHERE bg.phoneE164 = :phone ORDER BY bg.createdAt DESC")
+    List<BookingGuest> findByPhoneE164(@Param("phone") String phone);
 
     // Find guests with special requests
     @Query("SELECT bg FROM BookingGuest bg WHERE bg.specialRequests IS NOT NULL AND bg.specialRequests != '' ORDER BY bg.createdAt DESC")
@@ -45,13 +62,23 @@ public interface BookingGuestRepository extends JpaRepository<BookingGuest, Long
     List<BookingGuest> findGuestsByAgeRange(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
 
     // Find guests by property
-    @Query("SELECT bg FROM BookingGuest bg WHERE bg.booking.property.id = :propertyId ORDER BY bg.createdAt DESC")
+    @Query("SELECT bg FROM BookingGuest bg WHERE bg.propertyId = :propertyId ORDER BY bg.createdAt DESC")
     List<BookingGuest> findByPropertyId(@Param("propertyId") Long propertyId);
 
+    // Find guests by property, a page at a time
+    @Query(value = "SELECT bg FROM BookingGuest bg WHERE bg.propertyId = :propertyId ORDER BY bg.createdAt DESC, bg.id DESC",
+           countQuery = "SELECT COUNT(bg) FROM BookingGuest bg WHERE bg.propertyId = :propertyId")
+    Page<BookingGuest> findByPropertyId(@Param("propertyId") Long propertyId, Pageable pageable);
+
     // Find guests by host
-    @Query("SELECT bg FROM BookingGuest bg WHERE bg.booking.host.id = :hostId ORDER BY bg.createdAt DESC")
+    @Query("SELECT bg FROM BookingGuest bg WHERE bg.hostId = :hostId ORDER BY bg.createdAt DESC")
     List<BookingGuest> findByHostId(@Param("hostId") Long hostId);
 
+    // Find guests by host, a page at a time
+    @Query(value = "SELECT bg FROM BookingGuest bg WHERE bg.hostId = :hostId ORDER BY bg.createdAt DESC, bg.id DESC",
+           countQuery = "SELECT COUNT(bg) FROM BookingGuest bg WHERE bg.hostId = :hostId")
+    Page<BookingGuest> findByHostId(@Param("hostId") Long hostId, Pageable pageable);
+
     // Count guests for a booking
     @Query("SELECT COUNT(bg) FROM BookingGuest bg WHERE bg.booking.id = :bookingId")
     long countGuestsByBookingId(@Param("bookingId") Long bookingId);
@@ -72,9 +99,45 @@ public interface BookingGuestRepository extends JpaRepository<BookingGuest, Long
     @Query("SELECT bg FROM BookingGuest bg WHERE bg.emergencyContactName IS NULL OR bg.emergencyContactPhone IS NULL ORDER BY bg.createdAt DESC")
     List<BookingGuest> findGuestsWithoutEmergencyContacts();
 
-    // Search guests by name (case-insensitive)
-    @Query("SELECT bg FROM BookingGuest bg WHERE LOWER(bg.fullName) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY bg.createdAt DESC")
-    List<BookingGuest> searchByName(@Param("name") String name);
+    // Search guests by name (case-insensitive); terms of at least three characters go through the name n-grams
+    default List<BookingGuest> searchByName(String name) {
+        Set<String> grams = GuestLookupKeys.nameGrams(name);
+        if (grams.isEmpty()) {
+            return scanByName(GuestLookupKeys.name(name));
+        }
+        return searchByNameGrams(GuestLookupKeys.name(name), grams, grams.size());
+    }
+
+    @Query("SELECT bg FROM BookingGuest bg WHERE LOWER(bg.fullName) LIKE CONCAT('%', :name, '%') ORDER BY bg.createdAt DESC")
+    List<BookingGuest> scanByName(@Param("name") String name);
+
+    @Query("SELECT bg FROM BookingGuest bg WHERE bg.id IN (" + GUESTS_WITH_ALL_GRAMS + ") " +
+           "AND LOWER(bg.fullName) LIKE CONCAT('%', :name, '%') ORDER BY bg.createdAt DESC")
+    List<BookingGuest> searchByNameGrams(@Param("name") String name, @Param("grams") Collection<String> grams,
+                                         @Param("gramCount") long gramCount);
+
+    // Search a host's guests by name (case-insensitive), a page at a time
+    default Page<BookingGuest> searchByNameForHost(Long hostId, String name, Pageable pageable) {
+        Set<String> grams = GuestLookupKeys.nameGrams(name);
+        if (grams.isEmpty()) {
+            return scanByNameForHost(hostId, GuestLookupKeys.name(name), pageable);
+        }
+        return searchByNameGramsForHost(hostId, GuestLookupKeys.name(name), grams, grams.size(), pageable);
+    }
+
+    @Query(value = "SELECT bg FROM BookingGuest bg WHERE bg.hostId = :hostId " +
+                   "AND LOWER(bg.fullName) LIKE CONCAT('%', :name, '%') ORDER BY bg.createdAt DESC, bg.id DESC",
+           countQuery = "SELECT COUNT(bg) FROM BookingGuest bg WHERE bg.hostId = :hostId " +
+                        "AND LOWER(bg.fullName) LIKE CONCAT('%', :name, '%')")
+    Page<BookingGuest> scanByNameForHost(@Param("hostId") Long hostId, @Param("name") String name, Pageable pageable);
+
+    @Query(value = "SELECT bg FROM BookingGuest bg WHERE bg.hostId = :hostId AND bg.id IN (" + GUESTS_WITH_ALL_GRAMS + ") " +
+                   "AND LOWER(bg.fullName) LIKE CONCAT('%', :name, '%') ORDER BY bg.createdAt DESC, bg.id DESC",
+           countQuery = "SELECT COUNT(bg) FROM BookingGuest bg WHERE bg.hostId = :hostId AND bg.id IN (" + GUESTS_WITH_ALL_GRAMS + ") " +
+                        "AND LOWER(bg.fullName) LIKE CONCAT('%', :name, '%')")
+    Page<BookingGuest> searchByNameGramsForHost(@Param("hostId") Long hostId, @Param("name") String name,
+                                                @Param("grams") Collection<String> grams,
+                                                @Param("gramCount") long gramCount, Pageable pageable);
 
     // Find frequent guests (guests who have made multiple bookings)
     @Query("SELECT bg.email, COUNT(DISTINCT bg.booking.id) as bookingCount FROM BookingGuest bg " +
@@ -94,14 +157,14 @@ public interface BookingGuestRepository extends JpaRepository<BookingGuest, Long
     @Query("SELECT COUNT(DISTINCT bg.email), AVG(bg.age), " +
            "COUNT(CASE WHEN bg.specialRequests IS NOT NULL AND bg.specialRequests != '' THEN 1 END), " +
            "COUNT(CASE WHEN bg.dietaryRestrictions IS NOT NULL AND bg.dietaryRestrictions != '' THEN 1 END) " +
-           "FROM BookingGuest bg WHERE bg.booking.property.id = :propertyId")
+           "FROM BookingGuest bg WHERE bg.propertyId = :propertyId")
     Object[] getGuestStatisticsForProperty(@Param("propertyId") Long propertyId);
 
     // Get guest statistics for a host
     @Query("SELECT COUNT(DISTINCT bg.email), AVG(bg.age), " +
            "COUNT(CASE WHEN bg.specialRequests IS NOT NULL AND bg.specialRequests != '' THEN 1 END), " +
            "COUNT(CASE WHEN bg.dietaryRestrictions IS NOT NULL AND bg.dietaryRestrictions != '' THEN 1 END) " +
-           "FROM BookingGuest bg WHERE bg.booking.host.id = :hostId")
+           "FROM BookingGuest bg WHERE bg.hostId = :hostId")
     Object[] getGuestStatisticsForHost(@Param("hostId") Long hostId);
 
     // Find guests with incomplete information
@@ -120,7 +183,7 @@ public interface BookingGuestRepository extends JpaRepository<BookingGuest, Long
 
     // Find guests by name pattern and booking property
     @Query("SELECT bg FROM BookingGuest bg WHERE LOWER(bg.fullName) LIKE LOWER(CONCAT('%', :namePattern, '%')) " +
-           "AND bg.booking.property.id = :propertyId ORDER BY bg.createdAt DESC")
+           "AND bg.propertyId = :propertyId ORDER BY bg.createdAt DESC")
     List<BookingGuest> findGuestsByNamePatternAndProperty(@Param("namePattern") String namePattern, 
                                                          @Param("propertyId") Long propertyId);
 
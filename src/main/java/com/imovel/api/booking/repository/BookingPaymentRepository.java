@@ -1,6 +1,7 @@
 package com.imovel.api.booking.repository;
 
 import com.imovel.api.booking.model.BookingPayment;
+import com.imovel.api.booking.model.HostPayment;
 import com.imovel.api.booking.model.enums.PaymentStatus;
 import com.imovel.api.booking.model.enums.PaymentType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -176,4 +177,17 @@ public interface BookingPaymentRepository extends JpaRepository<BookingPayment,
     List<BookingPayment> findPotentialDuplicatePayments(@Param("bookingId") Long bookingId,
                                                        @Param("amount") BigDecimal amount,
                                                        @Param("recentTime") LocalDateTime recentTime);
+
+    // Completed payments of a host's bookings received in [from, to), for the host dashboard
+    @Query("SELECT new com.imovel.api.booking.model.HostPayment(bp.paymentDate, bp.amount) FROM BookingPayment bp " +
+           "WHERE bp.booking.host.id = :hostId AND bp.paymentStatus = 'COMPLETED' " +
+           "AND bp.paymentDate >= :from AND bp.paymentDate < :to")
+    List<HostPayment> findCompletedHostPayments(@Param("hostId") Long hostId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    // Every completed payment of a host's bookings, for rebuilding the host dashboard
+    @Query("SELECT new com.imovel.api.booking.model.HostPayment(bp.paymentDate, bp.amount) FROM BookingPayment bp " +
+           "WHERE bp.booking.host.id = :hostId AND bp.paymentStatus = 'COMPLETED' AND bp.paymentDate IS NOT NULL")
+    List<HostPayment> findAllCompletedHostPayments(@Param("hostId") Long hostId);
 }
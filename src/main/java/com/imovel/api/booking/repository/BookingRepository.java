@@ -1,7 +1,9 @@
 package com.imovel.api.booking.repository;
 
 import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.HostStay;
 import com.imovel.api.booking.model.enums.BookingStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -68,6 +70,27 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findUpcomingBookings(@Param("startDate") LocalDate startDate,
                                       @Param("endDate") LocalDate endDate);
 
+    // Bookings of a host with a given status checking in within a date range. guest.wishlist is
+    // fetched too, as the inverse one-to-one would otherwise cost one select per guest
+    @EntityGraph(attributePaths = {"property", "guest", "guest.wishlist"})
+    @Query("SELECT b FROM Booking b WHERE b.host.id = :hostId AND b.status = :status " +
+           "AND b.checkInDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY b.checkInDate")
+    List<Booking> findHostCheckIns(@Param("hostId") Long hostId,
+                                   @Param("status") BookingStatus status,
+                                   @Param("startDate") LocalDate startDate,
+                                   @Param("endDate") LocalDate endDate);
+
+    // Bookings of a host with a given status checking out within a date range
+    @EntityGraph(attributePaths = {"property", "guest", "guest.wishlist"})
+    @Query("SELECT b FROM Booking b WHERE b.host.id = :hostId AND b.status = :status " +
+           "AND b.checkOutDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY b.checkOutDate")
+    List<Booking> findHostCheckOuts(@Param("hostId") Long hostId,
+                                    @Param("status") BookingStatus status,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
     // Find bookings requiring check-out today
     @Query("SELECT b FROM Booking b WHERE b.status = 'CHECKED_IN' " +
            "AND b.checkOutDate = :date")
@@ -133,4 +156,20 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.status IN ('PENDING', 'CONFIRMED') " +
            "AND b.checkInDate > :currentDate ORDER BY b.checkInDate")
     List<Booking> findCancellableBookings(@Param("currentDate") LocalDate currentDate);
+
+    // Stays of a host that arrive, depart or are occupied within a date range, for the host dashboard
+    @Query("SELECT new com.imovel.api.booking.model.HostStay(b.checkInDate, b.checkOutDate, b.status) FROM Booking b " +
+           "WHERE b.host.id = :hostId AND b.checkInDate <= :to AND b.checkOutDate >= :from")
+    List<HostStay> findHostStays(@Param("hostId") Long hostId,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    // Every stay of a host, for rebuilding the host dashboard
+    @Query("SELECT new com.imovel.api.booking.model.HostStay(b.checkInDate, b.checkOutDate, b.status) FROM Booking b " +
+           "WHERE b.host.id = :hostId")
+    List<HostStay> findAllHostStays(@Param("hostId") Long hostId);
+
+    // Hosts with at least one booking
+    @Query("SELECT DISTINCT b.host.id FROM Booking b WHERE b.host IS NOT NULL ORDER BY b.host.id")
+    List<Long> findHostIds();
 }
@@ -0,0 +1,37 @@
+package com.imovel.api.booking.repository;
+
+import com.imovel.api.booking.model.HostDashboardDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HostDashboardDayRepository extends JpaRepository<HostDashboardDay, Long> {
+
+    // A host's dashboard days in a range; served by the (host_id, activity_date) index
+    @Query("SELECT d FROM HostDashboardDay d WHERE d.hostId = :hostId AND d.day BETWEEN :from AND :to ORDER BY d.day")
+    List<HostDashboardDay> findByHostIdAndDayBetween(@Param("hostId") Long hostId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM HostDashboardDay d WHERE d.hostId = :hostId AND d.day BETWEEN :from AND :to")
+    int deleteByHostIdAndDayBetween(@Param("hostId") Long hostId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM HostDashboardDay d WHERE d.hostId = :hostId")
+    int deleteByHostId(@Param("hostId") Long hostId);
+
+    // Rows of hosts that no longer have any booking
+    @Modifying
+    @Query("DELETE FROM HostDashboardDay d WHERE d.hostId NOT IN " +
+           "(SELECT b.host.id FROM Booking b WHERE b.host IS NOT NULL)")
+    int deleteOrphanedHosts();
+}
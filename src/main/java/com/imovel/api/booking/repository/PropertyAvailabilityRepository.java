@@ -1,6 +1,8 @@
 package com.imovel.api.booking.repository;
 
 import com.imovel.api.booking.model.PropertyAvailability;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -27,6 +29,62 @@ public interface PropertyAvailabilityRepository extends JpaRepository<PropertyAv
                                                            @Param("startDate") LocalDate startDate,
                                                            @Param("endDate") LocalDate endDate);
 
+    // Page through the availability of a property within a date range
+    @Query(value = "SELECT pa FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
+                   "AND pa.date BETWEEN :startDate AND :endDate ORDER BY pa.date",
+           countQuery = "SELECT COUNT(pa) FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
+                        "AND pa.date BETWEEN :startDate AND :endDate")
+    Page<PropertyAvailability> findByPropertyIdAndDateRange(@Param("propertyId") Long propertyId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate,
+                                                           Pageable pageable);
+
+    // Find dates with the given availability within a date range
+    @Query("SELECT pa FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
+           "AND pa.date BETWEEN :startDate AND :endDate AND pa.isAvailable = :isAvailable " +
+           "AND (:instantBookOnly = false OR pa.isInstantBook = true) ORDER BY pa.date")
+    List<PropertyAvailability> findByPropertyIdAndDateRangeAndStatus(@Param("propertyId") Long propertyId,
+                                                                    @Param("startDate") LocalDate startDate,
+                                                                    @Param("endDate") LocalDate endDate,
+                                                                    @Param("isAvailable") Boolean isAvailable,
+                                                                    @Param("instantBookOnly") boolean instantBookOnly);
+
+    // Count the dates of a date range that no availability range covers
+    @Query("SELECT COUNT(pa) FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
+           "AND pa.date BETWEEN :startDate AND :endDate AND NOT EXISTS (SELECT ar.id FROM AvailabilityRange ar " +
+           "WHERE ar.property.id = :propertyId AND ar.startDate <= pa.date AND ar.endDate > pa.date)")
+    long countOutsideRanges(@Param("propertyId") Long propertyId,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
+    // Find the dates of a date range that no availability range covers
+    @Query("SELECT pa FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
+           "AND pa.date BETWEEN :startDate AND :endDate AND NOT EXISTS (SELECT ar.id FROM AvailabilityRange ar " +
+           "WHERE ar.property.id = :propertyId AND ar.startDate <= pa.date AND ar.endDate > pa.date) ORDER BY pa.date")
+    List<PropertyAvailability> findOutsideRanges(@Param("propertyId") Long propertyId,
+                                                 @Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate,
+                                                 Pageable pageable);
+
+    // Find the dates overriding a night of an availability range
+    @Query("SELECT pa FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
+           "AND pa.date BETWEEN :startDate AND :endDate AND EXISTS (SELECT ar.id FROM AvailabilityRange ar " +
+           "WHERE ar.property.id = :propertyId AND ar.startDate <= pa.date AND ar.endDate > pa.date) ORDER BY pa.date")
+    List<PropertyAvailability> findInsideRanges(@Param("propertyId") Long propertyId,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+
+    // Find the dates overriding a night of an availability range with the given availability
+    @Query("SELECT pa.date FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
+           "AND pa.date BETWEEN :startDate AND :endDate AND EXISTS (SELECT ar.id FROM AvailabilityRange ar " +
+           "WHERE ar.property.id = :propertyId AND ar.startDate <= pa.date AND ar.endDate > pa.date " +
+           "AND ar.isAvailable = :isAvailable AND (:instantBookOnly = false OR ar.isInstantBook = true))")
+    List<LocalDate> findDatesInsideRangesWithStatus(@Param("propertyId") Long propertyId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate,
+                                                    @Param("isAvailable") Boolean isAvailable,
+                                                    @Param("instantBookOnly") boolean instantBookOnly);
+
     // Find available dates for a property within a date range
     @Query("SELECT pa FROM PropertyAvailability pa WHERE pa.property.id = :propertyId " +
            "AND pa.date BETWEEN :startDate AND :endDate " +
@@ -110,11 +168,6 @@ public interface PropertyAvailabilityRepository extends JpaRepository<PropertyAv
                                           @Param("minStay") Integer minStay,
                                           @Param("maxStay") Integer maxStay);
 
-    // Delete old availability records
-    @Modifying
-    @Query("DELETE FROM PropertyAvailability pa WHERE pa.date < :cutoffDate")
-    int deleteOldAvailabilityRecords(@Param("cutoffDate") LocalDate cutoffDate);
-
     // Find properties with availability in date range
     @Query("SELECT DISTINCT pa.property.id FROM PropertyAvailability pa " +
            "WHERE pa.date BETWEEN :startDate AND :endDate " +
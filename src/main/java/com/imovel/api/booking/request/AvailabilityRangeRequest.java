@@ -0,0 +1,149 @@
+package com.imovel.api.booking.request;
+
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Edit of the nights {@code [startDate, endDate)} of a property calendar. Only the fields that are
+ * set are changed; making nights available clears their blocked reason.
+ */
+public class AvailabilityRangeRequest {
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    // Exclusive
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    private Boolean isAvailable;
+    private BigDecimal price;
+
+    @PositiveOrZero
+    private Integer minStay;
+
+    @PositiveOrZero
+    private Integer maxStay;
+
+    private String blockedReason;
+    private Boolean isInstantBook;
+    private Boolean checkInAllowed;
+    private Boolean checkOutAllowed;
+    private String notes;
+
+    // Constructors
+    public AvailabilityRangeRequest() {}
+
+    public AvailabilityRangeRequest(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters and Setters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getMinStay() {
+        return minStay;
+    }
+
+    public void setMinStay(Integer minStay) {
+        this.minStay = minStay;
+    }
+
+    public Integer getMaxStay() {
+        return maxStay;
+    }
+
+    public void setMaxStay(Integer maxStay) {
+        this.maxStay = maxStay;
+    }
+
+    public String getBlockedReason() {
+        return blockedReason;
+    }
+
+    public void setBlockedReason(String blockedReason) {
+        this.blockedReason = blockedReason;
+    }
+
+    public Boolean getIsInstantBook() {
+        return isInstantBook;
+    }
+
+    public void setIsInstantBook(Boolean isInstantBook) {
+        this.isInstantBook = isInstantBook;
+    }
+
+    public Boolean getCheckInAllowed() {
+        return checkInAllowed;
+    }
+
+    public void setCheckInAllowed(Boolean checkInAllowed) {
+        this.checkInAllowed = checkInAllowed;
+    }
+
+    public Boolean getCheckOutAllowed() {
+        return checkOutAllowed;
+    }
+
+    public void setCheckOutAllowed(Boolean checkOutAllowed) {
+        this.checkOutAllowed = checkOutAllowed;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    // Validation methods
+    @AssertTrue(message = "End date must be after start date")
+    public boolean isValidDateRange() {
+        if (startDate == null || endDate == null) {
+            return true;
+        }
+        return endDate.isAfter(startDate);
+    }
+
+    @AssertTrue(message = "Maximum stay must be greater than or equal to minimum stay")
+    public boolean isValidStayRange() {
+        if (minStay == null || maxStay == null) {
+            return true; // Allow partial validation
+        }
+        return maxStay >= minStay;
+    }
+}
@@ -0,0 +1,145 @@
+package com.imovel.api.booking.request;
+
+import com.imovel.api.model.enums.PropertyCategory;
+import com.imovel.api.model.enums.PropertyType;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Search for the properties free for every night of {@code [checkInDate, checkOutDate)}.
+ * Filters left null match every property.
+ */
+public class AvailabilitySearchRequest {
+
+    @NotNull(message = "Check-in date is required")
+    private LocalDate checkInDate;
+
+    @NotNull(message = "Check-out date is required")
+    private LocalDate checkOutDate;
+
+    private String city;
+    private PropertyType type;
+    private PropertyCategory category;
+
+    @PositiveOrZero
+    private BigDecimal minPrice;
+
+    @PositiveOrZero
+    private BigDecimal maxPrice;
+
+    @Min(value = 1, message = "At least one adult is required")
+    private Integer numberOfAdults;
+
+    @PositiveOrZero
+    private Integer numberOfChildren;
+
+    // Constructors
+    public AvailabilitySearchRequest() {}
+
+    public AvailabilitySearchRequest(LocalDate checkInDate, LocalDate checkOutDate) {
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    // Getters and Setters
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(LocalDate checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(LocalDate checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public PropertyType getType() {
+        return type;
+    }
+
+    public void setType(PropertyType type) {
+        this.type = type;
+    }
+
+    public PropertyCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(PropertyCategory category) {
+        this.category = category;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getNumberOfAdults() {
+        return numberOfAdults;
+    }
+
+    public void setNumberOfAdults(Integer numberOfAdults) {
+        this.numberOfAdults = numberOfAdults;
+    }
+
+    public Integer getNumberOfChildren() {
+        return numberOfChildren;
+    }
+
+    public void setNumberOfChildren(Integer numberOfChildren) {
+        this.numberOfChildren = numberOfChildren;
+    }
+
+    // Validation methods
+    @AssertTrue(message = "Check-out date must be after check-in date")
+    public boolean isValidDateRange() {
+        if (checkInDate == null || checkOutDate == null) {
+            return true; // Let @NotNull handle null validation
+        }
+        return checkOutDate.isAfter(checkInDate);
+    }
+
+    @AssertTrue(message = "Stay duration cannot exceed 365 days")
+    public boolean isValidStayDuration() {
+        if (checkInDate == null || checkOutDate == null) {
+            return true; // Let @NotNull handle null validation
+        }
+        return checkInDate.plusDays(365).isAfter(checkOutDate);
+    }
+
+    /**
+     * Guests to accommodate, or null if the search does not filter on capacity
+     */
+    public Integer getTotalGuests() {
+        if (numberOfAdults == null) {
+            return null;
+        }
+        return numberOfAdults + (numberOfChildren != null ? numberOfChildren : 0);
+    }
+}
@@ -0,0 +1,151 @@
+package com.imovel.api.booking.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Calendar settings shared by the nights {@code [startDate, endDate)} of a property
+ */
+public class AvailabilityRangeResponse {
+
+    private Long id;
+    private Long propertyId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Boolean isAvailable;
+    private BigDecimal price;
+    private Integer minStay;
+    private Integer maxStay;
+    private String blockedReason;
+    private Boolean isInstantBook;
+    private Boolean checkInAllowed;
+    private Boolean checkOutAllowed;
+    private String notes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AvailabilityRangeResponse() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getMinStay() {
+        return minStay;
+    }
+
+    public void setMinStay(Integer minStay) {
+        this.minStay = minStay;
+    }
+
+    public Integer getMaxStay() {
+        return maxStay;
+    }
+
+    public void setMaxStay(Integer maxStay) {
+        this.maxStay = maxStay;
+    }
+
+    public String getBlockedReason() {
+        return blockedReason;
+    }
+
+    public void setBlockedReason(String blockedReason) {
+        this.blockedReason = blockedReason;
+    }
+
+    public Boolean getIsInstantBook() {
+        return isInstantBook;
+    }
+
+    public void setIsInstantBook(Boolean isInstantBook) {
+        this.isInstantBook = isInstantBook;
+    }
+
+    public Boolean getCheckInAllowed() {
+        return checkInAllowed;
+    }
+
+    public void setCheckInAllowed(Boolean checkInAllowed) {
+        this.checkInAllowed = checkInAllowed;
+    }
+
+    public Boolean getCheckOutAllowed() {
+        return checkOutAllowed;
+    }
+
+    public void setCheckOutAllowed(Boolean checkOutAllowed) {
+        this.checkOutAllowed = checkOutAllowed;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
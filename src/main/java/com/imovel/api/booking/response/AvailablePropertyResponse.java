@@ -0,0 +1,107 @@
+package com.imovel.api.booking.response;
+
+import com.imovel.api.model.enums.PropertyCategory;
+import com.imovel.api.model.enums.PropertyType;
+
+import java.math.BigDecimal;
+
+/**
+ * A property found free for the searched stay
+ */
+public class AvailablePropertyResponse {
+
+    private Long propertyId;
+    private String mainTitle;
+    private PropertyType type;
+    private PropertyCategory category;
+    private String city;
+    private String country;
+    private BigDecimal price;
+    private Integer bedrooms;
+    private Integer maxAdultsAccommodation;
+    private Integer maxChildrenAccommodation;
+
+    // Constructors
+    public AvailablePropertyResponse() {}
+
+    // Getters and Setters
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public String getMainTitle() {
+        return mainTitle;
+    }
+
+    public void setMainTitle(String mainTitle) {
+        this.mainTitle = mainTitle;
+    }
+
+    public PropertyType getType() {
+        return type;
+    }
+
+    public void setType(PropertyType type) {
+        this.type = type;
+    }
+
+    public PropertyCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(PropertyCategory category) {
+        this.category = category;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getBedrooms() {
+        return bedrooms;
+    }
+
+    public void setBedrooms(Integer bedrooms) {
+        this.bedrooms = bedrooms;
+    }
+
+    public Integer getMaxAdultsAccommodation() {
+        return maxAdultsAccommodation;
+    }
+
+    public void setMaxAdultsAccommodation(Integer maxAdultsAccommodation) {
+        this.maxAdultsAccommodation = maxAdultsAccommodation;
+    }
+
+    public Integer getMaxChildrenAccommodation() {
+        return maxChildrenAccommodation;
+    }
+
+    public void setMaxChildrenAccommodation(Integer maxChildrenAccommodation) {
+        this.maxChildrenAccommodation = maxChildrenAccommodation;
+    }
+}
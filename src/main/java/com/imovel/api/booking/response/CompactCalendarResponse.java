@@ -0,0 +1,83 @@
+package com.imovel.api.booking.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Availability of every night of {@code [startDate, endDate]} in a compact form.
+ * <p>
+ * With the {@code bitmap} format, {@code bitmap} has one character per night, {@code '1'} when it is
+ * available and {@code '0'} when it is blocked. With the {@code runs} format, {@code runs} lists the
+ * consecutive nights sharing the same terms; nights that were never edited have the default terms.
+ */
+public class CompactCalendarResponse {
+
+    public static final String FORMAT_BITMAP = "bitmap";
+    public static final String FORMAT_RUNS = "runs";
+
+    private Long propertyId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String format;
+    private String bitmap;
+    private List<AvailabilityRangeResponse> runs;
+
+    // Constructors
+    public CompactCalendarResponse() {}
+
+    public CompactCalendarResponse(Long propertyId, LocalDate startDate, LocalDate endDate, String format) {
+        this.propertyId = propertyId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.format = format;
+    }
+
+    // Getters and Setters
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getBitmap() {
+        return bitmap;
+    }
+
+    public void setBitmap(String bitmap) {
+        this.bitmap = bitmap;
+    }
+
+    public List<AvailabilityRangeResponse> getRuns() {
+        return runs;
+    }
+
+    public void setRuns(List<AvailabilityRangeResponse> runs) {
+        this.runs = runs;
+    }
+}
@@ -0,0 +1,59 @@
+package com.imovel.api.booking.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HostDashboardResponse {
+
+    private Long hostId;
+    private LocalDate upcomingFrom;
+    private LocalDate upcomingTo;
+    private int upcomingArrivals;
+    private int upcomingDepartures;
+    private List<MonthSummary> months = new ArrayList<>();
+
+    public Long getHostId() { return hostId; }
+    public void setHostId(Long hostId) { this.hostId = hostId; }
+
+    public LocalDate getUpcomingFrom() { return upcomingFrom; }
+    public void setUpcomingFrom(LocalDate upcomingFrom) { this.upcomingFrom = upcomingFrom; }
+
+    public LocalDate getUpcomingTo() { return upcomingTo; }
+    public void setUpcomingTo(LocalDate upcomingTo) { this.upcomingTo = upcomingTo; }
+
+    public int getUpcomingArrivals() { return upcomingArrivals; }
+    public void setUpcomingArrivals(int upcomingArrivals) { this.upcomingArrivals = upcomingArrivals; }
+
+    public int getUpcomingDepartures() { return upcomingDepartures; }
+    public void setUpcomingDepartures(int upcomingDepartures) { this.upcomingDepartures = upcomingDepartures; }
+
+    public List<MonthSummary> getMonths() { return months; }
+    public void setMonths(List<MonthSummary> months) { this.months = months; }
+
+    /**
+     * Occupancy and revenue of one calendar month
+     */
+    public static class MonthSummary {
+        private String month;
+        private int occupiedNights;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        public MonthSummary() {
+        }
+
+        public MonthSummary(String month) {
+            this.month = month;
+        }
+
+        public String getMonth() { return month; }
+        public void setMonth(String month) { this.month = month; }
+
+        public int getOccupiedNights() { return occupiedNights; }
+        public void setOccupiedNights(int occupiedNights) { this.occupiedNights = occupiedNights; }
+
+        public BigDecimal getRevenue() { return revenue; }
+        public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+    }
+}
@@ -0,0 +1,128 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.AvailabilityTerms;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory part of a property calendar as non-overlapping runs of nights {@code [start, end)}.
+ * <p>
+ * Edits split the runs at their bounds and rewrite the terms of the nights they cover, filling
+ * nights without a run from {@link AvailabilityTerms#DEFAULT}. {@link #runs()} merges neighbours
+ * with equal terms, so the result is the smallest set of ranges for the calendar.
+ */
+final class AvailabilityCalendar {
+
+    private final NavigableMap<LocalDate, Run> runs = new TreeMap<>();
+
+    /**
+     * Add an existing run; runs must not overlap
+     */
+    void add(LocalDate start, LocalDate end, AvailabilityTerms terms) {
+        runs.put(start, new Run(start, end, terms));
+    }
+
+    /**
+     * Replace the terms of {@code [start, end)}
+     */
+    void assign(LocalDate start, LocalDate end, AvailabilityTerms terms) {
+        edit(start, end, ignored -> terms);
+    }
+
+    /**
+     * Rewrite the terms of every night in {@code [start, end)}
+     */
+    void edit(LocalDate start, LocalDate end, UnaryOperator<AvailabilityTerms> change) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        split(start);
+        split(end);
+
+        List<Run> edited = new ArrayList<>();
+        LocalDate cursor = start;
+        for (Run run : runs.subMap(start, true, end, false).values()) {
+            if (cursor.isBefore(run.start)) {
+                edited.add(new Run(cursor, run.start, change.apply(AvailabilityTerms.DEFAULT)));
+            }
+            edited.add(new Run(run.start, run.end, change.apply(run.terms)));
+            cursor = run.end;
+        }
+        if (cursor.isBefore(end)) {
+            edited.add(new Run(cursor, end, change.apply(AvailabilityTerms.DEFAULT)));
+        }
+        for (Run run : edited) {
+            runs.put(run.start, run);
+        }
+    }
+
+    /**
+     * Terms of a night, or null if no run covers it
+     */
+    AvailabilityTerms termsAt(LocalDate night) {
+        Map.Entry<LocalDate, Run> entry = runs.floorEntry(night);
+        return entry != null && night.isBefore(entry.getValue().end) ? entry.getValue().terms : null;
+    }
+
+    /**
+     * The runs in date order, with touching runs of equal terms merged
+     */
+    List<Run> runs() {
+        List<Run> merged = new ArrayList<>();
+        for (Run run : runs.values()) {
+            Run last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && last.end.equals(run.start) && last.terms.equals(run.terms)) {
+                merged.set(merged.size() - 1, new Run(last.start, run.end, last.terms));
+            } else {
+                merged.add(run);
+            }
+        }
+        return merged;
+    }
+
+    private void split(LocalDate at) {
+        Map.Entry<LocalDate, Run> entry = runs.lowerEntry(at);
+        if (entry == null) {
+            return;
+        }
+        Run run = entry.getValue();
+        if (at.isBefore(run.end)) {
+            runs.put(run.start, new Run(run.start, at, run.terms));
+            runs.put(at, new Run(at, run.end, run.terms));
+        }
+    }
+
+    /**
+     * Nights {@code [start, end)} sharing the same terms
+     */
+    static final class Run {
+
+        private final LocalDate start;
+        private final LocalDate end;
+        private final AvailabilityTerms terms;
+
+        Run(LocalDate start, LocalDate end, AvailabilityTerms terms) {
+            this.start = start;
+            this.end = end;
+            this.terms = terms;
+        }
+
+        LocalDate getStart() {
+            return start;
+        }
+
+        LocalDate getEnd() {
+            return end;
+        }
+
+        AvailabilityTerms getTerms() {
+            return terms;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.AvailabilityRange;
+import com.imovel.api.booking.model.AvailabilityTerms;
+import com.imovel.api.booking.model.PropertyAvailability;
+import com.imovel.api.booking.repository.AvailabilityRangeRepository;
+import com.imovel.api.booking.repository.PropertyAvailabilityRepository;
+import com.imovel.api.model.Property;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Range-encoded property calendars.
+ * <p>
+ * Edits are applied to the ranges touching the edited nights in memory and written back as the
+ * difference, so setting a price for a year is a handful of statements instead of one select and
+ * one write per night. Per-night {@link PropertyAvailability} rows stay the overrides for single
+ * nights; an edit folds the rows of the nights it covers into the ranges and deletes them.
+ */
+@Service
+@Transactional
+public class AvailabilityRangeService {
+
+    private final AvailabilityRangeRepository rangeRepository;
+    private final PropertyAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    public AvailabilityRangeService(AvailabilityRangeRepository rangeRepository,
+                                    PropertyAvailabilityRepository availabilityRepository) {
+        this.rangeRepository = rangeRepository;
+        this.availabilityRepository = availabilityRepository;
+    }
+
+    /**
+     * Applies the edits in order, in the caller's transaction.
+     * The caller is expected to hold the property's row lock.
+     *
+     * @return The ranges covering the edited window after the edit, in date order
+     */
+    public List<AvailabilityRange> apply(Property property, List<Edit> edits) {
+        edits = edits.stream().filter(edit -> edit.getStart().isBefore(edit.getEnd())).collect(Collectors.toList());
+        if (edits.isEmpty()) {
+            return List.of();
+        }
+        LocalDate from = edits.stream().map(Edit::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = edits.stream().map(Edit::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        List<AvailabilityRange> existing = rangeRepository.findTouching(property.getId(), from, to);
+        for (AvailabilityRange range : existing) {
+            calendar.add(range.getStartDate(), range.getEndDate(), AvailabilityTerms.of(range));
+        }
+
+        // Nights overridden by a row take its terms before the edit, as they would have been edited in place
+        BitSet edited = new BitSet();
+        for (Edit edit : edits) {
+            edited.set(offset(from, edit.getStart()), offset(from, edit.getEnd()));
+        }
+        List<PropertyAvailability> folded = new ArrayList<>();
+        for (PropertyAvailability night : availabilityRepository.findByPropertyIdAndDateRange(
+                property.getId(), from, to.minusDays(1))) {
+            if (edited.get(offset(from, night.getDate()))) {
+                calendar.assign(night.getDate(), night.getDate().plusDays(1), AvailabilityTerms.of(night));
+                folded.add(night);
+            }
+        }
+
+        for (Edit edit : edits) {
+            calendar.edit(edit.getStart(), edit.getEnd(), edit.getChange());
+        }
+
+        List<AvailabilityRange> result = write(property, existing, calendar.runs());
+        if (!folded.isEmpty()) {
+            availabilityRepository.deleteAllInBatch(folded);
+        }
+        return result;
+    }
+
+    /**
+     * Nights of {@code [startDate, endDate]}: the stored rows, plus the nights covered by ranges
+     * expanded to unsaved rows. Nights that were never edited are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyAvailability> findNights(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        List<PropertyAvailability> stored = availabilityRepository.findByPropertyIdAndDateRange(propertyId, startDate, endDate);
+        List<AvailabilityRange> ranges = rangeRepository.findOverlapping(propertyId, startDate, endDate.plusDays(1));
+        if (ranges.isEmpty()) {
+            return stored;
+        }
+        TreeMap<LocalDate, PropertyAvailability> nights = stored.stream()
+                .collect(Collectors.toMap(PropertyAvailability::getDate, Function.identity(), (a, b) -> a, TreeMap::new));
+        for (PropertyAvailability night : expand(ranges, startDate, endDate)) {
+            nights.putIfAbsent(night.getDate(), night);
+        }
+        return new ArrayList<>(nights.values());
+    }
+
+    /**
+     * A page of the nights of {@code [startDate, endDate]} in date order, as {@link #findNights(Long, LocalDate, LocalDate)}
+     * would list them.
+     * <p>
+     * Only the page is loaded: the rows of nights outside ranges are counted and paged by the database, and
+     * the first night of the page is found by bisecting those counts, so memory does not grow with the window.
+     */
+    @Transactional(readOnly = true)
+    public Page<PropertyAvailability> findNights(Long propertyId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        Pageable byDate = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        List<AvailabilityRange> ranges = rangeRepository.findOverlapping(propertyId, startDate, endDate.plusDays(1));
+        if (ranges.isEmpty()) {
+            return availabilityRepository.findByPropertyIdAndDateRange(propertyId, startDate, endDate, byDate);
+        }
+        long total = countNights(propertyId, ranges, startDate, endDate);
+        if (byDate.getOffset() >= total) {
+            return new PageImpl<>(List.of(), byDate, total);
+        }
+
+        // Each date is at most one night, so the first date with more nights up to it than the offset starts the page
+        LocalDate first = startDate;
+        if (byDate.getOffset() > 0) {
+            LocalDate last = endDate;
+            while (first.isBefore(last)) {
+                LocalDate middle = first.plusDays(ChronoUnit.DAYS.between(first, last) / 2);
+                if (countNights(propertyId, ranges, startDate, middle) > byDate.getOffset()) {
+                    last = middle;
+                } else {
+                    first = middle.plusDays(1);
+                }
+            }
+        }
+
+        Iterator<PropertyAvailability> rows = availabilityRepository
+                .findOutsideRanges(propertyId, first, endDate, PageRequest.of(0, byDate.getPageSize())).iterator();
+        PropertyAvailability row = rows.hasNext() ? rows.next() : null;
+        LocalDate covered = nextCovered(ranges, first, endDate);
+        List<PropertyAvailability> nights = new ArrayList<>(byDate.getPageSize());
+        while (nights.size() < byDate.getPageSize() && (row != null || covered != null)) {
+            if (covered == null || (row != null && row.getDate().isBefore(covered))) {
+                nights.add(row);
+                row = rows.hasNext() ? rows.next() : null;
+            } else {
+                nights.add(night(coveringRange(ranges, covered), covered));
+                covered = nextCovered(ranges, covered.plusDays(1), endDate);
+            }
+        }
+
+        // Rows inside ranges override the nights expanded from them
+        Map<LocalDate, PropertyAvailability> overrides = availabilityRepository
+                .findInsideRanges(propertyId, first, nights.get(nights.size() - 1).getDate()).stream()
+                .collect(Collectors.toMap(PropertyAvailability::getDate, Function.identity()));
+        nights.replaceAll(night -> overrides.getOrDefault(night.getDate(), night));
+        return new PageImpl<>(nights, byDate, total);
+    }
+
+    /**
+     * Nights of {@code [startDate, endDate]} with the given availability, filtered by the database
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyAvailability> findNightsWithStatus(Long propertyId, LocalDate startDate, LocalDate endDate,
+                                                           boolean isAvailable, boolean instantBookOnly) {
+        List<PropertyAvailability> stored = availabilityRepository.findByPropertyIdAndDateRangeAndStatus(
+                propertyId, startDate, endDate, isAvailable, instantBookOnly);
+        List<AvailabilityRange> ranges = rangeRepository.findOverlappingWithStatus(
+                propertyId, startDate, endDate.plusDays(1), isAvailable, instantBookOnly);
+        if (ranges.isEmpty()) {
+            return stored;
+        }
+        Set<LocalDate> overridden = new HashSet<>(availabilityRepository.findDatesInsideRangesWithStatus(
+                propertyId, startDate, endDate, isAvailable, instantBookOnly));
+        TreeMap<LocalDate, PropertyAvailability> nights = stored.stream()
+                .collect(Collectors.toMap(PropertyAvailability::getDate, Function.identity(), (a, b) -> a, TreeMap::new));
+        for (PropertyAvailability night : expand(ranges, startDate, endDate)) {
+            if (!overridden.contains(night.getDate())) {
+                nights.put(night.getDate(), night);
+            }
+        }
+        return new ArrayList<>(nights.values());
+    }
+
+    /**
+     * Every night of {@code [startDate, endDate]} as the fewest unsaved ranges of equal terms, nights that
+     * were never edited included with {@link AvailabilityTerms#DEFAULT}
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityRange> findRuns(Property property, LocalDate startDate, LocalDate endDate) {
+        LocalDate endExclusive = endDate.plusDays(1);
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        for (AvailabilityRange range : rangeRepository.findOverlapping(property.getId(), startDate, endExclusive)) {
+            calendar.add(range.getStartDate().isBefore(startDate) ? startDate : range.getStartDate(),
+                    range.getEndDate().isAfter(endExclusive) ? endExclusive : range.getEndDate(),
+                    AvailabilityTerms.of(range));
+        }
+        for (PropertyAvailability night : availabilityRepository.findByPropertyIdAndDateRange(property.getId(), startDate, endDate)) {
+            calendar.assign(night.getDate(), night.getDate().plusDays(1), AvailabilityTerms.of(night));
+        }
+        calendar.edit(startDate, endExclusive, UnaryOperator.identity());
+        return calendar.runs().stream()
+                .map(run -> new AvailabilityRange(property, run.getStart(), run.getEnd(), run.getTerms()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ranges covering at least one night of {@code [startDate, endDate)}
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityRange> findRanges(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        return rangeRepository.findOverlapping(propertyId, startDate, endDate);
+    }
+
+    /**
+     * Expand ranges into unsaved rows for the nights of {@code [startDate, endDate]} they cover
+     */
+    public List<PropertyAvailability> expand(List<AvailabilityRange> ranges, LocalDate startDate, LocalDate endDate) {
+        LocalDate endExclusive = endDate.plusDays(1);
+        List<PropertyAvailability> nights = new ArrayList<>();
+        for (AvailabilityRange range : ranges) {
+            AvailabilityTerms terms = AvailabilityTerms.of(range);
+            LocalDate night = range.getStartDate().isBefore(startDate) ? startDate : range.getStartDate();
+            LocalDate end = range.getEndDate().isAfter(endExclusive) ? endExclusive : range.getEndDate();
+            for (; night.isBefore(end); night = night.plusDays(1)) {
+                nights.add(night(range, terms, night));
+            }
+        }
+        return nights;
+    }
+
+    private long countNights(Long propertyId, List<AvailabilityRange> ranges, LocalDate startDate, LocalDate endDate) {
+        long covered = 0;
+        LocalDate endExclusive = endDate.plusDays(1);
+        for (AvailabilityRange range : ranges) {
+            LocalDate from = range.getStartDate().isBefore(startDate) ? startDate : range.getStartDate();
+            LocalDate to = range.getEndDate().isAfter(endExclusive) ? endExclusive : range.getEndDate();
+            covered += Math.max(0, ChronoUnit.DAYS.between(from, to));
+        }
+        return covered + availabilityRepository.countOutsideRanges(propertyId, startDate, endDate);
+    }
+
+    // The first night on or after the date that a range covers, or null if there is none up to endDate
+    private static LocalDate nextCovered(List<AvailabilityRange> ranges, LocalDate date, LocalDate endDate) {
+        for (AvailabilityRange range : ranges) {
+            if (range.getEndDate().isAfter(date)) {
+                LocalDate night = range.getStartDate().isAfter(date) ? range.getStartDate() : date;
+                return night.isAfter(endDate) ? null : night;
+            }
+        }
+        return null;
+    }
+
+    private static AvailabilityRange coveringRange(List<AvailabilityRange> ranges, LocalDate night) {
+        return ranges.stream()
+                .filter(range -> !range.getStartDate().isAfter(night) && range.getEndDate().isAfter(night))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static PropertyAvailability night(AvailabilityRange range, LocalDate date) {
+        return night(range, AvailabilityTerms.of(range), date);
+    }
+
+    private static PropertyAvailability night(AvailabilityRange range, AvailabilityTerms terms, LocalDate date) {
+        PropertyAvailability availability = new PropertyAvailability();
+        availability.setProperty(range.getProperty());
+        availability.setDate(date);
+        terms.applyTo(availability);
+        availability.setCreatedAt(range.getCreatedAt());
+        availability.setUpdatedAt(range.getUpdatedAt());
+        return availability;
+    }
+
+    /**
+     * Keep the ranges that did not change, reuse the rows of the ones that did and insert or delete the rest
+     */
+    private List<AvailabilityRange> write(Property property, List<AvailabilityRange> existing,
+                                          List<AvailabilityCalendar.Run> runs) {
+        Map<LocalDate, AvailabilityRange> byStart = existing.stream()
+                .collect(Collectors.toMap(AvailabilityRange::getStartDate, Function.identity()));
+        Set<AvailabilityRange> kept = new HashSet<>();
+        List<AvailabilityCalendar.Run> changed = new ArrayList<>();
+        for (AvailabilityCalendar.Run run : runs) {
+            AvailabilityRange range = byStart.get(run.getStart());
+            if (range != null && range.getEndDate().equals(run.getEnd()) && AvailabilityTerms.of(range).equals(run.getTerms())) {
+                kept.add(range);
+            } else {
+                changed.add(run);
+            }
+        }
+
+        List<AvailabilityRange> result = new ArrayList<>(kept);
+        Iterator<AvailabilityRange> reusable = existing.stream().filter(range -> !kept.contains(range)).iterator();
+        List<AvailabilityRange> inserted = new ArrayList<>();
+        for (AvailabilityCalendar.Run run : changed) {
+            if (reusable.hasNext()) {
+                AvailabilityRange range = reusable.next();
+                range.setStartDate(run.getStart());
+                range.setEndDate(run.getEnd());
+                run.getTerms().applyTo(range);
+                result.add(range);
+            } else {
+                inserted.add(new AvailabilityRange(property, run.getStart(), run.getEnd(), run.getTerms()));
+            }
+        }
+        List<AvailabilityRange> removed = new ArrayList<>();
+        reusable.forEachRemaining(removed::add);
+        if (!removed.isEmpty()) {
+            rangeRepository.deleteAllInBatch(removed);
+        }
+        result.addAll(rangeRepository.saveAll(inserted));
+        result.sort(Comparator.comparing(AvailabilityRange::getStartDate));
+        return result;
+    }
+
+    private static int offset(LocalDate from, LocalDate date) {
+        return Math.toIntExact(ChronoUnit.DAYS.between(from, date));
+    }
+
+    /**
+     * A change to the terms of the nights {@code [start, end)}
+     */
+    public static final class Edit {
+
+        private final LocalDate start;
+        private final LocalDate end;
+        private final UnaryOperator<AvailabilityTerms> change;
+
+        public Edit(LocalDate start, LocalDate end, UnaryOperator<AvailabilityTerms> change) {
+            this.start = start;
+            this.end = end;
+            this.change = change;
+        }
+
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public LocalDate getEnd() {
+            return end;
+        }
+
+        public UnaryOperator<AvailabilityTerms> getChange() {
+            return change;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.imovel.api.model.User;
 import com.imovel.api.repository.PropertyRepository;
 import com.imovel.api.repository.UserRepository;
 import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
 import com.imovel.api.session.SessionManager;
 import com.imovel.api.pagination.PaginationResult;
 
@@ -29,10 +30,13 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for handling booking operations.
@@ -43,27 +47,33 @@ import java.util.stream.Collectors;
 public class BookingService {
 
     private final BookingRepository bookingRepository;
+    private final BookingGuestRepository bookingGuestRepository;
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
     private final PropertyAvailabilityService availabilityService;
     private final CancellationPolicyService cancellationPolicyService;
     private final SessionManager sessionManager;
+    private final HostDashboardProjector hostDashboardProjector;
 
     private static final String SERVICE_NAME = "BookingService";
 
     @Autowired
     public BookingService(BookingRepository bookingRepository,
+                         BookingGuestRepository bookingGuestRepository,
                          PropertyRepository propertyRepository,
                          UserRepository userRepository,
                          PropertyAvailabilityService availabilityService,
                          CancellationPolicyService cancellationPolicyService,
-                         SessionManager sessionManager) {
+                         SessionManager sessionManager,
+                         HostDashboardProjector hostDashboardProjector) {
         this.bookingRepository = bookingRepository;
+        this.bookingGuestRepository = bookingGuestRepository;
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
         this.availabilityService = availabilityService;
         this.cancellationPolicyService = cancellationPolicyService;
         this.sessionManager = sessionManager;
+        this.hostDashboardProjector = hostDashboardProjector;
     }
 
     /**
@@ -71,10 +81,10 @@ public class BookingService {
      */
     public ApplicationResponse<BookingResponse> createBooking(BookingCreateRequest request, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Creating new booking for property: " + request.getPropertyId());
+            ApiLogger.info(SERVICE_NAME, () -> "Creating new booking for property: " + request.getPropertyId());
 
             // Get current user
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             // Validate property exists
             Property property = propertyRepository.findById(request.getPropertyId())
@@ -156,6 +166,10 @@ public class BookingService {
 
             // Block availability dates
             availabilityService.blockDatesForBooking(booking);
+            hostDashboardProjector.bookingChanged(booking);
+
+            // Write the booking, its guests and blocked dates as batches, and fail here on constraint errors
+            bookingRepository.flush();
 
             ApiLogger.info(SERVICE_NAME, "Successfully created booking: " + booking.getId());
 
@@ -175,9 +189,9 @@ public class BookingService {
      */
     public ApplicationResponse<BookingResponse> updateBooking(Long bookingId, BookingUpdateRequest request, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Updating booking: " + bookingId);
+            ApiLogger.info(SERVICE_NAME, () -> "Updating booking: " + bookingId);
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId));
@@ -196,6 +210,9 @@ public class BookingService {
                     ApiCode.VALIDATION_ERROR.getHttpStatus());
             }
 
+            LocalDate previousCheckIn = booking.getCheckInDate();
+            LocalDate previousCheckOut = booking.getCheckOutDate();
+
             // Update fields if provided
             if (request.getCheckInDate() != null) {
                 booking.setCheckInDate(request.getCheckInDate());
@@ -231,8 +248,11 @@ public class BookingService {
             }
 
             booking = bookingRepository.save(booking);
+            hostDashboardProjector.bookingChanged(booking.getHost().getId(),
+                    earliest(previousCheckIn, booking.getCheckInDate()),
+                    latest(previousCheckOut, booking.getCheckOutDate()));
 
-            ApiLogger.info(SERVICE_NAME, "Successfully updated booking: " + bookingId);
+            ApiLogger.info(SERVICE_NAME, () -> "Successfully updated booking: " + bookingId);
 
             return ApplicationResponse.success(convertToBookingResponse(booking));
 
@@ -250,9 +270,9 @@ public class BookingService {
      */
     public ApplicationResponse<BookingResponse> cancelBooking(Long bookingId, String reason, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Cancelling booking: " + bookingId);
+            ApiLogger.info(SERVICE_NAME, () -> "Cancelling booking: " + bookingId);
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId));
@@ -281,8 +301,9 @@ public class BookingService {
             availabilityService.releaseDatesForBooking(booking);
 
             booking = bookingRepository.save(booking);
+            hostDashboardProjector.bookingChanged(booking);
 
-            ApiLogger.info(SERVICE_NAME, "Successfully cancelled booking: " + bookingId);
+            ApiLogger.info(SERVICE_NAME, () -> "Successfully cancelled booking: " + bookingId);
 
             return ApplicationResponse.success(convertToBookingResponse(booking));
 
@@ -301,7 +322,7 @@ public class BookingService {
     @Transactional(readOnly = true)
     public ApplicationResponse<BookingResponse> getBookingById(Long bookingId, HttpSession session) {
         try {
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId));
@@ -327,9 +348,9 @@ public class BookingService {
      */
     public ApplicationResponse<BookingResponse> confirmBooking(Long bookingId, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Confirming booking: " + bookingId);
+            ApiLogger.info(SERVICE_NAME, () -> "Confirming booking: " + bookingId);
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId));
@@ -355,8 +376,9 @@ public class BookingService {
             availabilityService.blockDatesForBooking(booking);
 
             booking = bookingRepository.save(booking);
+            hostDashboardProjector.bookingChanged(booking);
 
-            ApiLogger.info(SERVICE_NAME, "Successfully confirmed booking: " + bookingId);
+            ApiLogger.info(SERVICE_NAME, () -> "Successfully confirmed booking: " + bookingId);
 
             return ApplicationResponse.success(convertToBookingResponse(booking));
         } catch (ResourceNotFoundException e) {
@@ -375,7 +397,7 @@ public class BookingService {
     public ApplicationResponse<Page<BookingResponse>> getUserBookings(String role, BookingStatus status, 
                                                                      Pageable pageable, HttpSession session) {
         try {
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             List<Booking> bookingList;
 
@@ -414,20 +436,18 @@ public class BookingService {
     /**
      * Gets upcoming check-ins for the current user's properties.
      */
+    @Transactional(readOnly = true)
     public ApplicationResponse<List<BookingResponse>> getUpcomingCheckIns(int days, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Getting upcoming check-ins for next " + days + " days");
+            ApiLogger.info(SERVICE_NAME, () -> "Getting upcoming check-ins for next " + days + " days");
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
             
             LocalDate startDate = LocalDate.now();
             LocalDate endDate = startDate.plusDays(days);
             
-            // Get bookings where check-in date is within the specified range
-            // and the current user is the host
-            List<Booking> upcomingCheckIns = bookingRepository.findUpcomingBookings(startDate, endDate).stream()
-                .filter(b -> b.getHost().getId().equals(currentUser.getId()))
-                .collect(Collectors.toList());
+            List<Booking> upcomingCheckIns = bookingRepository.findHostCheckIns(
+                currentUser.getId(), BookingStatus.CONFIRMED, startDate, endDate);
             
             List<BookingResponse> responses = upcomingCheckIns.stream()
                 .map(this::convertToBookingResponse)
@@ -445,20 +465,18 @@ public class BookingService {
     /**
      * Gets upcoming check-outs for the current user's properties.
      */
+    @Transactional(readOnly = true)
     public ApplicationResponse<List<BookingResponse>> getUpcomingCheckOuts(int days, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Getting upcoming check-outs for next " + days + " days");
+            ApiLogger.info(SERVICE_NAME, () -> "Getting upcoming check-outs for next " + days + " days");
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
             
             LocalDate startDate = LocalDate.now();
             LocalDate endDate = startDate.plusDays(days);
             
-            // Get bookings where check-out date is within the specified range
-            // and the current user is the host
-            List<Booking> upcomingCheckOuts = bookingRepository.findByHostId(currentUser.getId()).stream()
-                .filter(b -> b.getStatus() == BookingStatus.CHECKED_IN && !b.getCheckOutDate().isBefore(startDate) && !b.getCheckOutDate().isAfter(endDate))
-                .collect(Collectors.toList());
+            List<Booking> upcomingCheckOuts = bookingRepository.findHostCheckOuts(
+                currentUser.getId(), BookingStatus.CHECKED_IN, startDate, endDate);
             
             List<BookingResponse> responses = upcomingCheckOuts.stream()
                 .map(this::convertToBookingResponse)
@@ -481,9 +499,9 @@ public class BookingService {
                                                                               LocalDate endDate, 
                                                                               HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Getting booking statistics for property: " + propertyId);
+            ApiLogger.info(SERVICE_NAME, () -> "Getting booking statistics for property: " + propertyId);
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
             
             // Validate property exists and user has access
             Property property = propertyRepository.findById(propertyId)
@@ -588,13 +606,38 @@ public class BookingService {
 
     // Helper methods
 
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        return a == null || (b != null && b.isBefore(a)) ? b : a;
+    }
+
+    private static LocalDate latest(LocalDate a, LocalDate b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+
     private String generateConfirmationCode() {
         return "BK" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
+    /**
+     * Persist the additional guests of a new booking; their inserts are sent as one JDBC batch on flush.
+     */
     private void createBookingGuests(Booking booking, List<BookingGuestRequest> guestRequests) {
-        // This would be implemented with BookingGuestService
-        // For now, we'll leave this as a placeholder
+        List<BookingGuest> guests = new ArrayList<>(guestRequests.size());
+        for (BookingGuestRequest request : guestRequests) {
+            String fullName = request.getFullName() != null && !request.getFullName().isBlank()
+                    ? request.getFullName()
+                    : Stream.of(request.getFirstName(), request.getLastName())
+                            .filter(Objects::nonNull).collect(Collectors.joining(" "));
+            BookingGuest guest = new BookingGuest(booking, fullName, request.getEmail(), request.getPhone());
+            guest.setAge(request.getAge());
+            guest.setSpecialRequests(request.getSpecialRequests());
+            guest.setDietaryRestrictions(request.getDietaryRestrictions());
+            guest.setEmergencyContactName(request.getEmergencyContactName());
+            guest.setEmergencyContactPhone(request.getEmergencyContactPhone());
+            guest.setIsPrimaryGuest(Boolean.TRUE.equals(request.getIsPrimaryGuest()));
+            guests.add(guest);
+        }
+        booking.getAdditionalGuests().addAll(bookingGuestRepository.saveAll(guests));
     }
 
     private BookingResponse convertToBookingResponse(Booking booking) {
@@ -628,7 +671,7 @@ public class BookingService {
     @Transactional(readOnly = true)
     public ApplicationResponse<PaginationResult<BookingResponse>> getUserBookings(Pageable pageable, String status, HttpSession session) {
         try {
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             List<Booking> bookingList;
             if (status != null && !status.isBlank()) {
@@ -653,7 +696,7 @@ public class BookingService {
     @Transactional(readOnly = true)
     public ApplicationResponse<PaginationResult<BookingResponse>> getPropertyBookings(Long propertyId, Pageable pageable, String status, LocalDate startDate, LocalDate endDate, HttpSession session) {
         try {
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             // Ensure current user is the owner/host of the property
             Property property = propertyRepository.findById(propertyId)
@@ -693,7 +736,7 @@ public class BookingService {
     @Transactional(readOnly = true)
     public ApplicationResponse<PaginationResult<BookingResponse>> getHostBookings(Pageable pageable, String status, LocalDate startDate, LocalDate endDate, HttpSession session) {
         try {
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             List<Booking> bookingList;
             if (status != null && !status.isBlank()) {
@@ -0,0 +1,114 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.CancellationPolicy;
+import com.imovel.api.booking.repository.CancellationPolicyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Compiled cancellation policies, by policy and by property, loaded on first use.
+ * <p>
+ * Entries are evicted once a write to the policy commits. Loads run outside the map's locks, and
+ * their result is only stored if no eviction happened since the load started, so an eviction is
+ * never overwritten by the value it replaced. A load inside a read-write transaction is stored only
+ * once that transaction commits, as it may have read the transaction's own uncommitted changes.
+ */
+@Component
+public class CancellationPolicyCache {
+
+    private final CancellationPolicyRepository policyRepository;
+    private final Map<Long, CompiledCancellationPolicy> byPolicy = new ConcurrentHashMap<>();
+    private final Map<Long, CompiledCancellationPolicy> byProperty = new ConcurrentHashMap<>();
+    // Bumped before every eviction, so a load that started earlier does not store what it read
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public CancellationPolicyCache(CancellationPolicyRepository policyRepository) {
+        this.policyRepository = policyRepository;
+    }
+
+    /**
+     * The compiled policy with the given id, or empty if it does not exist
+     */
+    public Optional<CompiledCancellationPolicy> getPolicy(Long policyId) {
+        return Optional.ofNullable(get(byPolicy, policyId, () ->
+                policyRepository.findById(policyId).map(CompiledCancellationPolicy::compile).orElse(null)));
+    }
+
+    /**
+     * The policy that applies to a property: its current policy when active, otherwise the fallback
+     */
+    public CompiledCancellationPolicy getPropertyPolicy(Long propertyId, Supplier<CancellationPolicy> fallback) {
+        return get(byProperty, propertyId, () -> {
+            List<CancellationPolicy> policies = policyRepository.findByPropertyId(propertyId);
+            CancellationPolicy policy = policies.isEmpty() ? null : policies.get(0);
+            if (policy == null || !Boolean.TRUE.equals(policy.getIsActive())) {
+                policy = fallback.get();
+            }
+            return CompiledCancellationPolicy.compile(policy);
+        });
+    }
+
+    /**
+     * Drop the entries of a policy and its property once the current transaction commits
+     */
+    public void evictAfterCommit(Long policyId, Long propertyId) {
+        afterCommit(() -> evict(policyId, propertyId));
+    }
+
+    void evict(Long policyId, Long propertyId) {
+        evictions.incrementAndGet();
+        if (policyId != null) {
+            byPolicy.remove(policyId);
+        }
+        if (propertyId != null) {
+            byProperty.remove(propertyId);
+        }
+    }
+
+    private CompiledCancellationPolicy get(Map<Long, CompiledCancellationPolicy> cache, Long key,
+                                           Supplier<CompiledCancellationPolicy> loader) {
+        CompiledCancellationPolicy cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = evictions.get();
+        CompiledCancellationPolicy loaded = loader.get();
+        if (loaded != null) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                afterCommit(() -> store(cache, key, loaded, generation));
+            } else {
+                store(cache, key, loaded, generation);
+            }
+        }
+        return loaded;
+    }
+
+    private void store(Map<Long, CompiledCancellationPolicy> cache, Long key,
+                       CompiledCancellationPolicy loaded, long generation) {
+        cache.compute(key, (id, current) -> current != null || evictions.get() != generation ? current : loaded);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
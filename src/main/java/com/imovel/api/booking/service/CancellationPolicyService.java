@@ -10,21 +10,20 @@ import com.imovel.api.error.ApiCode;
 import com.imovel.api.exception.ResourceNotFoundException;
 import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.model.Property;
-import com.imovel.api.model.User;
 import com.imovel.api.repository.PropertyRepository;
 import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
 import com.imovel.api.session.SessionManager;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.servlet.http.HttpSession;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,16 +40,19 @@ public class CancellationPolicyService {
     private final CancellationPolicyRepository policyRepository;
     private final PropertyRepository propertyRepository;
     private final SessionManager sessionManager;
+    private final CancellationPolicyCache policyCache;
 
     private static final String SERVICE_NAME = "CancellationPolicyService";
 
     @Autowired
     public CancellationPolicyService(CancellationPolicyRepository policyRepository,
                                    PropertyRepository propertyRepository,
-                                   SessionManager sessionManager) {
+                                   SessionManager sessionManager,
+                                   CancellationPolicyCache policyCache) {
         this.policyRepository = policyRepository;
         this.propertyRepository = propertyRepository;
         this.sessionManager = sessionManager;
+        this.policyCache = policyCache;
     }
 
     /**
@@ -59,9 +61,9 @@ public class CancellationPolicyService {
     public ApplicationResponse<CancellationPolicyResponse> createOrUpdatePolicy(
             CancellationPolicyRequest request, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Creating/updating cancellation policy for property: " + request.getPropertyId());
+            ApiLogger.info(SERVICE_NAME, () -> "Creating/updating cancellation policy for property: " + request.getPropertyId());
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             // Validate property exists and user owns it
             Property property = propertyRepository.findById(request.getPropertyId())
@@ -82,7 +84,7 @@ public class CancellationPolicyService {
             } else {
                 policy = new CancellationPolicy();
                 policy.setProperty(property);
-                ApiLogger.info(SERVICE_NAME, "Creating new policy for property: " + request.getPropertyId());
+                ApiLogger.info(SERVICE_NAME, () -> "Creating new policy for property: " + request.getPropertyId());
             }
 
             // Update policy fields
@@ -99,6 +101,7 @@ public class CancellationPolicyService {
             }
 
             policy = policyRepository.save(policy);
+            policyCache.evictAfterCommit(policy.getId(), property.getId());
 
             ApiLogger.info(SERVICE_NAME, "Successfully saved cancellation policy: " + policy.getId());
 
@@ -152,69 +155,22 @@ public class CancellationPolicyService {
 
     /**
      * Calculates refund amount based on cancellation policy and timing.
+     * Served from the compiled policy cache, so it does not need a transaction of its own.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ApplicationResponse<BigDecimal> calculateRefund(Booking booking, LocalDate cancellationDate) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Calculating refund for booking: " + booking.getId());
+            ApiLogger.info(SERVICE_NAME, () -> "Calculating refund for booking: " + booking.getId());
 
-            // Get cancellation policy for the property
-            List<CancellationPolicy> policyList = policyRepository.findByPropertyId(booking.getProperty().getId());
-            Optional<CancellationPolicy> policyOpt = policyList.isEmpty() ? Optional.empty() : Optional.of(policyList.get(0));
-
-            CancellationPolicy policy;
-            if (policyOpt.isPresent() && policyOpt.get().getIsActive()) {
-                policy = policyOpt.get();
-            } else {
-                // Use default moderate policy
-                policy = createDefaultPolicy();
-            }
+            // Compiled policy for the property, or the default moderate policy
+            CompiledCancellationPolicy policy = policyCache.getPropertyPolicy(
+                    booking.getProperty().getId(), this::createDefaultPolicy);
 
             // Calculate days between cancellation and check-in
-            long daysUntilCheckIn = ChronoUnit.DAYS.between(cancellationDate, booking.getCheckInDate());
-
-            BigDecimal refundAmount = BigDecimal.ZERO;
-            BigDecimal totalAmount = booking.getTotalAmount();
-
-            // Apply policy based on timing
-            if (daysUntilCheckIn >= policy.getDaysBeforeCheckin()) {
-                // Full or partial refund based on policy
-                BigDecimal refundPercentage = policy.getRefundPercentage().divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-                refundAmount = totalAmount.multiply(refundPercentage).setScale(2, RoundingMode.HALF_UP);
-            } else {
-                // Apply reduced refund based on policy type
-                switch (policy.getPolicyType()) {
-                    case FLEXIBLE:
-                        if (daysUntilCheckIn >= 1) {
-                            refundAmount = totalAmount.multiply(BigDecimal.valueOf(0.5)).setScale(2, RoundingMode.HALF_UP);
-                        }
-                        break;
-                    case MODERATE:
-                        if (daysUntilCheckIn >= 5) {
-                            refundAmount = totalAmount.multiply(BigDecimal.valueOf(0.5)).setScale(2, RoundingMode.HALF_UP);
-                        }
-                        break;
-                    case STRICT:
-                        // No refund for late cancellations
-                        refundAmount = BigDecimal.ZERO;
-                        break;
-                    case SUPER_STRICT_30:
-                    case SUPER_STRICT_60:
-                        // No refund for any cancellation after booking
-                        refundAmount = BigDecimal.ZERO;
-                        break;
-                    case NON_REFUNDABLE:
-                        // No refund for non-refundable bookings
-                        refundAmount = BigDecimal.ZERO;
-                        break;
-                }
-            }
-
-            // Ensure refund doesn't exceed total amount
-            if (refundAmount.compareTo(totalAmount) > 0) {
-                refundAmount = totalAmount;
-            }
+            long daysUntilCheckIn = booking.getCheckInDate().toEpochDay() - cancellationDate.toEpochDay();
+            BigDecimal refundAmount = policy.refund(booking.getTotalAmount(), daysUntilCheckIn);
 
-            ApiLogger.info(SERVICE_NAME, String.format("Calculated refund: %s for booking: %d (Policy: %s, Days until check-in: %d)", 
+            ApiLogger.info(SERVICE_NAME, () -> String.format("Calculated refund: %s for booking: %d (Policy: %s, Days until check-in: %d)",
                 refundAmount, booking.getId(), policy.getPolicyType(), daysUntilCheckIn));
 
             return ApplicationResponse.success(refundAmount);
@@ -227,61 +183,29 @@ public class CancellationPolicyService {
 
     /**
      * Calculates refund amount based on policy ID, total amount, and check-in date.
+     * Served from the compiled policy cache, so it does not need a transaction of its own.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ApplicationResponse<BigDecimal> calculateRefund(Long policyId, BigDecimal totalAmount, LocalDateTime checkInDate, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Calculating refund for policy: " + policyId);
+            ApiLogger.info(SERVICE_NAME, () -> "Calculating refund for policy: " + policyId);
 
-            // Get the cancellation policy
-            Optional<CancellationPolicy> policyOpt = policyRepository.findById(policyId);
-            if (!policyOpt.isPresent()) {
+            // Get the compiled cancellation policy
+            Optional<CompiledCancellationPolicy> policyOpt = policyCache.getPolicy(policyId);
+            if (policyOpt.isEmpty()) {
                 return ApplicationResponse.error(ApiCode.RESOURCE_NOT_FOUND.getCode(), "Cancellation policy not found", ApiCode.RESOURCE_NOT_FOUND.getHttpStatus());
             }
 
-            CancellationPolicy policy = policyOpt.get();
-            if (!policy.getIsActive()) {
+            CompiledCancellationPolicy policy = policyOpt.get();
+            if (!policy.isActive()) {
                 return ApplicationResponse.error(ApiCode.VALIDATION_ERROR.getCode(), "Policy is not active", ApiCode.VALIDATION_ERROR.getHttpStatus());
             }
 
             // Calculate days between now and check-in
-            long daysUntilCheckIn = ChronoUnit.DAYS.between(LocalDate.now(), checkInDate.toLocalDate());
-
-            BigDecimal refundAmount = BigDecimal.ZERO;
-
-            // Apply policy based on timing
-            if (daysUntilCheckIn >= policy.getDaysBeforeCheckin()) {
-                // Full or partial refund based on policy
-                BigDecimal refundPercentage = policy.getRefundPercentage().divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-                refundAmount = totalAmount.multiply(refundPercentage).setScale(2, RoundingMode.HALF_UP);
-            } else {
-                // Apply reduced refund based on policy type
-                switch (policy.getPolicyType()) {
-                    case FLEXIBLE:
-                        if (daysUntilCheckIn >= 1) {
-                            refundAmount = totalAmount.multiply(BigDecimal.valueOf(0.5)).setScale(2, RoundingMode.HALF_UP);
-                        }
-                        break;
-                    case MODERATE:
-                        if (daysUntilCheckIn >= 5) {
-                            refundAmount = totalAmount.multiply(BigDecimal.valueOf(0.5)).setScale(2, RoundingMode.HALF_UP);
-                        }
-                        break;
-                    case STRICT:
-                    case SUPER_STRICT_30:
-                    case SUPER_STRICT_60:
-                    case NON_REFUNDABLE:
-                        // No refund for strict policies or late cancellations
-                        refundAmount = BigDecimal.ZERO;
-                        break;
-                }
-            }
-
-            // Ensure refund doesn't exceed total amount
-            if (refundAmount.compareTo(totalAmount) > 0) {
-                refundAmount = totalAmount;
-            }
+            long daysUntilCheckIn = checkInDate.toLocalDate().toEpochDay() - LocalDate.now().toEpochDay();
+            BigDecimal refundAmount = policy.refund(totalAmount, daysUntilCheckIn);
 
-            ApiLogger.info(SERVICE_NAME, String.format("Calculated refund: %s for policy: %d (Days until check-in: %d)", 
+            ApiLogger.info(SERVICE_NAME, () -> String.format("Calculated refund: %s for policy: %d (Days until check-in: %d)",
                 refundAmount, policyId, daysUntilCheckIn));
 
             return ApplicationResponse.success(refundAmount);
@@ -360,7 +284,7 @@ public class CancellationPolicyService {
      */
     public ApplicationResponse<CancellationPolicyResponse> getPolicyById(Long policyId, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Getting cancellation policy by ID: " + policyId);
+            ApiLogger.info(SERVICE_NAME, () -> "Getting cancellation policy by ID: " + policyId);
 
             Optional<CancellationPolicy> policyOpt = policyRepository.findById(policyId);
             if (!policyOpt.isPresent()) {
@@ -370,14 +294,14 @@ public class CancellationPolicyService {
             CancellationPolicy policy = policyOpt.get();
             
             // Verify user has access to this policy (either owns the property or is admin)
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
             if (currentUser == null) {
                 return ApplicationResponse.error(ApiCode.AUTHENTICATION_FAILED.getCode(), "User not authenticated", ApiCode.AUTHENTICATION_FAILED.getHttpStatus());
             }
 
             // Check if user owns the property or is admin
             if (!policy.getProperty().getCreatedBy().getId().equals(currentUser.getId()) && 
-                !currentUser.getRole().getRoleName().equals("ADMIN")) {
+                !currentUser.getRoleName().equals("ADMIN")) {
                 return ApplicationResponse.error(ApiCode.ACCESS_DENIED.getCode(), "Access denied", ApiCode.ACCESS_DENIED.getHttpStatus());
             }
 
@@ -395,10 +319,10 @@ public class CancellationPolicyService {
      */
     public ApplicationResponse<List<CancellationPolicyResponse>> getPropertyPolicies(Long propertyId, boolean activeOnly, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Getting policies for property: " + propertyId + ", activeOnly: " + activeOnly);
+            ApiLogger.info(SERVICE_NAME, () -> "Getting policies for property: " + propertyId + ", activeOnly: " + activeOnly);
 
             // Verify user has access to this property
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
             if (currentUser == null) {
                 return ApplicationResponse.error(ApiCode.AUTHENTICATION_FAILED.getCode(), "User not authenticated", ApiCode.AUTHENTICATION_FAILED.getHttpStatus());
             }
@@ -413,7 +337,7 @@ public class CancellationPolicyService {
             
             // Check if user owns the property or is admin
             if (!property.getCreatedBy().getId().equals(currentUser.getId()) && 
-                !currentUser.getRole().getRoleName().equals("ADMIN")) {
+                !currentUser.getRoleName().equals("ADMIN")) {
                 return ApplicationResponse.error(ApiCode.ACCESS_DENIED.getCode(), "Access denied", ApiCode.ACCESS_DENIED.getHttpStatus());
             }
 
@@ -444,7 +368,7 @@ public class CancellationPolicyService {
         try {
             ApiLogger.info(SERVICE_NAME, "Getting policy statistics");
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
             if (currentUser == null) {
                 return ApplicationResponse.error(ApiCode.AUTHENTICATION_FAILED.getCode(), "User not authenticated", ApiCode.AUTHENTICATION_FAILED.getHttpStatus());
             }
@@ -510,7 +434,7 @@ public class CancellationPolicyService {
     @Transactional(readOnly = true)
     public ApplicationResponse<List<CancellationPolicyResponse>> getUserPolicies(HttpSession session) {
         try {
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             List<CancellationPolicy> policies = policyRepository.findByHostId(currentUser.getId());
 
@@ -531,9 +455,9 @@ public class CancellationPolicyService {
      */
     public ApplicationResponse<Void> deletePolicy(Long policyId, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Deleting cancellation policy: " + policyId);
+            ApiLogger.info(SERVICE_NAME, () -> "Deleting cancellation policy: " + policyId);
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             CancellationPolicy policy = policyRepository.findById(policyId)
                 .orElseThrow(() -> new ResourceNotFoundException("CancellationPolicy", policyId));
@@ -544,8 +468,9 @@ public class CancellationPolicyService {
             }
 
             policyRepository.delete(policy);
+            policyCache.evictAfterCommit(policyId, policy.getProperty().getId());
 
-            ApiLogger.info(SERVICE_NAME, "Successfully deleted cancellation policy: " + policyId);
+            ApiLogger.info(SERVICE_NAME, () -> "Successfully deleted cancellation policy: " + policyId);
 
             return ApplicationResponse.success(null);
 
@@ -0,0 +1,129 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.CancellationPolicy;
+import com.imovel.api.booking.model.enums.CancellationPolicyType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Immutable refund table compiled from a {@link CancellationPolicy}.
+ * <p>
+ * Each tier is the minimum number of days before check-in and the refund it grants in basis points,
+ * sorted by days, so a quote is one binary search and one integer multiplication in cents. The tiers
+ * are the policy's own refund from {@code daysBeforeCheckin} on, plus the 50% late tier that flexible
+ * (from 1 day) and moderate (from 5 days) policies grant below it.
+ */
+public final class CompiledCancellationPolicy {
+
+    private static final int FULL_REFUND_BASIS_POINTS = 10_000;
+    private static final int LATE_REFUND_BASIS_POINTS = 5_000;
+
+    private final Long policyId;
+    private final Long propertyId;
+    private final CancellationPolicyType policyType;
+    private final boolean active;
+    private final int[] minDays;
+    private final int[] basisPoints;
+
+    private CompiledCancellationPolicy(Long policyId, Long propertyId, CancellationPolicyType policyType,
+                                       boolean active, int[] minDays, int[] basisPoints) {
+        this.policyId = policyId;
+        this.propertyId = propertyId;
+        this.policyType = policyType;
+        this.active = active;
+        this.minDays = minDays;
+        this.basisPoints = basisPoints;
+    }
+
+    /**
+     * Compile a policy; the entity is only read, so it may be detached afterwards
+     */
+    public static CompiledCancellationPolicy compile(CancellationPolicy policy) {
+        int days = policy.getDaysBeforeCheckin();
+        // Percentages are applied with four decimals as a fraction, i.e. rounded to whole basis points
+        int refund = policy.getRefundPercentage().movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+        int lateDays = lateTierDays(policy.getPolicyType());
+
+        int[] minDays;
+        int[] basisPoints;
+        if (lateDays >= 0 && lateDays < days) {
+            minDays = new int[] {lateDays, days};
+            basisPoints = new int[] {LATE_REFUND_BASIS_POINTS, refund};
+        } else {
+            minDays = new int[] {days};
+            basisPoints = new int[] {refund};
+        }
+        Long propertyId = policy.getProperty() != null ? policy.getProperty().getId() : null;
+        return new CompiledCancellationPolicy(policy.getId(), propertyId, policy.getPolicyType(),
+                Boolean.TRUE.equals(policy.getIsActive()), minDays, basisPoints);
+    }
+
+    private static int lateTierDays(CancellationPolicyType policyType) {
+        if (policyType == CancellationPolicyType.FLEXIBLE) {
+            return 1;
+        }
+        if (policyType == CancellationPolicyType.MODERATE) {
+            return 5;
+        }
+        return -1;
+    }
+
+    /**
+     * Refund granted when cancelling the given number of days before check-in, in basis points
+     */
+    public int basisPointsAt(long daysUntilCheckIn) {
+        if (daysUntilCheckIn < minDays[0]) {
+            return 0;
+        }
+        int key = (int) Math.min(daysUntilCheckIn, Integer.MAX_VALUE);
+        int index = Arrays.binarySearch(minDays, key);
+        return basisPoints[index >= 0 ? index : -index - 2];
+    }
+
+    /**
+     * Refund in cents, rounded half up and never more than the total
+     */
+    public long refundCents(long totalCents, long daysUntilCheckIn) {
+        long refund = applyBasisPoints(totalCents, basisPointsAt(daysUntilCheckIn));
+        return Math.min(refund, totalCents);
+    }
+
+    /**
+     * Refund for an amount in the currency's major unit, computed in cents
+     */
+    public BigDecimal refund(BigDecimal totalAmount, long daysUntilCheckIn) {
+        int refund = basisPointsAt(daysUntilCheckIn);
+        try {
+            long totalCents = totalAmount.movePointRight(2).longValueExact();
+            return BigDecimal.valueOf(Math.min(applyBasisPoints(totalCents, refund), totalCents), 2);
+        } catch (ArithmeticException e) {
+            // Fractions of a cent or amounts too large for a long keep the decimal route
+            BigDecimal amount = totalAmount.multiply(BigDecimal.valueOf(refund, 4)).setScale(2, RoundingMode.HALF_UP);
+            return amount.min(totalAmount);
+        }
+    }
+
+    private static long applyBasisPoints(long cents, int basisPoints) {
+        long scaled = Math.multiplyExact(Math.abs(cents), (long) basisPoints);
+        long rounded = (scaled + FULL_REFUND_BASIS_POINTS / 2) / FULL_REFUND_BASIS_POINTS;
+        return cents < 0 ? -rounded : rounded;
+    }
+
+    public Long getPolicyId() {
+        return policyId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public CancellationPolicyType getPolicyType() {
+        return policyType;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,65 @@
+package com.imovel.api.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imovel.api.model.OutboxMessage;
+import com.imovel.api.outbox.OutboxHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Applies host dashboard refreshes queued by {@link HostDashboardProjector}.
+ */
+@Component
+public class HostDashboardOutboxHandler implements OutboxHandler {
+
+    public static final String TYPE = "host-dashboard.refresh";
+
+    private final HostDashboardProjector projector;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public HostDashboardOutboxHandler(HostDashboardProjector projector) {
+        this.projector = projector;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        RefreshPayload refresh;
+        try {
+            refresh = objectMapper.readValue(message.getPayload(), RefreshPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable host dashboard payload", e);
+        }
+        projector.refresh(refresh.getHostId(), LocalDate.parse(refresh.getFrom()), LocalDate.parse(refresh.getTo()));
+    }
+
+    public static class RefreshPayload {
+        private Long hostId;
+        private String from;
+        private String to;
+
+        public RefreshPayload() {
+        }
+
+        public RefreshPayload(Long hostId, String from, String to) {
+            this.hostId = hostId;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Long getHostId() { return hostId; }
+        public void setHostId(Long hostId) { this.hostId = hostId; }
+
+        public String getFrom() { return from; }
+        public void setFrom(String from) { this.from = from; }
+
+        public String getTo() { return to; }
+        public void setTo(String to) { this.to = to; }
+    }
+}
@@ -0,0 +1,206 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.BookingPayment;
+import com.imovel.api.booking.model.HostDashboardDay;
+import com.imovel.api.booking.model.HostPayment;
+import com.imovel.api.booking.model.HostStay;
+import com.imovel.api.booking.model.enums.BookingStatus;
+import com.imovel.api.booking.repository.BookingPaymentRepository;
+import com.imovel.api.booking.repository.BookingRepository;
+import com.imovel.api.booking.repository.HostDashboardDayRepository;
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.outbox.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maintains the {@link HostDashboardDay} read model.
+ * <p>
+ * Booking and payment writes call {@link #bookingChanged} or {@link #paymentChanged} inside their
+ * transaction, which queues a refresh of the affected host and days in the outbox. The refresh
+ * recomputes those days from the committed bookings and payments, so delivering it twice or out
+ * of order leaves the same rows. {@link #rebuildAll()} recomputes every host from scratch.
+ */
+@Service
+public class HostDashboardProjector {
+
+    private static final String SERVICE_NAME = "HostDashboardProjector";
+
+    // Statuses whose nights count as occupied
+    static final Set<BookingStatus> OCCUPYING = EnumSet.of(
+            BookingStatus.CONFIRMED, BookingStatus.CHECKED_IN, BookingStatus.CHECKED_OUT, BookingStatus.COMPLETED);
+
+    private final BookingRepository bookingRepository;
+    private final BookingPaymentRepository paymentRepository;
+    private final HostDashboardDayRepository dashboardRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public HostDashboardProjector(BookingRepository bookingRepository,
+                                  BookingPaymentRepository paymentRepository,
+                                  HostDashboardDayRepository dashboardRepository,
+                                  OutboxService outboxService,
+                                  PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queue a refresh of the days a booking touches, from check-in to check-out
+     */
+    public void bookingChanged(Booking booking) {
+        if (booking.getHost() != null) {
+            bookingChanged(booking.getHost().getId(), booking.getCheckInDate(), booking.getCheckOutDate());
+        }
+    }
+
+    /**
+     * Queue a refresh of a host's days between {@code from} and {@code to}, inclusive
+     */
+    public void bookingChanged(Long hostId, LocalDate from, LocalDate to) {
+        if (hostId == null || from == null || to == null) {
+            return;
+        }
+        LocalDate start = from.isBefore(to) ? from : to;
+        LocalDate end = from.isBefore(to) ? to : from;
+        outboxService.enqueue(HostDashboardOutboxHandler.TYPE,
+                new HostDashboardOutboxHandler.RefreshPayload(hostId, start.toString(), end.toString()));
+    }
+
+    /**
+     * Queue a refresh of the day a payment was received
+     */
+    public void paymentChanged(BookingPayment payment) {
+        Booking booking = payment.getBooking();
+        if (booking != null && booking.getHost() != null && payment.getPaymentDate() != null) {
+            LocalDate day = payment.getPaymentDate().toLocalDate();
+            bookingChanged(booking.getHost().getId(), day, day);
+        }
+    }
+
+    /**
+     * Recompute a host's days between {@code from} and {@code to}, inclusive
+     */
+    @Transactional
+    public void refresh(Long hostId, LocalDate from, LocalDate to) {
+        List<HostStay> stays = bookingRepository.findHostStays(hostId, from, to);
+        List<HostPayment> payments = paymentRepository.findCompletedHostPayments(
+                hostId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        dashboardRepository.deleteByHostIdAndDayBetween(hostId, from, to);
+        dashboardRepository.saveAll(project(hostId, stays, payments, from, to));
+    }
+
+    /**
+     * Recompute all days of one host
+     */
+    @Transactional
+    public void rebuildHost(Long hostId) {
+        List<HostStay> stays = bookingRepository.findAllHostStays(hostId);
+        List<HostPayment> payments = paymentRepository.findAllCompletedHostPayments(hostId);
+        dashboardRepository.deleteByHostId(hostId);
+
+        LocalDate from = null;
+        LocalDate to = null;
+        for (HostStay stay : stays) {
+            from = min(from, stay.getCheckInDate());
+            to = max(to, stay.getCheckOutDate());
+        }
+        for (HostPayment payment : payments) {
+            from = min(from, payment.getPaymentDate().toLocalDate());
+            to = max(to, payment.getPaymentDate().toLocalDate());
+        }
+        if (from != null && to != null) {
+            dashboardRepository.saveAll(project(hostId, stays, payments, from, to));
+        }
+    }
+
+    /**
+     * Rebuild the read model from scratch, one host per transaction
+     *
+     * @return number of hosts rebuilt
+     */
+    public int rebuildAll() {
+        transactionTemplate.executeWithoutResult(status -> dashboardRepository.deleteOrphanedHosts());
+        List<Long> hostIds = bookingRepository.findHostIds();
+        for (Long hostId : hostIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuildHost(hostId));
+        }
+        ApiLogger.info(SERVICE_NAME, () -> "Rebuilt host dashboards for " + hostIds.size() + " hosts");
+        return hostIds.size();
+    }
+
+    /**
+     * Dashboard rows for the days between {@code from} and {@code to} with any activity
+     */
+    static List<HostDashboardDay> project(Long hostId, List<HostStay> stays, List<HostPayment> payments,
+                                          LocalDate from, LocalDate to) {
+        TreeMap<LocalDate, HostDashboardDay> days = new TreeMap<>();
+        for (HostStay stay : stays) {
+            LocalDate checkIn = stay.getCheckInDate();
+            LocalDate checkOut = stay.getCheckOutDate();
+            if (checkIn == null || checkOut == null) {
+                continue;
+            }
+            if (stay.getStatus() == BookingStatus.CONFIRMED && within(checkIn, from, to)) {
+                HostDashboardDay day = day(days, hostId, checkIn);
+                day.setArrivals(day.getArrivals() + 1);
+            }
+            if (stay.getStatus() == BookingStatus.CHECKED_IN && within(checkOut, from, to)) {
+                HostDashboardDay day = day(days, hostId, checkOut);
+                day.setDepartures(day.getDepartures() + 1);
+            }
+            if (OCCUPYING.contains(stay.getStatus())) {
+                LocalDate last = checkOut.minusDays(1).isBefore(to) ? checkOut.minusDays(1) : to;
+                for (LocalDate night = checkIn.isBefore(from) ? from : checkIn; !night.isAfter(last); night = night.plusDays(1)) {
+                    HostDashboardDay day = day(days, hostId, night);
+                    day.setOccupiedNights(day.getOccupiedNights() + 1);
+                }
+            }
+        }
+        for (HostPayment payment : payments) {
+            LocalDate paid = payment.getPaymentDate().toLocalDate();
+            if (within(paid, from, to) && payment.getAmount() != null) {
+                HostDashboardDay day = day(days, hostId, paid);
+                day.setRevenue(day.getRevenue().add(payment.getAmount()));
+            }
+        }
+        List<HostDashboardDay> rows = new ArrayList<>(days.size());
+        for (HostDashboardDay day : days.values()) {
+            if (!day.isEmpty()) {
+                rows.add(day);
+            }
+        }
+        return rows;
+    }
+
+    private static HostDashboardDay day(TreeMap<LocalDate, HostDashboardDay> days, Long hostId, LocalDate date) {
+        return days.computeIfAbsent(date, d -> new HostDashboardDay(hostId, d));
+    }
+
+    private static boolean within(LocalDate date, LocalDate from, LocalDate to) {
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    private static LocalDate min(LocalDate current, LocalDate candidate) {
+        return current == null || (candidate != null && candidate.isBefore(current)) ? candidate : current;
+    }
+
+    private static LocalDate max(LocalDate current, LocalDate candidate) {
+        return current == null || (candidate != null && candidate.isAfter(current)) ? candidate : current;
+    }
+}
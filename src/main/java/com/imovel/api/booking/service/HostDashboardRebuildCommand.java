@@ -0,0 +1,33 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.logger.ApiLogger;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the host dashboard read model from bookings and payments at startup, when the
+ * application is started with {@code --host-dashboard.rebuild=true}. Use it after deploying the
+ * read model for the first time or to repair it after changes made outside the application.
+ */
+@Component
+@ConditionalOnProperty(name = "host-dashboard.rebuild", havingValue = "true")
+public class HostDashboardRebuildCommand implements ApplicationRunner {
+
+    private static final String LOGGER_NAME = "HostDashboardRebuildCommand";
+
+    private final HostDashboardProjector projector;
+
+    public HostDashboardRebuildCommand(HostDashboardProjector projector) {
+        this.projector = projector;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        int hosts = projector.rebuildAll();
+        ApiLogger.info(LOGGER_NAME, () -> "Host dashboard rebuilt for " + hosts + " hosts in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms");
+    }
+}
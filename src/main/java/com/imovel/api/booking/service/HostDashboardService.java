@@ -0,0 +1,103 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.HostDashboardDay;
+import com.imovel.api.booking.repository.HostDashboardDayRepository;
+import com.imovel.api.booking.response.HostDashboardResponse;
+import com.imovel.api.error.ApiCode;
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
+import com.imovel.api.session.SessionManager;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves host dashboards from the {@link HostDashboardDay} read model, with one range query per
+ * dashboard.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HostDashboardService {
+
+    private static final String SERVICE_NAME = "HostDashboardService";
+    static final int MAX_UPCOMING_DAYS = 365;
+    static final int MAX_MONTHS = 24;
+
+    private final HostDashboardDayRepository dashboardRepository;
+    private final SessionManager sessionManager;
+    private final Clock clock;
+
+    @Autowired
+    public HostDashboardService(HostDashboardDayRepository dashboardRepository, SessionManager sessionManager) {
+        this(dashboardRepository, sessionManager, Clock.systemDefaultZone());
+    }
+
+    HostDashboardService(HostDashboardDayRepository dashboardRepository, SessionManager sessionManager, Clock clock) {
+        this.dashboardRepository = dashboardRepository;
+        this.sessionManager = sessionManager;
+        this.clock = clock;
+    }
+
+    /**
+     * Dashboard of the current host: arrivals and departures over the next {@code days} days,
+     * and occupancy and revenue for the last {@code months} calendar months including this one
+     */
+    public ApplicationResponse<HostDashboardResponse> getHostDashboard(int days, int months, HttpSession session) {
+        if (days < 0 || days > MAX_UPCOMING_DAYS || months < 1 || months > MAX_MONTHS) {
+            return ApplicationResponse.error(ApiCode.VALIDATION_ERROR.getCode(),
+                    "days must be between 0 and " + MAX_UPCOMING_DAYS + " and months between 1 and " + MAX_MONTHS,
+                    ApiCode.VALIDATION_ERROR.getHttpStatus());
+        }
+        try {
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            return ApplicationResponse.success(buildDashboard(currentUser.getId(), days, months));
+        } catch (Exception e) {
+            ApiLogger.error(SERVICE_NAME, "Error building host dashboard: " + e.getMessage());
+            return ApplicationResponse.error(ApiCode.SYSTEM_ERROR.getCode(),
+                    "Failed to build host dashboard", ApiCode.SYSTEM_ERROR.getHttpStatus());
+        }
+    }
+
+    HostDashboardResponse buildDashboard(Long hostId, int days, int months) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate upcomingTo = today.plusDays(days);
+        YearMonth currentMonth = YearMonth.from(today);
+        YearMonth firstMonth = currentMonth.minusMonths(months - 1L);
+        LocalDate from = firstMonth.atDay(1);
+        LocalDate lastOfMonth = currentMonth.atEndOfMonth();
+        LocalDate to = upcomingTo.isAfter(lastOfMonth) ? upcomingTo : lastOfMonth;
+
+        Map<YearMonth, HostDashboardResponse.MonthSummary> summaries = new LinkedHashMap<>();
+        for (YearMonth month = firstMonth; !month.isAfter(currentMonth); month = month.plusMonths(1)) {
+            summaries.put(month, new HostDashboardResponse.MonthSummary(month.toString()));
+        }
+
+        HostDashboardResponse response = new HostDashboardResponse();
+        response.setHostId(hostId);
+        response.setUpcomingFrom(today);
+        response.setUpcomingTo(upcomingTo);
+        List<HostDashboardDay> rows = dashboardRepository.findByHostIdAndDayBetween(hostId, from, to);
+        for (HostDashboardDay row : rows) {
+            if (!row.getDay().isBefore(today) && !row.getDay().isAfter(upcomingTo)) {
+                response.setUpcomingArrivals(response.getUpcomingArrivals() + row.getArrivals());
+                response.setUpcomingDepartures(response.getUpcomingDepartures() + row.getDepartures());
+            }
+            HostDashboardResponse.MonthSummary summary = summaries.get(YearMonth.from(row.getDay()));
+            if (summary != null) {
+                summary.setOccupiedNights(summary.getOccupiedNights() + row.getOccupiedNights());
+                summary.setRevenue(summary.getRevenue().add(row.getRevenue()));
+            }
+        }
+        response.setMonths(List.copyOf(summaries.values()));
+        return response;
+    }
+}
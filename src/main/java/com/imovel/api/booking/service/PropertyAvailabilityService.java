@@ -1,21 +1,29 @@
 package com.imovel.api.booking.service;
 
+import com.imovel.api.booking.model.AvailabilityRange;
+import com.imovel.api.booking.model.AvailabilityTerms;
 import com.imovel.api.booking.model.Booking;
 import com.imovel.api.booking.model.PropertyAvailability;
 import com.imovel.api.booking.repository.BookingRepository;
 import com.imovel.api.booking.repository.PropertyAvailabilityRepository;
 import com.imovel.api.booking.request.AvailabilityCheckRequest;
+import com.imovel.api.booking.request.AvailabilityRangeRequest;
+import com.imovel.api.booking.request.AvailabilitySearchRequest;
 import com.imovel.api.booking.request.PropertyAvailabilityRequest;
 import com.imovel.api.booking.response.AvailabilityCheckResponse;
+import com.imovel.api.booking.response.AvailabilityRangeResponse;
+import com.imovel.api.booking.response.AvailablePropertyResponse;
+import com.imovel.api.booking.response.CompactCalendarResponse;
 import com.imovel.api.booking.response.PropertyAvailabilityResponse;
 import com.imovel.api.error.ApiCode;
 import com.imovel.api.exception.ResourceNotFoundException;
 import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.model.Property;
-import com.imovel.api.model.User;
+import com.imovel.api.model.enums.PropertyStatus;
 import com.imovel.api.repository.PropertyRepository;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.pagination.PaginationResult;
+import com.imovel.api.session.AuthenticatedUser;
 import com.imovel.api.session.SessionManager;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,12 +38,18 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * Service class for managing property availability.
  * Handles availability checking, blocking, and pricing calculations.
+ * <p>
+ * Edits spanning several nights are stored as ranges by {@link AvailabilityRangeService}; reads see
+ * the per-night rows with the ranges expanded for the requested dates.
  */
 @Service
 @Transactional
@@ -45,18 +59,22 @@ public class PropertyAvailabilityService {
     private final PropertyRepository propertyRepository;
     private final BookingRepository bookingRepository;
     private final SessionManager sessionManager;
+    private final AvailabilityRangeService rangeService;
 
     private static final String SERVICE_NAME = "PropertyAvailabilityService";
+    static final int MAX_CALENDAR_DAYS = 365;
 
     @Autowired
     public PropertyAvailabilityService(PropertyAvailabilityRepository availabilityRepository,
                                      PropertyRepository propertyRepository,
                                      BookingRepository bookingRepository,
-                                     SessionManager sessionManager) {
+                                     SessionManager sessionManager,
+                                     AvailabilityRangeService rangeService) {
         this.availabilityRepository = availabilityRepository;
         this.propertyRepository = propertyRepository;
         this.bookingRepository = bookingRepository;
         this.sessionManager = sessionManager;
+        this.rangeService = rangeService;
     }
 
     /**
@@ -65,15 +83,15 @@ public class PropertyAvailabilityService {
     @Transactional(readOnly = true)
     public ApplicationResponse<AvailabilityCheckResponse> checkAvailability(AvailabilityCheckRequest request) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Checking availability for property: " + request.getPropertyId());
+            ApiLogger.info(SERVICE_NAME, () -> "Checking availability for property: " + request.getPropertyId());
 
             // Validate property exists
             Property property = propertyRepository.findById(request.getPropertyId())
                 .orElseThrow(() -> new ResourceNotFoundException("Property", request.getPropertyId()));
 
             // Get availability records for the date range
-            List<PropertyAvailability> availabilityRecords = availabilityRepository
-                .findByPropertyIdAndDateRange(request.getPropertyId(), 
+            List<PropertyAvailability> availabilityRecords = rangeService
+                .findNights(request.getPropertyId(), 
                     request.getCheckInDate(), request.getCheckOutDate().minusDays(1));
 
             // Check for existing bookings
@@ -209,7 +227,7 @@ public class PropertyAvailabilityService {
             }
             response.setMessage(finalMessage);
 
-            ApiLogger.info(SERVICE_NAME, "Availability check completed for property: " + request.getPropertyId());
+            ApiLogger.info(SERVICE_NAME, () -> "Availability check completed for property: " + request.getPropertyId());
 
             return ApplicationResponse.success(response);
 
@@ -232,9 +250,9 @@ public class PropertyAvailabilityService {
     public ApplicationResponse<PropertyAvailabilityResponse> setPropertyAvailability(
             PropertyAvailabilityRequest request, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Setting availability for property: " + request.getPropertyId());
+            ApiLogger.info(SERVICE_NAME, () -> "Setting availability for property: " + request.getPropertyId());
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             // Validate property exists and user owns it
             Property property = propertyRepository.findById(request.getPropertyId())
@@ -268,7 +286,7 @@ public class PropertyAvailabilityService {
 
             availability = availabilityRepository.save(availability);
 
-            ApiLogger.info(SERVICE_NAME, "Successfully set availability for property: " + request.getPropertyId());
+            ApiLogger.info(SERVICE_NAME, () -> "Successfully set availability for property: " + request.getPropertyId());
 
             return ApplicationResponse.success(convertToAvailabilityResponse(availability));
 
@@ -292,7 +310,7 @@ public class PropertyAvailabilityService {
     public ApplicationResponse<List<PropertyAvailabilityResponse>> getPropertyAvailability(
             Long propertyId, LocalDate startDate, LocalDate endDate, HttpSession session) {
         try {
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             // Validate property exists and user owns it
             Property property = propertyRepository.findById(propertyId)
@@ -302,8 +320,8 @@ public class PropertyAvailabilityService {
                 return ApplicationResponse.error(ApiCode.PERMISSION_DENIED.getCode(), "Not authorized to view this property", ApiCode.PERMISSION_DENIED.getHttpStatus());
             }
 
-            List<PropertyAvailability> availabilityRecords = availabilityRepository
-                .findByPropertyIdAndDateRange(propertyId, startDate, endDate);
+            List<PropertyAvailability> availabilityRecords = rangeService
+                .findNights(propertyId, startDate, endDate);
 
             List<PropertyAvailabilityResponse> responses = availabilityRecords.stream()
                 .map(this::convertToAvailabilityResponse)
@@ -331,28 +349,37 @@ public class PropertyAvailabilityService {
 
     /**
      * Blocks dates for a confirmed booking.
+     * Nights without a row of their own get one seeded from the covering range, so the booking
+     * block keeps the range's price and stay rules.
      */
     public void blockDatesForBooking(Booking booking) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Blocking dates for booking: " + booking.getId());
-
-            LocalDate currentDate = booking.getCheckInDate();
-            while (currentDate.isBefore(booking.getCheckOutDate())) {
-                PropertyAvailability availability = availabilityRepository
-                    .findByPropertyIdAndDate(booking.getProperty().getId(), currentDate)
-                    .orElse(new PropertyAvailability());
-
-                if (availability.getId() == null) {
+            ApiLogger.info(SERVICE_NAME, () -> "Blocking dates for booking: " + booking.getId());
+
+            Long propertyId = booking.getProperty().getId();
+            LocalDate checkIn = booking.getCheckInDate();
+            LocalDate checkOut = booking.getCheckOutDate();
+            Map<LocalDate, PropertyAvailability> rows = availabilityRepository
+                .findByPropertyIdAndDateRange(propertyId, checkIn, checkOut.minusDays(1)).stream()
+                .collect(Collectors.toMap(PropertyAvailability::getDate, Function.identity()));
+            List<AvailabilityRange> ranges = rangeService.findRanges(propertyId, checkIn, checkOut);
+
+            String reason = "Booked (Booking #" + booking.getId() + ")";
+            List<PropertyAvailability> blocked = new ArrayList<>();
+            for (LocalDate currentDate = checkIn; currentDate.isBefore(checkOut); currentDate = currentDate.plusDays(1)) {
+                PropertyAvailability availability = rows.get(currentDate);
+                if (availability == null) {
+                    availability = new PropertyAvailability();
                     availability.setProperty(booking.getProperty());
                     availability.setDate(currentDate);
+                    termsOf(ranges, currentDate).blocked(reason).applyTo(availability);
+                } else {
+                    availability.setIsAvailable(false);
+                    availability.setBlockedReason(reason);
                 }
-
-                availability.setIsAvailable(false);
-                availability.setBlockedReason("Booked (Booking #" + booking.getId() + ")");
-
-                availabilityRepository.save(availability);
-                currentDate = currentDate.plusDays(1);
+                blocked.add(availability);
             }
+            availabilityRepository.saveAll(blocked);
 
         } catch (Exception e) {
             ApiLogger.error(SERVICE_NAME, "Error blocking dates for booking: " + e.getMessage());
@@ -361,24 +388,36 @@ public class PropertyAvailabilityService {
 
     /**
      * Releases dates when a booking is cancelled.
+     * A released night whose terms are the covering range's again is folded back into the range.
      */
     public void releaseDatesForBooking(Booking booking) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Releasing dates for cancelled booking: " + booking.getId());
-
-            LocalDate currentDate = booking.getCheckInDate();
-            while (currentDate.isBefore(booking.getCheckOutDate())) {
-                availabilityRepository.findByPropertyIdAndDate(booking.getProperty().getId(), currentDate)
-                    .ifPresent(availability -> {
-                        if (availability.getBlockedReason() != null && 
-                            availability.getBlockedReason().contains("Booking #" + booking.getId())) {
-                            availability.setIsAvailable(true);
-                            availability.setBlockedReason(null);
-                            availabilityRepository.save(availability);
-                        }
-                    });
-
-                currentDate = currentDate.plusDays(1);
+            ApiLogger.info(SERVICE_NAME, () -> "Releasing dates for cancelled booking: " + booking.getId());
+
+            Long propertyId = booking.getProperty().getId();
+            LocalDate checkIn = booking.getCheckInDate();
+            LocalDate checkOut = booking.getCheckOutDate();
+            List<AvailabilityRange> ranges = rangeService.findRanges(propertyId, checkIn, checkOut);
+
+            List<PropertyAvailability> released = new ArrayList<>();
+            List<PropertyAvailability> folded = new ArrayList<>();
+            for (PropertyAvailability availability : availabilityRepository
+                    .findByPropertyIdAndDateRange(propertyId, checkIn, checkOut.minusDays(1))) {
+                if (availability.getBlockedReason() != null &&
+                    availability.getBlockedReason().contains("Booking #" + booking.getId())) {
+                    availability.setIsAvailable(true);
+                    availability.setBlockedReason(null);
+                    AvailabilityRange range = coveringRange(ranges, availability.getDate());
+                    if (range != null && AvailabilityTerms.of(range).equals(AvailabilityTerms.of(availability))) {
+                        folded.add(availability);
+                    } else {
+                        released.add(availability);
+                    }
+                }
+            }
+            availabilityRepository.saveAll(released);
+            if (!folded.isEmpty()) {
+                availabilityRepository.deleteAllInBatch(folded);
             }
 
         } catch (Exception e) {
@@ -386,14 +425,29 @@ public class PropertyAvailabilityService {
         }
     }
 
+    // Terms of a night without a row of its own: the covering range's, or the defaults
+    private static AvailabilityTerms termsOf(List<AvailabilityRange> ranges, LocalDate night) {
+        AvailabilityRange range = coveringRange(ranges, night);
+        return range != null ? AvailabilityTerms.of(range) : AvailabilityTerms.DEFAULT;
+    }
+
+    private static AvailabilityRange coveringRange(List<AvailabilityRange> ranges, LocalDate night) {
+        for (AvailabilityRange range : ranges) {
+            if (!range.getStartDate().isAfter(night) && range.getEndDate().isAfter(night)) {
+                return range;
+            }
+        }
+        return null;
+    }
+
     /**
      * Deletes an availability record.
      */
     public ApplicationResponse<Void> deleteAvailability(Long availabilityId, HttpSession session) {
         try {
-            ApiLogger.info(SERVICE_NAME, "Deleting availability record: " + availabilityId);
+            ApiLogger.info(SERVICE_NAME, () -> "Deleting availability record: " + availabilityId);
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             // Find the availability record
             PropertyAvailability availability = availabilityRepository.findById(availabilityId)
@@ -410,7 +464,7 @@ public class PropertyAvailabilityService {
 
             availabilityRepository.delete(availability);
 
-            ApiLogger.info(SERVICE_NAME, "Successfully deleted availability record: " + availabilityId);
+            ApiLogger.info(SERVICE_NAME, () -> "Successfully deleted availability record: " + availabilityId);
             return ApplicationResponse.success("Availability record deleted successfully");
 
         } catch (ResourceNotFoundException e) {
@@ -443,7 +497,7 @@ public class PropertyAvailabilityService {
                         ApiCode.VALIDATION_ERROR.getHttpStatus());
             }
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             PropertyAvailability availability = availabilityRepository.findById(availabilityId)
                     .orElseThrow(() -> new ResourceNotFoundException("Availability record", availabilityId));
@@ -507,7 +561,7 @@ public class PropertyAvailabilityService {
 
             availability = availabilityRepository.save(availability);
 
-            ApiLogger.info(SERVICE_NAME, "Successfully updated availability record: " + availabilityId);
+            ApiLogger.info(SERVICE_NAME, () -> "Successfully updated availability record: " + availabilityId);
             return ApplicationResponse.success(convertToAvailabilityResponse(availability));
         } catch (ResourceNotFoundException e) {
             ApiLogger.error(SERVICE_NAME, "Availability record not found: " + e.getMessage());
@@ -540,8 +594,8 @@ public class PropertyAvailabilityService {
             LocalDate effectiveStart = (startDate != null) ? startDate : LocalDate.now();
             LocalDate effectiveEnd = (endDate != null) ? endDate : effectiveStart.plusDays(31);
 
-            List<PropertyAvailabilityResponse> responses = availabilityRepository
-                .findByPropertyIdAndDateRange(propertyId, effectiveStart, effectiveEnd)
+            List<PropertyAvailabilityResponse> responses = rangeService
+                .findNights(propertyId, effectiveStart, effectiveEnd)
                 .stream()
                 .map(this::convertToAvailabilityResponse)
                 .collect(Collectors.toList());
@@ -584,41 +638,52 @@ public class PropertyAvailabilityService {
                         ApiCode.VALIDATION_ERROR.getHttpStatus());
             }
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            if (requests.stream().anyMatch(r -> r.getDate() == null)) {
+                return ApplicationResponse.error(
+                        ApiCode.VALIDATION_ERROR.getCode(),
+                        "Every request must have a date",
+                        ApiCode.VALIDATION_ERROR.getHttpStatus());
+            }
 
-            Property property = propertyRepository.findById(propertyId)
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+
+            Property property = propertyRepository.findByIdForUpdate(propertyId)
                     .orElseThrow(() -> new ResourceNotFoundException("Property", propertyId));
 
             if (!property.getCreatedBy().getId().equals(currentUser.getId())) {
                 return ApplicationResponse.error(ApiCode.PERMISSION_DENIED.getCode(), "Not authorized to modify this property", ApiCode.PERMISSION_DENIED.getHttpStatus());
             }
 
-            List<PropertyAvailabilityResponse> responses = new ArrayList<>();
+            // Consecutive dates with the same settings become a single range edit
+            List<AvailabilityRangeService.Edit> edits = new ArrayList<>();
+            LocalDate runStart = null;
+            LocalDate runEnd = null;
+            AvailabilityTerms runTerms = null;
             for (PropertyAvailabilityRequest req : requests) {
-                PropertyAvailability availability = availabilityRepository
-                        .findByPropertyIdAndDate(propertyId, req.getDate())
-                        .orElse(new PropertyAvailability());
-
-                if (availability.getId() == null) {
-                    availability.setProperty(property);
-                    availability.setDate(req.getDate());
+                AvailabilityTerms terms = toTerms(req);
+                if (runTerms != null && req.getDate().equals(runEnd) && terms.equals(runTerms)) {
+                    runEnd = runEnd.plusDays(1);
+                    continue;
                 }
-
-                availability.setIsAvailable(req.getIsAvailable());
-                availability.setPrice(req.getPrice());
-                availability.setMinStay(req.getMinStay());
-                availability.setMaxStay(req.getMaxStay());
-                availability.setBlockedReason(req.getBlockedReason());
-                availability.setIsInstantBook(req.getIsInstantBook());
-                availability.setCheckInAllowed(req.getCheckInAllowed());
-                availability.setCheckOutAllowed(req.getCheckOutAllowed());
-                availability.setNotes(req.getNotes());
-
-                availability = availabilityRepository.save(availability);
-                responses.add(convertToAvailabilityResponse(availability));
+                if (runTerms != null) {
+                    edits.add(replaceWith(runStart, runEnd, runTerms));
+                }
+                runStart = req.getDate();
+                runEnd = runStart.plusDays(1);
+                runTerms = terms;
             }
+            edits.add(replaceWith(runStart, runEnd, runTerms));
+
+            List<AvailabilityRange> ranges = rangeService.apply(property, edits);
+            LocalDate first = requests.stream().map(PropertyAvailabilityRequest::getDate).min(LocalDate::compareTo).orElseThrow();
+            LocalDate last = requests.stream().map(PropertyAvailabilityRequest::getDate).max(LocalDate::compareTo).orElseThrow();
+            Map<LocalDate, PropertyAvailability> nights = rangeService.expand(ranges, first, last).stream()
+                    .collect(Collectors.toMap(PropertyAvailability::getDate, Function.identity()));
+            List<PropertyAvailabilityResponse> responses = requests.stream()
+                    .map(req -> convertToAvailabilityResponse(nights.get(req.getDate())))
+                    .collect(Collectors.toList());
 
-            ApiLogger.info(SERVICE_NAME, "Bulk availability update completed for property: " + propertyId);
+            ApiLogger.info(SERVICE_NAME, () -> "Bulk availability update completed for property: " + propertyId);
             return ApplicationResponse.success(responses);
         } catch (ResourceNotFoundException e) {
             return ApplicationResponse.error(
@@ -641,33 +706,20 @@ public class PropertyAvailabilityService {
                 return ApplicationResponse.error(ApiCode.VALIDATION_ERROR.getCode(), "PropertyId, startDate and endDate are required", ApiCode.VALIDATION_ERROR.getHttpStatus());
             }
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
-            Property property = propertyRepository.findById(propertyId)
+            Property property = propertyRepository.findByIdForUpdate(propertyId)
                     .orElseThrow(() -> new ResourceNotFoundException("Property", propertyId));
 
             if (!property.getCreatedBy().getId().equals(currentUser.getId())) {
                 return ApplicationResponse.error(ApiCode.PERMISSION_DENIED.getCode(), "Not authorized to modify this property", ApiCode.PERMISSION_DENIED.getHttpStatus());
             }
 
-            List<PropertyAvailabilityResponse> responses = new ArrayList<>();
-            LocalDate date = startDate;
-            while (!date.isAfter(endDate)) {
-                PropertyAvailability availability = availabilityRepository
-                        .findByPropertyIdAndDate(propertyId, date)
-                        .orElse(new PropertyAvailability());
-                if (availability.getId() == null) {
-                    availability.setProperty(property);
-                    availability.setDate(date);
-                }
-                availability.setIsAvailable(false);
-                availability.setBlockedReason((reason != null && !reason.isBlank()) ? reason : "Blocked by host");
-                availability = availabilityRepository.save(availability);
-                responses.add(convertToAvailabilityResponse(availability));
-                date = date.plusDays(1);
-            }
+            String blockedReason = (reason != null && !reason.isBlank()) ? reason : "Blocked by host";
+            List<PropertyAvailabilityResponse> responses = editNights(property, startDate, endDate,
+                    terms -> terms.blocked(blockedReason));
 
-            ApiLogger.info(SERVICE_NAME, "Blocked dates for property: " + propertyId + " from " + startDate + " to " + endDate);
+            ApiLogger.info(SERVICE_NAME, () -> "Blocked dates for property: " + propertyId + " from " + startDate + " to " + endDate);
             return ApplicationResponse.success(responses);
         } catch (ResourceNotFoundException e) {
             return ApplicationResponse.error(ApiCode.RESOURCE_NOT_FOUND.getCode(), e.getMessage(), ApiCode.RESOURCE_NOT_FOUND.getHttpStatus());
@@ -687,33 +739,18 @@ public class PropertyAvailabilityService {
                 return ApplicationResponse.error(ApiCode.VALIDATION_ERROR.getCode(), "PropertyId, startDate and endDate are required", ApiCode.VALIDATION_ERROR.getHttpStatus());
             }
 
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
-            Property property = propertyRepository.findById(propertyId)
+            Property property = propertyRepository.findByIdForUpdate(propertyId)
                     .orElseThrow(() -> new ResourceNotFoundException("Property", propertyId));
 
             if (!property.getCreatedBy().getId().equals(currentUser.getId())) {
                 return ApplicationResponse.error(ApiCode.PERMISSION_DENIED.getCode(), "Not authorized to modify this property", ApiCode.PERMISSION_DENIED.getHttpStatus());
             }
 
-            List<PropertyAvailabilityResponse> responses = new ArrayList<>();
-            LocalDate date = startDate;
-            while (!date.isAfter(endDate)) {
-                PropertyAvailability availability = availabilityRepository
-                        .findByPropertyIdAndDate(propertyId, date)
-                        .orElse(new PropertyAvailability());
-                if (availability.getId() == null) {
-                    availability.setProperty(property);
-                    availability.setDate(date);
-                }
-                availability.setIsAvailable(true);
-                availability.setBlockedReason(null);
-                availability = availabilityRepository.save(availability);
-                responses.add(convertToAvailabilityResponse(availability));
-                date = date.plusDays(1);
-            }
+            List<PropertyAvailabilityResponse> responses = editNights(property, startDate, endDate, AvailabilityTerms::released);
 
-            ApiLogger.info(SERVICE_NAME, "Released dates for property: " + propertyId + " from " + startDate + " to " + endDate);
+            ApiLogger.info(SERVICE_NAME, () -> "Released dates for property: " + propertyId + " from " + startDate + " to " + endDate);
             return ApplicationResponse.success(responses);
         } catch (ResourceNotFoundException e) {
             return ApplicationResponse.error(ApiCode.RESOURCE_NOT_FOUND.getCode(), e.getMessage(), ApiCode.RESOURCE_NOT_FOUND.getHttpStatus());
@@ -723,6 +760,72 @@ public class PropertyAvailabilityService {
         }
     }
 
+    /**
+     * Applies range edits to a property calendar in one transaction.
+     */
+    public ApplicationResponse<List<AvailabilityRangeResponse>> editAvailabilityRanges(
+            Long propertyId, List<AvailabilityRangeRequest> requests, HttpSession session) {
+        try {
+            if (propertyId == null || requests == null || requests.isEmpty()) {
+                return ApplicationResponse.error(ApiCode.VALIDATION_ERROR.getCode(), "PropertyId and at least one range are required", ApiCode.VALIDATION_ERROR.getHttpStatus());
+            }
+            if (requests.stream().anyMatch(r -> r.getStartDate() == null || r.getEndDate() == null || !r.getEndDate().isAfter(r.getStartDate()))) {
+                return ApplicationResponse.error(ApiCode.VALIDATION_ERROR.getCode(), "Every range needs a start date before its end date", ApiCode.VALIDATION_ERROR.getHttpStatus());
+            }
+
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+
+            Property property = propertyRepository.findByIdForUpdate(propertyId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Property", propertyId));
+
+            if (!property.getCreatedBy().getId().equals(currentUser.getId())) {
+                return ApplicationResponse.error(ApiCode.PERMISSION_DENIED.getCode(), "Not authorized to modify this property", ApiCode.PERMISSION_DENIED.getHttpStatus());
+            }
+
+            List<AvailabilityRangeService.Edit> edits = requests.stream()
+                    .map(req -> new AvailabilityRangeService.Edit(req.getStartDate(), req.getEndDate(), toChange(req)))
+                    .collect(Collectors.toList());
+            List<AvailabilityRangeResponse> responses = rangeService.apply(property, edits).stream()
+                    .map(this::convertToRangeResponse)
+                    .collect(Collectors.toList());
+
+            ApiLogger.info(SERVICE_NAME, () -> "Applied " + requests.size() + " range edits for property: " + propertyId);
+            return ApplicationResponse.success(responses);
+        } catch (ResourceNotFoundException e) {
+            return ApplicationResponse.error(ApiCode.RESOURCE_NOT_FOUND.getCode(), e.getMessage(), ApiCode.RESOURCE_NOT_FOUND.getHttpStatus());
+        } catch (Exception e) {
+            ApiLogger.error(SERVICE_NAME, "Error editing availability ranges: " + e.getMessage());
+            return ApplicationResponse.error(ApiCode.SYSTEM_ERROR.getCode(), "Failed to edit availability ranges", ApiCode.SYSTEM_ERROR.getHttpStatus());
+        }
+    }
+
+    /**
+     * Get the availability ranges of a property.
+     */
+    @Transactional(readOnly = true)
+    public ApplicationResponse<List<AvailabilityRangeResponse>> getAvailabilityRanges(
+            Long propertyId, LocalDate startDate, LocalDate endDate) {
+        try {
+            propertyRepository.findById(propertyId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Property", propertyId));
+
+            LocalDate effectiveStart = (startDate != null) ? startDate : LocalDate.now();
+            LocalDate effectiveEnd = (endDate != null) ? endDate : effectiveStart.plusDays(365);
+
+            List<AvailabilityRangeResponse> responses = rangeService
+                    .findRanges(propertyId, effectiveStart, effectiveEnd.plusDays(1))
+                    .stream()
+                    .map(this::convertToRangeResponse)
+                    .collect(Collectors.toList());
+            return ApplicationResponse.success(responses);
+        } catch (ResourceNotFoundException e) {
+            return ApplicationResponse.error(ApiCode.RESOURCE_NOT_FOUND.getCode(), e.getMessage(), ApiCode.RESOURCE_NOT_FOUND.getHttpStatus());
+        } catch (Exception e) {
+            ApiLogger.error(SERVICE_NAME, "Error retrieving availability ranges: " + e.getMessage());
+            return ApplicationResponse.error(ApiCode.SYSTEM_ERROR.getCode(), "Failed to retrieve availability ranges", ApiCode.SYSTEM_ERROR.getHttpStatus());
+        }
+    }
+
     /**
      * Get availability calendar with pagination.
      */
@@ -736,14 +839,11 @@ public class PropertyAvailabilityService {
             LocalDate effectiveStart = (startDate != null) ? startDate : LocalDate.now();
             LocalDate effectiveEnd = (endDate != null) ? endDate : effectiveStart.plusDays(31);
 
-            List<PropertyAvailabilityResponse> all = availabilityRepository
-                    .findByPropertyIdAndDateRange(propertyId, effectiveStart, effectiveEnd)
-                    .stream()
-                    .map(this::convertToAvailabilityResponse)
-                    .collect(Collectors.toList());
+            Page<PropertyAvailabilityResponse> page = rangeService
+                    .findNights(propertyId, effectiveStart, effectiveEnd, pageable)
+                    .map(this::convertToAvailabilityResponse);
 
-            PaginationResult<PropertyAvailabilityResponse> result = buildPaginationResultFromList(all, pageable);
-            return ApplicationResponse.success(result);
+            return ApplicationResponse.success(buildPaginationResult(page));
         } catch (ResourceNotFoundException e) {
             return ApplicationResponse.error(ApiCode.RESOURCE_NOT_FOUND.getCode(), e.getMessage(), ApiCode.RESOURCE_NOT_FOUND.getHttpStatus());
         } catch (Exception e) {
@@ -765,10 +865,9 @@ public class PropertyAvailabilityService {
             LocalDate effectiveStart = (startDate != null) ? startDate : LocalDate.now();
             LocalDate effectiveEnd = (endDate != null) ? endDate : effectiveStart.plusDays(31);
 
-            List<PropertyAvailabilityResponse> responses = availabilityRepository
-                    .findByPropertyIdAndDateRange(propertyId, effectiveStart, effectiveEnd)
+            List<PropertyAvailabilityResponse> responses = rangeService
+                    .findNightsWithStatus(propertyId, effectiveStart, effectiveEnd, false, false)
                     .stream()
-                    .filter(a -> Boolean.FALSE.equals(a.getIsAvailable()))
                     .map(this::convertToAvailabilityResponse)
                     .collect(Collectors.toList());
             return ApplicationResponse.success(responses);
@@ -793,11 +892,9 @@ public class PropertyAvailabilityService {
             LocalDate effectiveStart = (startDate != null) ? startDate : LocalDate.now();
             LocalDate effectiveEnd = (endDate != null) ? endDate : effectiveStart.plusDays(31);
 
-            List<PropertyAvailabilityResponse> responses = availabilityRepository
-                    .findByPropertyIdAndDateRange(propertyId, effectiveStart, effectiveEnd)
+            List<PropertyAvailabilityResponse> responses = rangeService
+                    .findNightsWithStatus(propertyId, effectiveStart, effectiveEnd, true, instantBookOnly)
                     .stream()
-                    .filter(a -> Boolean.TRUE.equals(a.getIsAvailable()))
-                    .filter(a -> !instantBookOnly || Boolean.TRUE.equals(a.getIsInstantBook()))
                     .map(this::convertToAvailabilityResponse)
                     .collect(Collectors.toList());
             return ApplicationResponse.success(responses);
@@ -809,8 +906,148 @@ public class PropertyAvailabilityService {
         }
     }
 
+    /**
+     * Search the properties free for a whole stay in one paginated query, instead of checking each
+     * property in turn. Only properties listed as available are searched.
+     */
+    @Transactional(readOnly = true)
+    public ApplicationResponse<PaginationResult<AvailablePropertyResponse>> searchAvailableProperties(
+            AvailabilitySearchRequest request, Pageable pageable) {
+        try {
+            String city = request.getCity() == null || request.getCity().isBlank() ? null : request.getCity().trim();
+            Page<AvailablePropertyResponse> page = propertyRepository.findAvailableForStay(
+                    request.getCheckInDate(), request.getCheckOutDate(), PropertyStatus.AVAILABLE,
+                    request.getType(), request.getCategory(), city, request.getMinPrice(), request.getMaxPrice(),
+                    request.getTotalGuests(), pageable)
+                    .map(this::convertToAvailablePropertyResponse);
+
+            ApiLogger.info(SERVICE_NAME, () -> "Availability search found " + page.getTotalElements() + " properties");
+
+            return ApplicationResponse.success(buildPaginationResult(page));
+        } catch (Exception e) {
+            ApiLogger.error(SERVICE_NAME, "Error searching available properties: " + e.getMessage());
+            return ApplicationResponse.error(ApiCode.SYSTEM_ERROR.getCode(), "Failed to search available properties", ApiCode.SYSTEM_ERROR.getHttpStatus());
+        }
+    }
+
+    /**
+     * Get the availability calendar of a property in a compact form: one character per night
+     * ({@code bitmap}) or the runs of nights sharing the same terms ({@code runs}). The window is
+     * capped at {@link #MAX_CALENDAR_DAYS} days past the start date.
+     */
+    @Transactional(readOnly = true)
+    public ApplicationResponse<CompactCalendarResponse> getCompactCalendar(
+            Long propertyId, LocalDate startDate, LocalDate endDate, String format) {
+        try {
+            if (!CompactCalendarResponse.FORMAT_BITMAP.equals(format) && !CompactCalendarResponse.FORMAT_RUNS.equals(format)) {
+                return ApplicationResponse.error(ApiCode.INVALID_REQUEST.getCode(),
+                        "Format must be 'bitmap' or 'runs'", ApiCode.INVALID_REQUEST.getHttpStatus());
+            }
+            Property property = propertyRepository.findById(propertyId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Property", propertyId));
+
+            LocalDate effectiveStart = (startDate != null) ? startDate : LocalDate.now();
+            LocalDate effectiveEnd = (endDate != null) ? endDate : effectiveStart.plusDays(31);
+            if (effectiveEnd.isBefore(effectiveStart)) {
+                return ApplicationResponse.error(ApiCode.INVALID_REQUEST.getCode(),
+                        "End date must not be before start date", ApiCode.INVALID_REQUEST.getHttpStatus());
+            }
+            if (ChronoUnit.DAYS.between(effectiveStart, effectiveEnd) > MAX_CALENDAR_DAYS) {
+                return ApplicationResponse.error(ApiCode.VALIDATION_ERROR.getCode(),
+                        "Calendar window cannot exceed " + MAX_CALENDAR_DAYS + " days", ApiCode.VALIDATION_ERROR.getHttpStatus());
+            }
+
+            List<AvailabilityRange> runs = rangeService.findRuns(property, effectiveStart, effectiveEnd);
+            CompactCalendarResponse response = new CompactCalendarResponse(propertyId, effectiveStart, effectiveEnd, format);
+            if (CompactCalendarResponse.FORMAT_BITMAP.equals(format)) {
+                StringBuilder bitmap = new StringBuilder((int) ChronoUnit.DAYS.between(effectiveStart, effectiveEnd) + 1);
+                for (AvailabilityRange run : runs) {
+                    char night = Boolean.TRUE.equals(run.getIsAvailable()) ? '1' : '0';
+                    for (long i = ChronoUnit.DAYS.between(run.getStartDate(), run.getEndDate()); i > 0; i--) {
+                        bitmap.append(night);
+                    }
+                }
+                response.setBitmap(bitmap.toString());
+            } else {
+                response.setRuns(runs.stream().map(this::convertToRangeResponse).collect(Collectors.toList()));
+            }
+            return ApplicationResponse.success(response);
+        } catch (ResourceNotFoundException e) {
+            return ApplicationResponse.error(ApiCode.RESOURCE_NOT_FOUND.getCode(), e.getMessage(), ApiCode.RESOURCE_NOT_FOUND.getHttpStatus());
+        } catch (Exception e) {
+            ApiLogger.error(SERVICE_NAME, "Error retrieving compact calendar: " + e.getMessage());
+            return ApplicationResponse.error(ApiCode.SYSTEM_ERROR.getCode(), "Failed to retrieve compact calendar", ApiCode.SYSTEM_ERROR.getHttpStatus());
+        }
+    }
+
     // Helper methods
 
+    private List<PropertyAvailabilityResponse> editNights(Property property, LocalDate startDate, LocalDate endDate,
+                                                          UnaryOperator<AvailabilityTerms> change) {
+        List<AvailabilityRange> ranges = rangeService.apply(property,
+                List.of(new AvailabilityRangeService.Edit(startDate, endDate.plusDays(1), change)));
+        return rangeService.expand(ranges, startDate, endDate).stream()
+                .map(this::convertToAvailabilityResponse)
+                .collect(Collectors.toList());
+    }
+
+    private static AvailabilityRangeService.Edit replaceWith(LocalDate start, LocalDate end, AvailabilityTerms terms) {
+        return new AvailabilityRangeService.Edit(start, end, ignored -> terms);
+    }
+
+    private static AvailabilityTerms toTerms(PropertyAvailabilityRequest request) {
+        return new AvailabilityTerms(request.getIsAvailable(), request.getPrice(), request.getMinStay(),
+                request.getMaxStay(), request.getBlockedReason(), request.getIsInstantBook(),
+                request.getCheckInAllowed(), request.getCheckOutAllowed(), request.getNotes());
+    }
+
+    private static UnaryOperator<AvailabilityTerms> toChange(AvailabilityRangeRequest request) {
+        AvailabilityTerms patch = new AvailabilityTerms(request.getIsAvailable(), request.getPrice(),
+                request.getMinStay(), request.getMaxStay(), request.getBlockedReason(), request.getIsInstantBook(),
+                request.getCheckInAllowed(), request.getCheckOutAllowed(), request.getNotes());
+        if (Boolean.TRUE.equals(request.getIsAvailable())) {
+            return terms -> terms.patchedWith(patch).released();
+        }
+        return terms -> terms.patchedWith(patch);
+    }
+
+    private AvailabilityRangeResponse convertToRangeResponse(AvailabilityRange range) {
+        AvailabilityRangeResponse response = new AvailabilityRangeResponse();
+        response.setId(range.getId());
+        response.setPropertyId(range.getProperty().getId());
+        response.setStartDate(range.getStartDate());
+        response.setEndDate(range.getEndDate());
+        response.setIsAvailable(range.getIsAvailable());
+        response.setPrice(range.getPrice());
+        response.setMinStay(range.getMinStay());
+        response.setMaxStay(range.getMaxStay());
+        response.setBlockedReason(range.getBlockedReason());
+        response.setIsInstantBook(range.getIsInstantBook());
+        response.setCheckInAllowed(range.getCheckInAllowed());
+        response.setCheckOutAllowed(range.getCheckOutAllowed());
+        response.setNotes(range.getNotes());
+        response.setCreatedAt(range.getCreatedAt());
+        response.setUpdatedAt(range.getUpdatedAt());
+        return response;
+    }
+
+    private AvailablePropertyResponse convertToAvailablePropertyResponse(Property property) {
+        AvailablePropertyResponse response = new AvailablePropertyResponse();
+        response.setPropertyId(property.getId());
+        response.setMainTitle(property.getMainTitle());
+        response.setType(property.getType());
+        response.setCategory(property.getCategory());
+        if (property.getLocation() != null) {
+            response.setCity(property.getLocation().getCity());
+            response.setCountry(property.getLocation().getCountry());
+        }
+        response.setPrice(property.getPrice());
+        response.setBedrooms(property.getBedrooms());
+        response.setMaxAdultsAccommodation(property.getMaxAdultsAccommodation());
+        response.setMaxChildrenAccommodation(property.getMaxChildrenAccommodation());
+        return response;
+    }
+
     private PropertyAvailabilityResponse convertToAvailabilityResponse(PropertyAvailability availability) {
         PropertyAvailabilityResponse response = new PropertyAvailabilityResponse();
         response.setId(availability.getId());
@@ -830,23 +1067,13 @@ public class PropertyAvailabilityService {
 
         return response;
     }
-    private PaginationResult<PropertyAvailabilityResponse> buildPaginationResultFromList(List<PropertyAvailabilityResponse> responses, Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), responses.size());
-        if (start > end) { start = Math.max(0, responses.size() - pageable.getPageSize()); end = responses.size(); }
-        List<PropertyAvailabilityResponse> pageContent = responses.subList(start, end);
-
-        int pageSize = pageable.getPageSize();
-        long totalRecords = responses.size();
-        int lastPageNumber = (int) Math.ceil((double) Math.max(1, totalRecords) / Math.max(1, pageSize));
-        int currentPageNumber = Math.min(pageable.getPageNumber() + 1, Math.max(1, lastPageNumber));
-
-        PaginationResult<PropertyAvailabilityResponse> result = new PaginationResult<>();
-        result.setCurrentPageNumber(currentPageNumber);
-        result.setLastPageNumber(lastPageNumber == 0 ? 1 : lastPageNumber);
-        result.setPageSize(pageSize);
-        result.setTotalRecords(totalRecords);
-        result.setRecords(pageContent);
+    private static <T> PaginationResult<T> buildPaginationResult(Page<T> page) {
+        PaginationResult<T> result = new PaginationResult<>();
+        result.setCurrentPageNumber(page.getNumber() + 1);
+        result.setLastPageNumber(Math.max(1, page.getTotalPages()));
+        result.setPageSize(page.getSize());
+        result.setTotalRecords(page.getTotalElements());
+        result.setRecords(page.getContent());
         return result;
     }
 }
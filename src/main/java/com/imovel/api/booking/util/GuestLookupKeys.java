@@ -0,0 +1,85 @@
+package com.imovel.api.booking.util;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalized keys used to look up booking guests by email, phone and name.
+ * <p>
+ * Keys are stored next to the raw values on {@code BookingGuest} so lookups compare indexed
+ * columns instead of applying {@code LOWER} or {@code LIKE '%...%'} to every row.
+ */
+public final class GuestLookupKeys {
+
+    /**
+     * Length of the name n-grams; a name search needs at least this many characters to use them
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private GuestLookupKeys() {
+    }
+
+    /**
+     * Trimmed, lower-cased email, or null if blank
+     */
+    public static String email(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Phone in E.164 form ({@code +} and digits) when it carries an international prefix
+     * ({@code +} or {@code 00}); otherwise just its digits, since the region is unknown.
+     * Null if it has no digits.
+     */
+    public static String phone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String trimmed = phone.trim();
+        StringBuilder digits = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.isEmpty()) {
+            return null;
+        }
+        if (trimmed.startsWith("+")) {
+            return "+" + digits;
+        }
+        if (trimmed.startsWith("00") && digits.length() > 2) {
+            return "+" + digits.substring(2);
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Lower-cased name, matching what {@code LOWER(full_name)} compares against
+     */
+    public static String name(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct n-grams of the lower-cased name. Every n-gram of a search term also occurs in any
+     * name containing it, so the n-grams narrow a substring search down to a few candidates.
+     */
+    public static Set<String> nameGrams(String name) {
+        String normalized = name(name);
+        if (normalized == null || normalized.length() < GRAM_LENGTH) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
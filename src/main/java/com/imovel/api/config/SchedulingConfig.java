@@ -0,0 +1,12 @@
+package com.imovel.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the webhook inbox worker and token cleanup.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
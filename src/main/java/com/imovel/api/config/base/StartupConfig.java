@@ -2,12 +2,12 @@ package com.imovel.api.config.base;
 
 
 import com.imovel.api.logger.ApiLogger;
-import com.imovel.api.model.Configuration;
 import com.imovel.api.model.Permissions;
 import com.imovel.api.model.SubscriptionPlan;
-import com.imovel.api.repository.ConfigurationRepository;
 import com.imovel.api.repository.SubscriptionPlanRepository;
 import com.imovel.api.repository.PermissionsRepository;
+import com.imovel.api.services.ConfigurationService;
+import com.imovel.api.subscription.PlanCatalog;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -20,20 +20,23 @@ import java.util.Map;
 @Component
 public class StartupConfig {
 
-    private final ConfigurationRepository configurationRepository;
+    private final ConfigurationService configurationService;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
     private final PermissionsRepository permissionRepository;
     private final StartupConfigLoader appConfig;
+    private final PlanCatalog planCatalog;
 
     @Autowired
-    public StartupConfig(ConfigurationRepository configurationRepository,
+    public StartupConfig(ConfigurationService configurationService,
                          SubscriptionPlanRepository subscriptionPlanRepository,
                          PermissionsRepository permissionRepository,
-                         StartupConfigLoader appConfig) {
-        this.configurationRepository = configurationRepository;
+                         StartupConfigLoader appConfig,
+                         PlanCatalog planCatalog) {
+        this.configurationService = configurationService;
         this.subscriptionPlanRepository = subscriptionPlanRepository;
         this.permissionRepository = permissionRepository;
         this.appConfig = appConfig;
+        this.planCatalog = planCatalog;
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -52,22 +55,13 @@ public class StartupConfig {
     private void initializeDefaultConfigurations() {
         Map<String, String> configMap = appConfig.getDefaultConfig();
         if (configMap != null && !configMap.isEmpty()) {
-            configMap.forEach(this::createConfigIfNotExists);
+            int created = configurationService.addMissing(configMap);
+            ApiLogger.info("Created " + created + " default configurations");
         } else {
             ApiLogger.warn("No default configurations found in config file");
         }
     }
 
-    private void createConfigIfNotExists(String key, String value) {
-        if (!configurationRepository.existsByConfigKey(key)) {
-            Configuration config = new Configuration(key, value);
-            configurationRepository.save(config);
-            ApiLogger.info("Created default configuration: {} = {}", key, value);
-        } else {
-            ApiLogger.debug("Configuration already exists: {}", key);
-        }
-    }
-
     private void initializeDefaultSubscriptionPlans() {
         if (!subscriptionPlanRepository.findAllByOrderByIdAsc().isEmpty()) {
             ApiLogger.info("Subscription plans already exist, skipping initialization");
@@ -79,6 +73,7 @@ public class StartupConfig {
                 for (PlanConfig planConfig : planConfigs) {
                     createSubscriptionPlan(planConfig);
                 }
+                planCatalog.reloadAfterCommit();
                 ApiLogger.info("Default subscription plans initialized successfully from config");
             } else {
                 ApiLogger.warn("No subscription plan configurations found in config file");
@@ -0,0 +1,9 @@
+package com.imovel.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends ApiException {
+    public ServiceUnavailableException(long code, String message, HttpStatus httpStatus) {
+        super(code, message, httpStatus);
+    }
+}
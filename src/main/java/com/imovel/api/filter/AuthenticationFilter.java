@@ -3,17 +3,22 @@ package com.imovel.api.filter;
 import com.imovel.api.config.base.EndPointsConfig;
 import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.security.token.JWTProvider;
+import com.imovel.api.security.token.TokenRevocationList;
 import com.imovel.api.services.ConfigurationService;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.auth0.jwt.interfaces.Claim;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -21,8 +26,14 @@ import java.util.stream.Collectors;
  * and handling CORS
  */
 @Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 public class AuthenticationFilter implements Filter {
 
+    /**
+     * Request attribute holding the authenticated user id, set once the JWT has been validated
+     */
+    public static final String USER_ID_ATTRIBUTE = "authenticatedUserId";
+
     private List<String> protectedEndpoints = Collections.emptyList();
     private List<String> excludedEndpoints = Collections.emptyList();
     private List<String> allowedOrigins = Arrays.asList(
@@ -41,6 +52,8 @@ public class AuthenticationFilter implements Filter {
     JWTProvider jwtProcessor;
     @Autowired
     private ConfigurationService configurationService;
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
 
     /**
      * Initializes the filter by reading endpoint configurations only
@@ -131,7 +144,18 @@ public class AuthenticationFilter implements Filter {
                 return;
             }
 
-            httpRequest.getSession().setAttribute("claims",jwtProcessor.getAllClaim(currentToken));
+            Map<String, Claim> claims = jwtProcessor.getAllClaim(currentToken);
+            // Only a bloom filter hit reaches the database
+            Claim jti = claims.get("jti");
+            if (jti != null && !jti.isNull() && tokenRevocationList.isRevoked(jti.asString())) {
+                httpResponse.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or missing JWT token");
+                return;
+            }
+            Claim userId = claims.get("userId");
+            if (userId != null && !userId.isNull()) {
+                httpRequest.setAttribute(USER_ID_ATTRIBUTE, userId.asString());
+            }
+            httpRequest.getSession().setAttribute("claims",claims);
             httpRequest.getSession().setAttribute("token",currentToken);
         }
         chain.doFilter(request, response);
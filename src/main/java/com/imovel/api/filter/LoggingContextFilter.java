@@ -0,0 +1,49 @@
+package com.imovel.api.filter;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Populates the log4j2 {@link ThreadContext} once per request so that every log line written while
+ * serving it carries the request and correlation ids, and clears it when the request completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoggingContextFilter implements Filter {
+
+    public static final String REQUEST_ID_KEY = "requestId";
+    public static final String CORRELATION_ID_KEY = "correlationId";
+    public static final String IP_ADDRESS_KEY = "ipAddress";
+    public static final String REQUEST_ID_HEADER = "X-Request-ID";
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        try {
+            String requestId = httpRequest.getHeader(REQUEST_ID_HEADER);
+            if (requestId == null || requestId.isBlank()) {
+                requestId = "REQ-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+            }
+            String correlationId = httpRequest.getHeader(CORRELATION_ID_HEADER);
+            if (correlationId == null || correlationId.isBlank()) {
+                correlationId = requestId;
+            }
+            ThreadContext.put(REQUEST_ID_KEY, requestId);
+            ThreadContext.put(CORRELATION_ID_KEY, correlationId);
+            ThreadContext.put(IP_ADDRESS_KEY, httpRequest.getRemoteAddr());
+
+            chain.doFilter(request, response);
+        } finally {
+            ThreadContext.clearMap();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.imovel.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imovel.api.error.ApiCode;
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.payment.monitoring.PaymentMonitoringService;
+import com.imovel.api.ratelimit.KeyedRateLimiter;
+import com.imovel.api.ratelimit.RateLimitConfig;
+import com.imovel.api.response.ApplicationResponse;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link KeyedRateLimiter} to every request. Runs after {@link AuthenticationFilter} so that
+ * authenticated requests are limited per user id; everything else is limited per client IP.
+ * Rejected requests get {@code 429 Too Many Requests} with a {@code Retry-After} header.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class RateLimitFilter implements Filter {
+
+    private final KeyedRateLimiter rateLimiter;
+    private final RateLimitConfig config;
+    private final PaymentMonitoringService monitoringService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public RateLimitFilter(KeyedRateLimiter rateLimiter, RateLimitConfig config,
+                           PaymentMonitoringService monitoringService, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.config = config;
+        this.monitoringService = monitoringService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (!config.isEnabled() || "OPTIONS".equalsIgnoreCase(httpRequest.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        KeyedRateLimiter.Limit limit = rateLimiter.resolve(path);
+        if (limit == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Object userId = httpRequest.getAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE);
+        String client = userId != null ? "user:" + userId : "ip:" + clientAddress(httpRequest);
+        long waitNanos = rateLimiter.tryAcquire(limit, client);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ApiLogger.warn("RateLimitFilter", () -> "Rate limit '" + limit.getName() + "' exceeded by " + client);
+        monitoringService.recordRateLimitHit(limit.getName(), userId != null ? userId.toString() : null);
+        reject((HttpServletResponse) response, waitNanos);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(ApiCode.RATE_LIMIT_EXCEEDED.getHttpStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApplicationResponse.error(
+                ApiCode.RATE_LIMIT_EXCEEDED.getCode(),
+                ApiCode.RATE_LIMIT_EXCEEDED.getMessage(),
+                ApiCode.RATE_LIMIT_EXCEEDED.getHttpStatus()));
+    }
+
+    private String clientAddress(HttpServletRequest request) {
+        if (config.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -1,249 +1,169 @@
 package com.imovel.api.logger;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
- * Thread-safe logging utility using SLF4J with MDC for context
+ * Thread-safe logging utility backed by log4j2.
+ * <p>
+ * Request context (request id, correlation id, client IP...) lives in the log4j2 {@link ThreadContext}
+ * and is set once per request by {@link com.imovel.api.filter.LoggingContextFilter}; log calls do not
+ * copy or clear it. Messages are passed as parameters or as {@link Supplier}s so nothing is built
+ * when the level is disabled.
  */
 public final class ApiLogger {
     private static final String DEFAULT_LOGGER_TYPE = "com.imovel.api.logger";
     private static final String SIMPLE_FORMAT = "[{}] {}";
     private static final String COMPLETE_FORMAT = "[{}] {}: {} - {}";
 
-    private static volatile ConcurrentHashMap<String, String> globalHeaders = new ConcurrentHashMap<>();
-    private static Logger logger = LoggerFactory.getLogger(DEFAULT_LOGGER_TYPE);
+    private static volatile Logger logger = LogManager.getLogger(DEFAULT_LOGGER_TYPE);
 
     private ApiLogger() {}
 
     public static void setLoggerType(String type) {
-        logger = LoggerFactory.getLogger(type);
+        logger = LogManager.getLogger(type);
     }
 
-    public static synchronized void setContext(String key, String value) {
-        if (MDC.getCopyOfContextMap() == null || MDC.getCopyOfContextMap().isEmpty()) {
-            MDC.put(key, value);
-        } else {
-            ConcurrentHashMap<String, String> newHeaders = new ConcurrentHashMap<>(globalHeaders);
-            newHeaders.put(key, value);
-            newHeaders.forEach((k, v) -> globalHeaders.putIfAbsent(k, v));
-        }
+    /**
+     * Puts a value in the current thread's logging context. It stays until {@link #clearContext()}
+     * is called, normally at the end of the request.
+     */
+    public static void setContext(String key, String value) {
+        ThreadContext.put(key, value);
+    }
+
+    public static void removeContext(String key) {
+        ThreadContext.remove(key);
+    }
+
+    public static void clearContext() {
+        ThreadContext.clearMap();
     }
 
-    private static Map<String, String> getContext() {
-        Map<String, String> globalSnapshot = globalHeaders;
-        globalSnapshot.forEach(MDC::put);
-        if(MDC.getCopyOfContextMap() == null )
-            return Map.of();
-        return MDC.getCopyOfContextMap();
+    public static boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
     }
 
     // Debug Methods
     public static void debug(String message) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.debug(message);
-        } finally {
-            MDC.clear();
-        }
+        logger.debug(message);
     }
 
     public static void debug(String location, String message) {
-        try {
+        logger.debug(SIMPLE_FORMAT, location, message);
+    }
 
-            getContext().forEach(MDC::put);
-            logger.debug(SIMPLE_FORMAT, location, message);
-        } finally {
-            MDC.clear();
+    public static void debug(String location, Supplier<String> message) {
+        Logger current = logger;
+        if (current.isDebugEnabled()) {
+            current.debug(SIMPLE_FORMAT, location, message.get());
         }
     }
 
     public static void debug(String message, Object response) {
-        try {
-
-            getContext().forEach(MDC::put);
-            logger.debug(SIMPLE_FORMAT, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.debug(SIMPLE_FORMAT, message, response);
     }
 
     public static void debug(String location, String message, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.debug(COMPLETE_FORMAT, location, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.debug(COMPLETE_FORMAT, location, message, response);
     }
 
     // Info Methods
     public static void info(String message) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.info(message);
-        } finally {
-            MDC.clear();
-        }
+        logger.info(message);
     }
 
     public static void info(String location, String message) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.info(SIMPLE_FORMAT, location, message);
-        } finally {
-            MDC.clear();
+        logger.info(SIMPLE_FORMAT, location, message);
+    }
+
+    public static void info(String location, Supplier<String> message) {
+        Logger current = logger;
+        if (current.isInfoEnabled()) {
+            current.info(SIMPLE_FORMAT, location, message.get());
         }
     }
 
     public static void info(String message, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.info(SIMPLE_FORMAT, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.info(SIMPLE_FORMAT, message, response);
     }
 
     public static void info(String location, String message, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.info(COMPLETE_FORMAT, location, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.info(COMPLETE_FORMAT, location, message, response);
     }
 
     // Error Methods
     public static void error(String message) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(message);
-        } finally {
-            MDC.clear();
-        }
+        logger.error(message);
     }
 
     public static void error(String location, String message) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(SIMPLE_FORMAT, location, message);
-        } finally {
-            MDC.clear();
+        logger.error(SIMPLE_FORMAT, location, message);
+    }
+
+    public static void error(String location, Supplier<String> message) {
+        Logger current = logger;
+        if (current.isErrorEnabled()) {
+            current.error(SIMPLE_FORMAT, location, message.get());
         }
     }
 
     public static void error(String message, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(SIMPLE_FORMAT, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.error(SIMPLE_FORMAT, message, response);
     }
 
     public static void error(String location, String message, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(COMPLETE_FORMAT, location, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.error(COMPLETE_FORMAT, location, message, response);
     }
 
     public static void error(String message, Throwable throwable) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(message, throwable);
-        } finally {
-            MDC.clear();
-        }
+        logger.error(message, throwable);
     }
 
     public static void error(String location, String message, Throwable throwable) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(SIMPLE_FORMAT, location, message, throwable);
-        } finally {
-            MDC.clear();
-        }
+        logger.error(SIMPLE_FORMAT, location, message, throwable);
     }
 
     public static void error(String message, Throwable throwable, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(SIMPLE_FORMAT, message, response, throwable);
-        } finally {
-            MDC.clear();
-        }
+        logger.error(SIMPLE_FORMAT, message, response, throwable);
     }
 
     public static void error(String location, String message, Throwable throwable, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.error(COMPLETE_FORMAT, location, message, response, throwable);
-        } finally {
-            MDC.clear();
-        }
+        logger.error(COMPLETE_FORMAT, location, message, response, throwable);
     }
 
     // Warn Methods
     public static void warn(String message) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.warn(message);
-        } finally {
-            MDC.clear();
-        }
+        logger.warn(message);
     }
 
     public static void warn(String location, String message) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.warn(SIMPLE_FORMAT, location, message);
-        } finally {
-            MDC.clear();
+        logger.warn(SIMPLE_FORMAT, location, message);
+    }
+
+    public static void warn(String location, Supplier<String> message) {
+        Logger current = logger;
+        if (current.isWarnEnabled()) {
+            current.warn(SIMPLE_FORMAT, location, message.get());
         }
     }
 
     public static void warn(String message, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.warn(SIMPLE_FORMAT, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.warn(SIMPLE_FORMAT, message, response);
     }
 
     public static void warn(String location, String message, Object response) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.warn(COMPLETE_FORMAT, location, message, response);
-        } finally {
-            MDC.clear();
-        }
+        logger.warn(COMPLETE_FORMAT, location, message, response);
     }
 
     public static void warn(String message, Throwable throwable) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.warn(message, throwable);
-        } finally {
-            MDC.clear();
-        }
+        logger.warn(message, throwable);
     }
 
     public static void warn(String location, String message, Throwable throwable) {
-        try {
-            getContext().forEach(MDC::put);
-            logger.warn(SIMPLE_FORMAT, location, message, throwable);
-        } finally {
-            MDC.clear();
-        }
+        logger.warn(SIMPLE_FORMAT, location, message, throwable);
     }
 }
@@ -19,6 +19,10 @@ public class AuthDetails {
     @Column(name = "user_id", nullable = false)
     private Long userId; // Logical relationship with user table
 
+    // PBKDF2 iterations the hash was made with; null for hashes from before it was recorded
+    @Column(name = "hash_iterations")
+    private Integer iterations;
+
     public Long getId() {
         return id;
     }
@@ -50,4 +54,12 @@ public class AuthDetails {
     public void setUserId(Long userId) {
         this.userId = userId;
     }
+
+    public Integer getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(Integer iterations) {
+        this.iterations = iterations;
+    }
 }
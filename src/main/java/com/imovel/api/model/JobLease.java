@@ -0,0 +1,57 @@
+package com.imovel.api.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Ownership of a background job that must run on one node at a time, until {@code leasedUntil}
+ */
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "owner", nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "leased_until", nullable = false)
+    private Instant leasedUntil;
+
+    // Constructors
+    public JobLease() {
+    }
+
+    public JobLease(String name, String owner, Instant leasedUntil) {
+        this.name = name;
+        this.owner = owner;
+        this.leasedUntil = leasedUntil;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLeasedUntil() {
+        return leasedUntil;
+    }
+
+    public void setLeasedUntil(Instant leasedUntil) {
+        this.leasedUntil = leasedUntil;
+    }
+}
@@ -20,7 +20,8 @@ import java.util.Set;
 import java.util.Objects;
 
 @Entity
-@Table(name = "properties")
+@Table(name = "properties",
+       indexes = @Index(name = "idx_properties_status_city", columnList = "status, city"))
 public class Property {
 
     @Id
@@ -7,13 +7,23 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens",
+       indexes = {
+           @Index(name = "uk_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+           @Index(name = "idx_refresh_tokens_user_active", columnList = "user_id, revoked, superseded")
+       })
 public class RefreshToken {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    private String token; // it is JWT format
+    // Hex SHA-256 of the JWT; the token itself is never stored
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    // JWT ID shared with the access token issued alongside
+    @Column(name = "jti", length = 64)
+    private String jti;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -53,12 +63,20 @@ public class RefreshToken {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getJti() {
+        return jti;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setJti(String jti) {
+        this.jti = jti;
     }
 
     public User getUser() {
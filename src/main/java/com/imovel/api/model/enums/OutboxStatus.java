@@ -0,0 +1,5 @@
+package com.imovel.api.model.enums;
+
+public enum OutboxStatus {
+    PENDING, PROCESSING, DELIVERED, DEAD
+}
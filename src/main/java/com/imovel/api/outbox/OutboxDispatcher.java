@@ -0,0 +1,126 @@
+package com.imovel.api.outbox;
+
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.model.OutboxMessage;
+import com.imovel.api.model.enums.OutboxStatus;
+import com.imovel.api.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delivers outbox messages to their {@link OutboxHandler}s in batches.
+ * <p>
+ * A batch is leased with a single update before delivery and acknowledged with a single update
+ * afterwards. If the dispatcher dies in between, the lease expires and the whole batch is picked
+ * up again, so delivery is at-least-once. Failed messages are retried with exponential backoff and
+ * marked DEAD once they run out of attempts.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final String TAG = "OutboxDispatcher";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final Map<String, OutboxHandler> handlers = new HashMap<>();
+    private final OutboxConfig config;
+    private final Clock clock;
+
+    @Autowired
+    public OutboxDispatcher(OutboxMessageRepository outboxMessageRepository,
+                            List<OutboxHandler> handlers,
+                            OutboxConfig config) {
+        this(outboxMessageRepository, handlers, config, Clock.systemUTC());
+    }
+
+    OutboxDispatcher(OutboxMessageRepository outboxMessageRepository,
+                     List<OutboxHandler> handlers,
+                     OutboxConfig config,
+                     Clock clock) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.config = config;
+        this.clock = clock;
+        for (OutboxHandler handler : handlers) {
+            if (this.handlers.put(handler.getType(), handler) != null) {
+                throw new IllegalStateException("Duplicate outbox handler for type " + handler.getType());
+            }
+        }
+    }
+
+    /**
+     * Claim and deliver one batch of due messages.
+     *
+     * @return number of messages claimed
+     */
+    public int dispatchBatch() {
+        Instant now = clock.instant();
+        List<Long> dueIds = outboxMessageRepository.findDueIds(now, PageRequest.of(0, config.getBatchSize()));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        String owner = UUID.randomUUID().toString();
+        outboxMessageRepository.claim(dueIds, owner, now, now.plus(config.getLease()));
+        List<OutboxMessage> claimed = outboxMessageRepository.findByLockOwnerOrderByIdAsc(owner);
+
+        List<Long> delivered = new ArrayList<>(claimed.size());
+        for (OutboxMessage message : claimed) {
+            try {
+                OutboxHandler handler = handlers.get(message.getType());
+                if (handler == null) {
+                    throw new IllegalStateException("No outbox handler registered for type " + message.getType());
+                }
+                handler.handle(message);
+                delivered.add(message.getId());
+            } catch (RuntimeException e) {
+                recordFailure(message, owner, e);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            outboxMessageRepository.markDelivered(delivered, owner, clock.instant());
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Remove delivered messages older than the configured retention.
+     */
+    public int purgeDelivered() {
+        return outboxMessageRepository.deleteDeliveredBefore(clock.instant().minus(config.getRetention()));
+    }
+
+    private void recordFailure(OutboxMessage message, String owner, RuntimeException e) {
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        Instant now = clock.instant();
+        if (message.getAttempts() >= config.getMaxAttempts()) {
+            outboxMessageRepository.markFailed(message.getId(), owner, OutboxStatus.DEAD, now, error);
+            ApiLogger.error(TAG, "Outbox message " + message.getId() + " (" + message.getType()
+                    + ") gave up after " + message.getAttempts() + " attempts", e);
+            return;
+        }
+        Duration delay = backoff(message.getAttempts());
+        outboxMessageRepository.markFailed(message.getId(), owner, OutboxStatus.PENDING, now.plus(delay), error);
+        ApiLogger.warn(TAG, () -> "Outbox message " + message.getId() + " (" + message.getType()
+                + ") failed on attempt " + message.getAttempts() + ", retrying in " + delay.toMillis() + "ms: " + error);
+    }
+
+    Duration backoff(int attempt) {
+        Duration delay = config.getInitialBackoff().multipliedBy(1L << Math.min(attempt - 1, 30));
+        return delay.compareTo(config.getMaxBackoff()) > 0 ? config.getMaxBackoff() : delay;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
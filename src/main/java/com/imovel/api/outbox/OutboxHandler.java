@@ -0,0 +1,20 @@
+package com.imovel.api.outbox;
+
+import com.imovel.api.model.OutboxMessage;
+
+/**
+ * Delivers outbox messages of one type. Delivery is at-least-once: a message can be handed to
+ * the handler again after a crash or an expired lease, so handlers should tolerate repeats.
+ */
+public interface OutboxHandler {
+
+    /**
+     * Message type this handler delivers
+     */
+    String getType();
+
+    /**
+     * Deliver one message. Throwing schedules a retry with backoff.
+     */
+    void handle(OutboxMessage message);
+}
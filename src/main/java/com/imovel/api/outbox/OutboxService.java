@@ -0,0 +1,49 @@
+package com.imovel.api.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imovel.api.model.OutboxMessage;
+import com.imovel.api.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+
+/**
+ * Records side effects in the outbox. Called inside a business transaction, the message is
+ * committed or rolled back together with the change that caused it.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Clock clock;
+
+    @Autowired
+    public OutboxService(OutboxMessageRepository outboxMessageRepository) {
+        this(outboxMessageRepository, Clock.systemUTC());
+    }
+
+    OutboxService(OutboxMessageRepository outboxMessageRepository, Clock clock) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Queue a message for the handler registered for {@code type}.
+     *
+     * @param payload serialized to JSON
+     */
+    @Transactional
+    public OutboxMessage enqueue(String type, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + type, e);
+        }
+        return outboxMessageRepository.save(new OutboxMessage(type, json, clock.instant()));
+    }
+}
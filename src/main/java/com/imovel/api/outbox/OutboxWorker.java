@@ -0,0 +1,47 @@
+package com.imovel.api.outbox;
+
+import com.imovel.api.logger.ApiLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls the outbox and drains due messages batch by batch.
+ */
+@Component
+public class OutboxWorker {
+
+    private static final String TAG = "OutboxWorker";
+
+    private final OutboxDispatcher outboxDispatcher;
+    private final OutboxConfig outboxConfig;
+
+    @Autowired
+    public OutboxWorker(OutboxDispatcher outboxDispatcher, OutboxConfig outboxConfig) {
+        this.outboxDispatcher = outboxDispatcher;
+        this.outboxConfig = outboxConfig;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            // Keep going while batches come back full
+            int claimed;
+            do {
+                claimed = outboxDispatcher.dispatchBatch();
+            } while (claimed >= outboxConfig.getBatchSize());
+        } catch (RuntimeException e) {
+            ApiLogger.error(TAG, "Failed to dispatch outbox batch", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        try {
+            int removed = outboxDispatcher.purgeDelivered();
+            ApiLogger.debug(TAG, () -> "Purged " + removed + " delivered outbox messages");
+        } catch (RuntimeException e) {
+            ApiLogger.error(TAG, "Failed to purge outbox", e);
+        }
+    }
+}
@@ -26,8 +26,10 @@ public final class AuditContext {
      * Initialize audit context for a new request
      */
     public static void initializeContext() {
-        String requestId = generateRequestId();
-        MDC.put(REQUEST_ID_KEY, requestId);
+        // LoggingContextFilter normally sets the request id already; only generate one outside a request
+        if (MDC.get(REQUEST_ID_KEY) == null) {
+            MDC.put(REQUEST_ID_KEY, generateRequestId());
+        }
         
         // Capture request details if available
         try {
@@ -51,11 +53,13 @@ public final class AuditContext {
                 }
                 
                 // Set correlation ID from header if present
-                String correlationId = request.getHeader("X-Correlation-ID");
-                if (correlationId == null) {
-                    correlationId = generateCorrelationId();
+                if (MDC.get(CORRELATION_ID_KEY) == null) {
+                    String correlationId = request.getHeader("X-Correlation-ID");
+                    if (correlationId == null) {
+                        correlationId = generateCorrelationId();
+                    }
+                    MDC.put(CORRELATION_ID_KEY, correlationId);
                 }
-                MDC.put(CORRELATION_ID_KEY, correlationId);
             }
         } catch (Exception e) {
             // Ignore errors in context initialization
@@ -123,10 +127,13 @@ public final class AuditContext {
     }
     
     /**
-     * Clear audit context
+     * Clear the audit-specific context. Request and correlation ids belong to the
+     * request-wide logging context and are cleared by LoggingContextFilter.
      */
     public static void clearContext() {
-        MDC.clear();
+        MDC.remove(SESSION_ID_KEY);
+        MDC.remove(USER_ID_KEY);
+        MDC.remove(USER_AGENT_KEY);
     }
     
     /**
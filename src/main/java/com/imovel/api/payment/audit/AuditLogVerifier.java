@@ -0,0 +1,147 @@
+package com.imovel.api.payment.audit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reader and hash-chain verifier for the segment files written by {@link AuditLogWriter}.
+ * <p>
+ * Usage: {@code java -cp imovel-api.jar com.imovel.api.payment.audit.AuditLogVerifier verify|dump <directory>}
+ */
+public final class AuditLogVerifier {
+
+    private static final int HASH_HEX_LENGTH = 64;
+
+    private AuditLogVerifier() {}
+
+    /**
+     * Result of verifying an audit directory.
+     */
+    public static final class Result {
+        private final boolean valid;
+        private final long records;
+        private final String segment;
+        private final long line;
+        private final String message;
+
+        Result(boolean valid, long records, String segment, long line, String message) {
+            this.valid = valid;
+            this.records = records;
+            this.segment = segment;
+            this.line = line;
+            this.message = message;
+        }
+
+        public boolean isValid() { return valid; }
+        public long getRecords() { return records; }
+        public String getSegment() { return segment; }
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return valid
+                    ? "VALID: " + records + " records"
+                    : "INVALID at " + segment + ":" + line + " after " + records + " records - " + message;
+        }
+    }
+
+    /**
+     * Recompute the hash chain over every segment in order.
+     * A torn last line (no line terminator) in a segment is reported as invalid unless it is
+     * followed by a later segment, which is how the writer recovers after a crash.
+     */
+    public static Result verify(Path directory) throws IOException {
+        MessageDigest digest = AuditLogWriter.sha256();
+        byte[] previousHash = AuditLogWriter.GENESIS_HASH;
+        long records = 0;
+
+        List<Path> segments = AuditLogWriter.listSegments(directory);
+        for (int s = 0; s < segments.size(); s++) {
+            Path segment = segments.get(s);
+            String name = segment.getFileName().toString();
+            byte[] content = Files.readAllBytes(segment);
+            int lineNumber = 0;
+            int start = 0;
+            while (start < content.length) {
+                lineNumber++;
+                int end = indexOf(content, (byte) '\n', start);
+                if (end < 0) {
+                    if (s == segments.size() - 1) {
+                        return new Result(false, records, name, lineNumber, "incomplete trailing record");
+                    }
+                    break;
+                }
+                if (end - start < HASH_HEX_LENGTH + 1 || content[start + HASH_HEX_LENGTH] != ' ') {
+                    return new Result(false, records, name, lineNumber, "malformed record");
+                }
+                byte[] storedHash;
+                try {
+                    storedHash = AuditLogWriter.HEX.parseHex(
+                            new String(content, start, HASH_HEX_LENGTH, StandardCharsets.US_ASCII));
+                } catch (IllegalArgumentException e) {
+                    return new Result(false, records, name, lineNumber, "malformed hash");
+                }
+                byte[] json = Arrays.copyOfRange(content, start + HASH_HEX_LENGTH + 1, end);
+                byte[] expectedHash = AuditLogWriter.chain(digest, previousHash, json);
+                if (!MessageDigest.isEqual(expectedHash, storedHash)) {
+                    return new Result(false, records, name, lineNumber, "hash chain mismatch");
+                }
+                previousHash = storedHash;
+                records++;
+                start = end + 1;
+            }
+        }
+        return new Result(true, records, null, 0, null);
+    }
+
+    /**
+     * Read the JSON payload of every complete record, oldest first.
+     */
+    public static List<String> readRecords(Path directory) throws IOException {
+        List<String> records = new ArrayList<>();
+        for (Path segment : AuditLogWriter.listSegments(directory)) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.length() > HASH_HEX_LENGTH) {
+                        records.add(line.substring(HASH_HEX_LENGTH + 1));
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    private static int indexOf(byte[] content, byte value, int from) {
+        for (int i = from; i < content.length; i++) {
+            if (content[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !(args[0].equals("verify") || args[0].equals("dump"))) {
+            System.err.println("Usage: AuditLogVerifier verify|dump <audit-directory>");
+            System.exit(2);
+        }
+        Path directory = Paths.get(args[1]);
+        if (args[0].equals("dump")) {
+            readRecords(directory).forEach(System.out::println);
+            return;
+        }
+        Result result = verify(directory);
+        System.out.println(result);
+        System.exit(result.isValid() ? 0 : 1);
+    }
+}
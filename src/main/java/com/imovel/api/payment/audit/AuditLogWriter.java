@@ -0,0 +1,371 @@
+package com.imovel.api.payment.audit;
+
+import com.imovel.api.logger.ApiLogger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous, batched writer for the payment audit trail.
+ * <p>
+ * Producers only enqueue into a bounded queue and never block: when the queue is full the record
+ * is dropped and counted. A single writer thread drains the queue in batches, serializes each
+ * record, and appends it to the current segment file as {@code <hash> <json>} where
+ * {@code hash = SHA-256(previousHash || json)}. The channel is fsynced once per batch, and
+ * segments roll over once they exceed the configured size. The hash chain continues across
+ * segments and restarts, so {@link AuditLogVerifier} can detect edits, removals and reordering.
+ * <p>
+ * A batch that fails part way is cut off the segment again. If that fails too, its complete lines
+ * count as written, the rest is left behind as a torn line, and writing continues in a new segment
+ * that chains from the last complete line, so the chain stays verifiable. Written,
+ * failed and dropped records are published as {@value #RECORDS_COUNTER}, tagged by outcome.
+ */
+public final class AuditLogWriter implements AutoCloseable, MeterBinder {
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final byte[] GENESIS_HASH = new byte[32];
+    static final HexFormat HEX = HexFormat.of();
+    static final String RECORDS_COUNTER = "payment.audit.records";
+
+    private static final String TAG = "AuditLogWriter";
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+
+    private final Path directory;
+    private final int batchSize;
+    private final long segmentMaxBytes;
+    private final SegmentOpener segmentOpener;
+    private final BlockingQueue<AuditRecord> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    // Writer thread state
+    private final AuditRecordSerializer serializer = new AuditRecordSerializer();
+    private final ByteArrayOutputStream batchBuffer = new ByteArrayOutputStream(64 * 1024);
+    private final MessageDigest digest;
+    private FileChannel channel;
+    private long segmentIndex;
+    private long segmentSize;
+    private byte[] lastHash = GENESIS_HASH;
+
+    private volatile boolean running;
+    private volatile boolean accepting = true;
+    private Thread writerThread;
+
+    public AuditLogWriter(Path directory, int queueCapacity, int batchSize, long segmentMaxBytes) {
+        this(directory, queueCapacity, batchSize, segmentMaxBytes,
+                segment -> FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    AuditLogWriter(Path directory, int queueCapacity, int batchSize, long segmentMaxBytes, SegmentOpener segmentOpener) {
+        this.directory = directory;
+        this.segmentOpener = segmentOpener;
+        this.batchSize = batchSize;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.digest = sha256();
+    }
+
+    /**
+     * Enqueue a record for writing. Never blocks.
+     *
+     * @return false if the queue was full or the writer closed, and the record was dropped
+     */
+    public boolean offer(AuditRecord record) {
+        if (accepting && queue.offer(record)) {
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Recover the hash chain from existing segments, open a new segment and start the writer thread.
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments(directory);
+        if (!segments.isEmpty()) {
+            segmentIndex = segmentIndex(segments.get(segments.size() - 1));
+            lastHash = readLastHash(segments);
+        }
+        openNextSegment();
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "payment-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop accepting work, write everything still queued and close the current segment.
+     */
+    @Override
+    public synchronized void close() {
+        accepting = false;
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeChannel();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(RECORDS_COUNTER, writtenCount, AtomicLong::get)
+                .description("Payment audit records by outcome")
+                .tag("outcome", "written")
+                .register(registry);
+        FunctionCounter.builder(RECORDS_COUNTER, failedCount, AtomicLong::get)
+                .description("Payment audit records by outcome")
+                .tag("outcome", "failed")
+                .register(registry);
+        FunctionCounter.builder(RECORDS_COUNTER, droppedCount, AtomicLong::get)
+                .description("Payment audit records by outcome")
+                .tag("outcome", "dropped")
+                .register(registry);
+        Gauge.builder("payment.audit.queue.size", queue, BlockingQueue::size)
+                .description("Payment audit records waiting to be written")
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                failedCount.addAndGet(batch.size());
+                ApiLogger.error(TAG, "Failed to write audit batch of " + batch.size() + " records", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<AuditRecord> batch) throws IOException {
+        if (channel == null) {
+            openNextSegment();
+        }
+        batchBuffer.reset();
+        byte[][] hashes = new byte[batch.size()][];
+        byte[] hash = lastHash;
+        for (int i = 0; i < batch.size(); i++) {
+            byte[] json = serializer.serialize(batch.get(i));
+            hash = chain(digest, hash, json);
+            hashes[i] = hash;
+            batchBuffer.write(HEX.formatHex(hash).getBytes(StandardCharsets.US_ASCII));
+            batchBuffer.write(' ');
+            batchBuffer.write(json);
+            batchBuffer.write('\n');
+        }
+
+        byte[] bytes = batchBuffer.toByteArray();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            int kept = discardPartialBatch(bytes);
+            if (kept > 0) {
+                lastHash = hashes[kept - 1];
+                writtenCount.addAndGet(kept);
+            }
+            failedCount.addAndGet(batch.size() - kept);
+            ApiLogger.error(TAG, "Failed to write audit batch of " + batch.size() + " records", e);
+            return;
+        }
+
+        lastHash = hash;
+        segmentSize += batchBuffer.size();
+        writtenCount.addAndGet(batch.size());
+        if (segmentSize >= segmentMaxBytes) {
+            closeChannel();
+            openNextSegment();
+        }
+    }
+
+    /**
+     * Cut a failed batch off the segment, so the next batch follows the last complete record.
+     * If the segment cannot be truncated, continue in a new one: the verifier accepts a torn
+     * last line in any segment but the newest.
+     *
+     * @return number of the batch's records left complete in the segment
+     */
+    private int discardPartialBatch(byte[] bytes) {
+        try {
+            channel.truncate(segmentSize);
+            channel.position(segmentSize);
+            return 0;
+        } catch (IOException e) {
+            ApiLogger.warn(TAG, "Could not truncate the audit segment, continuing in a new one: " + e.getMessage());
+        }
+        int kept = 0;
+        try {
+            long persisted = Math.min(bytes.length, channel.position() - segmentSize);
+            for (int i = 0; i < persisted; i++) {
+                if (bytes[i] == '\n') {
+                    kept++;
+                }
+            }
+        } catch (IOException e) {
+            ApiLogger.error(TAG, "Could not tell how much of the failed audit batch was written", e);
+        }
+        closeChannel();
+        try {
+            openNextSegment();
+        } catch (IOException e) {
+            // Retried before the next batch
+            ApiLogger.error(TAG, "Failed to open a new audit segment", e);
+        }
+        return kept;
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        channel = segmentOpener.open(directory.resolve(segmentName(segmentIndex)));
+        segmentSize = 0;
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            ApiLogger.error(TAG, "Failed to close audit segment", e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Hash of the last complete line of the newest non-empty segment.
+     * A torn final line left by a crash is ignored; the writer always continues in a new segment.
+     */
+    private static byte[] readLastHash(List<Path> segments) throws IOException {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            byte[] content = Files.readAllBytes(segments.get(i));
+            int end = content.length;
+            while (end > 0 && content[end - 1] != '\n') {
+                end--;
+            }
+            if (end == 0) {
+                continue;
+            }
+            int lineStart = end - 1;
+            while (lineStart > 0 && content[lineStart - 1] != '\n') {
+                lineStart--;
+            }
+            return HEX.parseHex(new String(content, lineStart, 64, StandardCharsets.US_ASCII));
+        }
+        return GENESIS_HASH;
+    }
+
+    static byte[] chain(MessageDigest digest, byte[] previousHash, byte[] json) {
+        digest.reset();
+        digest.update(previousHash);
+        digest.update(json);
+        return digest.digest();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Opens a new segment file for writing
+     */
+    @FunctionalInterface
+    interface SegmentOpener {
+        FileChannel open(Path segment) throws IOException;
+    }
+
+    static String segmentName(long index) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.imovel.api.payment.audit;
+
+import org.slf4j.MDC;
+
+/**
+ * Immutable, pre-shaped payment audit record.
+ * Common fields are captured on the calling thread when the record is created; event specific
+ * fields are kept as alternating name/value pairs so the writer thread can serialize them
+ * without building intermediate maps.
+ */
+public final class AuditRecord {
+
+    private final long timestamp;
+    private final String eventType;
+    private final Long userId;
+    private final String sessionId;
+    private final String requestId;
+    private final String correlationId;
+    private final Object[] fields;
+
+    AuditRecord(long timestamp, String eventType, Long userId, String sessionId,
+                String requestId, String correlationId, Object[] fields) {
+        if (fields.length % 2 != 0) {
+            throw new IllegalArgumentException("Audit fields must be name/value pairs");
+        }
+        this.timestamp = timestamp;
+        this.eventType = eventType;
+        this.userId = userId;
+        this.sessionId = sessionId;
+        this.requestId = requestId;
+        this.correlationId = correlationId;
+        this.fields = fields;
+    }
+
+    /**
+     * Create a record for the current thread's audit context.
+     *
+     * @param eventType audit event type
+     * @param userId    user the event relates to, may be null
+     * @param fields    alternating field names and values
+     */
+    public static AuditRecord of(String eventType, Long userId, Object... fields) {
+        return new AuditRecord(System.currentTimeMillis(), eventType, userId,
+                MDC.get("sessionId"), MDC.get("requestId"), MDC.get("correlationId"), fields);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public int getFieldCount() {
+        return fields.length / 2;
+    }
+
+    public String getFieldName(int index) {
+        return (String) fields[index * 2];
+    }
+
+    public Object getFieldValue(int index) {
+        return fields[index * 2 + 1];
+    }
+}
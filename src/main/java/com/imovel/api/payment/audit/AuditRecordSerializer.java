@@ -0,0 +1,85 @@
+package com.imovel.api.payment.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Serializes {@link AuditRecord}s to single-line JSON with one reusable {@link JsonGenerator}.
+ * Not thread-safe: each instance is owned by a single writer thread.
+ */
+public final class AuditRecordSerializer {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+    private final JsonGenerator generator;
+
+    public AuditRecordSerializer() {
+        try {
+            generator = JSON_FACTORY.createGenerator(buffer);
+            generator.setRootValueSeparator(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Serialize a record and return its UTF-8 JSON bytes (without a line terminator).
+     */
+    public byte[] serialize(AuditRecord record) {
+        buffer.reset();
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", Instant.ofEpochMilli(record.getTimestamp()).toString());
+            generator.writeStringField("eventType", record.getEventType());
+            writeValue("userId", record.getUserId());
+            writeValue("sessionId", record.getSessionId());
+            writeValue("requestId", record.getRequestId());
+            writeValue("correlationId", record.getCorrelationId());
+            for (int i = 0; i < record.getFieldCount(); i++) {
+                writeValue(record.getFieldName(i), record.getFieldValue(i));
+            }
+            generator.writeEndObject();
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Serialize a record to a JSON string.
+     */
+    public String serializeToString(AuditRecord record) {
+        return new String(serialize(record), StandardCharsets.UTF_8);
+    }
+
+    private void writeValue(String name, Object value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String s) {
+            generator.writeString(s);
+        } else if (value instanceof BigDecimal d) {
+            generator.writeNumber(d);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof BigInteger i) {
+            generator.writeNumber(i);
+        } else if (value instanceof Number n) {
+            generator.writeNumber(n.doubleValue());
+        } else if (value instanceof Boolean b) {
+            generator.writeBoolean(b);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
@@ -8,25 +8,20 @@ import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Interceptor for payment audit logging.
- * Automatically initializes audit context for payment-related requests.
+ * Automatically initializes audit context for payment-related requests and records
+ * one REQUEST_COMPLETED audit event per request, with method, URI, status and duration.
  */
 @Component
 public class PaymentAuditInterceptor implements HandlerInterceptor {
+
+    private static final String START_TIME_ATTRIBUTE = PaymentAuditInterceptor.class.getName() + ".startTime";
     
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         // Initialize audit context for payment requests
         if (isPaymentRequest(request)) {
             AuditContext.initializeContext();
-            
-            // Log request initiation
-            PaymentAuditLogger.logSecurityEvent(
-                "REQUEST_INITIATED",
-                "Payment API request initiated: " + request.getMethod() + " " + request.getRequestURI(),
-                AuditContext.getIpAddress(),
-                AuditContext.getUserAgent(),
-                null
-            );
+            request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
         }
         
         return true;
@@ -37,12 +32,18 @@ public class PaymentAuditInterceptor implements HandlerInterceptor {
                               Object handler, Exception ex) {
         // Log request completion and clear context
         if (isPaymentRequest(request)) {
-            PaymentAuditLogger.logSecurityEvent(
-                "REQUEST_COMPLETED",
-                "Payment API request completed: " + response.getStatus(),
+            Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+            long durationMs = startTime instanceof Long start
+                    ? (System.nanoTime() - start) / 1_000_000
+                    : -1;
+
+            PaymentAuditLogger.logRequestCompleted(
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                durationMs,
                 AuditContext.getIpAddress(),
-                AuditContext.getUserAgent(),
-                null
+                AuditContext.getUserAgent()
             );
             
             AuditContext.clearContext();
@@ -0,0 +1,34 @@
+package com.imovel.api.payment.config;
+
+import com.imovel.api.payment.audit.AuditLogWriter;
+import com.imovel.api.payment.audit.PaymentAuditLogger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Wires the asynchronous payment audit writer and registers it with {@link PaymentAuditLogger}.
+ * The writer is closed on shutdown, after which audit records fall back to the synchronous logger.
+ * As a {@link io.micrometer.core.instrument.binder.MeterBinder} bean, its record counters are
+ * registered with the application's meter registry.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.audit", name = "async-enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentAuditConfig {
+
+    @Bean(destroyMethod = "close")
+    public AuditLogWriter auditLogWriter(PaymentConfig paymentConfig) throws IOException {
+        PaymentConfig.Audit audit = paymentConfig.getAudit();
+        AuditLogWriter writer = new AuditLogWriter(
+                Paths.get(audit.getDirectory()),
+                audit.getQueueCapacity(),
+                audit.getBatchSize(),
+                audit.getSegmentMaxBytes());
+        writer.start();
+        PaymentAuditLogger.setWriter(writer);
+        return writer;
+    }
+}
@@ -13,6 +13,11 @@ public class PaymentConfig {
     private Stripe stripe = new Stripe();
     private Paypal paypal = new Paypal();
     private General general = new General();
+    private Audit audit = new Audit();
+    private Webhook webhook = new Webhook();
+    private Statistics statistics = new Statistics();
+    private Fake fake = new Fake();
+    private Health health = new Health();
     
     // Getters and setters
     public Stripe getStripe() {
@@ -39,6 +44,46 @@ public class PaymentConfig {
         this.general = general;
     }
     
+    public Audit getAudit() {
+        return audit;
+    }
+    
+    public void setAudit(Audit audit) {
+        this.audit = audit;
+    }
+    
+    public Webhook getWebhook() {
+        return webhook;
+    }
+    
+    public void setWebhook(Webhook webhook) {
+        this.webhook = webhook;
+    }
+    
+    public Statistics getStatistics() {
+        return statistics;
+    }
+    
+    public void setStatistics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+    
+    public Fake getFake() {
+        return fake;
+    }
+    
+    public void setFake(Fake fake) {
+        this.fake = fake;
+    }
+    
+    public Health getHealth() {
+        return health;
+    }
+    
+    public void setHealth(Health health) {
+        this.health = health;
+    }
+    
     // Stripe configuration
     public static class Stripe {
         private String publicKey;
@@ -46,8 +91,8 @@ public class PaymentConfig {
         private String webhookSecret;
         private String apiVersion = "2023-10-16";
         private boolean enabled = true;
-        private int connectTimeoutMs = 30000;
-        private int readTimeoutMs = 80000;
+        private int connectTimeoutMs = 3000;
+        private int readTimeoutMs = 5000;
         
         // Getters and setters
         public String getPublicKey() {
@@ -233,4 +278,218 @@ public class PaymentConfig {
             this.supportedCurrencies = supportedCurrencies;
         }
     }
+    
+    // Payment audit trail configuration
+    public static class Audit {
+        private boolean asyncEnabled = true;
+        private String directory = "./logs/audit";
+        private int queueCapacity = 65536;
+        private int batchSize = 512;
+        private long segmentMaxBytes = 64L * 1024 * 1024;
+        
+        // Getters and setters
+        public boolean isAsyncEnabled() {
+            return asyncEnabled;
+        }
+        
+        public void setAsyncEnabled(boolean asyncEnabled) {
+            this.asyncEnabled = asyncEnabled;
+        }
+        
+        public String getDirectory() {
+            return directory;
+        }
+        
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public int getBatchSize() {
+            return batchSize;
+        }
+        
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+        
+        public long getSegmentMaxBytes() {
+            return segmentMaxBytes;
+        }
+        
+        public void setSegmentMaxBytes(long segmentMaxBytes) {
+            this.segmentMaxBytes = segmentMaxBytes;
+        }
+    }
+    
+    // Webhook inbox configuration
+    public static class Webhook {
+        private int workers = 4;
+        private int batchSize = 100;
+        private int maxAttempts = 8;
+        private long initialBackoffMs = 1000;
+        private long maxBackoffMs = 300000;
+        private long leaseMs = 60000;
+        private long pollIntervalMs = 1000;
+        
+        // Getters and setters
+        public int getWorkers() {
+            return workers;
+        }
+        
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+        
+        public int getBatchSize() {
+            return batchSize;
+        }
+        
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+        
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+        
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+        
+        public long getInitialBackoffMs() {
+            return initialBackoffMs;
+        }
+        
+        public void setInitialBackoffMs(long initialBackoffMs) {
+            this.initialBackoffMs = initialBackoffMs;
+        }
+        
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+        
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+        
+        public long getLeaseMs() {
+            return leaseMs;
+        }
+        
+        public void setLeaseMs(long leaseMs) {
+            this.leaseMs = leaseMs;
+        }
+        
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+        
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+    }
+    
+    // Payment statistics configuration
+    public static class Statistics {
+        private boolean rollupEnabled = false;
+        private String rollupCron = "0 5 * * * *";
+        
+        // Getters and setters
+        public boolean isRollupEnabled() {
+            return rollupEnabled;
+        }
+        
+        public void setRollupEnabled(boolean rollupEnabled) {
+            this.rollupEnabled = rollupEnabled;
+        }
+        
+        public String getRollupCron() {
+            return rollupCron;
+        }
+        
+        public void setRollupCron(String rollupCron) {
+            this.rollupCron = rollupCron;
+        }
+    }
+    
+    // Offline (fake) gateway configuration, used by the "offline" profile
+    public static class Fake {
+        private String gatewayName = "stripe";
+        private long latencyMs = 0;
+        private long latencyJitterMs = 0;
+        private double errorRate = 0.0;
+        
+        // Getters and setters
+        public String getGatewayName() {
+            return gatewayName;
+        }
+        
+        public void setGatewayName(String gatewayName) {
+            this.gatewayName = gatewayName;
+        }
+        
+        public long getLatencyMs() {
+            return latencyMs;
+        }
+        
+        public void setLatencyMs(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+        
+        public long getLatencyJitterMs() {
+            return latencyJitterMs;
+        }
+        
+        public void setLatencyJitterMs(long latencyJitterMs) {
+            this.latencyJitterMs = latencyJitterMs;
+        }
+        
+        public double getErrorRate() {
+            return errorRate;
+        }
+        
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+    }
+    
+    // Payment health indicator configuration
+    public static class Health {
+        private long reconcileIntervalMs = 60000;
+        private long maxStalenessMs = 300000;
+        private double failureRateThreshold = 10.0; // percent over the last hour
+        
+        // Getters and setters
+        public long getReconcileIntervalMs() {
+            return reconcileIntervalMs;
+        }
+        
+        public void setReconcileIntervalMs(long reconcileIntervalMs) {
+            this.reconcileIntervalMs = reconcileIntervalMs;
+        }
+        
+        public long getMaxStalenessMs() {
+            return maxStalenessMs;
+        }
+        
+        public void setMaxStalenessMs(long maxStalenessMs) {
+            this.maxStalenessMs = maxStalenessMs;
+        }
+        
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+        
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+    }
 }
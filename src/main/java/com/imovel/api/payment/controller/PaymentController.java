@@ -19,7 +19,6 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Date;
@@ -158,7 +157,6 @@ public class PaymentController {
      * Process a new payment
      */
     @PostMapping("/process")
-    @RateLimiter(name = "paymentProcessing", fallbackMethod = "paymentRateLimitFallback")
     public ResponseEntity<ApplicationResponse<PaymentResponse>> processPayment(
             @RequestBody PaymentRequest paymentRequest, HttpSession session) {
 
@@ -240,7 +238,6 @@ public class PaymentController {
      * Process a refund
      */
     @PostMapping("/refund")
-    @RateLimiter(name = "paymentRefund", fallbackMethod = "refundRateLimitFallback")
     public ResponseEntity<ApplicationResponse<PaymentResponse>> processRefund(@RequestBody PaymentRefundRequest paymentRefund, HttpSession session) {
 
         // Authentication check - added this line
@@ -296,7 +293,6 @@ public class PaymentController {
      * Verify payment status with gateway
      */
     @PostMapping("/{paymentId}/verify")
-    @RateLimiter(name = "paymentVerification", fallbackMethod = "verificationRateLimitFallback")
     public ResponseEntity<ApplicationResponse<PaymentResponse>> verifyPaymentStatus(
             @PathVariable Long paymentId,
             @RequestParam Long userId, HttpSession session) {
@@ -8,7 +8,6 @@ import com.imovel.api.response.ApplicationResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.micrometer.core.instrument.Timer;
 
 @RestController
@@ -28,7 +27,6 @@ public class StripeWebhookController {
      * Handle Stripe webhook events
      */
     @PostMapping("/events")
-    @RateLimiter(name = "webhook", fallbackMethod = "webhookRateLimitFallback")
     public ResponseEntity<String> handleStripeWebhook(
             @RequestBody String payload,
             @RequestHeader("Stripe-Signature") String signature) {
@@ -47,7 +45,7 @@ public class StripeWebhookController {
                 PaymentAuditLogger.logWebhookProcessed("stripe", "success");
                 
                 // Record monitoring metrics
-                monitoringService.stopWebhookTimer(timerSample, "stripe", "success");
+                monitoringService.stopWebhookTimer(timerSample, "stripe", true);
                 monitoringService.recordWebhookEvent("stripe", "success", true);
                 
                 return ResponseEntity.ok("Webhook processed successfully");
@@ -56,7 +54,7 @@ public class StripeWebhookController {
                 ApiLogger.error("Webhook processing failed: " + response.getError().getMessage());
                 
                 // Record monitoring metrics
-                monitoringService.stopWebhookTimer(timerSample, "stripe", "failed");
+                monitoringService.stopWebhookTimer(timerSample, "stripe", false);
                 monitoringService.recordWebhookEvent("stripe", "failed", false);
                 
                 return ResponseEntity.badRequest().body("Webhook processing failed");
@@ -67,20 +65,10 @@ public class StripeWebhookController {
             ApiLogger.error("Error processing Stripe webhook", e);
             
             // Record monitoring metrics
-            monitoringService.stopWebhookTimer(timerSample, "stripe", "error");
+            monitoringService.stopWebhookTimer(timerSample, "stripe", false);
             monitoringService.recordWebhookEvent("stripe", "error", false);
             
             return ResponseEntity.internalServerError().body("Internal server error");
         }
     }
-    
-    public ResponseEntity<String> webhookRateLimitFallback(
-            String payload, String signature, Exception ex) {
-        ApiLogger.warn("Webhook rate limit exceeded");
-        
-        // Record rate limit hit
-        monitoringService.recordRateLimitHit("webhook", "stripe");
-        
-        return ResponseEntity.status(429).body("Webhook rate limit exceeded. Please try again later.");
-    }
 }
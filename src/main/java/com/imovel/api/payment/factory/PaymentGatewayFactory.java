@@ -1,5 +1,6 @@
 package com.imovel.api.payment.factory;
 
+import com.imovel.api.payment.fake.FakePaymentGateway;
 import com.imovel.api.payment.gateway.PaymentGatewayInterface;
 import com.imovel.api.payment.stripe.service.StripePaymentGateway;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +16,14 @@ public class PaymentGatewayFactory {
     private final Map<String, PaymentGatewayInterface> gateways;
     
     @Autowired
-    public PaymentGatewayFactory(Optional<StripePaymentGateway> stripePaymentGateway) {
+    public PaymentGatewayFactory(Optional<StripePaymentGateway> stripePaymentGateway,
+                                 Optional<FakePaymentGateway> fakePaymentGateway) {
         this.gateways = new HashMap<>();
         
         // Register available payment gateways only if they are available
         stripePaymentGateway.ifPresent(gateway -> gateways.put("stripe", gateway));
+        // Offline profile: the fake gateway stands in under its configured name
+        fakePaymentGateway.ifPresent(gateway -> gateways.put(gateway.getGatewayName().toLowerCase(), gateway));
         // Future gateways can be added here:
         // gateways.put("paypal", paypalPaymentGateway);
         // gateways.put("square", squarePaymentGateway);
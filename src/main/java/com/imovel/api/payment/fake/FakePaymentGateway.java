@@ -0,0 +1,236 @@
+package com.imovel.api.payment.fake;
+
+import com.imovel.api.error.ApiCode;
+import com.imovel.api.error.ErrorCode;
+import com.imovel.api.exception.PaymentProcessingException;
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.dto.PaymentResponse;
+import com.imovel.api.payment.gateway.GatewayCallExecutor;
+import com.imovel.api.payment.gateway.GatewayResilience;
+import com.imovel.api.payment.gateway.PaymentGatewayInterface;
+import com.imovel.api.payment.model.Payment;
+import com.imovel.api.payment.model.WebhookEvent;
+import com.imovel.api.payment.model.enums.PaymentStatus;
+import com.imovel.api.payment.repository.PaymentRepository;
+import com.imovel.api.payment.webhook.WebhookEventEnvelope;
+import com.imovel.api.response.ApplicationResponse;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for a payment provider, active with the "offline" profile.
+ * <p>
+ * Payments succeed immediately unless a failure is injected. Latency and the failure rate come from
+ * {@code payment.fake.*}, and calls go through the same {@link GatewayCallExecutor} as the real
+ * gateways so that timeouts, the bulkhead and the circuit breaker can be exercised without Stripe.
+ * Mutating calls are deduplicated by idempotency key like Stripe does.
+ */
+@Service
+@Profile("offline")
+public class FakePaymentGateway implements PaymentGatewayInterface {
+
+    static final String RESILIENCE_NAME = "fake";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentConfig paymentConfig;
+    private final GatewayCallExecutor executor;
+    private final Map<String, String> idempotentResults = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Autowired
+    public FakePaymentGateway(PaymentRepository paymentRepository, PaymentConfig paymentConfig,
+                              GatewayResilience gatewayResilience) {
+        this.paymentRepository = paymentRepository;
+        this.paymentConfig = paymentConfig;
+        this.executor = gatewayResilience.executor(RESILIENCE_NAME);
+    }
+
+    @Override
+    public ApplicationResponse<PaymentResponse> processPayment(Payment payment, Long userId) {
+        try {
+            String gatewayPaymentId = executor.execute(() -> simulate("payment-intent-" + payment.getId(), "fake_pi_"));
+            payment.setGatewayPaymentId(gatewayPaymentId);
+            payment.setStatus(PaymentStatus.SUCCEEDED);
+            Payment saved = paymentRepository.save(payment);
+            return ApplicationResponse.success(convertToPaymentResponse(saved), "Payment processed by offline gateway");
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("payment " + payment.getId(), e);
+        } catch (Exception e) {
+            return failed("payment " + payment.getId(), e);
+        }
+    }
+
+    @Override
+    public ApplicationResponse<PaymentResponse> processRefund(Payment payment, BigDecimal refundAmount, String reason) {
+        try {
+            executor.execute(() -> simulate("refund-" + payment.getId() + "-" + UUID.randomUUID(), "fake_re_"));
+            payment.setStatus(refundAmount.compareTo(payment.getAmount()) == 0
+                    ? PaymentStatus.REFUNDED
+                    : PaymentStatus.PARTIALLY_REFUNDED);
+            Payment saved = paymentRepository.save(payment);
+            return ApplicationResponse.success(convertToPaymentResponse(saved), "Refund processed by offline gateway");
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("refund of payment " + payment.getId(), e);
+        } catch (Exception e) {
+            return failed("refund of payment " + payment.getId(), e);
+        }
+    }
+
+    @Override
+    public ApplicationResponse<PaymentResponse> verifyPaymentStatus(String gatewayPaymentId) {
+        try {
+            executor.execute(() -> simulate(null, null));
+            Optional<Payment> payment = paymentRepository.findByGatewayPaymentId(gatewayPaymentId);
+            if (payment.isEmpty()) {
+                return ApplicationResponse.error(new ErrorCode(5105L, "Payment not found in database", HttpStatus.NOT_FOUND));
+            }
+            return ApplicationResponse.success(convertToPaymentResponse(payment.get()), "Payment status verified");
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("status check of " + gatewayPaymentId, e);
+        } catch (Exception e) {
+            return failed("status check of " + gatewayPaymentId, e);
+        }
+    }
+
+    @Override
+    public ApplicationResponse<PaymentResponse> cancelPayment(Payment payment) {
+        try {
+            executor.execute(() -> simulate("payment-cancel-" + payment.getId(), "fake_pi_"));
+            payment.setStatus(PaymentStatus.CANCELLED);
+            Payment saved = paymentRepository.save(payment);
+            return ApplicationResponse.success(convertToPaymentResponse(saved), "Payment cancelled successfully");
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("cancellation of payment " + payment.getId(), e);
+        } catch (Exception e) {
+            return failed("cancellation of payment " + payment.getId(), e);
+        }
+    }
+
+    @Override
+    public WebhookEventEnvelope verifyWebhook(String webhookPayload, String signature) {
+        // Payments complete synchronously, so the offline gateway never sends webhooks
+        throw new PaymentProcessingException(5112L, "Webhooks are not supported by the offline gateway",
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @Override
+    public boolean applyWebhookEvent(WebhookEvent event) {
+        throw new PaymentProcessingException(5112L, "Webhooks are not supported by the offline gateway",
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @Override
+    public String getGatewayName() {
+        return paymentConfig.getFake().getGatewayName();
+    }
+
+    @Override
+    public boolean supportsCurrency(String currency) {
+        return currency != null && currency.length() == 3;
+    }
+
+    @Override
+    public BigDecimal getMinimumAmount(String currency) {
+        return paymentConfig.getGeneral().getMinimumAmount();
+    }
+
+    /**
+     * Highest number of provider calls that were executing at the same time
+     */
+    public int getMaxConcurrentCalls() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Number of provider calls that actually started
+     */
+    public int getCallCount() {
+        return calls.get();
+    }
+
+    /**
+     * One simulated round trip to the provider, run on a bulkhead thread.
+     */
+    private String simulate(String idempotencyKey, String idPrefix) throws InterruptedException {
+        calls.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            PaymentConfig.Fake fake = paymentConfig.getFake();
+            long latency = fake.getLatencyMs();
+            if (fake.getLatencyJitterMs() > 0) {
+                latency += ThreadLocalRandom.current().nextLong(fake.getLatencyJitterMs() + 1);
+            }
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (fake.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < fake.getErrorRate()) {
+                throw new InjectedFailureException();
+            }
+            if (idempotencyKey == null) {
+                return null;
+            }
+            return idempotentResults.computeIfAbsent(idempotencyKey,
+                    key -> idPrefix + UUID.randomUUID().toString().replace("-", ""));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static ApplicationResponse<PaymentResponse> unavailable(String operation, Exception e) {
+        ApiLogger.warn("FakePaymentGateway", "Offline gateway unavailable for " + operation + ": " + e.getMessage());
+        return ApplicationResponse.error(new ErrorCode(5111L,
+                "Payment gateway is temporarily unavailable, please try again later",
+                HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    private static ApplicationResponse<PaymentResponse> failed(String operation, Exception e) {
+        ApiLogger.warn("FakePaymentGateway", "Offline gateway failed " + operation + ": " + e.getMessage());
+        return ApplicationResponse.error(new ErrorCode(ApiCode.PAYMENT_GATEWAY_ERROR.getCode(),
+                ApiCode.PAYMENT_GATEWAY_ERROR.getMessage(),
+                ApiCode.PAYMENT_GATEWAY_ERROR.getHttpStatus()));
+    }
+
+    private PaymentResponse convertToPaymentResponse(Payment payment) {
+        return new PaymentResponse(
+            payment.getId(),
+            payment.getUserId(),
+            payment.getAmount(),
+            payment.getCurrency(),
+            payment.getQuantity(),
+            payment.getCustomerName(),
+            payment.getGateway(),
+            payment.getMethod(),
+            payment.getStatus(),
+            payment.getGatewayPaymentId(),
+            payment.getClientSecret(),
+            payment.getDescription(),
+            payment.getCreatedAt(),
+            payment.getUpdatedAt()
+        );
+    }
+
+    /**
+     * Failure raised by error injection; treated as transient, like a dropped connection
+     */
+    public static class InjectedFailureException extends RuntimeException {
+        public InjectedFailureException() {
+            super("Injected gateway failure");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.imovel.api.payment.gateway;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Runs blocking calls to a payment provider under retry, circuit breaker, time limiter and
+ * thread-pool bulkhead (outermost first).
+ * <p>
+ * The provider call itself runs on the bulkhead's bounded pool, so a slow provider can tie up at
+ * most that many threads; the request thread waits no longer than the time limit, fails immediately
+ * when the bulkhead is saturated or the breaker is open, and only transient failures are retried.
+ * A call that timed out is not retried, as the provider may still complete it. Mutating calls
+ * must carry an idempotency key that stays the same across retries.
+ */
+public class GatewayCallExecutor {
+
+    private final String name;
+    private final Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final TimeLimiter timeLimiter;
+    private final ThreadPoolBulkhead bulkhead;
+
+    public GatewayCallExecutor(String name, Retry retry, CircuitBreaker circuitBreaker,
+                               TimeLimiter timeLimiter, ThreadPoolBulkhead bulkhead) {
+        this.name = name;
+        this.retry = retry;
+        this.circuitBreaker = circuitBreaker;
+        this.timeLimiter = timeLimiter;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Executes a provider call.
+     *
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException when the circuit breaker is open
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException when all provider threads are busy
+     * @throws java.util.concurrent.TimeoutException when the call exceeded its time budget
+     * @throws Exception whatever the call itself threw
+     */
+    public <T> T execute(Callable<T> call) throws Exception {
+        Callable<T> timed = TimeLimiter.decorateFutureSupplier(timeLimiter,
+                () -> bulkhead.executeCallable(call).toCompletableFuture());
+        return Retry.decorateCallable(retry, CircuitBreaker.decorateCallable(circuitBreaker, timed)).call();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public ThreadPoolBulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,44 @@
+package com.imovel.api.payment.gateway;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one {@link GatewayCallExecutor} per payment gateway. The resilience4j instances are
+ * named after the gateway and configured under {@code resilience4j.*} in application-payment.yml.
+ */
+@Component
+public class GatewayResilience {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ThreadPoolBulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final RetryRegistry retryRegistry;
+    private final Map<String, GatewayCallExecutor> executors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GatewayResilience(CircuitBreakerRegistry circuitBreakerRegistry,
+                             ThreadPoolBulkheadRegistry bulkheadRegistry,
+                             TimeLimiterRegistry timeLimiterRegistry,
+                             RetryRegistry retryRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        this.retryRegistry = retryRegistry;
+    }
+
+    public GatewayCallExecutor executor(String gatewayName) {
+        return executors.computeIfAbsent(gatewayName, name -> new GatewayCallExecutor(name,
+                retryRegistry.retry(name),
+                circuitBreakerRegistry.circuitBreaker(name),
+                timeLimiterRegistry.timeLimiter(name),
+                bulkheadRegistry.bulkhead(name)));
+    }
+}
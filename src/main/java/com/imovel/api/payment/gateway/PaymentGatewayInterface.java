@@ -2,7 +2,10 @@ package com.imovel.api.payment.gateway;
 
 import com.imovel.api.payment.dto.PaymentRequest;
 import com.imovel.api.payment.dto.PaymentResponse;
+import com.imovel.api.exception.PaymentProcessingException;
 import com.imovel.api.payment.model.Payment;
+import com.imovel.api.payment.model.WebhookEvent;
+import com.imovel.api.payment.webhook.WebhookEventEnvelope;
 import com.imovel.api.response.ApplicationResponse;
 
 import java.math.BigDecimal;
@@ -49,13 +52,24 @@ public interface PaymentGatewayInterface {
     ApplicationResponse<PaymentResponse> cancelPayment(Payment payment);
     
     /**
-     * Handle webhook notifications from the gateway
+     * Verify a webhook notification's signature and extract the fields needed to queue it
      * 
      * @param webhookPayload The webhook payload from the gateway
      * @param signature The webhook signature for verification
-     * @return ApplicationResponse indicating webhook processing result
+     * @return the verified event metadata
+     * @throws PaymentProcessingException if the signature is invalid or the payload cannot be read
      */
-    ApplicationResponse<String> handleWebhook(String webhookPayload, String signature);
+    WebhookEventEnvelope verifyWebhook(String webhookPayload, String signature);
+    
+    /**
+     * Apply a verified webhook event taken from the inbox.
+     * Must be idempotent: an event may be applied again after a crash or a retry.
+     * 
+     * @param event The stored webhook event
+     * @return true if the event type sets the state of a payment, false if it is not handled
+     * @throws RuntimeException if the event could not be applied and should be retried
+     */
+    boolean applyWebhookEvent(WebhookEvent event);
     
     /**
      * Get the gateway name
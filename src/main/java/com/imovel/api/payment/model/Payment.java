@@ -11,7 +11,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+       indexes = {
+           @Index(name = "idx_payments_created_status", columnList = "created_at, status"),
+           @Index(name = "idx_payments_user_created", columnList = "user_id, created_at, status"),
+           @Index(name = "idx_payments_updated", columnList = "updated_at")
+       })
 public class Payment {
     
     @Id
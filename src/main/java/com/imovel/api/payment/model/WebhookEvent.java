@@ -0,0 +1,200 @@
+package com.imovel.api.payment.model;
+
+import com.imovel.api.payment.model.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Verified webhook event persisted before processing.
+ * The unique event id deduplicates gateway retries; the ordering key (the payment intent id for
+ * Stripe) is used to process events for the same payment in the order the gateway created them.
+ */
+@Entity
+@Table(name = "webhook_events",
+       uniqueConstraints = @UniqueConstraint(name = "uk_webhook_events_event_id", columnNames = {"event_id"}),
+       indexes = {
+           @Index(name = "idx_webhook_events_status_created", columnList = "status, event_created"),
+           @Index(name = "idx_webhook_events_ordering_key", columnList = "ordering_key, event_created")
+       })
+public class WebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "gateway", nullable = false, length = 20)
+    private String gateway;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "ordering_key")
+    private String orderingKey;
+
+    @Column(name = "event_created", nullable = false)
+    private Long eventCreated;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private WebhookEventStatus status = WebhookEventStatus.RECEIVED;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    // Constructors
+    public WebhookEvent() {}
+
+    public WebhookEvent(String gateway, String eventId, String eventType, String orderingKey,
+                        Long eventCreated, String payload, Instant receivedAt) {
+        this.gateway = gateway;
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.orderingKey = orderingKey;
+        this.eventCreated = eventCreated;
+        this.payload = payload;
+        this.receivedAt = receivedAt;
+        this.nextAttemptAt = receivedAt;
+    }
+
+    /**
+     * Key used to serialize processing; events without a payment reference are independent.
+     */
+    public String getSequenceKey() {
+        return orderingKey != null ? orderingKey : eventId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getGateway() {
+        return gateway;
+    }
+
+    public void setGateway(String gateway) {
+        this.gateway = gateway;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getOrderingKey() {
+        return orderingKey;
+    }
+
+    public void setOrderingKey(String orderingKey) {
+        this.orderingKey = orderingKey;
+    }
+
+    public Long getEventCreated() {
+        return eventCreated;
+    }
+
+    public void setEventCreated(Long eventCreated) {
+        this.eventCreated = eventCreated;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public WebhookEventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WebhookEventStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(Instant receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(Instant processedAt) {
+        this.processedAt = processedAt;
+    }
+}
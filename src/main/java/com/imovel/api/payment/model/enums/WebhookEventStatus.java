@@ -0,0 +1,15 @@
+package com.imovel.api.payment.model.enums;
+
+/**
+ * Lifecycle of a webhook event stored in the inbox.
+ */
+public enum WebhookEventStatus {
+    RECEIVED,
+    PROCESSING,
+    PROCESSED,
+    // Verified, but of a type the gateway does not act on
+    IGNORED,
+    FAILED,
+    SUPERSEDED,
+    DEAD_LETTER
+}
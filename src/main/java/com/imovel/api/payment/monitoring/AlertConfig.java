@@ -17,6 +17,7 @@ public class AlertConfig {
     private Email email = new Email();
     private Thresholds thresholds = new Thresholds();
     private Cooldown cooldown = new Cooldown();
+    private Dispatch dispatch = new Dispatch();
 
     public static class Email {
         private boolean enabled = true;
@@ -42,6 +43,7 @@ public class AlertConfig {
         private double failureRate = 0.1; // 10%
         private int failureCount = 5;
         private Duration timeWindow = Duration.ofMinutes(5);
+        private double clearRatio = 0.5; // resolve below half the alerting rate
 
         // Getters and setters
         public double getFailureRate() { return failureRate; }
@@ -52,6 +54,9 @@ public class AlertConfig {
         
         public Duration getTimeWindow() { return timeWindow; }
         public void setTimeWindow(Duration timeWindow) { this.timeWindow = timeWindow; }
+        
+        public double getClearRatio() { return clearRatio; }
+        public void setClearRatio(double clearRatio) { this.clearRatio = clearRatio; }
     }
 
     public static class Cooldown {
@@ -74,6 +79,18 @@ public class AlertConfig {
         public void setRateLimitAlert(Duration rateLimitAlert) { this.rateLimitAlert = rateLimitAlert; }
     }
 
+    public static class Dispatch {
+        private Duration interval = Duration.ofSeconds(10);
+        private int queueCapacity = 1000;
+
+        // Getters and setters
+        public Duration getInterval() { return interval; }
+        public void setInterval(Duration interval) { this.interval = interval; }
+        
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    }
+
     // Main getters and setters
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
@@ -86,4 +103,7 @@ public class AlertConfig {
     
     public Cooldown getCooldown() { return cooldown; }
     public void setCooldown(Cooldown cooldown) { this.cooldown = cooldown; }
+    
+    public Dispatch getDispatch() { return dispatch; }
+    public void setDispatch(Dispatch dispatch) { this.dispatch = dispatch; }
 }
@@ -0,0 +1,178 @@
+package com.imovel.api.payment.monitoring;
+
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.services.MailService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects alerts from any thread and mails them in batches from the alert thread.
+ * <p>
+ * Alerts raised again before the next flush are merged by key and counted. When a batch is
+ * flushed, alerts still inside their cooldown are suppressed, and a resolution is only mailed for
+ * an alert that was mailed in the first place. Everything due in one flush goes out as one email.
+ */
+class AlertDispatcher {
+
+    private static final String TAG = "PaymentAlertService";
+
+    private final MailService mailService;
+    private final AlertConfig alertConfig;
+    private final Clock clock;
+    private final Map<String, Alert> pending = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Only touched by the flushing thread
+    private final Map<String, Instant> lastSent = new HashMap<>();
+    private final Set<String> open = new HashSet<>();
+
+    AlertDispatcher(MailService mailService, AlertConfig alertConfig, Clock clock) {
+        this.mailService = mailService;
+        this.alertConfig = alertConfig;
+        this.clock = clock;
+    }
+
+    /**
+     * Queue an alert; never blocks and never sends mail on the calling thread
+     */
+    void submit(Alert alert) {
+        if (!pending.containsKey(alert.key) && pending.size() >= alertConfig.getDispatch().getQueueCapacity()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        pending.merge(alert.key, alert, Alert::merge);
+    }
+
+    /**
+     * Mail everything pending that is not suppressed
+     *
+     * @return number of alerts included in the email
+     */
+    int flush() {
+        Instant now = clock.instant();
+        List<Alert> batch = new ArrayList<>();
+        for (String key : pending.keySet()) {
+            Alert alert = pending.remove(key);
+            if (alert != null && admit(alert, now)) {
+                batch.add(alert);
+            }
+        }
+        pruneCooldowns(now);
+
+        long droppedSinceLastFlush = dropped.getAndSet(0);
+        if (droppedSinceLastFlush > 0) {
+            ApiLogger.warn(TAG, "Dropped " + droppedSinceLastFlush + " alerts, the alert queue was full");
+        }
+        if (batch.isEmpty() || !alertConfig.getEmail().isEnabled()) {
+            return 0;
+        }
+
+        try {
+            mailService.enqueue(alertConfig.getEmail().getRecipients(), alertConfig.getEmail().getFrom(),
+                    subject(batch), body(batch, now));
+            ApiLogger.info(TAG, "Queued alert email with " + batch.size() + " alert(s)");
+        } catch (Exception e) {
+            ApiLogger.error(TAG, "Failed to queue alert email", e);
+        }
+        return batch.size();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private boolean admit(Alert alert, Instant now) {
+        if (alert.resolution) {
+            return open.remove(alert.key);
+        }
+        Instant previous = lastSent.get(alert.key);
+        if (previous != null && now.isBefore(previous.plus(alert.cooldown))) {
+            return false;
+        }
+        lastSent.put(alert.key, now);
+        open.add(alert.key);
+        return true;
+    }
+
+    private void pruneCooldowns(Instant now) {
+        AlertConfig.Cooldown cooldown = alertConfig.getCooldown();
+        Duration longest = cooldown.getFailureAlert();
+        for (Duration candidate : List.of(cooldown.getHealthAlert(), cooldown.getWebhookAlert(),
+                cooldown.getRateLimitAlert())) {
+            if (candidate.compareTo(longest) > 0) {
+                longest = candidate;
+            }
+        }
+        Instant cutoff = now.minus(longest);
+        lastSent.values().removeIf(sent -> sent.isBefore(cutoff));
+    }
+
+    private String subject(List<Alert> batch) {
+        String title = batch.size() == 1 ? batch.get(0).title : batch.size() + " PAYMENT ALERTS";
+        return title + " - " + alertConfig.getEmail().getSubject();
+    }
+
+    private static String body(List<Alert> batch, Instant now) {
+        StringBuilder body = new StringBuilder();
+        for (Alert alert : batch) {
+            body.append(alert.title).append('\n').append(alert.details).append('\n');
+            if (alert.occurrences > 1) {
+                body.append("Occurrences: ").append(alert.occurrences).append('\n');
+            }
+            body.append('\n');
+        }
+        body.append("Time: ").append(DateTimeFormatter.ISO_INSTANT.format(now)).append("\n\n")
+                .append("Imovel Payment Monitoring System");
+        return body.toString();
+    }
+
+    /**
+     * One alert, identified by its key for deduplication and cooldown
+     */
+    static final class Alert {
+
+        private final String key;
+        private final String title;
+        private final String details;
+        private final Duration cooldown;
+        private final boolean resolution;
+        private final int occurrences;
+
+        private Alert(String key, String title, String details, Duration cooldown, boolean resolution,
+                      int occurrences) {
+            this.key = key;
+            this.title = title;
+            this.details = details;
+            this.cooldown = cooldown;
+            this.resolution = resolution;
+            this.occurrences = occurrences;
+        }
+
+        static Alert raise(String key, String title, String details, Duration cooldown) {
+            return new Alert(key, title, details, cooldown, false, 1);
+        }
+
+        static Alert resolve(String key, String title, String details) {
+            return new Alert(key, title, details, Duration.ZERO, true, 1);
+        }
+
+        /**
+         * The latest alert wins, keeping the running count when both are of the same kind
+         */
+        private static Alert merge(Alert earlier, Alert later) {
+            int occurrences = earlier.resolution == later.resolution ? earlier.occurrences + 1 : 1;
+            return new Alert(later.key, later.title, later.details, later.cooldown, later.resolution, occurrences);
+        }
+    }
+}
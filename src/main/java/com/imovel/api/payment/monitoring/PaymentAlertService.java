@@ -1,331 +1,288 @@
 package com.imovel.api.payment.monitoring;
 
 import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.services.MailService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Clock;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for handling payment-related alerts and notifications
- * Monitors payment failures and system health issues
+ * <p>
+ * Payment outcomes are counted per gateway and per error code in lock-free sliding windows, so
+ * recording them on the payment path costs a couple of CAS operations and nothing else. The alert
+ * thread evaluates the failure rates every dispatch interval: a series starts alerting when its rate
+ * over the configured window and over the last minute both reach the threshold, and only clears once
+ * the rate falls below {@code clear-ratio} times the threshold. Alerts are then mailed in batches by
+ * an {@link AlertDispatcher}, which also deduplicates them and applies the cooldowns.
  */
 @Service
 public class PaymentAlertService {
 
-    // ApiLogger is a utility class with static methods, no instantiation needed
+    private static final String TAG = "PaymentAlertService";
+    static final long BUCKET_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long FIVE_MINUTES = TimeUnit.MINUTES.toMillis(5);
+    private static final long FIFTEEN_MINUTES = TimeUnit.MINUTES.toMillis(15);
+    private static final int BUCKETS = (int) (FIFTEEN_MINUTES / BUCKET_MILLIS);
+    private static final int MAX_GATEWAYS = 16;
+    private static final int MAX_CODES_PER_GATEWAY = 32;
+    static final String OTHER = "other";
+    static final long OTHER_CODE = -1L;
 
-    private final JavaMailSender mailSender;
     private final AlertConfig alertConfig;
-    private final Map<String, LocalDateTime> lastAlertTimes = new ConcurrentHashMap<>();
-    private final Map<String, AtomicInteger> failureCounts = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final AlertDispatcher dispatcher;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, GatewayWindow> gateways = new ConcurrentHashMap<>();
 
     @Autowired
-    public PaymentAlertService(JavaMailSender mailSender, AlertConfig alertConfig) {
-        this.mailSender = mailSender;
+    public PaymentAlertService(MailService mailService, AlertConfig alertConfig) {
+        this(mailService, alertConfig, Clock.systemUTC(), newScheduler());
+    }
+
+    PaymentAlertService(MailService mailService, AlertConfig alertConfig, Clock clock,
+                        ScheduledExecutorService scheduler) {
         this.alertConfig = alertConfig;
+        this.clock = clock;
+        this.dispatcher = new AlertDispatcher(mailService, alertConfig, clock);
+        this.scheduler = scheduler;
     }
 
-    /**
-     * Record a payment failure and check if alert should be sent
-     */
-    public void recordPaymentFailure(String gateway, String reason, BigDecimal amount) {
-        if (!alertConfig.isEnabled()) {
-            return;
+    @PostConstruct
+    void start() {
+        if (scheduler != null) {
+            long interval = alertConfig.getDispatch().getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.MILLISECONDS);
         }
+    }
 
-        ApiLogger.warn("PaymentAlertService", "Payment failure recorded: gateway=" + gateway + 
-                ", reason=" + reason + ", amount=" + amount.toString());
-
-        String key = "payment_failure_" + gateway;
-        failureCounts.computeIfAbsent(key, k -> new AtomicInteger(0)).incrementAndGet();
-
-        // Check if we should send an alert
-        if (shouldSendAlert(key, alertConfig.getThresholds().getFailureCount(), 
-                           alertConfig.getCooldown().getFailureAlert())) {
-            sendPaymentFailureAlert(gateway, reason, amount);
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
         }
     }
 
     /**
-     * Send alert for high payment failure rate
+     * Record a successful payment
      */
-    public void sendHighFailureRateAlert(double failureRate, int totalPayments, int failedPayments) {
-        if (!alertConfig.isEnabled() || !alertConfig.getEmail().isEnabled()) {
+    public void recordPaymentSuccess(String gateway) {
+        if (!alertConfig.isEnabled()) {
             return;
         }
-        
-        String key = "high_failure_rate";
-        if (!shouldSendAlert(key, 1, alertConfig.getCooldown().getFailureAlert())) {
+        window(gateway).attempts.increment(clock.millis());
+    }
+
+    /**
+     * Record a failed payment under its error code
+     */
+    public void recordPaymentFailure(String gateway, long errorCode, String reason) {
+        if (!alertConfig.isEnabled()) {
             return;
         }
-        
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(alertConfig.getEmail().getRecipients().toArray(new String[0]));
-            message.setFrom(alertConfig.getEmail().getFrom());
-            message.setSubject("🚨 HIGH PAYMENT FAILURE RATE ALERT - " + alertConfig.getEmail().getSubject());
-            
-            String body = String.format(
-                "HIGH PAYMENT FAILURE RATE DETECTED\n\n" +
-                "Failure Rate: %.2f%%\n" +
-                "Total Payments (last hour): %d\n" +
-                "Failed Payments: %d\n" +
-                "Time: %s\n\n" +
-                "Please investigate immediately.\n\n" +
-                "Imovel Payment Monitoring System",
-                failureRate, totalPayments, failedPayments,
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            );
-            
-            message.setText(body);
-            mailSender.send(message);
-            
-            ApiLogger.info("PaymentAlertService", "High failure rate alert sent to " + 
-                    String.join(",", alertConfig.getEmail().getRecipients()) + 
-                    ", failureRate=" + failureRate);
-            
-            lastAlertTimes.put(key, LocalDateTime.now());
-            
-        } catch (Exception e) {
-            ApiLogger.error("PaymentAlertService", "Failed to send high failure rate alert", e);
-        }
+        long now = clock.millis();
+        GatewayWindow window = window(gateway);
+        window.attempts.increment(now);
+        window.total.record(now, reason);
+        window.series(errorCode).record(now, reason);
     }
 
     /**
      * Send alert for system health issues
      */
     public void sendSystemHealthAlert(String component, String issue, String details) {
-        if (!alertConfig.isEnabled() || !alertConfig.getEmail().isEnabled()) {
-            return;
-        }
-        
-        String key = "health_" + component;
-        if (!shouldSendAlert(key, 1, alertConfig.getCooldown().getHealthAlert())) {
+        if (!alertConfig.isEnabled()) {
             return;
         }
-        
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(alertConfig.getEmail().getRecipients().toArray(new String[0]));
-            message.setFrom(alertConfig.getEmail().getFrom());
-            message.setSubject("🔴 SYSTEM HEALTH ALERT - " + component + " - " + alertConfig.getEmail().getSubject());
-            
-            String body = String.format(
-                "SYSTEM HEALTH ISSUE DETECTED\n\n" +
-                "Component: %s\n" +
-                "Issue: %s\n" +
-                "Details: %s\n" +
-                "Time: %s\n\n" +
-                "Please investigate immediately.\n\n" +
-                "Imovel Payment Monitoring System",
-                component, issue, details,
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            );
-            
-            message.setText(body);
-            mailSender.send(message);
-            
-            ApiLogger.info("PaymentAlertService", "System health alert sent for component=" + 
-                    component + ", issue=" + issue);
-            
-            lastAlertTimes.put(key, LocalDateTime.now());
-            
-        } catch (Exception e) {
-            ApiLogger.error("PaymentAlertService", "Failed to send system health alert", e);
-        }
+        dispatcher.submit(AlertDispatcher.Alert.raise("health_" + component,
+                "🔴 SYSTEM HEALTH ALERT - " + component,
+                "Component: " + component + "\nIssue: " + issue + "\nDetails: " + details,
+                alertConfig.getCooldown().getHealthAlert()));
     }
 
-
-
-
-
     /**
-     * Check if enough time has passed since last alert to send a new one
+     * Send webhook failure alert
      */
-    private boolean shouldSendAlert(String key, int threshold, Duration cooldown) {
-        AtomicInteger count = failureCounts.get(key);
-        if (count == null || count.get() < threshold) {
-            return false;
-        }
-
-        LocalDateTime lastAlert = lastAlertTimes.get(key);
-        if (lastAlert == null) {
-            return true;
+    public void sendWebhookFailureAlert(String gateway, String eventType) {
+        if (!alertConfig.isEnabled()) {
+            return;
         }
-
-        return LocalDateTime.now().isAfter(lastAlert.plus(cooldown));
+        dispatcher.submit(AlertDispatcher.Alert.raise("webhook_failure_" + gateway + "_" + eventType,
+                "⚠️ WEBHOOK FAILURE ALERT",
+                "Gateway: " + gateway + "\nEvent Type: " + eventType + "\nPlease check webhook processing.",
+                alertConfig.getCooldown().getWebhookAlert()));
     }
 
     /**
-     * Send payment failure alert
+     * Send rate limit alert
      */
-    private void sendPaymentFailureAlert(String gateway, String reason, BigDecimal amount) {
-        if (!alertConfig.getEmail().isEnabled()) {
+    public void sendRateLimitAlert(String endpoint, String userId) {
+        if (!alertConfig.isEnabled()) {
             return;
         }
+        dispatcher.submit(AlertDispatcher.Alert.raise("rate_limit_" + endpoint,
+                "🚦 RATE LIMIT ALERT",
+                "Endpoint: " + endpoint + "\nUser: " + (userId != null ? "authenticated" : "anonymous")
+                        + "\nConsider reviewing rate limit settings.",
+                alertConfig.getCooldown().getRateLimitAlert()));
+    }
 
+    /**
+     * One run of the alert thread
+     */
+    void tick() {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(alertConfig.getEmail().getRecipients().toArray(new String[0]));
-            message.setFrom(alertConfig.getEmail().getFrom());
-            message.setSubject("🚨 PAYMENT FAILURE ALERT - " + alertConfig.getEmail().getSubject());
-
-            String body = String.format(
-                "PAYMENT FAILURE DETECTED\n\n" +
-                "Gateway: %s\n" +
-                "Reason: %s\n" +
-                "Amount: %s\n" +
-                "Time: %s\n\n" +
-                "Please investigate payment processing issues.\n\n" +
-                "Imovel Payment Monitoring System",
-                gateway, reason, amount.toString(),
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            );
-
-            message.setText(body);
-            mailSender.send(message);
-
-            ApiLogger.info("PaymentAlertService", "Payment failure alert sent for gateway=" + 
-                    gateway + ", reason=" + reason);
-
+            evaluate();
+            dispatcher.flush();
         } catch (Exception e) {
-            ApiLogger.error("PaymentAlertService", "Failed to send payment failure alert", e);
+            // Keep the scheduled task alive
+            ApiLogger.error(TAG, "Failed to evaluate payment alerts", e);
         }
     }
 
     /**
-     * Send webhook failure alert
+     * Move every failure-rate series between its OK and alerting states. Called from the alert thread only.
      */
-    public void sendWebhookFailureAlert(String gateway, String eventType) {
-        if (!alertConfig.isEnabled() || !alertConfig.getEmail().isEnabled()) {
-            return;
+    void evaluate() {
+        long now = clock.millis();
+        for (GatewayWindow window : gateways.values()) {
+            evaluate(window, window.total, now);
+            for (Series series : window.byCode.values()) {
+                evaluate(window, series, now);
+            }
         }
+    }
 
-        String key = "webhook_failure_" + gateway + "_" + eventType;
-        if (!shouldSendAlert(key, 1, alertConfig.getCooldown().getWebhookAlert())) {
-            return;
+    int flush() {
+        return dispatcher.flush();
+    }
+
+    private void evaluate(GatewayWindow window, Series series, long now) {
+        AlertConfig.Thresholds thresholds = alertConfig.getThresholds();
+        long windowMillis = Math.min(thresholds.getTimeWindow().toMillis(), FIFTEEN_MINUTES);
+        long failures = series.failures.sum(now, series.failures.bucketsFor(windowMillis));
+        double rate = rate(window, series, now, windowMillis);
+
+        if (!series.alerting) {
+            if (failures >= thresholds.getFailureCount() && rate >= thresholds.getFailureRate()
+                    && rate(window, series, now, ONE_MINUTE) >= thresholds.getFailureRate()) {
+                series.alerting = true;
+                dispatcher.submit(AlertDispatcher.Alert.raise(series.key, "🚨 PAYMENT FAILURE RATE ALERT",
+                        describe(window, series, now), alertConfig.getCooldown().getFailureAlert()));
+            }
+        } else if (rate < thresholds.getFailureRate() * thresholds.getClearRatio()) {
+            series.alerting = false;
+            dispatcher.submit(AlertDispatcher.Alert.resolve(series.key, "✅ PAYMENT FAILURE RATE RESOLVED",
+                    describe(window, series, now)));
         }
+    }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(alertConfig.getEmail().getRecipients().toArray(new String[0]));
-            message.setFrom(alertConfig.getEmail().getFrom());
-            message.setSubject("⚠️ WEBHOOK FAILURE ALERT - " + alertConfig.getEmail().getSubject());
-
-            String body = String.format(
-                "WEBHOOK FAILURE DETECTED\n\n" +
-                "Gateway: %s\n" +
-                "Event Type: %s\n" +
-                "Time: %s\n\n" +
-                "Please check webhook processing.\n\n" +
-                "Imovel Payment Monitoring System",
-                gateway, eventType,
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            );
-
-            message.setText(body);
-            mailSender.send(message);
-
-            ApiLogger.info("PaymentAlertService", "Webhook failure alert sent for gateway=" + 
-                    gateway + ", eventType=" + eventType);
-
-            lastAlertTimes.put(key, LocalDateTime.now());
+    private static double rate(GatewayWindow window, Series series, long now, long windowMillis) {
+        int buckets = window.attempts.bucketsFor(windowMillis);
+        long attempts = window.attempts.sum(now, buckets);
+        if (attempts == 0) {
+            return 0;
+        }
+        // A failure can be counted before its attempt is, so cap at 100%
+        return Math.min(1.0, (double) series.failures.sum(now, buckets) / attempts);
+    }
 
-        } catch (Exception e) {
-            ApiLogger.error("PaymentAlertService", "Failed to send webhook failure alert", e);
+    private String describe(GatewayWindow window, Series series, long now) {
+        AlertConfig.Thresholds thresholds = alertConfig.getThresholds();
+        StringBuilder details = new StringBuilder("Gateway: ").append(window.gateway).append('\n');
+        if (series.code != null) {
+            details.append("Error Code: ").append(series.code == OTHER_CODE ? OTHER : series.code).append('\n');
         }
+        details.append("Latest Reason: ").append(series.lastReason).append('\n')
+                .append(String.format(Locale.ROOT, "Failure Rate: %.1f%% (1m), %.1f%% (5m), %.1f%% (15m)%n",
+                        100 * rate(window, series, now, ONE_MINUTE),
+                        100 * rate(window, series, now, FIVE_MINUTES),
+                        100 * rate(window, series, now, FIFTEEN_MINUTES)))
+                .append(String.format(Locale.ROOT, "Threshold: %.1f%% and %d failures over %d minutes",
+                        100 * thresholds.getFailureRate(), thresholds.getFailureCount(),
+                        thresholds.getTimeWindow().toMinutes()));
+        return details.toString();
+    }
+
+    private GatewayWindow window(String gateway) {
+        String name = gateway == null ? OTHER : gateway.toLowerCase(Locale.ROOT);
+        GatewayWindow window = gateways.get(name);
+        if (window != null) {
+            return window;
+        }
+        if (gateways.size() >= MAX_GATEWAYS) {
+            name = OTHER;
+        }
+        return gateways.computeIfAbsent(name, GatewayWindow::new);
+    }
+
+    private static SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(BUCKET_MILLIS, BUCKETS);
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-alerts");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * Send rate limit alert
+     * Attempts of one gateway, and its failures overall and by error code
      */
-    public void sendRateLimitAlert(String endpoint, String userId) {
-        if (!alertConfig.isEnabled() || !alertConfig.getEmail().isEnabled()) {
-            return;
-        }
+    private static final class GatewayWindow {
 
-        String key = "rate_limit_" + endpoint;
-        if (!shouldSendAlert(key, 1, alertConfig.getCooldown().getRateLimitAlert())) {
-            return;
-        }
+        private final String gateway;
+        private final SlidingWindowCounter attempts = newCounter();
+        private final Series total;
+        private final Map<Long, Series> byCode = new ConcurrentHashMap<>();
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(alertConfig.getEmail().getRecipients().toArray(new String[0]));
-            message.setFrom(alertConfig.getEmail().getFrom());
-            message.setSubject("🚦 RATE LIMIT ALERT - " + alertConfig.getEmail().getSubject());
-
-            String body = String.format(
-                "RATE LIMIT HIT\n\n" +
-                "Endpoint: %s\n" +
-                "User: %s\n" +
-                "Time: %s\n\n" +
-                "Consider reviewing rate limit settings.\n\n" +
-                "Imovel Payment Monitoring System",
-                endpoint, userId != null ? "authenticated" : "anonymous",
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            );
-
-            message.setText(body);
-            mailSender.send(message);
-
-            ApiLogger.info("PaymentAlertService", "Rate limit alert sent for endpoint=" + 
-                    endpoint + ", userId=" + (userId != null ? userId : "anonymous"));
-
-            lastAlertTimes.put(key, LocalDateTime.now());
+        private GatewayWindow(String gateway) {
+            this.gateway = gateway;
+            this.total = new Series("failure_rate_" + gateway, null);
+        }
 
-        } catch (Exception e) {
-            ApiLogger.error("PaymentAlertService", "Failed to send rate limit alert", e);
+        private Series series(long errorCode) {
+            Series series = byCode.get(errorCode);
+            if (series != null) {
+                return series;
+            }
+            long code = byCode.size() >= MAX_CODES_PER_GATEWAY ? OTHER_CODE : errorCode;
+            return byCode.computeIfAbsent(code, key -> new Series("failure_rate_" + gateway + "_" + key, key));
         }
     }
 
     /**
-     * Send failure alert email
+     * Failures of one alerting series with its alert state
      */
-    private void sendFailureAlert(int failures, String gateway, String reason, BigDecimal amount) {
-        if (!alertConfig.isEnabled() || !alertConfig.getEmail().isEnabled()) {
-            return;
+    private static final class Series {
+
+        private final String key;
+        private final Long code;
+        private final SlidingWindowCounter failures = newCounter();
+        private volatile String lastReason;
+        // Only touched by the alert thread
+        private boolean alerting;
+
+        private Series(String key, Long code) {
+            this.key = key;
+            this.code = code;
         }
-        
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(alertConfig.getEmail().getRecipients().toArray(new String[0]));
-            message.setSubject("🚨 PAYMENT FAILURE THRESHOLD EXCEEDED - " + alertConfig.getEmail().getSubject());
-            
-            String body = String.format(
-                "PAYMENT FAILURE THRESHOLD EXCEEDED\n\n" +
-                "Recent Failures: %d (threshold: %d)\n" +
-                "Time Window: %d minutes\n" +
-                "Latest Gateway: %s\n" +
-                "Latest Reason: %s\n" +
-                "Latest Amount: %s\n" +
-                "Time: %s\n\n" +
-                "Please investigate payment processing issues immediately.\n\n" +
-                "Imovel Payment Monitoring System",
-                failures, alertConfig.getThresholds().getFailureCount(),
-                alertConfig.getThresholds().getTimeWindow().toMinutes(),
-                gateway, reason, amount,
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            );
-            
-            message.setText(body);
-            mailSender.send(message);
-            
-            ApiLogger.info("PaymentAlertService", "Payment failure alert sent: failures=" + 
-                    failures + ", gateway=" + gateway);
-            
-        } catch (Exception e) {
-            ApiLogger.error("PaymentAlertService", "Failed to send payment failure alert", e);
+
+        private void record(long now, String reason) {
+            failures.increment(now);
+            lastReason = reason;
         }
     }
 }
@@ -0,0 +1,158 @@
+package com.imovel.api.payment.monitoring;
+
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.model.enums.PaymentStatus;
+import com.imovel.api.payment.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Payment health, exposed as the "payment" component of the actuator health endpoint.
+ * <p>
+ * Probes never touch the database. The counts come from a snapshot that a background job reconciles
+ * against the payments table every {@code payment.health.reconcile-interval-ms}, plus the payments
+ * recorded by this node since then. A snapshot older than {@code max-staleness-ms} is reported as
+ * UNKNOWN. A failed reconcile or a failure rate above the threshold is reported as {@link #DEGRADED},
+ * never DOWN: payment trouble is a business signal and must not take the API out of rotation.
+ * The liveness and readiness groups leave this component out, and DEGRADED maps to HTTP 200.
+ */
+@Component
+public class PaymentHealthIndicator implements HealthIndicator {
+
+    private static final String TAG = "PaymentHealthIndicator";
+
+    /**
+     * Payments are failing or cannot be counted; see {@code management.endpoint.health.status}
+     */
+    public static final Status DEGRADED = new Status("DEGRADED");
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentConfig.Health config;
+    private final Clock clock;
+    private final AtomicLong paymentsSinceReconcile = new AtomicLong();
+    private final AtomicLong failuresSinceReconcile = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public PaymentHealthIndicator(PaymentRepository paymentRepository, PaymentConfig paymentConfig) {
+        this(paymentRepository, paymentConfig.getHealth(), Clock.systemDefaultZone());
+    }
+
+    PaymentHealthIndicator(PaymentRepository paymentRepository, PaymentConfig.Health config, Clock clock) {
+        this.paymentRepository = paymentRepository;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    /**
+     * Count a payment created on this node until the next reconcile picks it up from the database
+     */
+    public void recordPayment(boolean failed) {
+        paymentsSinceReconcile.incrementAndGet();
+        if (failed) {
+            failuresSinceReconcile.incrementAndGet();
+        }
+    }
+
+    /**
+     * Replace the snapshot with fresh counts from the database
+     */
+    @Scheduled(fixedDelayString = "${payment.health.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        // Payments recorded while the queries run stay in the deltas; at worst they are counted twice until next time
+        long payments = paymentsSinceReconcile.get();
+        long failures = failuresSinceReconcile.get();
+        Instant now = clock.instant();
+        LocalDateTime localNow = LocalDateTime.ofInstant(now, clock.getZone());
+        LocalDateTime lastHour = localNow.minusHours(1);
+        try {
+            Snapshot fresh = new Snapshot(
+                    paymentRepository.count(),
+                    paymentRepository.countByCreatedAtAfter(localNow.minusHours(24)),
+                    paymentRepository.countByCreatedAtAfter(lastHour),
+                    paymentRepository.countByCreatedAtAfterAndStatus(lastHour, PaymentStatus.FAILED),
+                    now, null);
+            paymentsSinceReconcile.addAndGet(-payments);
+            failuresSinceReconcile.addAndGet(-failures);
+            snapshot = fresh;
+        } catch (Exception e) {
+            ApiLogger.error(TAG, "Failed to reconcile payment health snapshot", e);
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            Snapshot previous = snapshot;
+            snapshot = previous != null ? previous.failed(error) : new Snapshot(0, 0, 0, 0, null, error);
+        }
+    }
+
+    @Override
+    public Health health() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Health.unknown().withDetail("reason", "Payment health snapshot not loaded yet").build();
+        }
+
+        long payments = paymentsSinceReconcile.get();
+        long recentPayments1h = current.recentPayments1h + payments;
+        long recentFailedPayments1h = current.recentFailedPayments1h + failuresSinceReconcile.get();
+        double failureRate = recentPayments1h > 0 ? (double) recentFailedPayments1h / recentPayments1h * 100 : 0;
+
+        Health.Builder builder;
+        if (current.error != null) {
+            builder = Health.status(DEGRADED).withDetail("error", current.error);
+        } else if (Duration.between(current.refreshedAt, clock.instant()).toMillis() > config.getMaxStalenessMs()) {
+            builder = Health.unknown().withDetail("reason", "Payment health snapshot is stale");
+        } else if (failureRate > config.getFailureRateThreshold()) {
+            builder = Health.status(DEGRADED).withDetail("reason", "High failure rate detected");
+        } else {
+            builder = Health.up();
+        }
+        return builder
+                .withDetail("totalPayments", current.totalPayments + payments)
+                .withDetail("recentPayments24h", current.recentPayments24h + payments)
+                .withDetail("recentPayments1h", recentPayments1h)
+                .withDetail("recentFailedPayments1h", recentFailedPayments1h)
+                .withDetail("failureRate1h", String.format(Locale.ROOT, "%.2f%%", failureRate))
+                .withDetail("databaseConnected", current.error == null)
+                .withDetail("snapshotTime", String.valueOf(current.refreshedAt))
+                .build();
+    }
+
+    /**
+     * Counts as of the last reconcile
+     */
+    private static final class Snapshot {
+
+        private final long totalPayments;
+        private final long recentPayments24h;
+        private final long recentPayments1h;
+        private final long recentFailedPayments1h;
+        private final Instant refreshedAt;
+        private final String error;
+
+        private Snapshot(long totalPayments, long recentPayments24h, long recentPayments1h,
+                         long recentFailedPayments1h, Instant refreshedAt, String error) {
+            this.totalPayments = totalPayments;
+            this.recentPayments24h = recentPayments24h;
+            this.recentPayments1h = recentPayments1h;
+            this.recentFailedPayments1h = recentFailedPayments1h;
+            this.refreshedAt = refreshedAt;
+            this.error = error;
+        }
+
+        private Snapshot failed(String error) {
+            return new Snapshot(totalPayments, recentPayments24h, recentPayments1h, recentFailedPayments1h,
+                    refreshedAt, error);
+        }
+    }
+}
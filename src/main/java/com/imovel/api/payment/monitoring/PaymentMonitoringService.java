@@ -1,88 +1,156 @@
 package com.imovel.api.payment.monitoring;
 
+import com.imovel.api.payment.model.enums.PaymentGateway;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for collecting payment-related metrics and monitoring data
+ * <p>
+ * Payment, refund and webhook meters are registered once at startup for every
+ * gateway × operation × outcome combination and looked up by array index on the hot path, so
+ * recording an event does not touch the registry or allocate tags. Tag values are bounded:
+ * unknown gateway names are reported as {@code other}. These meters replace the earlier
+ * {@code payment.success}, {@code payment.failure}, {@code payment.refund}, {@code webhook.event}
+ * and {@code *.processing.time} meters; the mapping is in docs/payment_endpoints_guide.md.
  */
 @Service
 public class PaymentMonitoringService {
 
+    static final String OPERATIONS_COUNTER = "payment.operations";
+    static final String DURATION_TIMER = "payment.operation.duration";
+    static final String AMOUNT_SUMMARY = "payment.operation.amount";
+
+    private static final Duration[] LATENCY_SLOS = {
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10)
+    };
+    private static final double[] AMOUNT_SLOS = {10, 100, 1000, 10000};
+    private static final String OTHER_GATEWAY = "other";
+    private static final PaymentGateway[] GATEWAYS = PaymentGateway.values();
+    private static final int GATEWAY_SLOTS = GATEWAYS.length + 1;
+
+    /**
+     * Operation tag values
+     */
+    public enum Operation {
+        PAYMENT, REFUND, WEBHOOK;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Outcome tag values
+     */
+    public enum Outcome {
+        SUCCESS, FAILURE;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+
+        static Outcome of(boolean success) {
+            return success ? SUCCESS : FAILURE;
+        }
+    }
+
     private final MeterRegistry meterRegistry;
-    private final Timer paymentProcessingTimer;
-    private final Timer refundProcessingTimer;
-    private final Timer webhookProcessingTimer;
     private final PaymentAlertService alertService;
+    private final PaymentHealthIndicator healthIndicator;
+    private final Counter[][][] counters = new Counter[GATEWAY_SLOTS][Operation.values().length][Outcome.values().length];
+    private final Timer[][][] timers = new Timer[GATEWAY_SLOTS][Operation.values().length][Outcome.values().length];
+    private final DistributionSummary[][][] amounts =
+            new DistributionSummary[GATEWAY_SLOTS][Operation.values().length][Outcome.values().length];
+    private final Map<String, Counter> rateLimitCounters = new ConcurrentHashMap<>();
 
     @Autowired
-    public PaymentMonitoringService(MeterRegistry meterRegistry, PaymentAlertService alertService) {
+    public PaymentMonitoringService(MeterRegistry meterRegistry, PaymentAlertService alertService,
+                                    PaymentHealthIndicator healthIndicator) {
         this.meterRegistry = meterRegistry;
         this.alertService = alertService;
-        this.paymentProcessingTimer = Timer.builder("payment.processing.time")
-                .description("Payment processing time")
+        this.healthIndicator = healthIndicator;
+        for (int gateway = 0; gateway < GATEWAY_SLOTS; gateway++) {
+            String gatewayTag = gateway < GATEWAYS.length
+                    ? GATEWAYS[gateway].getValue()
+                    : OTHER_GATEWAY;
+            for (Operation operation : Operation.values()) {
+                for (Outcome outcome : Outcome.values()) {
+                    registerMeters(gateway, gatewayTag, operation, outcome);
+                }
+            }
+        }
+    }
+
+    private void registerMeters(int gateway, String gatewayTag, Operation operation, Outcome outcome) {
+        counters[gateway][operation.ordinal()][outcome.ordinal()] = Counter.builder(OPERATIONS_COUNTER)
+                .description("Payment gateway operations")
+                .tag("gateway", gatewayTag)
+                .tag("operation", operation.tag)
+                .tag("outcome", outcome.tag)
                 .register(meterRegistry);
-        this.refundProcessingTimer = Timer.builder("refund.processing.time")
-                .description("Refund processing time")
+        timers[gateway][operation.ordinal()][outcome.ordinal()] = Timer.builder(DURATION_TIMER)
+                .description("Payment gateway operation duration")
+                .tag("gateway", gatewayTag)
+                .tag("operation", operation.tag)
+                .tag("outcome", outcome.tag)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(LATENCY_SLOS)
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofSeconds(30))
                 .register(meterRegistry);
-        this.webhookProcessingTimer = Timer.builder("webhook.processing.time")
-                .description("Webhook processing time")
+        amounts[gateway][operation.ordinal()][outcome.ordinal()] = DistributionSummary.builder(AMOUNT_SUMMARY)
+                .description("Payment operation amount")
+                .tag("gateway", gatewayTag)
+                .tag("operation", operation.tag)
+                .tag("outcome", outcome.tag)
+                .serviceLevelObjectives(AMOUNT_SLOS)
                 .register(meterRegistry);
     }
 
     /**
      * Record a successful payment
      */
-    public void recordPaymentSuccess(String gateway, BigDecimal amount, String currency) {
-        meterRegistry.counter("payment.success",
-                "gateway", gateway,
-                "currency", currency,
-                "amount_range", categorizeAmount(amount)
-        ).increment();
+    public void recordPaymentSuccess(String gateway, BigDecimal amount) {
+        record(gateway, Operation.PAYMENT, Outcome.SUCCESS, amount);
+        healthIndicator.recordPayment(false);
+
+        // Successes are the denominator of the alerting failure rate
+        alertService.recordPaymentSuccess(gateway);
     }
 
     /**
      * Record a failed payment
      */
-    public void recordPaymentFailure(String gateway, String reason, BigDecimal amount) {
-        meterRegistry.counter("payment.failure",
-                "gateway", gateway,
-                "reason", reason,
-                "amount_range", categorizeAmount(amount)
-        ).increment();
-        
-        // Send alert for payment failure
-        alertService.recordPaymentFailure(gateway, reason, amount);
+    public void recordPaymentFailure(String gateway, long errorCode, String reason, BigDecimal amount) {
+        record(gateway, Operation.PAYMENT, Outcome.FAILURE, amount);
+        healthIndicator.recordPayment(true);
+
+        // Feed the failure-rate alerts
+        alertService.recordPaymentFailure(gateway, errorCode, reason);
     }
 
     /**
      * Record a payment refund
      */
-    public void recordPaymentRefund(String gateway, BigDecimal amount, String currency) {
-        meterRegistry.counter("payment.refund",
-                "gateway", gateway,
-                "currency", currency,
-                "amount_range", categorizeAmount(amount)
-        ).increment();
+    public void recordPaymentRefund(String gateway, BigDecimal amount) {
+        record(gateway, Operation.REFUND, Outcome.SUCCESS, amount);
     }
 
     /**
      * Record webhook event
      */
     public void recordWebhookEvent(String gateway, String eventType, boolean success) {
-        meterRegistry.counter("webhook.event",
-                "gateway", gateway,
-                "event_type", eventType,
-                "success", String.valueOf(success)
-        ).increment();
-        
+        counters[gatewayIndex(gateway)][Operation.WEBHOOK.ordinal()][Outcome.of(success).ordinal()].increment();
+
         if (!success) {
             // Send alert for webhook failure
             alertService.sendWebhookFailureAlert(gateway, eventType);
@@ -93,32 +161,33 @@ public class PaymentMonitoringService {
      * Record payment processing time
      */
     public void recordPaymentProcessingTime(Duration duration, String gateway, boolean success) {
-        paymentProcessingTimer.record(duration.toNanos(), java.util.concurrent.TimeUnit.NANOSECONDS);
+        timer(gateway, Operation.PAYMENT, success).record(duration.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     /**
      * Record refund processing time
      */
     public void recordRefundProcessingTime(Duration duration, String gateway, boolean success) {
-        refundProcessingTimer.record(duration.toNanos(), java.util.concurrent.TimeUnit.NANOSECONDS);
+        timer(gateway, Operation.REFUND, success).record(duration.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     /**
      * Record webhook processing time
      */
-    public void recordWebhookProcessingTime(Duration duration, String gateway, String eventType) {
-        webhookProcessingTimer.record(duration.toNanos(), java.util.concurrent.TimeUnit.NANOSECONDS);
+    public void recordWebhookProcessingTime(Duration duration, String gateway, boolean success) {
+        timer(gateway, Operation.WEBHOOK, success).record(duration.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     /**
      * Record rate limit hit
      */
     public void recordRateLimitHit(String endpoint, String userId) {
-        meterRegistry.counter("rate.limit.hit",
+        String userTag = userId != null ? "authenticated" : "anonymous";
+        rateLimitCounters.computeIfAbsent(endpoint + '|' + userTag, key -> meterRegistry.counter("rate.limit.hit",
                 "endpoint", endpoint,
-                "user_id", userId != null ? "authenticated" : "anonymous"
-        ).increment();
-        
+                "user_id", userTag
+        )).increment();
+
         // Send alert for rate limit hits
         alertService.sendRateLimitAlert(endpoint, userId);
     }
@@ -134,48 +203,57 @@ public class PaymentMonitoringService {
         ).increment();
     }
 
-    /**
-     * Categorize amount for metrics
-     */
-    private String categorizeAmount(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.valueOf(10)) <= 0) {
-            return "0-10";
-        } else if (amount.compareTo(BigDecimal.valueOf(100)) <= 0) {
-            return "10-100";
-        } else if (amount.compareTo(BigDecimal.valueOf(1000)) <= 0) {
-            return "100-1000";
-        } else if (amount.compareTo(BigDecimal.valueOf(10000)) <= 0) {
-            return "1000-10000";
-        } else {
-            return "10000+";
-        }
-    }
-
     /**
      * Create a timer sample for measuring duration
      */
     public Timer.Sample startTimer() {
-        return Timer.start();
+        return Timer.start(meterRegistry);
     }
 
     /**
      * Stop timer and record payment processing time
      */
     public void stopPaymentTimer(Timer.Sample sample, String gateway, boolean success) {
-        sample.stop(paymentProcessingTimer);
+        sample.stop(timer(gateway, Operation.PAYMENT, success));
     }
 
     /**
      * Stop timer and record refund processing time
      */
     public void stopRefundTimer(Timer.Sample sample, String gateway, boolean success) {
-        sample.stop(refundProcessingTimer);
+        sample.stop(timer(gateway, Operation.REFUND, success));
     }
 
     /**
      * Stop timer and record webhook processing time
      */
-    public void stopWebhookTimer(Timer.Sample sample, String gateway, String eventType) {
-        sample.stop(webhookProcessingTimer);
+    public void stopWebhookTimer(Timer.Sample sample, String gateway, boolean success) {
+        sample.stop(timer(gateway, Operation.WEBHOOK, success));
+    }
+
+    private void record(String gateway, Operation operation, Outcome outcome, BigDecimal amount) {
+        int index = gatewayIndex(gateway);
+        counters[index][operation.ordinal()][outcome.ordinal()].increment();
+        if (amount != null) {
+            amounts[index][operation.ordinal()][outcome.ordinal()].record(amount.doubleValue());
+        }
+    }
+
+    private Timer timer(String gateway, Operation operation, boolean success) {
+        return timers[gatewayIndex(gateway)][operation.ordinal()][Outcome.of(success).ordinal()];
+    }
+
+    /**
+     * Slot of a gateway name; names that are not a known {@link PaymentGateway} share the last slot
+     */
+    private static int gatewayIndex(String gateway) {
+        if (gateway != null) {
+            for (int i = 0; i < GATEWAYS.length; i++) {
+                if (GATEWAYS[i].getValue().equalsIgnoreCase(gateway)) {
+                    return i;
+                }
+            }
+        }
+        return GATEWAY_SLOTS - 1;
     }
 }
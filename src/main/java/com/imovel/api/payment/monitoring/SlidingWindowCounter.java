@@ -0,0 +1,82 @@
+package com.imovel.api.payment.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over a sliding window of fixed-width time buckets.
+ * <p>
+ * The buckets form a ring; each slot packs the bucket's epoch (upper 32 bits) and its count
+ * (lower 32 bits) into one long, so rolling a slot over to a new bucket and counting in it are the
+ * same compare-and-set and no increment is ever lost to a concurrent reset. Slots whose epoch is
+ * stale are simply ignored when summing, so idle windows decay without a cleanup pass.
+ */
+final class SlidingWindowCounter {
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final long bucketMillis;
+    private final AtomicLongArray slots;
+
+    SlidingWindowCounter(long bucketMillis, int bucketCount) {
+        if (bucketMillis <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Bucket width and count must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.slots = new AtomicLongArray(bucketCount);
+    }
+
+    /**
+     * Count one event at the given time
+     */
+    void increment(long nowMillis) {
+        long epoch = epoch(nowMillis);
+        int slot = slot(epoch);
+        long stamp = epoch << 32;
+        while (true) {
+            long current = slots.get(slot);
+            long ahead = ((current >>> 32) - epoch) & COUNT_MASK;
+            if (ahead != 0 && ahead < Integer.MAX_VALUE) {
+                // The slot already moved on to a newer bucket; this event is older than the window
+                return;
+            }
+            long next = ahead == 0 ? current + 1 : stamp | 1;
+            if (slots.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of events in the most recent {@code buckets} buckets, the current one included
+     */
+    long sum(long nowMillis, int buckets) {
+        long epoch = epoch(nowMillis);
+        int span = Math.min(buckets, slots.length());
+        long total = 0;
+        for (int i = 0; i < span; i++) {
+            long bucket = (epoch - i) & COUNT_MASK;
+            long value = slots.get(slot(bucket));
+            if (value >>> 32 == bucket) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Number of buckets needed to cover the given window, capped at the ring size
+     */
+    int bucketsFor(long windowMillis) {
+        long buckets = (windowMillis + bucketMillis - 1) / bucketMillis;
+        return (int) Math.max(1, Math.min(buckets, slots.length()));
+    }
+
+    private long epoch(long nowMillis) {
+        // Epochs wrap at 32 bits, which is centuries away for any sensible bucket width
+        return Math.floorDiv(nowMillis, bucketMillis) & COUNT_MASK;
+    }
+
+    private int slot(long epoch) {
+        return (int) (epoch % slots.length());
+    }
+}
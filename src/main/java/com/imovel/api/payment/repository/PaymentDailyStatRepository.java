@@ -0,0 +1,31 @@
+package com.imovel.api.payment.repository;
+
+import com.imovel.api.payment.model.PaymentDailyStat;
+import com.imovel.api.payment.repository.projection.PaymentStatusTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PaymentDailyStatRepository extends JpaRepository<PaymentDailyStat, Long> {
+
+    /**
+     * Rolled-up totals by status and currency for a user, days in [fromDay, toDayExclusive)
+     */
+    @Query("SELECT s.status AS status, s.currency AS currency, SUM(s.paymentCount) AS paymentCount, " +
+           "SUM(s.totalAmount) AS totalAmount FROM PaymentDailyStat s " +
+           "WHERE s.userId = :userId AND s.day >= :fromDay AND s.day < :toDayExclusive " +
+           "GROUP BY s.status, s.currency")
+    List<PaymentStatusTotals> sumByStatusAndCurrency(@Param("userId") Long userId,
+                                                     @Param("fromDay") LocalDate fromDay,
+                                                     @Param("toDayExclusive") LocalDate toDayExclusive);
+
+    @Modifying
+    @Query("DELETE FROM PaymentDailyStat s WHERE s.day = :day")
+    int deleteByDay(@Param("day") LocalDate day);
+}
@@ -3,6 +3,8 @@ package com.imovel.api.payment.repository;
 import com.imovel.api.payment.model.Payment;
 import com.imovel.api.payment.model.enums.PaymentGateway;
 import com.imovel.api.payment.model.enums.PaymentStatus;
+import com.imovel.api.payment.repository.projection.DailyPaymentTotals;
+import com.imovel.api.payment.repository.projection.PaymentStatusTotals;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -102,5 +105,43 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     /**
      * Count payments created after a specific date with a specific status
      */
-    long countByCreatedAtAfterAndStatus(LocalDateTime date, String status);
+    long countByCreatedAtAfterAndStatus(LocalDateTime date, PaymentStatus status);
+    
+    /**
+     * Totals by status and currency for a user, createdAt between startDate and endDate inclusive
+     */
+    @Query("SELECT p.status AS status, p.currency AS currency, COUNT(p) AS paymentCount, SUM(p.amount) AS totalAmount " +
+           "FROM Payment p WHERE p.userId = :userId AND p.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY p.status, p.currency")
+    List<PaymentStatusTotals> sumByStatusAndCurrency(@Param("userId") Long userId,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Totals by status and currency for a user, createdAt in [startDate, endExclusive)
+     */
+    @Query("SELECT p.status AS status, p.currency AS currency, COUNT(p) AS paymentCount, SUM(p.amount) AS totalAmount " +
+           "FROM Payment p WHERE p.userId = :userId AND p.createdAt >= :startDate AND p.createdAt < :endExclusive " +
+           "GROUP BY p.status, p.currency")
+    List<PaymentStatusTotals> sumByStatusAndCurrencyBefore(@Param("userId") Long userId,
+                                                           @Param("startDate") LocalDateTime startDate,
+                                                           @Param("endExclusive") LocalDateTime endExclusive);
+    
+    /**
+     * Totals by creation day, user, status and currency, createdAt in [startDate, endExclusive)
+     */
+    @Query("SELECT extract(date from p.createdAt) AS day, p.userId AS userId, p.status AS status, " +
+           "p.currency AS currency, COUNT(p) AS paymentCount, SUM(p.amount) AS totalAmount " +
+           "FROM Payment p WHERE p.createdAt >= :startDate AND p.createdAt < :endExclusive " +
+           "GROUP BY extract(date from p.createdAt), p.userId, p.status, p.currency")
+    List<DailyPaymentTotals> sumByDayUserStatusAndCurrency(@Param("startDate") LocalDateTime startDate,
+                                                           @Param("endExclusive") LocalDateTime endExclusive);
+    
+    /**
+     * Creation days, before endExclusive, of payments inserted or updated since the given time
+     */
+    @Query("SELECT DISTINCT extract(date from p.createdAt) FROM Payment p " +
+           "WHERE p.updatedAt >= :since AND p.createdAt < :endExclusive")
+    List<LocalDate> findCreationDaysUpdatedSince(@Param("since") LocalDateTime since,
+                                                 @Param("endExclusive") LocalDateTime endExclusive);
 }
@@ -0,0 +1,70 @@
+package com.imovel.api.payment.repository;
+
+import com.imovel.api.payment.model.WebhookEvent;
+import com.imovel.api.payment.model.enums.WebhookEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WebhookEventRepository extends JpaRepository<WebhookEvent, Long> {
+
+    /**
+     * Find an inbox entry by the gateway event ID
+     */
+    Optional<WebhookEvent> findByEventId(String eventId);
+
+    boolean existsByEventId(String eventId);
+
+    /**
+     * Unfinished events, oldest gateway creation time first
+     */
+    @Query("SELECT e FROM WebhookEvent e WHERE e.status IN :statuses ORDER BY e.eventCreated ASC, e.id ASC")
+    List<WebhookEvent> findByStatusInOrdered(@Param("statuses") List<WebhookEventStatus> statuses, Pageable pageable);
+
+    /**
+     * Whether a newer event for the same ordering key has already been applied. Ignored events
+     * did not set the payment's state, so they do not count.
+     */
+    @Query("SELECT COUNT(e) > 0 FROM WebhookEvent e WHERE e.orderingKey = :orderingKey " +
+           "AND e.status = com.imovel.api.payment.model.enums.WebhookEventStatus.PROCESSED " +
+           "AND e.eventCreated > :eventCreated")
+    boolean existsNewerProcessed(@Param("orderingKey") String orderingKey, @Param("eventCreated") Long eventCreated);
+
+    long countByStatus(WebhookEventStatus status);
+
+    /**
+     * Atomically lease an event for processing. Returns 0 if another worker owns it or it is not due.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WebhookEvent e SET e.status = com.imovel.api.payment.model.enums.WebhookEventStatus.PROCESSING, " +
+           "e.lockedUntil = :leaseUntil, e.attempts = e.attempts + 1 " +
+           "WHERE e.id = :id AND (" +
+           "e.status = com.imovel.api.payment.model.enums.WebhookEventStatus.RECEIVED " +
+           "OR (e.status = com.imovel.api.payment.model.enums.WebhookEventStatus.FAILED AND e.nextAttemptAt <= :now) " +
+           "OR (e.status = com.imovel.api.payment.model.enums.WebhookEventStatus.PROCESSING AND e.lockedUntil < :now))")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WebhookEvent e SET e.status = :status, e.processedAt = :processedAt, e.lockedUntil = null, " +
+           "e.lastError = null WHERE e.id = :id")
+    int markCompleted(@Param("id") Long id, @Param("status") WebhookEventStatus status,
+                      @Param("processedAt") Instant processedAt);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WebhookEvent e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lockedUntil = null, " +
+           "e.lastError = :lastError WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("status") WebhookEventStatus status,
+                   @Param("nextAttemptAt") Instant nextAttemptAt, @Param("lastError") String lastError);
+}
@@ -0,0 +1,13 @@
+package com.imovel.api.payment.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Payment count and amount for one day, user, status and currency
+ */
+public interface DailyPaymentTotals extends PaymentStatusTotals {
+
+    LocalDate getDay();
+
+    Long getUserId();
+}
@@ -0,0 +1,19 @@
+package com.imovel.api.payment.repository.projection;
+
+import com.imovel.api.payment.model.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment count and amount for one status and currency
+ */
+public interface PaymentStatusTotals {
+
+    PaymentStatus getStatus();
+
+    String getCurrency();
+
+    Long getPaymentCount();
+
+    BigDecimal getTotalAmount();
+}
@@ -2,6 +2,7 @@ package com.imovel.api.payment.service.impl;
 
 import com.imovel.api.error.ApiCode;
 import com.imovel.api.error.ErrorCode;
+import com.imovel.api.exception.PaymentProcessingException;
 import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.payment.audit.PaymentAuditLogger;
 import com.imovel.api.payment.dto.PaymentRequest;
@@ -15,12 +16,15 @@ import com.imovel.api.payment.model.Payment;
 import com.imovel.api.payment.model.enums.PaymentStatus;
 import com.imovel.api.payment.repository.PaymentRepository;
 import com.imovel.api.payment.service.PaymentService;
+import com.imovel.api.payment.statistics.PaymentStatisticsService;
+import com.imovel.api.payment.webhook.WebhookInboxService;
 import com.imovel.api.response.ApplicationResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.imovel.api.pagination.Pagination;
 import com.imovel.api.pagination.PaginationResult;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -38,6 +42,8 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final PaymentGatewayFactory paymentGatewayFactory;
     private final PaymentMonitoringService monitoringService;
+    private final WebhookInboxService webhookInboxService;
+    private final PaymentStatisticsService paymentStatisticsService;
 
 
     @PersistenceContext
@@ -46,10 +52,14 @@ public class PaymentServiceImpl implements PaymentService {
     @Autowired
     public PaymentServiceImpl(PaymentRepository paymentRepository,
                              PaymentGatewayFactory paymentGatewayFactory,
-                             PaymentMonitoringService monitoringService) {
+                             PaymentMonitoringService monitoringService,
+                             WebhookInboxService webhookInboxService,
+                             PaymentStatisticsService paymentStatisticsService) {
         this.paymentRepository = paymentRepository;
         this.paymentGatewayFactory = paymentGatewayFactory;
         this.monitoringService = monitoringService;
+        this.webhookInboxService = webhookInboxService;
+        this.paymentStatisticsService = paymentStatisticsService;
 
 
     }
@@ -120,8 +130,8 @@ public class PaymentServiceImpl implements PaymentService {
                 
                 // Record monitoring metrics
                 monitoringService.stopPaymentTimer(timerSample, gateway, false);
-                monitoringService.recordPaymentFailure(gateway, result.getError().getMessage(), 
-                    paymentRequest.getAmount());
+                monitoringService.recordPaymentFailure(gateway, result.getError().getCode(),
+                    result.getError().getMessage(), paymentRequest.getAmount());
             } else {
                 // Log payment success
                 PaymentAuditLogger.logPaymentCompleted(payment.getId(), userId, payment.getAmount(), 
@@ -129,8 +139,7 @@ public class PaymentServiceImpl implements PaymentService {
                 
                 // Record monitoring metrics
                 monitoringService.stopPaymentTimer(timerSample, gateway, true);
-                monitoringService.recordPaymentSuccess(gateway, paymentRequest.getAmount(), 
-                    paymentRequest.getCurrency());
+                monitoringService.recordPaymentSuccess(gateway, paymentRequest.getAmount());
             }
             
             return result;
@@ -141,7 +150,8 @@ public class PaymentServiceImpl implements PaymentService {
             
             // Record monitoring metrics for exception
             monitoringService.stopPaymentTimer(timerSample, gateway, false);
-            monitoringService.recordPaymentFailure(gateway, "system_error", paymentRequest.getAmount());
+            monitoringService.recordPaymentFailure(gateway, ApiCode.PAYMENT_GATEWAY_ERROR.getCode(),
+                "system_error", paymentRequest.getAmount());
             
             return ApplicationResponse.error(new ErrorCode(ApiCode.PAYMENT_GATEWAY_ERROR.getCode(), 
                 ApiCode.PAYMENT_GATEWAY_ERROR.getMessage(), ApiCode.PAYMENT_GATEWAY_ERROR.getHttpStatus()));
@@ -284,7 +294,7 @@ public class PaymentServiceImpl implements PaymentService {
                 
                 // Record monitoring metrics
                 monitoringService.stopRefundTimer(timerSample, gateway, true);
-                monitoringService.recordPaymentRefund(gateway, refundAmount, payment.getCurrency());
+                monitoringService.recordPaymentRefund(gateway, refundAmount);
             } else {
                 PaymentAuditLogger.logRefundFailed(paymentId, userId, result.getError().getMessage());
                 
@@ -387,9 +397,7 @@ public class PaymentServiceImpl implements PaymentService {
     public ApplicationResponse<PaymentStatistics> getPaymentStatistics(Long userId, LocalDateTime startDate, 
                                                                       LocalDateTime endDate) {
         try {
-            List<Payment> payments = paymentRepository.findByUserIdAndDateRange(userId, startDate, endDate);
-            
-            PaymentStatistics stats = calculateStatistics(payments);
+            PaymentStatistics stats = paymentStatisticsService.getStatistics(userId, startDate, endDate);
             return ApplicationResponse.success(stats);
             
         } catch (Exception e) {
@@ -400,6 +408,7 @@ public class PaymentServiceImpl implements PaymentService {
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ApplicationResponse<String> handleWebhook(String gateway, String webhookPayload, String signature) {
         try {
             ApiLogger.info("Handling webhook for gateway: " + gateway);
@@ -411,8 +420,12 @@ public class PaymentServiceImpl implements PaymentService {
                     HttpStatus.BAD_REQUEST));
             }
             
-            return paymentGateway.handleWebhook(webhookPayload, signature);
+            // Store first and acknowledge; the inbox worker applies the event
+            boolean stored = webhookInboxService.accept(paymentGateway, webhookPayload, signature);
+            return ApplicationResponse.success(stored ? "Webhook received" : "Duplicate webhook ignored");
             
+        } catch (PaymentProcessingException e) {
+            return ApplicationResponse.error(e.getErrorCode());
         } catch (Exception e) {
             ApiLogger.error("Error handling webhook", e);
             return ApplicationResponse.error(new ErrorCode(ApiCode.SYSTEM_ERROR.getCode(), 
@@ -482,38 +495,4 @@ public class PaymentServiceImpl implements PaymentService {
         return response;
     }
     
-    private PaymentStatistics calculateStatistics(List<Payment> payments) {
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        BigDecimal successfulAmount = BigDecimal.ZERO;
-        BigDecimal failedAmount = BigDecimal.ZERO;
-        BigDecimal refundedAmount = BigDecimal.ZERO;
-        
-        long totalCount = payments.size();
-        long successfulCount = 0;
-        long failedCount = 0;
-        long refundedCount = 0;
-        
-        for (Payment payment : payments) {
-            totalAmount = totalAmount.add(payment.getAmount());
-            
-            switch (payment.getStatus()) {
-                case SUCCEEDED:
-                    successfulAmount = successfulAmount.add(payment.getAmount());
-                    successfulCount++;
-                    break;
-                case FAILED:
-                    failedAmount = failedAmount.add(payment.getAmount());
-                    failedCount++;
-                    break;
-                case REFUNDED:
-                case PARTIALLY_REFUNDED:
-                    refundedAmount = refundedAmount.add(payment.getAmount());
-                    refundedCount++;
-                    break;
-            }
-        }
-        
-        return new PaymentStatistics(totalAmount, successfulAmount, failedAmount, refundedAmount,
-                                   totalCount, successfulCount, failedCount, refundedCount);
-    }
 }
@@ -0,0 +1,117 @@
+package com.imovel.api.payment.statistics;
+
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.model.Configuration;
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.model.PaymentDailyStat;
+import com.imovel.api.payment.repository.PaymentDailyStatRepository;
+import com.imovel.api.payment.repository.PaymentRepository;
+import com.imovel.api.repository.ConfigurationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Incrementally maintains {@code payment_daily_stats} for closed days.
+ * <p>
+ * Each run recomputes the creation days of payments inserted or updated since the previous run,
+ * so late status changes such as refunds are picked up. Days before the last run date are then
+ * served from the rollup by {@link PaymentStatisticsService}; changes made between runs are visible
+ * there after the next run.
+ */
+@Service
+public class PaymentDailyRollupService {
+
+    static final String LAST_RUN_KEY = "PAYMENT_ROLLUP_LAST_RUN";
+
+    private static final String TAG = "PaymentDailyRollupService";
+    // Re-scan a little before the last run to catch transactions that committed late
+    private static final Duration OVERLAP = Duration.ofMinutes(5);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentDailyStatRepository paymentDailyStatRepository;
+    private final ConfigurationRepository configurationRepository;
+    private final PaymentConfig paymentConfig;
+    private final Clock clock;
+
+    @Autowired
+    public PaymentDailyRollupService(PaymentRepository paymentRepository,
+                                     PaymentDailyStatRepository paymentDailyStatRepository,
+                                     ConfigurationRepository configurationRepository,
+                                     PaymentConfig paymentConfig) {
+        this(paymentRepository, paymentDailyStatRepository, configurationRepository, paymentConfig,
+                Clock.systemDefaultZone());
+    }
+
+    PaymentDailyRollupService(PaymentRepository paymentRepository,
+                              PaymentDailyStatRepository paymentDailyStatRepository,
+                              ConfigurationRepository configurationRepository,
+                              PaymentConfig paymentConfig,
+                              Clock clock) {
+        this.paymentRepository = paymentRepository;
+        this.paymentDailyStatRepository = paymentDailyStatRepository;
+        this.configurationRepository = configurationRepository;
+        this.paymentConfig = paymentConfig;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${payment.statistics.rollup-cron:0 5 * * * *}")
+    public void scheduledRollUp() {
+        if (!paymentConfig.getStatistics().isRollupEnabled()) {
+            return;
+        }
+        try {
+            int days = rollUp();
+            ApiLogger.info(TAG, () -> "Payment rollup recomputed " + days + " days");
+        } catch (RuntimeException e) {
+            ApiLogger.error(TAG, "Payment rollup failed", e);
+        }
+    }
+
+    /**
+     * Recompute every closed day that has payments inserted or updated since the last run.
+     *
+     * @return number of days recomputed
+     */
+    @Transactional
+    public int rollUp() {
+        LocalDateTime runStartedAt = LocalDateTime.now(clock);
+        LocalDate today = runStartedAt.toLocalDate();
+        LocalDateTime since = configurationRepository.findByConfigKey(LAST_RUN_KEY)
+                .map(Configuration::getConfigValue)
+                .map(LocalDateTime::parse)
+                .map(lastRun -> lastRun.minus(OVERLAP))
+                .orElse(BEGINNING);
+
+        List<LocalDate> days = paymentRepository.findCreationDaysUpdatedSince(since, today.atStartOfDay());
+        for (LocalDate day : days) {
+            paymentDailyStatRepository.deleteByDay(day);
+            List<PaymentDailyStat> rows = paymentRepository
+                    .sumByDayUserStatusAndCurrency(day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                    .stream()
+                    .map(totals -> new PaymentDailyStat(totals.getDay(), totals.getUserId(), totals.getStatus(),
+                            totals.getCurrency(), totals.getPaymentCount(), totals.getTotalAmount(), runStartedAt))
+                    .toList();
+            paymentDailyStatRepository.saveAll(rows);
+        }
+
+        putConfiguration(LAST_RUN_KEY, runStartedAt.toString());
+        putConfiguration(PaymentStatisticsService.COVERED_THROUGH_KEY, today.toString());
+        return days.size();
+    }
+
+    private void putConfiguration(String key, String value) {
+        Configuration configuration = configurationRepository.findByConfigKey(key)
+                .orElseGet(() -> new Configuration(key, null));
+        configuration.setConfigValue(value);
+        configurationRepository.save(configuration);
+    }
+}
@@ -0,0 +1,123 @@
+package com.imovel.api.payment.statistics;
+
+import com.imovel.api.model.Configuration;
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.repository.PaymentDailyStatRepository;
+import com.imovel.api.payment.repository.PaymentRepository;
+import com.imovel.api.payment.repository.projection.PaymentStatusTotals;
+import com.imovel.api.payment.service.PaymentService.PaymentStatistics;
+import com.imovel.api.repository.ConfigurationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payment statistics computed with grouped aggregate queries.
+ * <p>
+ * When the daily rollup is enabled, whole days it already covers are read from
+ * {@code payment_daily_stats} and only the partial days at either end of the range are
+ * aggregated from {@code payments}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PaymentStatisticsService {
+
+    static final String COVERED_THROUGH_KEY = "PAYMENT_ROLLUP_COVERED_THROUGH";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentDailyStatRepository paymentDailyStatRepository;
+    private final ConfigurationRepository configurationRepository;
+    private final PaymentConfig paymentConfig;
+
+    @Autowired
+    public PaymentStatisticsService(PaymentRepository paymentRepository,
+                                    PaymentDailyStatRepository paymentDailyStatRepository,
+                                    ConfigurationRepository configurationRepository,
+                                    PaymentConfig paymentConfig) {
+        this.paymentRepository = paymentRepository;
+        this.paymentDailyStatRepository = paymentDailyStatRepository;
+        this.configurationRepository = configurationRepository;
+        this.paymentConfig = paymentConfig;
+    }
+
+    /**
+     * Statistics for a user's payments created between startDate and endDate inclusive
+     */
+    public PaymentStatistics getStatistics(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate coveredThrough = paymentConfig.getStatistics().isRollupEnabled() ? rollupCoveredThrough() : null;
+        if (coveredThrough == null) {
+            return fold(paymentRepository.sumByStatusAndCurrency(userId, startDate, endDate));
+        }
+
+        LocalDate firstFullDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate rolledUpUntil = endDate.toLocalDate().isBefore(coveredThrough) ? endDate.toLocalDate() : coveredThrough;
+        if (!firstFullDay.isBefore(rolledUpUntil)) {
+            return fold(paymentRepository.sumByStatusAndCurrency(userId, startDate, endDate));
+        }
+
+        List<PaymentStatusTotals> totals = new ArrayList<>();
+        totals.addAll(paymentRepository.sumByStatusAndCurrencyBefore(userId, startDate, firstFullDay.atStartOfDay()));
+        totals.addAll(paymentDailyStatRepository.sumByStatusAndCurrency(userId, firstFullDay, rolledUpUntil));
+        totals.addAll(paymentRepository.sumByStatusAndCurrency(userId, rolledUpUntil.atStartOfDay(), endDate));
+        return fold(totals);
+    }
+
+    /**
+     * Combine per status and currency totals into the statistics returned by the API.
+     * Amounts are summed across currencies, as before.
+     */
+    static PaymentStatistics fold(List<? extends PaymentStatusTotals> totals) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal successfulAmount = BigDecimal.ZERO;
+        BigDecimal failedAmount = BigDecimal.ZERO;
+        BigDecimal refundedAmount = BigDecimal.ZERO;
+        long totalCount = 0;
+        long successfulCount = 0;
+        long failedCount = 0;
+        long refundedCount = 0;
+
+        for (PaymentStatusTotals row : totals) {
+            BigDecimal amount = row.getTotalAmount() != null ? row.getTotalAmount() : BigDecimal.ZERO;
+            long count = row.getPaymentCount() != null ? row.getPaymentCount() : 0L;
+            totalAmount = totalAmount.add(amount);
+            totalCount += count;
+
+            switch (row.getStatus()) {
+                case SUCCEEDED -> {
+                    successfulAmount = successfulAmount.add(amount);
+                    successfulCount += count;
+                }
+                case FAILED -> {
+                    failedAmount = failedAmount.add(amount);
+                    failedCount += count;
+                }
+                case REFUNDED, PARTIALLY_REFUNDED -> {
+                    refundedAmount = refundedAmount.add(amount);
+                    refundedCount += count;
+                }
+                default -> {
+                    // counted in the totals only
+                }
+            }
+        }
+
+        return new PaymentStatistics(totalAmount, successfulAmount, failedAmount, refundedAmount,
+                totalCount, successfulCount, failedCount, refundedCount);
+    }
+
+    private LocalDate rollupCoveredThrough() {
+        return configurationRepository.findByConfigKey(COVERED_THROUGH_KEY)
+                .map(Configuration::getConfigValue)
+                .map(LocalDate::parse)
+                .orElse(null);
+    }
+}
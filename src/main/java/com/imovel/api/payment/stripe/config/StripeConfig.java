@@ -17,7 +17,7 @@ import jakarta.annotation.PostConstruct;
  */
 @Configuration
 @ConfigurationProperties(prefix = "stripe")
-@Profile("!sqlite")
+@Profile("!sqlite & !offline")
 public class StripeConfig {
 
     //@Value("${stripe.secret.key}")
@@ -5,22 +5,31 @@ import com.imovel.api.error.ErrorCode;
 import com.imovel.api.exception.PaymentProcessingException;
 import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.payment.audit.PaymentAuditLogger;
+import com.imovel.api.payment.config.PaymentConfig;
 import com.imovel.api.payment.dto.PaymentResponse;
+import com.imovel.api.payment.gateway.GatewayCallExecutor;
+import com.imovel.api.payment.gateway.GatewayResilience;
 import com.imovel.api.payment.gateway.PaymentGatewayInterface;
 import com.imovel.api.payment.model.Payment;
+import com.imovel.api.payment.model.WebhookEvent;
 import com.imovel.api.payment.model.enums.PaymentStatus;
 import com.imovel.api.payment.repository.PaymentRepository;
 import com.imovel.api.payment.stripe.config.StripeConfig;
+import com.imovel.api.payment.webhook.WebhookEventEnvelope;
 import com.imovel.api.response.ApplicationResponse;
 import com.stripe.Stripe;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.*;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
 import com.stripe.net.Webhook;
+import com.stripe.param.PaymentIntentCancelParams;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.stripe.param.RefundCreateParams;
 import com.stripe.param.checkout.SessionCreateParams;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
@@ -31,14 +40,17 @@ import jakarta.annotation.PostConstruct;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.TimeoutException;
 
 @Service
-@Profile("!sqlite")
+@Profile("!sqlite & !offline")
 public class StripePaymentGateway implements PaymentGatewayInterface {
 
     private final PaymentRepository paymentRepository;
     private final StripeConfig stripeConfig;
     private final WebhookHelper webhookHelper;
+    private final PaymentConfig paymentConfig;
+    private final GatewayCallExecutor executor;
 
     @Value("${stripe.public-key}")
     private String stripePublicKey;
@@ -70,10 +82,13 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
     );
 
     @Autowired
-    public StripePaymentGateway(PaymentRepository paymentRepository, StripeConfig stripeConfig,WebhookHelper webhookHelper) {
+    public StripePaymentGateway(PaymentRepository paymentRepository, StripeConfig stripeConfig, WebhookHelper webhookHelper,
+                                PaymentConfig paymentConfig, GatewayResilience gatewayResilience) {
         this.paymentRepository = paymentRepository;
         this.stripeConfig = stripeConfig;
         this.webhookHelper = webhookHelper;
+        this.paymentConfig = paymentConfig;
+        this.executor = gatewayResilience.executor(getGatewayName());
     }
 
     @PostConstruct
@@ -82,6 +97,13 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
             if (stripeSecretKey != null && !stripeSecretKey.isEmpty()) {
                 Stripe.apiKey = stripeSecretKey;
 
+                // Cancelling a timed-out call does not interrupt a blocking socket read, so the read
+                // timeout, just above the time limiter budget, is what releases its bulkhead thread;
+                // retries are left to the gateway executor
+                Stripe.setConnectTimeout(paymentConfig.getStripe().getConnectTimeoutMs());
+                Stripe.setReadTimeout(paymentConfig.getStripe().getReadTimeoutMs());
+                Stripe.setMaxNetworkRetries(0);
+
                 // ✅ CORRECT WAY: Set API version through request options
                 if (stripeConfig.getApiVersion() != null && !stripeConfig.getApiVersion().isEmpty()) {
                     // The API version is set per request, but you can validate it's supported
@@ -193,7 +215,8 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
 
                     .build();
 
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
+            RequestOptions options = idempotencyKey("payment-intent-" + payment.getId());
+            PaymentIntent paymentIntent = executor.execute(() -> PaymentIntent.create(params, options));
 
             // Update payment with Stripe payment intent ID
             payment.setGatewayPaymentId(paymentIntent.getId());
@@ -206,6 +229,8 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
             PaymentResponse response = convertToPaymentResponse(payment);
             return ApplicationResponse.success(response, "Payment intent created successfully");
 
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("payment " + payment.getId(), e);
         } catch (StripeException e) {
             ApiLogger.error("Stripe payment failed for payment ID: " + payment.getId(), e);
             payment.setStatus(PaymentStatus.FAILED);
@@ -244,7 +269,10 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
                 .putMetadata("refund_reason", reason)
                 .build();
 
-            Refund refund = Refund.create(params);
+            // A fresh key per refund request: retries of this request are deduplicated, separate
+            // partial refunds of the same amount are not
+            RequestOptions options = idempotencyKey("refund-" + payment.getId() + "-" + UUID.randomUUID());
+            Refund refund = executor.execute(() -> Refund.create(params, options));
 
             // Update payment status
             if (refundAmount.compareTo(payment.getAmount()) == 0) {
@@ -259,6 +287,8 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
             PaymentResponse response = convertToPaymentResponse(payment);
             return ApplicationResponse.success(response, "Refund processed successfully");
 
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("refund of payment " + payment.getId(), e);
         } catch (StripeException e) {
             ApiLogger.error("Stripe refund failed for payment ID: " + payment.getId(), e);
             throw new PaymentProcessingException("Refund processing failed: " + e.getMessage());
@@ -275,7 +305,7 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
         try {
             ApiLogger.info("Verifying Stripe payment status: " + gatewayPaymentId);
 
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(gatewayPaymentId);
+            PaymentIntent paymentIntent = executor.execute(() -> PaymentIntent.retrieve(gatewayPaymentId));
 
             Optional<Payment> paymentOpt = paymentRepository.findByGatewayPaymentId(gatewayPaymentId);
             if (paymentOpt.isEmpty()) {
@@ -299,6 +329,8 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
             PaymentResponse response = convertToPaymentResponse(payment);
             return ApplicationResponse.success(response, "Payment status verified");
 
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("status check of " + gatewayPaymentId, e);
         } catch (StripeException e) {
             ApiLogger.error("Stripe payment status verification failed", e);
             return ApplicationResponse.error(new ErrorCode(5106L,
@@ -323,8 +355,10 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
                     HttpStatus.BAD_REQUEST));
             }
 
-            PaymentIntent paymentIntent = PaymentIntent.retrieve(payment.getGatewayPaymentId());
-            paymentIntent = paymentIntent.cancel();
+            String gatewayPaymentId = payment.getGatewayPaymentId();
+            RequestOptions options = idempotencyKey("payment-cancel-" + payment.getId());
+            PaymentIntent paymentIntent = executor.execute(() -> PaymentIntent.retrieve(gatewayPaymentId)
+                    .cancel(PaymentIntentCancelParams.builder().build(), options));
 
             payment.setStatus(PaymentStatus.CANCELLED);
             payment = paymentRepository.save(payment);
@@ -334,6 +368,8 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
             PaymentResponse response = convertToPaymentResponse(payment);
             return ApplicationResponse.success(response, "Payment cancelled successfully");
 
+        } catch (CallNotPermittedException | BulkheadFullException | TimeoutException e) {
+            return unavailable("cancellation of payment " + payment.getId(), e);
         } catch (StripeException e) {
             ApiLogger.error("Stripe API error during payment cancellation", e);
             return ApplicationResponse.error(new ErrorCode(5108L,
@@ -348,53 +384,32 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
     }
 
     @Override
-    public ApplicationResponse<String> handleWebhook(String webhookPayload, String signature) {
-        try {
-            if (stripeWebhookSecret == null || stripeWebhookSecret.isEmpty()) {
-                ApiLogger.info("Stripe webhook secret not configured in application.properties");
-                return ApplicationResponse.error(new ErrorCode(5109L,
-                    "Webhook secret not configured",
-                    HttpStatus.INTERNAL_SERVER_ERROR));
-            }
+    public WebhookEventEnvelope verifyWebhook(String webhookPayload, String signature) {
+        if (stripeWebhookSecret == null || stripeWebhookSecret.isEmpty()) {
+            ApiLogger.info("Stripe webhook secret not configured in application.properties");
+            throw new PaymentProcessingException(5109L,
+                "Webhook secret not configured",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+        }
 
+        try {
             Event event = Webhook.constructEvent(webhookPayload, signature, stripeWebhookSecret);
             ApiLogger.info("Received Stripe webhook event: " + event.getType());
-
-            // Log webhook event details
             PaymentAuditLogger.logWebhookEventReceived("stripe", event.getType(), event.getId());
-
-            // Handle different event types
-            switch (event.getType()) {
-                case "payment_intent.succeeded":
-                    //handlePaymentIntentSucceeded(event);
-                    webhookHelper.handlePaymentIntentSucceeded(event);
-                    break;
-                case "payment_intent.payment_failed":
-                    handlePaymentIntentFailed(event);
-                    break;
-                case "payment_intent.canceled":
-                    handlePaymentIntentCanceled(event);
-                    break;
-                default:
-                    ApiLogger.info("Unhandled webhook event type: " + event.getType());
-                    PaymentAuditLogger.logWebhookEventReceived("stripe", event.getType() + " (unhandled)", event.getId());
-            }
-
-            return ApplicationResponse.success("Webhook processed successfully");
-
+            return webhookHelper.toEnvelope(event);
         } catch (SignatureVerificationException e) {
             ApiLogger.error("Invalid webhook signature", e);
-            return ApplicationResponse.error(new ErrorCode(5110L,
+            throw new PaymentProcessingException(5110L,
                 "Invalid webhook signature",
-                HttpStatus.UNAUTHORIZED));
-        } catch (Exception e) {
-            ApiLogger.error("Error processing webhook", e);
-            return ApplicationResponse.error(new ErrorCode(ApiCode.SYSTEM_ERROR.getCode(),
-                ApiCode.SYSTEM_ERROR.getMessage(),
-                ApiCode.SYSTEM_ERROR.getHttpStatus()));
+                HttpStatus.UNAUTHORIZED);
         }
     }
 
+    @Override
+    public boolean applyWebhookEvent(WebhookEvent event) {
+        return webhookHelper.applyEvent(event);
+    }
+
     @Override
     public String getGatewayName() {
         return "stripe";
@@ -411,6 +426,17 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
     }
 
     // Helper methods
+    private static RequestOptions idempotencyKey(String key) {
+        return RequestOptions.builder().setIdempotencyKey(key).build();
+    }
+
+    private static ApplicationResponse<PaymentResponse> unavailable(String operation, Exception e) {
+        ApiLogger.warn("StripePaymentGateway", "Stripe unavailable for " + operation + ": " + e.getMessage());
+        return ApplicationResponse.error(new ErrorCode(5111L,
+            "Payment gateway is temporarily unavailable, please try again later",
+            HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
     private Long convertToSmallestUnit(BigDecimal amount, String currency) {
         // For zero-decimal currencies like JPY, don't multiply by 100
         if (isZeroDecimalCurrency(currency)) {
@@ -459,59 +485,4 @@ public class StripePaymentGateway implements PaymentGatewayInterface {
             payment.getUpdatedAt()
         );
     }
-
-    private void handlePaymentIntentSucceeded(Event event) {
-        try {
-            ApiLogger.info("=== Starting handlePaymentIntentSucceeded ===");
-            ApiLogger.info("Event ID: " + event.getId());
-            ApiLogger.info("Event Type: " + event.getType());
-            ApiLogger.info("Event API Version: " + event.getApiVersion());
-
-            PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer().getObject().orElse(null);
-            if (paymentIntent != null) {
-                updatePaymentStatus(paymentIntent.getId(), PaymentStatus.SUCCEEDED, null);
-            }
-        } catch (Exception e) {
-            ApiLogger.error("Error handling payment_intent.succeeded webhook", e);
-        }
-    }
-
-    private void handlePaymentIntentFailed(Event event) {
-        try {
-            PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer().getObject().orElse(null);
-            if (paymentIntent != null) {
-                String failureReason = paymentIntent.getLastPaymentError() != null ?
-                    paymentIntent.getLastPaymentError().getMessage() : "Payment failed";
-                updatePaymentStatus(paymentIntent.getId(), PaymentStatus.FAILED, failureReason);
-            }
-        } catch (Exception e) {
-            ApiLogger.error("Error handling payment_intent.payment_failed webhook", e);
-        }
-    }
-
-    private void handlePaymentIntentCanceled(Event event) {
-        try {
-            PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer().getObject().orElse(null);
-            if (paymentIntent != null) {
-                updatePaymentStatus(paymentIntent.getId(), PaymentStatus.CANCELLED, null);
-            }
-        } catch (Exception e) {
-            ApiLogger.error("Error handling payment_intent.canceled webhook", e);
-        }
-    }
-
-    private void updatePaymentStatus(String gatewayPaymentId, PaymentStatus status, String failureReason) {
-        Optional<Payment> paymentOpt = paymentRepository.findByGatewayPaymentId(gatewayPaymentId);
-        if (paymentOpt.isPresent()) {
-            Payment payment = paymentOpt.get();
-            payment.setStatus(status);
-            if (failureReason != null) {
-                payment.setFailureReason(failureReason);
-            }
-            paymentRepository.save(payment);
-            ApiLogger.info("Updated payment status to " + status + " for gateway payment ID: " + gatewayPaymentId);
-        } else {
-            ApiLogger.info("Payment not found for gateway payment ID: " + gatewayPaymentId);
-        }
-    }
 }
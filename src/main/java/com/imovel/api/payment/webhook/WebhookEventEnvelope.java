@@ -0,0 +1,38 @@
+package com.imovel.api.payment.webhook;
+
+/**
+ * Fields extracted from a webhook whose signature has been verified by the gateway.
+ */
+public final class WebhookEventEnvelope {
+
+    private final String eventId;
+    private final String eventType;
+    private final String orderingKey;
+    private final long createdEpochSeconds;
+
+    public WebhookEventEnvelope(String eventId, String eventType, String orderingKey, long createdEpochSeconds) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.orderingKey = orderingKey;
+        this.createdEpochSeconds = createdEpochSeconds;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Identifier of the payment the event refers to, or null if it does not refer to one
+     */
+    public String getOrderingKey() {
+        return orderingKey;
+    }
+
+    public long getCreatedEpochSeconds() {
+        return createdEpochSeconds;
+    }
+}
@@ -0,0 +1,225 @@
+package com.imovel.api.payment.webhook;
+
+import com.imovel.api.exception.PaymentProcessingException;
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.factory.PaymentGatewayFactory;
+import com.imovel.api.payment.gateway.PaymentGatewayInterface;
+import com.imovel.api.payment.model.WebhookEvent;
+import com.imovel.api.payment.model.enums.WebhookEventStatus;
+import com.imovel.api.payment.repository.WebhookEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable inbox for gateway webhooks.
+ * <p>
+ * {@link #accept} only verifies the signature and stores the event, so the gateway is acknowledged
+ * quickly and redeliveries of the same event id are ignored. {@link #processDueEvents} applies stored
+ * events on a worker pool: events sharing an ordering key run one at a time in gateway creation order,
+ * a late event older than one already applied is marked superseded, and failures are retried with
+ * exponential backoff until they are moved to the dead letter state. Events of a type the gateway
+ * does not act on are marked ignored, so they never supersede an older event that it does. Each event is leased before it
+ * is applied, so an event left in PROCESSING by a crashed node is picked up again once its lease expires.
+ */
+@Service
+public class WebhookInboxService {
+
+    private static final String TAG = "WebhookInboxService";
+    private static final List<WebhookEventStatus> PENDING_STATUSES = List.of(
+            WebhookEventStatus.RECEIVED, WebhookEventStatus.FAILED, WebhookEventStatus.PROCESSING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final PaymentGatewayFactory paymentGatewayFactory;
+    private final PaymentConfig.Webhook config;
+    private final Clock clock;
+    private final Executor executor;
+    private final Set<String> inFlightKeys = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public WebhookInboxService(WebhookEventRepository webhookEventRepository,
+                               PaymentGatewayFactory paymentGatewayFactory,
+                               PaymentConfig paymentConfig) {
+        this(webhookEventRepository, paymentGatewayFactory, paymentConfig.getWebhook(), Clock.systemUTC(),
+                newWorkerPool(paymentConfig.getWebhook().getWorkers()));
+    }
+
+    WebhookInboxService(WebhookEventRepository webhookEventRepository,
+                        PaymentGatewayFactory paymentGatewayFactory,
+                        PaymentConfig.Webhook config,
+                        Clock clock,
+                        Executor executor) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.paymentGatewayFactory = paymentGatewayFactory;
+        this.config = config;
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    /**
+     * Verify a webhook and store it for processing.
+     *
+     * @return true if the event was stored, false if it had already been received
+     * @throws PaymentProcessingException if the gateway rejects the signature or payload
+     */
+    public boolean accept(PaymentGatewayInterface gateway, String webhookPayload, String signature) {
+        WebhookEventEnvelope envelope = gateway.verifyWebhook(webhookPayload, signature);
+        if (webhookEventRepository.existsByEventId(envelope.getEventId())) {
+            ApiLogger.info(TAG, () -> "Duplicate webhook event ignored: " + envelope.getEventId());
+            return false;
+        }
+        try {
+            webhookEventRepository.saveAndFlush(new WebhookEvent(gateway.getGatewayName(), envelope.getEventId(),
+                    envelope.getEventType(), envelope.getOrderingKey(), envelope.getCreatedEpochSeconds(),
+                    webhookPayload, clock.instant()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent redelivery of the same event won the insert
+            ApiLogger.info(TAG, () -> "Duplicate webhook event ignored: " + envelope.getEventId());
+            return false;
+        }
+    }
+
+    /**
+     * Dispatch the oldest unfinished events to the worker pool, one task per ordering key.
+     * Keys already being processed by an earlier call are skipped.
+     *
+     * @return number of ordering keys dispatched
+     */
+    public int processDueEvents() {
+        List<WebhookEvent> pending = webhookEventRepository.findByStatusInOrdered(
+                PENDING_STATUSES, PageRequest.of(0, config.getBatchSize()));
+
+        Map<String, List<WebhookEvent>> eventsByKey = new LinkedHashMap<>();
+        for (WebhookEvent event : pending) {
+            eventsByKey.computeIfAbsent(event.getSequenceKey(), key -> new ArrayList<>()).add(event);
+        }
+
+        int dispatched = 0;
+        for (Map.Entry<String, List<WebhookEvent>> entry : eventsByKey.entrySet()) {
+            String key = entry.getKey();
+            if (!inFlightKeys.add(key)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        processSequence(entry.getValue());
+                    } finally {
+                        inFlightKeys.remove(key);
+                    }
+                });
+                dispatched++;
+            } catch (RejectedExecutionException e) {
+                inFlightKeys.remove(key);
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Apply events for one ordering key in order, stopping at the first one that is not done,
+     * so a later event is never applied before an earlier one.
+     */
+    private void processSequence(List<WebhookEvent> events) {
+        for (WebhookEvent event : events) {
+            if (!processEvent(event)) {
+                return;
+            }
+        }
+    }
+
+    private boolean processEvent(WebhookEvent event) {
+        Instant now = clock.instant();
+        if (webhookEventRepository.claim(event.getId(), now, now.plusMillis(config.getLeaseMs())) == 0) {
+            // Not due yet or leased by another worker
+            return false;
+        }
+        int attempt = event.getAttempts() + 1;
+        try {
+            if (event.getOrderingKey() != null
+                    && webhookEventRepository.existsNewerProcessed(event.getOrderingKey(), event.getEventCreated())) {
+                webhookEventRepository.markCompleted(event.getId(), WebhookEventStatus.SUPERSEDED, clock.instant());
+                ApiLogger.info(TAG, () -> "Webhook event " + event.getEventId() + " superseded by a newer event");
+                return true;
+            }
+
+            PaymentGatewayInterface gateway = paymentGatewayFactory.getPaymentGateway(event.getGateway());
+            if (gateway == null) {
+                throw new PaymentProcessingException("Unsupported payment gateway for webhook: " + event.getGateway());
+            }
+            WebhookEventStatus outcome = gateway.applyWebhookEvent(event)
+                    ? WebhookEventStatus.PROCESSED
+                    : WebhookEventStatus.IGNORED;
+            webhookEventRepository.markCompleted(event.getId(), outcome, clock.instant());
+            return true;
+        } catch (RuntimeException e) {
+            recordFailure(event, attempt, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(WebhookEvent event, int attempt, RuntimeException e) {
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        if (attempt >= config.getMaxAttempts()) {
+            webhookEventRepository.markFailed(event.getId(), WebhookEventStatus.DEAD_LETTER, null, error);
+            ApiLogger.error(TAG, "Webhook event " + event.getEventId() + " moved to dead letter after "
+                    + attempt + " attempts", e);
+            return;
+        }
+        Duration delay = backoff(attempt);
+        webhookEventRepository.markFailed(event.getId(), WebhookEventStatus.FAILED, clock.instant().plus(delay), error);
+        ApiLogger.warn(TAG, () -> "Webhook event " + event.getEventId() + " failed on attempt " + attempt
+                + ", retrying in " + delay.toMillis() + "ms: " + error);
+    }
+
+    Duration backoff(int attempt) {
+        long delay = config.getInitialBackoffMs() << Math.min(attempt - 1, 30);
+        return Duration.ofMillis(Math.min(delay, config.getMaxBackoffMs()));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private static ExecutorService newWorkerPool(int workers) {
+        AtomicInteger counter = new AtomicInteger();
+        // Bounded queue: keys that do not fit are skipped and picked up on the next poll
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(workers * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "webhook-inbox-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
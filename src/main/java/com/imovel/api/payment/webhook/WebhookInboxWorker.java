@@ -0,0 +1,29 @@
+package com.imovel.api.payment.webhook;
+
+import com.imovel.api.logger.ApiLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls the webhook inbox and hands due events to {@link WebhookInboxService}.
+ */
+@Component
+public class WebhookInboxWorker {
+
+    private final WebhookInboxService webhookInboxService;
+
+    @Autowired
+    public WebhookInboxWorker(WebhookInboxService webhookInboxService) {
+        this.webhookInboxService = webhookInboxService;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            webhookInboxService.processDueEvents();
+        } catch (RuntimeException e) {
+            ApiLogger.error("WebhookInboxWorker", "Failed to poll webhook inbox", e);
+        }
+    }
+}
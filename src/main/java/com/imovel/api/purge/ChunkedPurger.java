@@ -0,0 +1,132 @@
+package com.imovel.api.purge;
+
+import com.imovel.api.logger.ApiLogger;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Deletes expired rows in primary key windows of {@link PurgeConfig#getBatchSize()} ids, one short
+ * transaction per window, so no statement deletes more than a batch or holds its locks for long.
+ * <p>
+ * Publishes a {@code purge.batch.rows} summary of the rows deleted per batch (its count is the
+ * number of batches, its total the rows deleted) and a {@code purge.remaining.ids} gauge of the id
+ * range left in the current run, both tagged by target.
+ */
+@Component
+public class ChunkedPurger {
+
+    private static final String TAG = "ChunkedPurger";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChunkedPurger(PlatformTransactionManager transactionManager, PurgeConfig config, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Delete the rows of the target that expired before the cutoff for {@code now}.
+     *
+     * @param keepGoing checked before each batch; the purge stops when it returns false
+     * @return number of rows deleted
+     */
+    public long purge(PurgeTarget target, Instant now, BooleanSupplier keepGoing) {
+        Object cutoff = target.cutoff(now);
+        Object[] bounds = transactionTemplate.execute(status -> entityManager
+                .createQuery(target.boundsQuery(), Object[].class)
+                .setParameter("cutoff", cutoff)
+                .getSingleResult());
+        if (bounds == null || bounds[0] == null) {
+            return 0;
+        }
+        long first = ((Number) bounds[0]).longValue();
+        long last = ((Number) bounds[1]).longValue();
+        Meters targetMeters = meters.computeIfAbsent(target.getName(), this::register);
+
+        long deleted = 0;
+        int batchSize = Math.max(config.getBatchSize(), 1);
+        for (long fromId = first; fromId <= last; fromId += batchSize) {
+            if (!keepGoing.getAsBoolean()) {
+                break;
+            }
+            targetMeters.remainingIds.set(last - fromId + 1);
+            long toId = fromId + batchSize;
+            long windowStart = fromId;
+            Integer removed = transactionTemplate.execute(status -> entityManager
+                    .createQuery(target.deleteQuery())
+                    .setParameter("fromId", windowStart)
+                    .setParameter("toId", toId)
+                    .setParameter("cutoff", cutoff)
+                    .executeUpdate());
+            int count = removed == null ? 0 : removed;
+            deleted += count;
+            targetMeters.batchRows.record(count);
+            // Windows without expired rows cost little, so only throttle after real deletes
+            if (count > 0 && !pause()) {
+                break;
+            }
+        }
+        targetMeters.remainingIds.set(0);
+
+        long total = deleted;
+        ApiLogger.debug(TAG, () -> "Purged " + total + " rows from " + target.getName());
+        return deleted;
+    }
+
+    private boolean pause() {
+        long millis = config.getPause().toMillis();
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Meters register(String target) {
+        Meters created = new Meters(
+                DistributionSummary.builder("purge.batch.rows")
+                        .description("Expired rows deleted per purge batch")
+                        .tag("target", target)
+                        .register(meterRegistry),
+                new AtomicLong());
+        meterRegistry.gauge("purge.remaining.ids", Tags.of("target", target), created.remainingIds);
+        return created;
+    }
+
+    private static final class Meters {
+
+        private final DistributionSummary batchRows;
+        private final AtomicLong remainingIds;
+
+        private Meters(DistributionSummary batchRows, AtomicLong remainingIds) {
+            this.batchRows = batchRows;
+            this.remainingIds = remainingIds;
+        }
+    }
+}
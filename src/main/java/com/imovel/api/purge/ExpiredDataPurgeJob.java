@@ -0,0 +1,130 @@
+package com.imovel.api.purge;
+
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.model.JobLease;
+import com.imovel.api.repository.JobLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Removes expired refresh tokens, access token revocations, password reset codes and old
+ * availability rows and ranges with a {@link ChunkedPurger}.
+ * <p>
+ * A run first takes the {@value #LEASE_NAME} lease, so only one node purges at a time; the lease
+ * is renewed between batches once half of it has passed, and the run stops if it is lost.
+ */
+@Component
+public class ExpiredDataPurgeJob {
+
+    static final String LEASE_NAME = "expired-data-purge";
+    private static final String TAG = "ExpiredDataPurgeJob";
+
+    private final ChunkedPurger purger;
+    private final JobLeaseRepository jobLeaseRepository;
+    private final PurgeConfig config;
+    private final Clock clock;
+    private final String owner = UUID.randomUUID().toString();
+    private Instant leasedUntil;
+
+    @Autowired
+    public ExpiredDataPurgeJob(ChunkedPurger purger, JobLeaseRepository jobLeaseRepository, PurgeConfig config) {
+        this(purger, jobLeaseRepository, config, Clock.systemUTC());
+    }
+
+    ExpiredDataPurgeJob(ChunkedPurger purger, JobLeaseRepository jobLeaseRepository, PurgeConfig config, Clock clock) {
+        this.purger = purger;
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${purge.interval:PT1H}")
+    public synchronized void run() {
+        if (!acquireLease()) {
+            ApiLogger.debug(TAG, "Purge lease held by another node, skipping run");
+            return;
+        }
+        try {
+            Instant now = clock.instant();
+            for (PurgeTarget target : targets()) {
+                long deleted = purger.purge(target, now, this::renewLease);
+                ApiLogger.info(TAG, "Purged " + deleted + " expired rows from " + target.getName());
+                if (leasedUntil == null) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            ApiLogger.error(TAG, "Expired data purge failed", e);
+        } finally {
+            if (leasedUntil != null) {
+                jobLeaseRepository.release(LEASE_NAME, owner, clock.instant());
+                leasedUntil = null;
+            }
+        }
+    }
+
+    List<PurgeTarget> targets() {
+        ZoneId zone = ZoneId.systemDefault();
+        return List.of(
+                new PurgeTarget("refresh_tokens", "RefreshToken", "expiresAt", now -> now),
+                new PurgeTarget("revoked_tokens", "RevokedToken", "expiresAt", now -> now),
+                // Codes are written in local time
+                new PurgeTarget("password_reset_codes", "PasswordResetCode", "expiresAt",
+                        now -> LocalDateTime.ofInstant(now, zone)),
+                new PurgeTarget("property_availability", "PropertyAvailability", "date",
+                        now -> availabilityCutoff(now, zone)),
+                // End dates are exclusive, so a range ending on the cutoff holds only purged nights
+                new PurgeTarget("property_availability_ranges", "AvailabilityRange", "endDate",
+                        now -> availabilityCutoff(now, zone).plusDays(1)));
+    }
+
+    private LocalDate availabilityCutoff(Instant now, ZoneId zone) {
+        return LocalDate.ofInstant(now.minus(config.getAvailabilityRetention()), zone);
+    }
+
+    boolean acquireLease() {
+        Instant now = clock.instant();
+        Instant until = now.plus(config.getLease());
+        if (jobLeaseRepository.tryAcquire(LEASE_NAME, owner, now, until) == 0) {
+            if (jobLeaseRepository.existsById(LEASE_NAME)) {
+                return false;
+            }
+            try {
+                jobLeaseRepository.saveAndFlush(new JobLease(LEASE_NAME, owner, until));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the lease first
+                return false;
+            }
+        }
+        leasedUntil = until;
+        return true;
+    }
+
+    /**
+     * Extend the lease once half of it has passed; false if it was lost to another node
+     */
+    private boolean renewLease() {
+        Instant now = clock.instant();
+        if (now.isBefore(leasedUntil.minus(config.getLease().dividedBy(2)))) {
+            return true;
+        }
+        Instant until = now.plus(config.getLease());
+        if (jobLeaseRepository.tryAcquire(LEASE_NAME, owner, now, until) == 0) {
+            ApiLogger.warn(TAG, "Lost the purge lease, stopping");
+            leasedUntil = null;
+            return false;
+        }
+        leasedUntil = until;
+        return true;
+    }
+}
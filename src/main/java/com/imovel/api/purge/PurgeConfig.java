@@ -0,0 +1,35 @@
+package com.imovel.api.purge;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the expired data purge job
+ */
+@Configuration
+@ConfigurationProperties(prefix = "purge")
+public class PurgeConfig {
+
+    // Width of the primary key range deleted per statement, so no batch deletes more rows
+    private int batchSize = 1000;
+    // Sleep between batches that deleted rows, to leave room for concurrent writes
+    private Duration pause = Duration.ofMillis(100);
+    private Duration lease = Duration.ofMinutes(15);
+    // Availability rows and ranges for nights older than this are removed
+    private Duration availabilityRetention = Duration.ofDays(365);
+
+    // Getters and setters
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public Duration getPause() { return pause; }
+    public void setPause(Duration pause) { this.pause = pause; }
+
+    public Duration getLease() { return lease; }
+    public void setLease(Duration lease) { this.lease = lease; }
+
+    public Duration getAvailabilityRetention() { return availabilityRetention; }
+    public void setAvailabilityRetention(Duration availabilityRetention) { this.availabilityRetention = availabilityRetention; }
+}
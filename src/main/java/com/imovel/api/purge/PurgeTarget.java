@@ -0,0 +1,39 @@
+package com.imovel.api.purge;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * A table to purge: the entity, the attribute compared with the cutoff, and how to compute the
+ * cutoff from the current time. The entity must have a numeric {@code id}.
+ */
+public final class PurgeTarget {
+
+    private final String name;
+    private final String entity;
+    private final String expiryAttribute;
+    private final Function<Instant, Object> cutoff;
+
+    public PurgeTarget(String name, String entity, String expiryAttribute, Function<Instant, Object> cutoff) {
+        this.name = name;
+        this.entity = entity;
+        this.expiryAttribute = expiryAttribute;
+        this.cutoff = cutoff;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    String boundsQuery() {
+        return "SELECT MIN(e.id), MAX(e.id) FROM " + entity + " e WHERE e." + expiryAttribute + " < :cutoff";
+    }
+
+    String deleteQuery() {
+        return "DELETE FROM " + entity + " e WHERE e.id >= :fromId AND e.id < :toId AND e." + expiryAttribute + " < :cutoff";
+    }
+
+    Object cutoff(Instant now) {
+        return cutoff.apply(now);
+    }
+}
@@ -0,0 +1,99 @@
+package com.imovel.api.ratelimit;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded map of token buckets keyed by client and endpoint class.
+ * <p>
+ * Buckets that have refilled completely are indistinguishable from new ones and are swept away
+ * periodically. When the map still reaches {@code maxKeys}, the inserting thread evicts down to
+ * 90% of the bound, dropping the buckets that became idle earliest; the cut-off is estimated from a
+ * sample, so the order is an approximate LRU. Threads inserting while another one evicts do not
+ * wait, so the size may briefly exceed the bound by the number of concurrent callers.
+ */
+final class BucketStore {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxKeys;
+    private final int lowWatermark;
+
+    BucketStore(int maxKeys) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.maxKeys = maxKeys;
+        this.lowWatermark = Math.max(1, maxKeys - Math.max(1, maxKeys / 10));
+    }
+
+    TokenBucket get(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evict(now);
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket());
+    }
+
+    /**
+     * Removes every bucket that is full again.
+     *
+     * @return number of buckets removed
+     */
+    int sweep(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return Math.max(0, before - buckets.size());
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            sweep(now);
+            int size = buckets.size();
+            int excess = size - lowWatermark;
+            if (excess > 0) {
+                long cutoff = estimateCutoff(size, excess);
+                buckets.values().removeIf(bucket -> bucket.theoreticalArrivalTime() <= cutoff);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Estimates the arrival time below which roughly {@code excess} of the {@code size} buckets lie.
+     */
+    private long estimateCutoff(int size, int excess) {
+        int stride = Math.max(1, size / SAMPLE_SIZE);
+        long[] sample = new long[Math.min(size, SAMPLE_SIZE)];
+        int count = 0;
+        int position = 0;
+        Iterator<TokenBucket> iterator = buckets.values().iterator();
+        while (iterator.hasNext() && count < sample.length) {
+            TokenBucket bucket = iterator.next();
+            if (position++ % stride == 0) {
+                sample[count++] = bucket.theoreticalArrivalTime();
+            }
+        }
+        if (count == 0) {
+            return Long.MIN_VALUE;
+        }
+        Arrays.sort(sample, 0, count);
+        int index = (int) Math.min(count - 1, Math.max(0, (long) excess * count / size - 1));
+        return sample[index];
+    }
+}
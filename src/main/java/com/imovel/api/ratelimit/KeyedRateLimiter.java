@@ -0,0 +1,100 @@
+package com.imovel.api.ratelimit;
+
+import com.imovel.api.logger.ApiLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limits requests per client (user id or IP address) and endpoint class, so that one client
+ * exhausting its budget does not affect anyone else.
+ */
+@Service
+public class KeyedRateLimiter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Limit> limits = new ArrayList<>();
+    private final BucketStore store;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public KeyedRateLimiter(RateLimitConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    KeyedRateLimiter(RateLimitConfig config, LongSupplier nanoClock) {
+        this.store = new BucketStore(config.getMaxKeys());
+        this.nanoClock = nanoClock;
+        for (RateLimitConfig.Rule rule : config.getRules()) {
+            if (rule.getCapacity() < 1 || rule.getPeriod() == null || rule.getPeriod().isZero()) {
+                throw new IllegalArgumentException("Invalid rate limit rule: " + rule.getName());
+            }
+            limits.add(new Limit(rule));
+        }
+    }
+
+    /**
+     * Finds the endpoint class of a request path.
+     *
+     * @return the first matching limit, or null when the path is not rate limited
+     */
+    public Limit resolve(String path) {
+        for (Limit limit : limits) {
+            for (String pattern : limit.paths) {
+                if (pathMatcher.match(pattern, path)) {
+                    return limit;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes one request from the client's bucket for the given endpoint class.
+     *
+     * @return 0 when the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(Limit limit, String client) {
+        long now = nanoClock.getAsLong();
+        return store.get(limit.name + '|' + client, now)
+                .tryAcquire(now, limit.intervalNanos, limit.capacityNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval:PT1M}")
+    public void sweep() {
+        int removed = store.sweep(nanoClock.getAsLong());
+        if (removed > 0) {
+            ApiLogger.debug("KeyedRateLimiter", () -> "Removed " + removed + " idle rate limit buckets");
+        }
+    }
+
+    int size() {
+        return store.size();
+    }
+
+    /**
+     * An endpoint class with its bucket parameters pre-computed
+     */
+    public static final class Limit {
+        private final String name;
+        private final List<String> paths;
+        private final long intervalNanos;
+        private final long capacityNanos;
+
+        private Limit(RateLimitConfig.Rule rule) {
+            this.name = rule.getName();
+            this.paths = List.copyOf(rule.getPaths());
+            this.intervalNanos = Math.max(1, rule.getPeriod().toNanos() / rule.getCapacity());
+            this.capacityNanos = intervalNanos * rule.getCapacity();
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
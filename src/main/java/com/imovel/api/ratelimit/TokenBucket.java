@@ -0,0 +1,53 @@
+package com.imovel.api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Lock-free token bucket.
+ * <p>
+ * Instead of a token count and a refill timestamp the bucket keeps a single "theoretical arrival
+ * time" (the generic cell rate algorithm): every permit pushes it forward by one emission interval,
+ * and a request is admitted while that time is at most {@code capacity} intervals ahead of now.
+ * This is exactly a bucket of {@code capacity} tokens refilled at one token per interval, but the
+ * whole state fits in one long and is updated with a single CAS.
+ */
+final class TokenBucket {
+
+    private static final AtomicLongFieldUpdater<TokenBucket> TAT =
+            AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "tat");
+
+    private volatile long tat = Long.MIN_VALUE;
+
+    /**
+     * Takes one token.
+     *
+     * @param now            current time in nanoseconds
+     * @param intervalNanos  time to refill one token
+     * @param capacityNanos  {@code capacity * intervalNanos}
+     * @return 0 when the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(long now, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long current = tat;
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (TAT.compareAndSet(this, current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be dropped without losing state.
+     */
+    boolean isFull(long now) {
+        return tat <= now;
+    }
+
+    long theoreticalArrivalTime() {
+        return tat;
+    }
+}
@@ -2,7 +2,11 @@ package com.imovel.api.repository;
 
 import com.imovel.api.model.AuthDetails;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -28,4 +32,16 @@ public interface AuthDetailRepository extends JpaRepository<AuthDetails, Long> {
      * @param userId The ID of the user
      */
     void deleteByUserId(Long userId);
+
+    /**
+     * Replace the stored hash only if it is still the one that was verified, so a password
+     * changed in the meantime is never overwritten
+     * @return 1 if the hash was replaced, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AuthDetails a SET a.salt = :salt, a.hash = :hash, a.iterations = :iterations " +
+            "WHERE a.id = :id AND a.hash = :expectedHash")
+    int replaceHash(@Param("id") Long id, @Param("expectedHash") String expectedHash,
+                    @Param("salt") String salt, @Param("hash") String hash, @Param("iterations") Integer iterations);
 }
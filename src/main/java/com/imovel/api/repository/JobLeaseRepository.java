@@ -0,0 +1,30 @@
+package com.imovel.api.repository;
+
+import com.imovel.api.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take or extend the lease if it is free, expired or already ours
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leasedUntil = :leaseUntil " +
+            "WHERE l.name = :name AND (l.leasedUntil < :now OR l.owner = :owner)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLease l SET l.leasedUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
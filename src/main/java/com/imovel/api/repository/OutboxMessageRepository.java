@@ -0,0 +1,67 @@
+package com.imovel.api.repository;
+
+import com.imovel.api.model.OutboxMessage;
+import com.imovel.api.model.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Messages that are due, or whose lease has expired, oldest first
+     */
+    @Query("SELECT m.id FROM OutboxMessage m WHERE " +
+            "(m.status = com.imovel.api.model.enums.OutboxStatus.PENDING AND m.nextAttemptAt <= :now) " +
+            "OR (m.status = com.imovel.api.model.enums.OutboxStatus.PROCESSING AND m.lockedUntil < :now) " +
+            "ORDER BY m.id ASC")
+    List<Long> findDueIds(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Lease the given messages to one dispatcher run. Messages claimed by someone else in the
+     * meantime are left alone.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxMessage m SET m.status = com.imovel.api.model.enums.OutboxStatus.PROCESSING, " +
+            "m.lockOwner = :owner, m.lockedUntil = :leaseUntil, m.attempts = m.attempts + 1 " +
+            "WHERE m.id IN :ids AND (" +
+            "(m.status = com.imovel.api.model.enums.OutboxStatus.PENDING AND m.nextAttemptAt <= :now) " +
+            "OR (m.status = com.imovel.api.model.enums.OutboxStatus.PROCESSING AND m.lockedUntil < :now))")
+    int claim(@Param("ids") List<Long> ids, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    List<OutboxMessage> findByLockOwnerOrderByIdAsc(String lockOwner);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxMessage m SET m.status = com.imovel.api.model.enums.OutboxStatus.DELIVERED, " +
+            "m.deliveredAt = :deliveredAt, m.lockOwner = null, m.lockedUntil = null, m.lastError = null " +
+            "WHERE m.id IN :ids AND m.lockOwner = :owner")
+    int markDelivered(@Param("ids") List<Long> ids, @Param("owner") String owner,
+                      @Param("deliveredAt") Instant deliveredAt);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, " +
+            "m.lockOwner = null, m.lockedUntil = null, m.lastError = :lastError " +
+            "WHERE m.id = :id AND m.lockOwner = :owner")
+    int markFailed(@Param("id") Long id, @Param("owner") String owner, @Param("status") OutboxStatus status,
+                   @Param("nextAttemptAt") Instant nextAttemptAt, @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = com.imovel.api.model.enums.OutboxStatus.DELIVERED " +
+            "AND m.deliveredAt < :cutoff")
+    int deleteDeliveredBefore(@Param("cutoff") Instant cutoff);
+
+    long countByStatus(OutboxStatus status);
+}
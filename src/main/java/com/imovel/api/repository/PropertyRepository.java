@@ -4,16 +4,24 @@ import com.imovel.api.model.Property;
 import com.imovel.api.model.enums.PropertyCategory;
 import com.imovel.api.model.enums.PropertyStatus;
 import com.imovel.api.model.enums.PropertyType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, PropertySearchRepository {
+
+    // Serializes calendar edits of a property
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.id = :id")
+    Optional<Property> findByIdForUpdate(@Param("id") Long id);
 
     @Query(value = "SELECT p FROM Property p ORDER BY p.id")
     List<Property> findAllPropertiesWithPagination();
@@ -0,0 +1,26 @@
+package com.imovel.api.repository;
+
+import com.imovel.api.model.Property;
+import com.imovel.api.model.enums.PropertyCategory;
+import com.imovel.api.model.enums.PropertyStatus;
+import com.imovel.api.model.enums.PropertyType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Property searches that need HQL beyond what {@code @Query} accepts
+ */
+public interface PropertySearchRepository {
+
+    /**
+     * Properties matching the filters that are free for every night of {@code [checkIn, checkOut)}.
+     * Null filters match every property; sorting is limited to a few scalar fields.
+     */
+    Page<Property> findAvailableForStay(LocalDate checkIn, LocalDate checkOut, PropertyStatus status,
+                                        PropertyType type, PropertyCategory category, String city,
+                                        BigDecimal minPrice, BigDecimal maxPrice, Integer guests,
+                                        Pageable pageable);
+}
@@ -0,0 +1,89 @@
+package com.imovel.api.repository;
+
+import com.imovel.api.model.Property;
+import com.imovel.api.model.enums.PropertyCategory;
+import com.imovel.api.model.enums.PropertyStatus;
+import com.imovel.api.model.enums.PropertyType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PropertySearchRepositoryImpl implements PropertySearchRepository {
+
+    private static final Set<String> SORTABLE = Set.of("id", "price", "mainTitle", "bedrooms", "createdAt");
+
+    // A property is free when no confirmed or checked-in booking overlaps the stay, and no night of the stay
+    // is blocked or restricts a stay of :nights, whether by its own row or by a range that rows do not
+    // override for all of its nights in the stay
+    private static final String FREE_FOR_STAY = " FROM Property p WHERE p.status = :status " +
+            "AND (:type IS NULL OR p.type = :type) " +
+            "AND (:category IS NULL OR p.category = :category) " +
+            "AND (:city IS NULL OR LOWER(p.location.city) = LOWER(:city)) " +
+            "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+            "AND (:guests IS NULL " +
+            "     OR COALESCE(p.maxAdultsAccommodation, 0) + COALESCE(p.maxChildrenAccommodation, 0) = 0 " +
+            "     OR COALESCE(p.maxAdultsAccommodation, 0) + COALESCE(p.maxChildrenAccommodation, 0) >= :guests) " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.property = p " +
+            "     AND b.status IN ('CONFIRMED', 'CHECKED_IN') " +
+            "     AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn) " +
+            "AND NOT EXISTS (SELECT pa.id FROM PropertyAvailability pa WHERE pa.property = p " +
+            "     AND pa.date >= :checkIn AND pa.date < :checkOut " +
+            "     AND (pa.isAvailable = false OR pa.minStay > :nights OR pa.maxStay < :nights)) " +
+            "AND NOT EXISTS (SELECT ar.id FROM AvailabilityRange ar WHERE ar.property = p " +
+            "     AND ar.startDate < :checkOut AND ar.endDate > :checkIn " +
+            "     AND (ar.isAvailable = false OR ar.minStay > :nights OR ar.maxStay < :nights) " +
+            "     AND (SELECT COUNT(o) FROM PropertyAvailability o WHERE o.property = p " +
+            "          AND o.date >= ar.startDate AND o.date < ar.endDate " +
+            "          AND o.date >= :checkIn AND o.date < :checkOut) " +
+            "       < (LEAST(ar.endDate, :checkOut) - GREATEST(ar.startDate, :checkIn)) BY DAY)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Property> findAvailableForStay(LocalDate checkIn, LocalDate checkOut, PropertyStatus status,
+                                               PropertyType type, PropertyCategory category, String city,
+                                               BigDecimal minPrice, BigDecimal maxPrice, Integer guests,
+                                               Pageable pageable) {
+        TypedQuery<Property> query = entityManager.createQuery(
+                "SELECT p" + FREE_FOR_STAY + orderBy(pageable.getSort()), Property.class);
+        TypedQuery<Long> countQuery = entityManager.createQuery("SELECT COUNT(p)" + FREE_FOR_STAY, Long.class);
+        for (TypedQuery<?> typedQuery : List.of(query, countQuery)) {
+            typedQuery.setParameter("checkIn", checkIn)
+                    .setParameter("checkOut", checkOut)
+                    .setParameter("nights", (int) ChronoUnit.DAYS.between(checkIn, checkOut))
+                    .setParameter("status", status)
+                    .setParameter("type", type)
+                    .setParameter("category", category)
+                    .setParameter("city", city)
+                    .setParameter("minPrice", minPrice)
+                    .setParameter("maxPrice", maxPrice)
+                    .setParameter("guests", guests);
+        }
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, countQuery::getSingleResult);
+    }
+
+    private static String orderBy(Sort sort) {
+        String orders = sort.stream()
+                .filter(order -> SORTABLE.contains(order.getProperty()))
+                .map(order -> "p." + order.getProperty() + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", "));
+        return orders.isEmpty() ? " ORDER BY p.id" : " ORDER BY " + orders;
+    }
+}
@@ -15,9 +15,15 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
-    Optional<RefreshToken> findByTokenAndRevokedFalseAndSupersededFalse(String token);
+    /**
+     * The usable token with the given hash, with its user and role in the same select. The
+     * wishlist is fetched too, as the inverse one-to-one would otherwise cost a select of its own.
+     */
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user u JOIN FETCH u.role LEFT JOIN FETCH u.wishlist " +
+            " WHERE rt.tokenHash = :tokenHash AND rt.revoked = false AND rt.superseded = false")
+    Optional<RefreshToken> findActiveByTokenHash(@Param("tokenHash") String tokenHash);
 
     List<RefreshToken> findAllByUserIdAndRevokedFalse(Long userId);
 
@@ -34,10 +40,39 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
             " WHERE rt.user.id = :userId AND rt.superseded = false AND rt.id <> :currentTokenId")
     int supersedePreviousTokens(@Param("userId") Long userId, @Param("currentTokenId") Long currentTokenId);
 
+    /**
+     * JWT IDs of the user's tokens whose access tokens may still be unexpired
+     */
+    @Query("SELECT rt.jti FROM RefreshToken rt WHERE rt.user.id = :userId AND rt.jti IS NOT NULL AND rt.expiresAt > :now")
+    List<String> findUnexpiredJtisByUserId(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :revokedAt " +
+            " WHERE rt.tokenHash = :tokenHash AND rt.revoked = false")
+    int revokeByTokenHash(@Param("tokenHash") String tokenHash, @Param("revokedAt") Instant revokedAt);
+
+    /**
+     * Supersede the token if it is still usable; 0 when another refresh or a logout got there first
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.superseded = true, rt.revokedAt = :retiredAt " +
+            " WHERE rt.id = :id AND rt.revoked = false AND rt.superseded = false")
+    int supersedeIfActive(@Param("id") Long id, @Param("retiredAt") Instant retiredAt);
+
+    /**
+     * Supersede every usable token of the user that has at least {@code keep} newer usable tokens,
+     * in one statement
+     */
     @Transactional
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :cutoff")
-    int deleteExpiredTokens(@Param("cutoff") Instant cutoff);
+    @Query("UPDATE RefreshToken rt SET rt.superseded = true, rt.revokedAt = :retiredAt " +
+            " WHERE rt.user.id = :userId AND rt.revoked = false AND rt.superseded = false " +
+            " AND (SELECT COUNT(n) FROM RefreshToken n " +
+            "      WHERE n.user.id = :userId AND n.revoked = false AND n.superseded = false " +
+            "      AND n.id > rt.id) >= :keep")
+    int retireTokens(@Param("userId") Long userId, @Param("keep") long keep, @Param("retiredAt") Instant retiredAt);
 
     @Query("SELECT rt FROM RefreshToken rt WHERE rt.user.id = :userId AND rt.revoked = false ORDER BY rt.createdAt ASC")
     List<RefreshToken> findActiveTokensByUserIdOldestFirst(@Param("userId") Long userId);
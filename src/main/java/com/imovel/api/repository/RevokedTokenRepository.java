@@ -0,0 +1,23 @@
+package com.imovel.api.repository;
+
+import com.imovel.api.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    boolean existsByJtiAndExpiresAtAfter(String jti, Instant now);
+
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findUnexpiredJtis(@Param("now") Instant now);
+
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.jti IN :jtis")
+    List<String> findExistingJtis(@Param("jtis") Collection<String> jtis);
+}
@@ -1,7 +1,10 @@
 package com.imovel.api.repository;
 
 import com.imovel.api.model.Subscription;
+import com.imovel.api.subscription.SubscriptionTerm;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +15,11 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     List<Subscription> findByUserId(Long userId);
     List<Subscription> findByUserIdAndStatus(Long userId, String status);
     Optional<Subscription> findByUserIdAndPlanId(Long userId, Long planId);
+
+    /**
+     * Plan and billing period of a subscription, without joining the plan
+     */
+    @Query("SELECT new com.imovel.api.subscription.SubscriptionTerm(s.id, s.plan.id, s.billingCycle, s.startDate, s.endDate) " +
+           "FROM Subscription s WHERE s.id = :id")
+    Optional<SubscriptionTerm> findTermById(@Param("id") Long id);
 }
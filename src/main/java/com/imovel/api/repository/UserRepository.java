@@ -1,7 +1,10 @@
 package com.imovel.api.repository;
 
 import com.imovel.api.model.User;
+import com.imovel.api.session.AuthenticatedUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +13,11 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Authorization snapshot of a user, read without loading the entity and its associations
+     */
+    @Query("SELECT new com.imovel.api.session.AuthenticatedUser(u.id, u.email, r.id, r.roleName) " +
+           "FROM User u LEFT JOIN u.role r WHERE u.id = :id")
+    Optional<AuthenticatedUser> findSnapshotById(@Param("id") Long id);
 }
@@ -0,0 +1,35 @@
+package com.imovel.api.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for password hashing
+ */
+@Configuration
+@ConfigurationProperties(prefix = "password.hashing")
+public class PasswordHashingConfig {
+
+    // Cost of new hashes; stored hashes below it are upgraded at the next login
+    private int iterations = PasswordManager.LEGACY_ITERATIONS;
+    // Hashing threads; 0 uses half the processors
+    private int threads = 0;
+    // Hashes allowed to wait for a thread before requests are turned away with 503
+    private int queueCapacity = 32;
+    private Duration timeout = Duration.ofSeconds(10);
+
+    // Getters and setters
+    public int getIterations() { return iterations; }
+    public void setIterations(int iterations) { this.iterations = iterations; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public Duration getTimeout() { return timeout; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+}
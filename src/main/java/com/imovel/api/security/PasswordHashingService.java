@@ -0,0 +1,121 @@
+package com.imovel.api.security;
+
+import com.imovel.api.error.ApiCode;
+import com.imovel.api.exception.ServiceUnavailableException;
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.model.AuthDetails;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a small dedicated pool, so a burst of logins uses a bounded share of
+ * the CPU instead of every request thread.
+ * <p>
+ * Once the pool's queue is full, further requests fail at once with
+ * {@link ApiCode#SERVICE_UNAVAILABLE} rather than waiting behind it.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final String TAG = "PasswordHashingService";
+
+    private final PasswordManager passwordManager;
+    private final PasswordHashingConfig config;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public PasswordHashingService(PasswordManager passwordManager, PasswordHashingConfig config) {
+        this.passwordManager = passwordManager;
+        this.config = config;
+        int threads = config.getThreads() > 0
+                ? config.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(config.getQueueCapacity(), 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Whether the password matches the stored hash
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public boolean verify(final AuthDetails authDetails, final String password) {
+        return run(() -> passwordManager.verifyPassword(password, authDetails));
+    }
+
+    /**
+     * New salt and hash for a password, at the configured cost
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public AuthDetails createAuthDetails(final String password) {
+        return run(() -> passwordManager.createAuthDetails(password, config.getIterations()));
+    }
+
+    /**
+     * Whether a stored hash was made with fewer iterations than new hashes use
+     */
+    public boolean needsRehash(final AuthDetails authDetails) {
+        return PasswordManager.iterationsOf(authDetails) < config.getIterations();
+    }
+
+    /**
+     * Hashes waiting for a thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            ApiLogger.warn(TAG, "Password hashing queue full, rejecting request");
+            throw unavailable();
+        }
+        try {
+            return future.get(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            ApiLogger.warn(TAG, "Password hashing timed out");
+            throw unavailable();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private static ServiceUnavailableException unavailable() {
+        return new ServiceUnavailableException(ApiCode.SERVICE_UNAVAILABLE.getCode(),
+                ApiCode.SERVICE_UNAVAILABLE.getMessage(), ApiCode.SERVICE_UNAVAILABLE.getHttpStatus());
+    }
+}
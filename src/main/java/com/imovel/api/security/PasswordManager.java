@@ -2,33 +2,48 @@ package com.imovel.api.security;
 
 
 import com.imovel.api.model.AuthDetails;
-import org.hibernate.annotations.Comment;
 import org.springframework.stereotype.Component;
 
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 import java.util.Base64;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+/**
+ * PBKDF2 password hashing. The iteration count is stored with each hash, so it can be raised
+ * without invalidating existing passwords; hashes without one use {@link #LEGACY_ITERATIONS}.
+ * <p>
+ * This runs on the caller's thread; request code goes through {@link PasswordHashingService},
+ * which bounds how many hashes run at once.
+ */
 @Component
 public class PasswordManager {
 
-    private static final int ITERATIONS = 65536;
+    public static final int LEGACY_ITERATIONS = 65536;
     private static final int KEY_LENGTH = 256;
     private static final int SALT_LENGTH = 32;
     private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Looking a factory up goes through the provider list each time, so keep one per thread
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    });
 
     /**
      * Generates a random salt for password hashing
      * @return Base64 encoded salt
      */
     private String generateSalt() {
-        SecureRandom random = new SecureRandom();
         byte[] salt = new byte[SALT_LENGTH];
-        random.nextBytes(salt);
+        RANDOM.nextBytes(salt);
         return Base64.getEncoder().encodeToString(salt);
     }
 
@@ -36,38 +51,63 @@ public class PasswordManager {
      * Hashes a password with the given salt
      * @param password The plain text password to hash
      * @param salt The salt to use for hashing (Base64 encoded)
-     * @return Base64 encoded hash
+     * @param iterations PBKDF2 iteration count
+     * @return Raw hash
      * @throws RuntimeException if hashing fails
      */
-    private String hashPassword(final String password, final String salt) {
+    private byte[] hashPassword(final String password, final String salt, final int iterations) {
+        PBEKeySpec spec = null;
         try {
             byte[] saltBytes = Base64.getDecoder().decode(salt);
-            KeySpec spec = new PBEKeySpec(
+            spec = new PBEKeySpec(
                 password.toCharArray(), 
                 saltBytes, 
-                ITERATIONS, 
+                iterations,
                 KEY_LENGTH
             );
-            
-            SecretKeyFactory factory = SecretKeyFactory.getInstance(ALGORITHM);
-            byte[] hash = factory.generateSecret(spec).getEncoded();
-            
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            return FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
             throw new RuntimeException("Error while hashing password", e);
+        } finally {
+            if (spec != null) {
+                spec.clearPassword();
+            }
         }
     }
 
     /**
-     * Verifies a password against stored hash and salt
+     * Verifies a password against stored hash and salt made with {@link #LEGACY_ITERATIONS}
      * @param password The password to verify
      * @param storedHash The stored hash (Base64 encoded)
      * @param storedSalt The stored salt (Base64 encoded)
      * @return true if password matches, false otherwise
      */
     public boolean verifyPassword(final String password, final String storedHash, final String storedSalt) {
-        String computedHash = hashPassword(password, storedSalt);
-        return computedHash.equals(storedHash);
+        return verifyPassword(password, storedHash, storedSalt, LEGACY_ITERATIONS);
+    }
+
+    /**
+     * Verifies a password against stored hash and salt, in time independent of where they differ
+     * @param password The password to verify
+     * @param storedHash The stored hash (Base64 encoded)
+     * @param storedSalt The stored salt (Base64 encoded)
+     * @param iterations The iteration count the hash was made with
+     * @return true if password matches, false otherwise
+     */
+    public boolean verifyPassword(final String password, final String storedHash, final String storedSalt,
+                                  final int iterations) {
+        byte[] computedHash = hashPassword(password, storedSalt, iterations);
+        return MessageDigest.isEqual(computedHash, Base64.getDecoder().decode(storedHash));
+    }
+
+    /**
+     * Verifies a password against stored auth details, using their iteration count
+     * @param password The password to verify
+     * @param authDetails The stored auth details
+     * @return true if password matches, false otherwise
+     */
+    public boolean verifyPassword(final String password, final AuthDetails authDetails) {
+        return verifyPassword(password, authDetails.getHash(), authDetails.getSalt(), iterationsOf(authDetails));
     }
 
     /**
@@ -76,13 +116,32 @@ public class PasswordManager {
      * @return AuthDetails with generated salt and hash
      */
     public AuthDetails createAuthDetails(final String password) {
+        return createAuthDetails(password, LEGACY_ITERATIONS);
+    }
+
+    /**
+     * Creates AuthDetails with the given cost
+     * @param password The plain text password
+     * @param iterations PBKDF2 iteration count, recorded in the result
+     * @return AuthDetails with generated salt and hash
+     */
+    public AuthDetails createAuthDetails(final String password, final int iterations) {
         String salt = generateSalt();
-        String hash = hashPassword(password, salt);
+        String hash = Base64.getEncoder().encodeToString(hashPassword(password, salt, iterations));
         
         AuthDetails authDetails = new AuthDetails();
         authDetails.setSalt(salt);
         authDetails.setHash(hash);
+        authDetails.setIterations(iterations);
         
         return authDetails;
     }
+
+    /**
+     * The iteration count a stored hash was made with
+     */
+    public static int iterationsOf(final AuthDetails authDetails) {
+        Integer iterations = authDetails.getIterations();
+        return iterations != null ? iterations : LEGACY_ITERATIONS;
+    }
 }
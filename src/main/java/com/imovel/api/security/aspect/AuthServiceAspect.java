@@ -10,7 +10,7 @@ import com.imovel.api.request.UserLoginRequest;
 import com.imovel.api.request.UserRegistrationRequest;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.response.UserResponse;
-import com.imovel.api.security.PasswordManager;
+import com.imovel.api.security.PasswordHashingService;
 import com.imovel.api.services.AuthDetailsService;
 import com.imovel.api.services.AuthService;
 import com.imovel.api.util.Util;
@@ -33,7 +33,7 @@ import java.util.Optional;
 @Component
 public class AuthServiceAspect {
 
-    private PasswordManager passwordManager;
+    private PasswordHashingService passwordHashingService;
     private AuthDetailsService authDetailsService;
     private AuthService authService;
 
@@ -47,15 +47,15 @@ public class AuthServiceAspect {
     /**
      * Constructor for dependency injection.
      *
-     * @param passwordManager     Handles password hashing and verification
+     * @param passwordHashingService Handles password hashing and verification
      * @param authDetailsService  Service for auth details operations
      * @param authService         Main authentication service
      */
     @Autowired
-    public AuthServiceAspect(PasswordManager passwordManager,
+    public AuthServiceAspect(PasswordHashingService passwordHashingService,
                              AuthDetailsService authDetailsService,
                              AuthService authService) {
-        this.passwordManager = passwordManager;
+        this.passwordHashingService = passwordHashingService;
         this.authDetailsService = authDetailsService;
         this.authService = authService;
     }
@@ -153,12 +153,13 @@ public class AuthServiceAspect {
         }
 
         // Update authentication details
-        final AuthDetails newAuthDetails = passwordManager.createAuthDetails(passwordChangeRequest.getNewPassword());
+        final AuthDetails newAuthDetails = passwordHashingService.createAuthDetails(passwordChangeRequest.getNewPassword());
         final AuthDetails currentAuthDetails = authDetailsService.findByUserId(optionalUser.get().getId())
                 .getData();
 
         currentAuthDetails.setHash(newAuthDetails.getHash());
         currentAuthDetails.setSalt(newAuthDetails.getSalt());
+        currentAuthDetails.setIterations(newAuthDetails.getIterations());
 
         authDetailsService.save(currentAuthDetails);
 
@@ -197,8 +198,8 @@ public class AuthServiceAspect {
             return false;
         }
         
-        ApiLogger.debug("AuthServiceAspect.verifyUserPassword: Auth details found, verifying password with PasswordManager");
-        boolean result = passwordManager.verifyPassword(password, authDetails.getHash(), authDetails.getSalt());
+        ApiLogger.debug("AuthServiceAspect.verifyUserPassword: Auth details found, verifying password");
+        boolean result = passwordHashingService.verify(authDetails, password);
         ApiLogger.debug("AuthServiceAspect.verifyUserPassword: Password verification result: " + result);
         
         return result;
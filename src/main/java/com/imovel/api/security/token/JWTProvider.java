@@ -45,10 +45,8 @@ public final class JWTProvider {
      */
     public void initialize() {
 
-        accessTokenExpirationMs = Long.valueOf(configurationService.findByConfigKey(ACCESS_EXPIRATION_MS)
-                .get().getConfigValue());
-        refreshTokenExpirationMs = Long.valueOf(configurationService.findByConfigKey(REFRESH_EXPIRATION_MS)
-                .get().getConfigValue());
+        accessTokenExpirationMs = configurationService.getLong(ACCESS_EXPIRATION_MS);
+        refreshTokenExpirationMs = configurationService.getLong(REFRESH_EXPIRATION_MS);
         KeyStoreManager keyStoreManager = new KeyStoreManager();
         // Try keystore-based keys first
         var accessKeyOpt = keyStoreManager.retrieveAccessTokenKey();
@@ -203,6 +201,19 @@ public final class JWTProvider {
         return JWT.decode(token).getClaims();
     }
 
+    /**
+     * Gets the unique JWT ID ({@code jti}) of a token. An access token and the refresh token
+     * generated with it share the same ID.
+     *
+     * @param token Token to extract from
+     * @return The JWT ID, or null if the token has none
+     * @throws NullPointerException if token is null
+     */
+    public String getJwtId(String token) {
+        Objects.requireNonNull(token, "Token cannot be null");
+        return JWT.decode(token).getId();
+    }
+
     /**
      * Adds a claim to be included in generated tokens.p12.
      *
@@ -0,0 +1,96 @@
+package com.imovel.api.security.token;
+
+import com.imovel.api.error.ApiCode;
+import com.imovel.api.exception.TokenRefreshException;
+import com.imovel.api.model.RefreshToken;
+import com.imovel.api.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Refresh tokens keyed by the SHA-256 of the JWT, so lookups hit a fixed-length unique index and
+ * a leaked table holds no usable token.
+ * <p>
+ * Issuing a token retires the tokens it replaces with bulk updates and stores the new one with
+ * one insert, in a single transaction. A refresh supersedes the presented token with a conditional
+ * update first, so of two refreshes racing on the same token only one gets a new pair.
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    /**
+     * Hex SHA-256 of a token, as stored in {@code token_hash}
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The token if it is neither revoked nor superseded, with its user loaded
+     */
+    public Optional<RefreshToken> findActive(String token) {
+        return refreshTokenRepository.findActiveByTokenHash(hash(token));
+    }
+
+    /**
+     * Revoke every token of the user and store the new one
+     */
+    @Transactional
+    public RefreshToken issueAfterLogin(String token, RefreshToken issued, Instant now) {
+        refreshTokenRepository.revokeAllUserTokens(issued.getUser().getId(), now);
+        return insert(token, issued);
+    }
+
+    /**
+     * Supersede the presented token and the oldest tokens beyond the limit, then store the new one.
+     * The user keeps at most {@code maxTokens} usable tokens.
+     *
+     * @throws TokenRefreshException if the presented token is no longer usable (HTTP 401)
+     */
+    @Transactional
+    public RefreshToken rotate(RefreshToken presented, String token, RefreshToken issued, int maxTokens, Instant now) {
+        if (refreshTokenRepository.supersedeIfActive(presented.getId(), now) != 1) {
+            throw new TokenRefreshException(ApiCode.REFRESH_TOKEN_NOT_FOUND.getCode(),
+                    ApiCode.REFRESH_TOKEN_NOT_FOUND.getMessage(),
+                    HttpStatus.UNAUTHORIZED);
+        }
+        refreshTokenRepository.retireTokens(presented.getUser().getId(), Math.max(maxTokens - 1, 0), now);
+        return insert(token, issued);
+    }
+
+    /**
+     * Revoke a single token; unknown tokens are ignored
+     */
+    @Transactional
+    public void revoke(String token, Instant now) {
+        refreshTokenRepository.revokeByTokenHash(hash(token), now);
+    }
+
+    private RefreshToken insert(String token, RefreshToken issued) {
+        issued.setTokenHash(hash(token));
+        return refreshTokenRepository.save(issued);
+    }
+}
@@ -0,0 +1,30 @@
+package com.imovel.api.security.token;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for access token revocation
+ */
+@Configuration
+@ConfigurationProperties(prefix = "token.revocation")
+public class TokenRevocationConfig {
+
+    // How often the bloom filter is rebuilt from the database; bounds how long a revocation made on another node goes unseen
+    private Duration rebuildInterval = Duration.ofMinutes(1);
+    private double falsePositiveRate = 0.01;
+    // The filter is sized for at least this many revocations
+    private int minCapacity = 10_000;
+
+    // Getters and setters
+    public Duration getRebuildInterval() { return rebuildInterval; }
+    public void setRebuildInterval(Duration rebuildInterval) { this.rebuildInterval = rebuildInterval; }
+
+    public double getFalsePositiveRate() { return falsePositiveRate; }
+    public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+
+    public int getMinCapacity() { return minCapacity; }
+    public void setMinCapacity(int minCapacity) { this.minCapacity = minCapacity; }
+}
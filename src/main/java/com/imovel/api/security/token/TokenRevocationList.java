@@ -0,0 +1,111 @@
+package com.imovel.api.security.token;
+
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.model.RevokedToken;
+import com.imovel.api.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access tokens, by {@code jti}, checked on every authenticated request.
+ * <p>
+ * Revocations live in the {@code revoked_tokens} table. A bloom filter of the unexpired ones is
+ * rebuilt from the table periodically, and revocations made on this node since the last rebuild
+ * are kept in a small set. A token that the filter rules out is accepted without a query; only a
+ * filter hit is confirmed against the table. A revocation made on another node is seen here after
+ * the next rebuild.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationConfig config;
+    private final Map<String, Instant> recent = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, TokenRevocationConfig config) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.config = config;
+    }
+
+    /**
+     * Whether the access token with this ID has been revoked and has not expired yet
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Instant now = Instant.now();
+        Instant recentExpiry = recent.get(jti);
+        if (recentExpiry != null) {
+            return recentExpiry.isAfter(now);
+        }
+        if (!filter().mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsByJtiAndExpiresAtAfter(jti, now);
+    }
+
+    /**
+     * Revoke access tokens by ID until their expiry; IDs already revoked are skipped.
+     * The revocations are visible on this node at once.
+     */
+    @Transactional
+    public void revoke(Map<String, Instant> expiryByJti) {
+        if (expiryByJti.isEmpty()) {
+            return;
+        }
+        recent.putAll(expiryByJti);
+        Set<String> existing = new HashSet<>(revokedTokenRepository.findExistingJtis(expiryByJti.keySet()));
+        Instant now = Instant.now();
+        List<RevokedToken> revoked = new ArrayList<>();
+        expiryByJti.forEach((jti, expiresAt) -> {
+            if (!existing.contains(jti)) {
+                revoked.add(new RevokedToken(jti, expiresAt, now));
+            }
+        });
+        revokedTokenRepository.saveAll(revoked);
+    }
+
+    /**
+     * Rebuild the bloom filter from the table. Recent revocations are dropped once the table shows
+     * them, so one whose transaction had not committed yet stays in the set.
+     */
+    @Scheduled(fixedDelayString = "${token.revocation.rebuild-interval:PT1M}")
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        List<String> jtis = revokedTokenRepository.findUnexpiredJtis(now);
+        BloomFilter next = new BloomFilter(Math.max(jtis.size(), config.getMinCapacity()), config.getFalsePositiveRate());
+        jtis.forEach(next::add);
+        filter = next;
+
+        Set<String> loaded = new HashSet<>(jtis);
+        recent.entrySet().removeIf(entry -> loaded.contains(entry.getKey()) || !entry.getValue().isAfter(now));
+        ApiLogger.debug("TokenRevocationList", () -> "Rebuilt revocation filter with " + jtis.size()
+                + " tokens, " + recent.size() + " recent");
+    }
+
+    int recentSize() {
+        return recent.size();
+    }
+
+    private BloomFilter filter() {
+        BloomFilter current = filter;
+        if (current == null) {
+            rebuild();
+            current = filter;
+        }
+        return current;
+    }
+}
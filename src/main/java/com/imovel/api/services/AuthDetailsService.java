@@ -6,7 +6,8 @@ import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.model.AuthDetails;
 import com.imovel.api.repository.AuthDetailRepository;
 import com.imovel.api.response.ApplicationResponse;
-import com.imovel.api.security.PasswordManager;
+import com.imovel.api.exception.ServiceUnavailableException;
+import com.imovel.api.security.PasswordHashingService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,19 +19,19 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthDetailsService {
 
     private final AuthDetailRepository authDetailRepository;
-    private final PasswordManager passwordManager;
+    private final PasswordHashingService passwordHashingService;
     private static final String SERVICE_NAME = "AuthDetailsService";
 
     /**
      * Constructs an AuthDetailsService with required dependencies.
      *
      * @param authDetailRepository Repository for authentication details persistence
-     * @param passwordManager Utility for password hashing and verification
+     * @param passwordHashingService Password hashing and verification on a bounded pool
      */
     public AuthDetailsService(final AuthDetailRepository authDetailRepository,
-                              final PasswordManager passwordManager) {
+                              final PasswordHashingService passwordHashingService) {
         this.authDetailRepository = authDetailRepository;
-        this.passwordManager = passwordManager;
+        this.passwordHashingService = passwordHashingService;
         ApiLogger.info(SERVICE_NAME, "Service initialized");
     }
 
@@ -67,13 +68,17 @@ public class AuthDetailsService {
 
     /**
      * Verifies if the provided credentials match the stored credentials for a user.
+     * A matching password stored at a lower cost than the configured one is rehashed.
+     * <p>
+     * Not transactional: hashing can wait in the hashing pool's queue for seconds, and must not
+     * hold a database connection meanwhile. Only the lookup and the hash upgrade touch the database,
+     * each in its own short transaction.
      *
      * @param userId The ID of the user to verify
      * @param password The plaintext password to verify
      * @return StandardResponse with verification result
      * @throws ResourceNotFoundException if no user exists with the given ID
      */
-    @Transactional(readOnly = true)
     public ApplicationResponse<Boolean> verifyUserCredentials(final long userId, final String password) {
         ApiLogger.debug(SERVICE_NAME, "Verifying credentials for user ID: " + userId);
         AuthDetails authDetails = authDetailRepository.findByUserId(userId)
@@ -84,6 +89,9 @@ public class AuthDetailsService {
 
         boolean isValid = isPasswordValid(authDetails, password);
         ApiLogger.info(SERVICE_NAME, "Verification result for user ID: " + userId + " - " + isValid);
+        if (isValid && passwordHashingService.needsRehash(authDetails)) {
+            upgradeHash(authDetails, password);
+        }
 
         return isValid ? ApplicationResponse.success(isValid) :
                 ApplicationResponse.error(ApiCode.PASSWORD_POLICY_VIOLATION.getCode(),ApiCode.PASSWORD_POLICY_VIOLATION.getMessage(),ApiCode.PASSWORD_POLICY_VIOLATION.getHttpStatus());
@@ -98,11 +106,31 @@ public class AuthDetailsService {
      */
     private boolean isPasswordValid(final AuthDetails authDetails, final String password) {
         ApiLogger.debug(SERVICE_NAME, "Validating password for user ID: " + authDetails.getUserId());
-        boolean isValid = passwordManager.verifyPassword(
-                password,
-                authDetails.getHash(),
-                authDetails.getSalt());
+        boolean isValid = passwordHashingService.verify(authDetails, password);
         ApiLogger.debug(SERVICE_NAME, "Password validation result for user ID: " + authDetails.getUserId() + " - " + isValid);
         return isValid;
     }
+
+    /**
+     * Rehashes a verified password at the configured cost. Skipped when the hashing pool is
+     * saturated, as the login itself already succeeded; it is retried at the next login. The new
+     * hash is only stored if the password was not changed while it was computed.
+     *
+     * @param authDetails The stored authentication details
+     * @param password The verified plaintext password
+     */
+    private void upgradeHash(final AuthDetails authDetails, final String password) {
+        try {
+            AuthDetails fresh = passwordHashingService.createAuthDetails(password);
+            int updated = authDetailRepository.replaceHash(authDetails.getId(), authDetails.getHash(),
+                    fresh.getSalt(), fresh.getHash(), fresh.getIterations());
+            if (updated == 1) {
+                ApiLogger.info(SERVICE_NAME, "Upgraded password hash for user ID: " + authDetails.getUserId());
+            } else {
+                ApiLogger.debug(SERVICE_NAME, "Password changed meanwhile, hash upgrade skipped for user ID: " + authDetails.getUserId());
+            }
+        } catch (ServiceUnavailableException e) {
+            ApiLogger.warn(SERVICE_NAME, "Hashing pool busy, password hash upgrade deferred for user ID: " + authDetails.getUserId());
+        }
+    }
 }
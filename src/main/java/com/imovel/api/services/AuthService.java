@@ -15,7 +15,7 @@ import com.imovel.api.request.UserRegistrationRequest;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.response.UserResponse;
 import com.imovel.api.logger.ApiLogger;
-import com.imovel.api.security.PasswordManager;
+import com.imovel.api.security.PasswordHashingService;
 import com.imovel.api.security.token.JWTProvider;
 import com.imovel.api.util.Util;
 import jakarta.servlet.http.HttpServletRequest;
@@ -37,19 +37,19 @@ public class AuthService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final AuthDetailsService authDetailsService;
-    private final PasswordManager passwordManager;
+    private final PasswordHashingService passwordHashingService;
     private final JWTProvider jwtProvider;
 
     @Autowired
     public AuthService(UserRepository userRepository,
                        RoleRepository roleRepository,
                        AuthDetailsService authDetailsService,
-                       PasswordManager passwordManager, JWTProvider jwtProvider
+                       PasswordHashingService passwordHashingService, JWTProvider jwtProvider
     ) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.authDetailsService = authDetailsService;
-        this.passwordManager = passwordManager;
+        this.passwordHashingService = passwordHashingService;
         this.jwtProvider = jwtProvider;
     }
 
@@ -107,7 +107,7 @@ public class AuthService {
 
         ApiLogger.info("new user", newUser.getId());
         // Create and save authentication details for the new user
-        AuthDetails authDetails = passwordManager.createAuthDetails(request.getPassword());
+        AuthDetails authDetails = passwordHashingService.createAuthDetails(request.getPassword());
         authDetails.setUserId(newUser.getId());
         authDetailsService.save(authDetails);
 
@@ -187,11 +187,7 @@ public class AuthService {
             }
 
             // Verify current password
-            boolean ok = passwordManager.verifyPassword(
-                    request.getCurrentPassword(),
-                    auth.getHash(),
-                    auth.getSalt()
-            );
+            boolean ok = passwordHashingService.verify(auth, request.getCurrentPassword());
             if (!ok) {
                 ApiLogger.error(buildLogTag("changePassword"), "Current password mismatch for user: " + userId);
                 return ApplicationResponse.error(
@@ -205,9 +201,10 @@ public class AuthService {
             // if (request.getNewPassword().length() < 8) { ... }
 
             // Hash new password and save
-            AuthDetails fresh = passwordManager.createAuthDetails(request.getNewPassword());
+            AuthDetails fresh = passwordHashingService.createAuthDetails(request.getNewPassword());
             auth.setSalt(fresh.getSalt());
             auth.setHash(fresh.getHash());
+            auth.setIterations(fresh.getIterations());
             authDetailsService.save(auth); // we don't use the returned body
 
             ApiLogger.info(buildLogTag("changePassword"), "Password changed for user: " + userId);
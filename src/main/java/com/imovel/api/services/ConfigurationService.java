@@ -1,22 +1,39 @@
 package com.imovel.api.services;
 
+import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.model.Configuration;
 import com.imovel.api.repository.ConfigurationRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Service class for managing application configurations.
  * Provides CRUD operations and default configuration setup.
+ * <p>
+ * Reads are served from an immutable snapshot of the whole table, loaded at startup. Writes made
+ * through this service replace the snapshot once they commit and change the version row, which
+ * every instance polls each {@code configuration.refresh-interval-ms} to reload when another
+ * instance wrote. Typed accessors parse each value once per snapshot.
  */
 @Service
 public class ConfigurationService {
 
     private final ConfigurationRepository configurationRepository;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
     // Configuration keys for default values
     public static final String ACCESS_EXPIRATION_KEY = "ACCESS_EXPIRATION_MS";
@@ -27,12 +44,26 @@ public class ConfigurationService {
     private static final String MAX_REFRESH_TOKEN_PER_USER_VALUE = "5";
     public static final String REFRESH_CLEAN_UP_INTERVAL_KEY  = "REFRESH_CLEAN_UP_INTERVAL";
     private static final String REFRESH_CLEAN_UP_INTERVAL_VALUE = "86400000";//24H
+    // Changed on every write so that other instances know to reload
+    public static final String VERSION_KEY = "CONFIGURATION_VERSION";
 
     @Autowired
     public ConfigurationService(ConfigurationRepository configurationRepository) {
         this.configurationRepository = configurationRepository;
     }
 
+    /**
+     * Loads the snapshot at startup; a failure leaves it empty until the next refresh.
+     */
+    @PostConstruct
+    void loadSnapshot() {
+        try {
+            reload();
+        } catch (Exception e) {
+            ApiLogger.error("ConfigurationService", "Failed to load configuration snapshot", e);
+        }
+    }
+
     /**
      * Saves a new configuration to the database.
      *
@@ -41,17 +72,75 @@ public class ConfigurationService {
      */
     @Transactional
     public Configuration add(final Configuration configuration) {
-        return configurationRepository.save(configuration);
+        Configuration saved = configurationRepository.save(configuration);
+        publishChange();
+        return saved;
+    }
+
+    /**
+     * Creates or updates a configuration value.
+     *
+     * @param key The configuration key
+     * @param value The new value
+     * @return The saved configuration
+     */
+    @Transactional
+    public Configuration put(final String key, final String value) {
+        Configuration configuration = configurationRepository.findByConfigKey(key)
+                .orElseGet(() -> new Configuration(key, null));
+        configuration.setConfigValue(value);
+        Configuration saved = configurationRepository.save(configuration);
+        publishChange();
+        return saved;
     }
 
     /**
-     * Retrieves a configuration by its key.
+     * Retrieves a configuration by its key from the cached snapshot.
      *
      * @param key The configuration key to search for
-     * @return Optional containing the configuration if found
+     * @return Optional containing a copy of the configuration if found
      */
     public Optional<Configuration> findByConfigKey(final String key) {
-        return configurationRepository.findByConfigKey(key);
+        Configuration cached = snapshot.entries.get(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        Configuration copy = new Configuration(cached.getConfigKey(), cached.getConfigValue());
+        copy.setId(cached.getId());
+        return Optional.of(copy);
+    }
+
+    /**
+     * Retrieves a configuration value from the cached snapshot.
+     *
+     * @param key The configuration key
+     * @return Optional containing the value if the key exists
+     */
+    public Optional<String> getString(final String key) {
+        Configuration cached = snapshot.entries.get(key);
+        return cached == null ? Optional.empty() : Optional.ofNullable(cached.getConfigValue());
+    }
+
+    /**
+     * Retrieves a configuration value as a long.
+     *
+     * @param key The configuration key
+     * @return The parsed value
+     * @throws IllegalStateException if the key is missing or not a number
+     */
+    public long getLong(final String key) {
+        return snapshot.parsed(key, Long.class, Long::valueOf);
+    }
+
+    /**
+     * Retrieves a configuration value as an int.
+     *
+     * @param key The configuration key
+     * @return The parsed value
+     * @throws IllegalStateException if the key is missing or not a number
+     */
+    public int getInt(final String key) {
+        return snapshot.parsed(key, Integer.class, Integer::valueOf);
     }
 
     /**
@@ -68,30 +157,120 @@ public class ConfigurationService {
      * Creates default entries for access and refresh token expiration times.
      */
     public void setDefaultConfigurations() {
-        // Check if default configurations exist
-        final boolean accessExpirationMissing = !findByConfigKey(ACCESS_EXPIRATION_KEY).isPresent();
-        final boolean refreshExpirationMissing = !findByConfigKey(REFRESH_EXPIRATION_KEY).isPresent();
-        final boolean maxRefreshTokenPerUser = !findByConfigKey(String.valueOf(MAX_REFRESH_TOKEN_PER_USER_KEY)).isPresent();
-        final boolean refreshTokenCleanupInterval = !findByConfigKey(String.valueOf(REFRESH_CLEAN_UP_INTERVAL_KEY)).isPresent();
-
-        if (accessExpirationMissing || refreshExpirationMissing) {
-            // Save default configurations if they're missing
-            if (accessExpirationMissing) {
-                configurationRepository.save(new Configuration(ACCESS_EXPIRATION_KEY, DEFAULT_ACCESS_TOKEN_EXPIRATION_VALUE));
+        Map<String, String> defaults = new HashMap<>();
+        defaults.put(ACCESS_EXPIRATION_KEY, DEFAULT_ACCESS_TOKEN_EXPIRATION_VALUE);
+        defaults.put(REFRESH_EXPIRATION_KEY, DEFAULT_REFRESH_EXPIRATION_VALUE);
+        defaults.put(MAX_REFRESH_TOKEN_PER_USER_KEY, MAX_REFRESH_TOKEN_PER_USER_VALUE);
+        defaults.put(REFRESH_CLEAN_UP_INTERVAL_KEY, REFRESH_CLEAN_UP_INTERVAL_VALUE);
+        addMissing(defaults);
+    }
+
+    /**
+     * Saves the given configurations whose keys do not exist yet.
+     *
+     * @param defaults Default values by key
+     * @return Number of configurations created
+     */
+    @Transactional
+    public int addMissing(final Map<String, String> defaults) {
+        Map<String, Configuration> existing = snapshot.entries;
+        List<Configuration> missing = new ArrayList<>();
+        defaults.forEach((key, value) -> {
+            if (!existing.containsKey(key)) {
+                missing.add(new Configuration(key, value));
             }
-            if (refreshExpirationMissing) {
-                configurationRepository.save(new Configuration(REFRESH_EXPIRATION_KEY, DEFAULT_REFRESH_EXPIRATION_VALUE));
+        });
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        // The snapshot may be behind another instance, so check the table before inserting
+        missing.removeIf(configuration -> configurationRepository.existsByConfigKey(configuration.getConfigKey()));
+        if (missing.isEmpty()) {
+            reload();
+            return 0;
         }
+        configurationRepository.saveAll(missing);
+        publishChange();
+        return missing.size();
+    }
+
+    /**
+     * Reloads the snapshot if another instance changed the configuration since it was taken.
+     */
+    @Scheduled(fixedDelayString = "${configuration.refresh-interval-ms:30000}")
+    public void refresh() {
+        String version = configurationRepository.findByConfigKey(VERSION_KEY)
+                .map(Configuration::getConfigValue)
+                .orElse(null);
+        if (version != null && !version.equals(snapshot.version)) {
+            reload();
         }
-        if (maxRefreshTokenPerUser)
-        {
-            configurationRepository.save(new Configuration(MAX_REFRESH_TOKEN_PER_USER_KEY, MAX_REFRESH_TOKEN_PER_USER_VALUE));
+    }
+
+    /**
+     * Replaces the snapshot with the current contents of the table.
+     */
+    public void reload() {
+        Map<String, Configuration> entries = new HashMap<>();
+        for (Configuration configuration : configurationRepository.findAll()) {
+            // Detached copies, so nothing can change the snapshot through a managed entity
+            Configuration copy = new Configuration(configuration.getConfigKey(), configuration.getConfigValue());
+            copy.setId(configuration.getId());
+            entries.put(copy.getConfigKey(), copy);
         }
-        if (refreshTokenCleanupInterval)
-        {
-            configurationRepository.save(new Configuration(REFRESH_CLEAN_UP_INTERVAL_KEY, REFRESH_CLEAN_UP_INTERVAL_VALUE));
+        Configuration version = entries.get(VERSION_KEY);
+        snapshot = new Snapshot(Map.copyOf(entries), version != null ? version.getConfigValue() : null);
+    }
+
+    /**
+     * Bumps the version row and reloads the local snapshot once the write commits.
+     */
+    private void publishChange() {
+        Configuration version = configurationRepository.findByConfigKey(VERSION_KEY)
+                .orElseGet(() -> new Configuration(VERSION_KEY, null));
+        version.setConfigValue(UUID.randomUUID().toString());
+        configurationRepository.save(version);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
         }
     }
 
+    /**
+     * Immutable view of the configuration table, with values parsed on first use
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), null);
 
+        private final Map<String, Configuration> entries;
+        private final String version;
+        private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, Configuration> entries, String version) {
+            this.entries = entries;
+            this.version = version;
+        }
+
+        private <T> T parsed(String key, Class<T> type, Function<String, T> parser) {
+            return type.cast(parsed.computeIfAbsent(type.getSimpleName() + ':' + key, ignored -> {
+                Configuration configuration = entries.get(key);
+                if (configuration == null || configuration.getConfigValue() == null) {
+                    throw new IllegalStateException("Configuration not found: " + key);
+                }
+                try {
+                    return parser.apply(configuration.getConfigValue().trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalStateException("Invalid value for configuration " + key, e);
+                }
+            }));
+        }
+    }
 }
@@ -12,7 +12,7 @@ import com.imovel.api.repository.UserRepository;
 import com.imovel.api.request.ForgotPasswordRequest;
 import com.imovel.api.request.ResetPasswordRequest;
 import com.imovel.api.response.ApplicationResponse;
-import com.imovel.api.security.PasswordManager;
+import com.imovel.api.security.PasswordHashingService;
 import com.imovel.api.util.Util;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -29,7 +29,7 @@ public class ForgotPasswordService {
     private final UserRepository userRepository;
     private final PasswordResetCodeRepository passwordResetCodeRepository;
     private final AuthDetailsService authDetailsService;
-    private final PasswordManager passwordManager;
+    private final PasswordHashingService passwordHashingService;
     private final MailService mailService;
 
     private static final SecureRandom RNG = new SecureRandom();
@@ -38,12 +38,12 @@ public class ForgotPasswordService {
     public ForgotPasswordService(UserRepository userRepository,
                                  PasswordResetCodeRepository passwordResetCodeRepository,
                                  AuthDetailsService authDetailsService,
-                                 PasswordManager passwordManager,
+                                 PasswordHashingService passwordHashingService,
                                  MailService mailService) {
         this.userRepository = userRepository;
         this.passwordResetCodeRepository = passwordResetCodeRepository;
         this.authDetailsService = authDetailsService;
-        this.passwordManager = passwordManager;
+        this.passwordHashingService = passwordHashingService;
         this.mailService = mailService;
     }
 
@@ -82,19 +82,14 @@ public class ForgotPasswordService {
                 PasswordResetCode prc = new PasswordResetCode(user, code, expiresAt);
                 passwordResetCodeRepository.save(prc);
 
-                try {
-                    mailService.send(
-                            email,
-                            "Your password reset code",
-                            "Use this code to reset your password: " + code + "\n" +
-                                    "It expires in " + CODE_TTL_MINUTES + " minutes."
-                    );
-                    ApiLogger.info("ForgotPasswordService.requestReset", "Reset code emailed to " + email);
-                } catch (Exception mailEx) {
-                    // We don't expose this to the client (avoid enumeration), but log as EMAIL_SERVICE_ERROR
-                    ApiLogger.error("ForgotPasswordService.requestReset.mail",
-                            ApiCode.EMAIL_SERVICE_ERROR.getMessage() + ": " + mailEx.getMessage());
-                }
+                // Queued in this transaction; the outbox sends it once the code is committed
+                mailService.enqueue(
+                        email,
+                        "Your password reset code",
+                        "Use this code to reset your password: " + code + "\n" +
+                                "It expires in " + CODE_TTL_MINUTES + " minutes."
+                );
+                ApiLogger.info("ForgotPasswordService.requestReset", "Reset code queued for " + email);
             } else {
                 // Don’t reveal existence
                 ApiLogger.info("ForgotPasswordService.requestReset", "Request for non-existent email " + email);
@@ -168,8 +163,8 @@ public class ForgotPasswordService {
             prc.setConsumed(true);
             passwordResetCodeRepository.save(prc);
 
-            // Create fresh salt/hash with PasswordManager
-            AuthDetails newAuth = passwordManager.createAuthDetails(newPassword);
+            // Create fresh salt/hash on the hashing pool
+            AuthDetails newAuth = passwordHashingService.createAuthDetails(newPassword);
 
             // Fetch or create AuthDetails via your service contract
             AuthDetails existing;
@@ -179,11 +174,13 @@ public class ForgotPasswordService {
                 existing = existingResp.getData();
                 existing.setSalt(newAuth.getSalt());
                 existing.setHash(newAuth.getHash());
+                existing.setIterations(newAuth.getIterations());
             } catch (ResourceNotFoundException notFound) {
                 existing = new AuthDetails();
                 existing.setUserId(user.getId());
                 existing.setSalt(newAuth.getSalt());
                 existing.setHash(newAuth.getHash());
+                existing.setIterations(newAuth.getIterations());
             }
 
             // Persist using your service (return value not used here)
@@ -0,0 +1,70 @@
+package com.imovel.api.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imovel.api.model.OutboxMessage;
+import com.imovel.api.outbox.OutboxHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sends emails queued with {@link MailService#enqueue}.
+ */
+@Component
+public class MailOutboxHandler implements OutboxHandler {
+
+    public static final String TYPE = "mail";
+
+    private final MailService mailService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public MailOutboxHandler(MailService mailService) {
+        this.mailService = mailService;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        MailPayload mail;
+        try {
+            mail = objectMapper.readValue(message.getPayload(), MailPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable mail payload", e);
+        }
+        mailService.send(mail.getTo(), mail.getFrom(), mail.getSubject(), mail.getBody());
+    }
+
+    public static class MailPayload {
+        private List<String> to;
+        private String from;
+        private String subject;
+        private String body;
+
+        public MailPayload() {
+        }
+
+        public MailPayload(List<String> to, String from, String subject, String body) {
+            this.to = to;
+            this.from = from;
+            this.subject = subject;
+            this.body = body;
+        }
+
+        public List<String> getTo() { return to; }
+        public void setTo(List<String> to) { this.to = to; }
+
+        public String getFrom() { return from; }
+        public void setFrom(String from) { this.from = from; }
+
+        public String getSubject() { return subject; }
+        public void setSubject(String subject) { this.subject = subject; }
+
+        public String getBody() { return body; }
+        public void setBody(String body) { this.body = body; }
+    }
+}
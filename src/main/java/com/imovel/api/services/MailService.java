@@ -1,25 +1,50 @@
-// src/main/java/com/imovel/api/services/MailService.java
 package com.imovel.api.services;
 
 import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.outbox.OutboxService;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class MailService {
     private final JavaMailSender sender;
+    private final OutboxService outboxService;
 
-    public MailService(JavaMailSender sender) {
+    public MailService(JavaMailSender sender, OutboxService outboxService) {
         this.sender = sender;
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Queue an email through the outbox; it is sent after the current transaction commits.
+     */
+    public void enqueue(String to, String subject, String body) {
+        enqueue(List.of(to), null, subject, body);
+    }
+
+    /**
+     * Queue an email through the outbox; it is sent after the current transaction commits.
+     */
+    public void enqueue(List<String> to, String from, String subject, String body) {
+        outboxService.enqueue(MailOutboxHandler.TYPE, new MailOutboxHandler.MailPayload(to, from, subject, body));
     }
 
     public void send(String to, String subject, String body) {
+        send(List.of(to), null, subject, body);
+    }
+
+    public void send(List<String> to, String from, String subject, String body) {
         SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setTo(to);
+        msg.setTo(to.toArray(new String[0]));
+        if (from != null) {
+            msg.setFrom(from);
+        }
         msg.setSubject(subject);
         msg.setText(body);
         sender.send(msg);
-        ApiLogger.info("MailService.send", "email sent to " + to);
+        ApiLogger.info("MailService.send", () -> "email sent to " + String.join(",", to));
     }
 }
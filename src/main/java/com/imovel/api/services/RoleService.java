@@ -8,6 +8,7 @@ import com.imovel.api.repository.RoleRepository;
 import com.imovel.api.repository.UserRepository;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.response.RoleResponse;
+import com.imovel.api.session.AuthenticatedUserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -24,11 +25,14 @@ import java.util.Optional;
 public class RoleService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     @Autowired
-    public RoleService(RoleRepository roleRepository, UserRepository userRepository) {
+    public RoleService(RoleRepository roleRepository, UserRepository userRepository,
+                       AuthenticatedUserCache authenticatedUserCache) {
         this.roleRepository = roleRepository;
         this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Transactional
@@ -141,6 +145,7 @@ public class RoleService {
                 }
 
                 Role updatedRole = roleRepository.save(existingRole);
+                authenticatedUserCache.evictRoleAfterCommit(id);
                 ApiLogger.info("RoleService.updateRole", "Role updated successfully", updatedRole);
                 return ApplicationResponse.success(updatedRole, "Role updated successfully");
             } else {
@@ -166,6 +171,7 @@ public class RoleService {
                 Role role = optionalRole.get();
                 try {
                     roleRepository.delete(role);
+                    authenticatedUserCache.evictRoleAfterCommit(id);
                     ApiLogger.info("RoleService.deleteRole", "Role deleted successfully", id);
                     return ApplicationResponse.success("Role deleted successfully");
                 } catch (DataIntegrityViolationException e) {
@@ -229,6 +235,7 @@ public class RoleService {
         user.setRole(role);
         role.getUsers().add(user);
         userRepository.save(user);
+        authenticatedUserCache.evictAfterCommit(user.getId());
         ApiLogger.info("RoleService.addRoleToUser", "Role added to user successfully",
                 Map.of("userId", user.getId(), "roleId", role.getId()));
         return ApplicationResponse.success(role, "Role added to user successfully");
@@ -251,6 +258,7 @@ public class RoleService {
         user.setRole(null);
         role.getUsers().remove(user);
         userRepository.save(user);
+        authenticatedUserCache.evictAfterCommit(user.getId());
         ApiLogger.info("RoleService.removeRoleFromUser", "Role removed from user successfully",
                 Map.of("userId", user.getId(), "roleId", role.getId()));
         return ApplicationResponse.success(role, "Role removed from user successfully");
@@ -24,7 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Service
-@Profile("!sqlite")
+@Profile("!sqlite & !offline")
 @Deprecated  // use payment module instead
 public class StripePaymentService implements PaymentService {
 
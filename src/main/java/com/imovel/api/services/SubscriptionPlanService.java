@@ -6,6 +6,7 @@ import com.imovel.api.model.SubscriptionPlan;
 import com.imovel.api.repository.SubscriptionPlanRepository;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.response.SubscriptionPlanResponse;
+import com.imovel.api.subscription.PlanCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,16 +17,19 @@ import java.util.Optional;
 public class SubscriptionPlanService {
 
     private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final PlanCatalog planCatalog;
 
     @Autowired
-    public SubscriptionPlanService(SubscriptionPlanRepository subscriptionPlanRepository) {
+    public SubscriptionPlanService(SubscriptionPlanRepository subscriptionPlanRepository, PlanCatalog planCatalog) {
         this.subscriptionPlanRepository = subscriptionPlanRepository;
+        this.planCatalog = planCatalog;
     }
 
     public ApplicationResponse<SubscriptionPlanResponse> createSubscriptionPlan(SubscriptionPlan subscriptionPlan) {
         ApiLogger.info("SubscriptionPlanService.createSubscriptionPlan", "Creating new subscription plan", subscriptionPlan);
         try {
             SubscriptionPlan savedPlan = subscriptionPlanRepository.save(subscriptionPlan);
+            planCatalog.reloadAfterCommit();
             SubscriptionPlanResponse response = SubscriptionPlanResponse.parse(savedPlan);
             ApiLogger.info("SubscriptionPlanService.createSubscriptionPlan", "Subscription plan created successfully", response);
             return ApplicationResponse.success(response, "Subscription plan created successfully");
@@ -92,6 +96,7 @@ public class SubscriptionPlanService {
                 existingPlan.setSupportType(updatedPlan.getSupportType());
                 
                 SubscriptionPlan savedPlan = subscriptionPlanRepository.save(existingPlan);
+                planCatalog.reloadAfterCommit();
                 SubscriptionPlanResponse response = SubscriptionPlanResponse.parse(savedPlan);
                 ApiLogger.info("SubscriptionPlanService.updateSubscriptionPlan", "Subscription plan updated successfully", response);
                 return ApplicationResponse.success(response, "Subscription plan updated successfully");
@@ -115,6 +120,7 @@ public class SubscriptionPlanService {
             Optional<SubscriptionPlan> planOptional = subscriptionPlanRepository.findById(id);
             if (planOptional.isPresent()) {
                 subscriptionPlanRepository.deleteById(id);
+                planCatalog.reloadAfterCommit();
                 ApiLogger.info("SubscriptionPlanService.deleteSubscriptionPlan", "Subscription plan deleted successfully", id);
                 return ApplicationResponse.success("Subscription plan deleted successfully");
             } else {
@@ -11,6 +11,10 @@ import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.response.SubscriptionPlanResponse;
 import com.imovel.api.response.SubscriptionResponse;
 import com.imovel.api.response.UserSubscriptionResponse;
+import com.imovel.api.subscription.CatalogPlan;
+import com.imovel.api.subscription.PlanCatalog;
+import com.imovel.api.subscription.ProrationEngine;
+import com.imovel.api.subscription.SubscriptionTerm;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,7 +23,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -28,15 +34,18 @@ public class SubscriptionService {
     private final SubscriptionPlanRepository planRepository;
     private final SubscriptionRepository subscriptionRepository;
     private final UserSubscriptionRepository userSubscriptionRepository;
+    private final PlanCatalog planCatalog;
 //    private final PaymentService paymentService;
 
     @Autowired
     public SubscriptionService(SubscriptionPlanRepository planRepository,
                                SubscriptionRepository subscriptionRepository,
-                               UserSubscriptionRepository userSubscriptionRepository/*,PaymentService paymentService*/) {
+                               UserSubscriptionRepository userSubscriptionRepository,
+                               PlanCatalog planCatalog/*,PaymentService paymentService*/) {
         this.planRepository = planRepository;
         this.subscriptionRepository = subscriptionRepository;
         this.userSubscriptionRepository = userSubscriptionRepository;
+        this.planCatalog = planCatalog;
 //        this.paymentService = paymentService;
     }
 
@@ -273,7 +282,7 @@ public class SubscriptionService {
                     .orElseThrow(() -> new IllegalArgumentException("Subscription not found"));
 
             // Get new plan
-            SubscriptionPlan newPlan = planRepository.findById(newPlanId)
+            CatalogPlan newPlan = planCatalog.find(newPlanId)
                     .orElseThrow(() -> new IllegalArgumentException("New plan not found"));
 
             // Check if changing to same plan
@@ -289,7 +298,9 @@ public class SubscriptionService {
             }
 
             // Calculate prorated amount
-                ProrationResult proration = calculateProration(currentSub, newPlan, immediate);
+            SubscriptionTerm term = new SubscriptionTerm(currentSub.getId(), currentSub.getPlan().getId(),
+                    currentSub.getBillingCycle(), currentSub.getStartDate(), currentSub.getEndDate());
+            ProrationResult proration = calculateProration(term, newPlan, immediate);
 
             // Process payment if needed
             if (proration.getAmountDue().compareTo(BigDecimal.ZERO) > 0) {
@@ -298,8 +309,9 @@ public class SubscriptionService {
                         "Amount: " + proration.getAmountDue());
             }
 
-            // Update subscription
-            currentSub.setPlan(newPlan);
+            // Update subscription; the plan is only referenced, its details come from the catalog
+            SubscriptionPlan newPlanReference = planRepository.getReferenceById(newPlanId);
+            currentSub.setPlan(newPlanReference);
             currentSub.setStartDate(proration.getNewStartDate());
             currentSub.setEndDate(proration.getNewEndDate());
 
@@ -313,13 +325,13 @@ public class SubscriptionService {
             Optional<UserSubscription> userSubOptional = userSubscriptionRepository.findBySubscriptionId(subscriptionId);
             if (userSubOptional.isPresent()) {
                 UserSubscription userSubscription = userSubOptional.get();
-                userSubscription.updateCurrentPlan(newPlan);
+                userSubscription.updateCurrentPlan(newPlanReference);
                 userSubscription.setCurrentPlanCharge(proration.getAmountDue() );
                 userSubscriptionRepository.save(userSubscription);
                 ApiLogger.info("SubscriptionService.changePlan",
                         "UserSubscription updated with new current plan", 
                         "Base: " + userSubscription.getBasePlan().getName() + 
-                        ", Current: " + userSubscription.getCurrentPlan().getName());
+                        ", Current: " + newPlan.getName());
             } else {
                 ApiLogger.warn("SubscriptionService.changePlan",
                         "UserSubscription not found for subscription ID", subscriptionId);
@@ -356,13 +368,13 @@ public class SubscriptionService {
     // Calculate prorated amount for plan change
     public ApplicationResponse<BigDecimal> calculatePlanChange(Long subscriptionId, Long newPlanId) {
         try {
-            Subscription currentSub = subscriptionRepository.findById(subscriptionId)
+            SubscriptionTerm term = subscriptionRepository.findTermById(subscriptionId)
                     .orElseThrow(() -> new IllegalArgumentException("Subscription not found"));
 
-            SubscriptionPlan newPlan = planRepository.findById(newPlanId)
+            CatalogPlan newPlan = planCatalog.find(newPlanId)
                     .orElseThrow(() -> new IllegalArgumentException("New plan not found"));
 
-            ProrationResult proration = calculateProration(currentSub, newPlan, true);
+            ProrationResult proration = calculateProration(term, newPlan, true);
 
             String message = proration.getAmountDue().compareTo(BigDecimal.ZERO) > 0 ?
                     "Upgrade requires payment of " + proration.getAmountDue() :
@@ -393,41 +405,83 @@ public class SubscriptionService {
         }
     }
 
+    // Quote switching a subscription to each of several plans, keyed by plan id in request order
+    public ApplicationResponse<Map<Long, BigDecimal>> quotePlanChanges(Long subscriptionId, List<Long> newPlanIds) {
+        try {
+            SubscriptionTerm term = subscriptionRepository.findTermById(subscriptionId)
+                    .orElseThrow(() -> new IllegalArgumentException("Subscription not found"));
+            CatalogPlan currentPlan = planCatalog.find(term.getPlanId())
+                    .orElseThrow(() -> new IllegalArgumentException("Current plan not found"));
+
+            long[] newPrices = new long[newPlanIds.size()];
+            for (int i = 0; i < newPrices.length; i++) {
+                Long newPlanId = newPlanIds.get(i);
+                newPrices[i] = planCatalog.find(newPlanId)
+                        .orElseThrow(() -> new IllegalArgumentException("New plan not found: " + newPlanId))
+                        .priceMinor(term.getBillingCycle());
+            }
+            long remainingDays = ChronoUnit.DAYS.between(LocalDateTime.now(), term.getEndDate());
+            long[] due = ProrationEngine.quote(currentPlan.priceMinor(term.getBillingCycle()), newPrices,
+                    remainingDays, ProrationEngine.periodDays(term.getBillingCycle()));
+
+            Map<Long, BigDecimal> quotes = new LinkedHashMap<>();
+            for (int i = 0; i < due.length; i++) {
+                quotes.put(newPlanIds.get(i), ProrationEngine.fromMinorUnits(due[i]));
+            }
+            ApiLogger.debug("SubscriptionService.quotePlanChanges",
+                    "Quoted plan changes", "Subscription: " + subscriptionId + ", Plans: " + quotes.size());
+            return ApplicationResponse.success(quotes, "Plan change quotes calculated successfully");
+        } catch (IllegalArgumentException e) {
+            ApiLogger.error("SubscriptionService.quotePlanChanges",
+                    "Subscription or plan not found", e);
+            return ApplicationResponse.error(
+                    ApiCode.SUBSCRIPTION_NOT_FOUND.getCode(),
+                    e.getMessage(),
+                    ApiCode.SUBSCRIPTION_NOT_FOUND.getHttpStatus()
+            );
+        } catch (Exception e) {
+            ApiLogger.error("SubscriptionService.quotePlanChanges",
+                    "Failed to quote plan changes", e);
+            return ApplicationResponse.error(
+                    ApiCode.SYSTEM_ERROR.getCode(),
+                    "Failed to quote plan changes: " + e.getMessage(),
+                    ApiCode.SYSTEM_ERROR.getHttpStatus()
+            );
+        }
+    }
+
     // Helper method to calculate proration
-    private ProrationResult calculateProration(Subscription currentSub, SubscriptionPlan newPlan, boolean immediate) {
+    private ProrationResult calculateProration(SubscriptionTerm term, CatalogPlan newPlan, boolean immediate) {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime newStartDate = immediate ? now : currentSub.getStartDate();
+        LocalDateTime newStartDate = immediate ? now : term.getStartDate();
 
         // Calculate remaining time in current period
-        long totalDays = ChronoUnit.DAYS.between(currentSub.getStartDate(), currentSub.getEndDate());
-        long remainingDays = ChronoUnit.DAYS.between(now, currentSub.getEndDate());
-
-        // Calculate unused value of current plan (prorated)
-        BigDecimal currentPlanDailyRate = getDailyRate(currentSub.getPlan(), currentSub.getBillingCycle());
-        BigDecimal unusedValue = currentPlanDailyRate.multiply(BigDecimal.valueOf(remainingDays));
+        long remainingDays = ChronoUnit.DAYS.between(now, term.getEndDate());
 
-        // Calculate cost of new plan for remaining period
-        BigDecimal newPlanDailyRate = getDailyRate(newPlan, currentSub.getBillingCycle());
-        BigDecimal newPlanCost = newPlanDailyRate.multiply(BigDecimal.valueOf(remainingDays));
-
-        // Calculate amount due (positive = charge customer, negative = credit)
-        BigDecimal amountDue = newPlanCost.subtract(unusedValue);
+        // Amount due in cents for the rest of the period (positive = charge customer, negative = credit)
+        CatalogPlan currentPlan = planCatalog.find(term.getPlanId())
+                .orElseThrow(() -> new IllegalArgumentException("Current plan not found"));
+        long amountDue = ProrationEngine.amountDue(
+                currentPlan.priceMinor(term.getBillingCycle()),
+                newPlan.priceMinor(term.getBillingCycle()),
+                remainingDays,
+                ProrationEngine.periodDays(term.getBillingCycle()));
 
         // Calculate new end date
         LocalDateTime newEndDate;
         if (immediate) {
             // For immediate changes, start new period from now
-            if (currentSub.getBillingCycle().equals("monthly")) {
+            if (term.getBillingCycle().equals("monthly")) {
                 newEndDate = now.plusMonths(1);
             } else {
                 newEndDate = now.plusYears(1);
             }
         } else {
             // For non-immediate changes, keep original end date
-            newEndDate = currentSub.getEndDate();
+            newEndDate = term.getEndDate();
         }
 
-        return new ProrationResult(amountDue, newStartDate, newEndDate);
+        return new ProrationResult(ProrationEngine.fromMinorUnits(amountDue), newStartDate, newEndDate);
     }
 
     // Helper method to calculate refund amount
@@ -441,16 +495,9 @@ public class SubscriptionService {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal dailyRate = getDailyRate(subscription.getPlan(), subscription.getBillingCycle());
-        return dailyRate.multiply(BigDecimal.valueOf(remainingDays))
-                .setScale(2, RoundingMode.HALF_UP);
-    }
-
-    // Helper method to calculate daily rate
-    private BigDecimal getDailyRate(SubscriptionPlan plan, String billingCycle) {
-        BigDecimal planPrice = billingCycle.equals("monthly") ? plan.getMonthlyPrice() : plan.getYearlyPrice();
-        int daysInPeriod = billingCycle.equals("monthly") ? 30 : 365; // Approximation
-        return planPrice.divide(BigDecimal.valueOf(daysInPeriod), 10, RoundingMode.HALF_UP);
+        long price = CatalogPlan.of(subscription.getPlan()).priceMinor(subscription.getBillingCycle());
+        return ProrationEngine.fromMinorUnits(ProrationEngine.prorate(price, remainingDays,
+                ProrationEngine.periodDays(subscription.getBillingCycle())));
     }
 
     // Helper class for proration results
@@ -2,6 +2,7 @@ package com.imovel.api.services;
 
 import com.imovel.api.error.ApiCode;
 import com.imovel.api.exception.AuthenticationException;
+import com.imovel.api.exception.ServiceUnavailableException;
 import com.imovel.api.exception.TokenRefreshException;
 import com.imovel.api.logger.ApiLogger;
 import com.imovel.api.model.RefreshToken;
@@ -11,28 +12,29 @@ import com.imovel.api.repository.RefreshTokenRepository;
 import com.imovel.api.request.UserLoginRequest;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.security.token.JWTProvider;
+import com.imovel.api.security.token.RefreshTokenStore;
+import com.imovel.api.security.token.TokenRevocationList;
 import com.imovel.api.security.token.Token;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class TokenService {
 
-    // Constants
-    public static final int CLEANUP_INTERVAL_MS = 24 * 60 * 60 * 1000; // 24 hours in milliseconds
     // Dependencies
     private final JWTProvider jwtProvider;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenRevocationList tokenRevocationList;
     private final ConfigurationService configurationService;
     private final AuthService authService;
     private boolean jwtInitialized = false;
@@ -40,10 +42,14 @@ public class TokenService {
     @Autowired
     public TokenService(JWTProvider jwtProvider,
                         RefreshTokenRepository refreshTokenRepository,
+                        RefreshTokenStore refreshTokenStore,
+                        TokenRevocationList tokenRevocationList,
                         ConfigurationService configurationService, 
                         AuthService authService) {
         this.jwtProvider = jwtProvider;
         this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
+        this.tokenRevocationList = tokenRevocationList;
         this.configurationService = configurationService;
         this.authService = authService;
         // JWT initialization is now handled lazily to avoid startup timing issues
@@ -73,11 +79,10 @@ public class TokenService {
      * Authenticates a user and generates new tokens.p12
      *
      * Steps:
-     * 1. Enforce token limits by revoking excess tokens.p12
-     * 2. Revoke all existing active refresh tokens.p12 for the user
-     * 3. Generate new access and refresh tokens.p12
-     * 4. Save the new refresh token to database
-     * 5. Return the token pair wrapped in StandardResponse
+     * 1. Generate new access and refresh tokens.p12
+     * 2. Revoke all existing active refresh tokens.p12 for the user and save the new one,
+     *    in one transaction (one update and one insert)
+     * 3. Return the token pair wrapped in StandardResponse
      *
      * @param loginRequest The user to authenticate
      * @param request HTTP request for device information
@@ -108,20 +113,18 @@ public class TokenService {
             }
             ApiLogger.debug("TokenService.login", "Password verification successful");
             
-            enforceTokenLimits(optionalUser.get().getId());
-            ApiLogger.debug("TokenService.login", "Token limits enforced");
-
-            Instant now = Instant.now();
-            revokeAllUserTokens(optionalUser.get().getId(), now);
-            ApiLogger.debug("TokenService.login", "Previous tokens.p12 revoked");
-
             Token tokens = generateTokensForUser(optionalUser.get());
             ApiLogger.debug("TokenService.login", "Tokens generated successfully");
-            
-            saveRefreshToken(tokens.getRefreshToken(), optionalUser.get(), now, request);
-            ApiLogger.debug("TokenService.login", "Refresh token saved");
+
+            Instant now = Instant.now();
+            refreshTokenStore.issueAfterLogin(tokens.getRefreshToken(),
+                    newRefreshToken(optionalUser.get(), tokens, now, request), now);
+            ApiLogger.debug("TokenService.login", "Previous tokens.p12 revoked and refresh token saved");
 
             return ApplicationResponse.success(tokens);
+        } catch (ServiceUnavailableException ex) {
+            ApiLogger.warn("TokenService.login", "Login rejected, password hashing saturated");
+            return ApplicationResponse.error(ex.getErrorCode());
         } catch (Exception ex) {
             ApiLogger.error("TokenService.login", "Login failed with exception", 
                 Map.of("exception", ex.getClass().getSimpleName(), "message", ex.getMessage()));
@@ -135,12 +138,11 @@ public class TokenService {
      * Steps:
      * 1. Validate the refresh token (JWT signature and expiration)
      * 2. Verify the token exists in database and isn't revoked/superseded
-     * 3. Get the associated user
-     * 4. Enforce token limits
-     * 5. Mark previous refresh token as superseded
-     * 6. Generate new token pair
-     * 7. Save new refresh token
-     * 8. Return new token pair wrapped in StandardResponse
+     * 3. Generate new token pair for the associated user
+     * 4. Supersede the presented token and the oldest tokens beyond the per-user limit, and save
+     *    the new refresh token, in one transaction (two updates and one insert). The presented
+     *    token is superseded only if still usable, so a concurrent refresh with it fails
+     * 5. Return new token pair wrapped in StandardResponse
      *
      * @param refreshToken The refresh token string
      * @param request HTTP request for device information
@@ -153,50 +155,51 @@ public class TokenService {
         RefreshToken storedToken = getValidRefreshTokenFromDB(refreshToken);
         User user = storedToken.getUser();
 
-        enforceTokenLimits(user.getId());
-        supersedePreviousTokens(user.getId(), storedToken.getId());
-
         Token tokens = generateTokensForUser(user);
-        saveRefreshToken(tokens.getRefreshToken(), user, Instant.now(), request);
+        Instant now = Instant.now();
+        refreshTokenStore.rotate(storedToken, tokens.getRefreshToken(), newRefreshToken(user, tokens, now, request),
+                getMaxRefreshTokensPerUser(), now);
 
         return ApplicationResponse.success(tokens);
     }
 
     /**
-     * Revokes a specific refresh token (logout single device)
+     * Revokes a specific refresh token and the access token issued with it (logout single device)
      *
      * @param refreshToken The refresh token to revoke
      * @return StandardResponse indicating success or failure
      */
     public ApplicationResponse<Void> logout(String refreshToken) {
-        refreshTokenRepository.findByToken(refreshToken)
-                .ifPresent(token -> {
-                    token.setRevoked(true);
-                    token.setRevokedAt(Instant.now());
-                    refreshTokenRepository.save(token);
-                });
+        Instant now = Instant.now();
+        refreshTokenStore.revoke(refreshToken, now);
 
+        ensureJwtInitialized();
+        if (jwtProvider.validateRefreshToken(refreshToken)) {
+            String jti = jwtProvider.getJwtId(refreshToken);
+            if (jti != null) {
+                tokenRevocationList.revoke(Map.of(jti, accessTokenExpiryBound(now)));
+            }
+        }
         return ApplicationResponse.success(null);
     }
 
     /**
-     * Revokes all refresh tokens.p12 for a user (logout all devices)
+     * Revokes all refresh tokens.p12 for a user and the access tokens that may still be valid
+     * (logout all devices)
      *
      * @param userId The user ID
      * @return StandardResponse indicating success or failure
      */
     public ApplicationResponse<Void> logoutAll(Long userId) {
-        revokeAllUserTokens(userId, Instant.now());
-        return ApplicationResponse.success(null);
-    }
+        Instant now = Instant.now();
+        ensureJwtInitialized();
+        List<String> jtis = refreshTokenRepository.findUnexpiredJtisByUserId(userId, now);
+        Map<String, Instant> expiryByJti = new LinkedHashMap<>();
+        jtis.forEach(jti -> expiryByJti.put(jti, accessTokenExpiryBound(now)));
+        tokenRevocationList.revoke(expiryByJti);
 
-    /**
-     * Scheduled task to clean up expired refresh tokens.p12
-     * Runs daily based on CLEANUP_INTERVAL_MS
-     */
-    @Scheduled(fixedRate = CLEANUP_INTERVAL_MS)
-    public void cleanupExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(Instant.now());
+        revokeAllUserTokens(userId, now);
+        return ApplicationResponse.success(null);
     }
 
     // ============ PRIVATE HELPER METHODS ============ //
@@ -228,23 +231,23 @@ public class TokenService {
     }
 
     /**
-     * Saves a new refresh token to the database
-     * @param tokenValue The token value to save
+     * Builds the record of a new refresh token; the store sets its hash and saves it
      * @param user The associated user
+     * @param tokens The generated token pair, whose JWT ID is recorded
      * @param creationTime Token creation time
      * @param request HTTP request for device information
+     * @return Unsaved refresh token
      */
-    private void saveRefreshToken(String tokenValue, User user, Instant creationTime, HttpServletRequest request) {
+    private RefreshToken newRefreshToken(User user, Token tokens, Instant creationTime, HttpServletRequest request) {
         ensureJwtInitialized();
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(tokenValue);
         refreshToken.setUser(user);
+        refreshToken.setJti(jwtProvider.getJwtId(tokens.getRefreshToken()));
         refreshToken.setExpiresAt(creationTime.plusMillis(jwtProvider.getAccessTokenExpirationMs()));
         refreshToken.setIssuedIp(request.getRemoteAddr());
         refreshToken.setUserAgent(request.getHeader("User-Agent"));
         refreshToken.setDeviceFingerprint(generateDeviceFingerprint(request));
-
-        refreshTokenRepository.save(refreshToken);
+        return refreshToken;
     }
 
     /**
@@ -279,8 +282,8 @@ public class TokenService {
      * @throws TokenRefreshException if token is invalid or expired
      */
     private RefreshToken getValidRefreshTokenFromDB(String refreshToken) {
-        RefreshToken storedToken = refreshTokenRepository
-                .findByTokenAndRevokedFalseAndSupersededFalse(refreshToken)
+        RefreshToken storedToken = refreshTokenStore
+                .findActive(refreshToken)
                 .orElseThrow(() -> new TokenRefreshException(ApiCode.REFRESH_TOKEN_NOT_FOUND.getCode(),
                         ApiCode.REFRESH_TOKEN_NOT_FOUND.getMessage(),
                         HttpStatus.UNAUTHORIZED));
@@ -304,39 +307,12 @@ public class TokenService {
     }
 
     /**
-     * Marks previous tokens.p12 as superseded when generating new ones
-     * @param userId The user ID
-     * @param currentTokenId The ID of the current valid token
-     */
-    private void supersedePreviousTokens(Long userId, Long currentTokenId) {
-        refreshTokenRepository.supersedePreviousTokens(userId, currentTokenId);
-    }
-
-    /**
-     * Revokes a single token
-     * @param token The token to revoke
+     * Latest expiry of an access token issued up to now, kept as the revocation's expiry
+     * @param now Current time
+     * @return Expiry bound
      */
-    private void revokeToken(RefreshToken token) {
-        token.setRevoked(true);
-        token.setRevokedAt(Instant.now());
-        refreshTokenRepository.save(token);
-    }
-
-    /**
-     * Enforces maximum active tokens.p12 per user by revoking oldest tokens.p12 when limit exceeded
-     * @param userId The user ID to check
-     * @throws TokenRefreshException if token limit is exceeded
-     */
-    private void enforceTokenLimits(Long userId) {
-        long activeTokenCount = refreshTokenRepository.countActiveTokensByUserId(userId);
-        int maxTokens = getMaxRefreshTokensPerUser();
-
-        if (activeTokenCount >= maxTokens) {
-            revokeExcessTokens(userId, activeTokenCount - maxTokens + 1);
-            throw new TokenRefreshException(ApiCode.REFRESH_TOKEN_NOT_LIMITE_EXCEEDED.getCode(),
-                    ApiCode.REFRESH_TOKEN_NOT_LIMITE_EXCEEDED.getMessage(),
-                    HttpStatus.TOO_MANY_REQUESTS);
-        }
+    private Instant accessTokenExpiryBound(Instant now) {
+        return now.plusMillis(jwtProvider.getAccessTokenExpirationMs());
     }
 
     /**
@@ -344,24 +320,7 @@ public class TokenService {
      * @return Maximum allowed tokens.p12
      */
     private int getMaxRefreshTokensPerUser() {
-        return Integer.parseInt(configurationService
-                .findByConfigKey(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY)
-                .orElseThrow(() -> new IllegalStateException("Token limit configuration not found"))
-                .getConfigValue());
-    }
-    /**
-     * Revokes the oldest tokens.p12 for a user when they exceed the limit
-     * @param userId The user ID
-     * @param numberOfTokensToRevoke Number of tokens.p12 to revoke
-     */
-    private void revokeExcessTokens(Long userId, long numberOfTokensToRevoke) {
-        List<RefreshToken> oldestTokens = refreshTokenRepository
-                .findActiveTokensByUserIdOldestFirst(userId)
-                .stream()
-                .limit(numberOfTokensToRevoke)
-                .collect(Collectors.toList());
-
-        oldestTokens.forEach(this::revokeToken);
+        return configurationService.getInt(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY);
     }
 
     public String getClaim(final String name, String token){
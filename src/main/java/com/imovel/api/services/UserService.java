@@ -11,6 +11,8 @@ import com.imovel.api.request.SocialLinkDto;
 import com.imovel.api.request.UserUpdateRequest;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.response.UserResponse;
+import com.imovel.api.session.AuthenticatedUser;
+import com.imovel.api.session.AuthenticatedUserCache;
 import com.imovel.api.session.SessionManager;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +33,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final TokenService tokenService;
     private final SessionManager sessionManager;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     /**
      * Constructor for UserService with dependency injection.
@@ -38,14 +41,17 @@ public class UserService {
      * @param userRepository Repository for user data access operations
      * @param tokenService   Service for token handling and validation
      * @param sessionManager   current user session manager
+     * @param authenticatedUserCache cache of authenticated user snapshots, evicted on profile changes
      */
     @Autowired
     public UserService(UserRepository userRepository,
                        TokenService tokenService,
-                       SessionManager sessionManager) {
+                       SessionManager sessionManager,
+                       AuthenticatedUserCache authenticatedUserCache) {
         this.userRepository = userRepository;
         this.tokenService = tokenService;
         this.sessionManager = sessionManager;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     /**
@@ -69,7 +75,7 @@ public class UserService {
     public ApplicationResponse<UserResponse> getCurrentUserProfile(HttpSession session) {
         try {
             // Get user ID from session and retrieve the complete user entity
-            User currentUser = sessionManager.getCurrentAuthenticatedUser(session);
+            User currentUser = getCurrentAuthenticatedUser(sessionManager.getCurrentUser(session).getUserId());
 
             // Log successful retrieval of user profile
             ApiLogger.info("UserService.getCurrentUserProfile", "Retrieved authenticated user" + currentUser.getName());
@@ -101,8 +107,7 @@ public class UserService {
     public ApplicationResponse<List<UserResponse>> getAllUsers(final HttpSession session) {
         try {
             // Verify the requesting user is authenticated
-            final long userId = sessionManager.getCurrentUser(session).getUserId();
-            User currentUser = getCurrentAuthenticatedUser(userId);
+            AuthenticatedUser currentUser = sessionManager.getCurrentAuthenticatedUser(session);
 
             // Check if current user exists (additional validation)
             if (currentUser == null) {
@@ -187,6 +192,7 @@ public class UserService {
             }
 
             User updatedUser = userRepository.save(currentUser);
+            authenticatedUserCache.evictAfterCommit(userId);
 
             ApiLogger.info("UserService.updateCurrentUser",
                     "updated authenticated user " + currentUser.getName());
@@ -216,6 +222,7 @@ public class UserService {
 
             // Delete the user entity from the database
             userRepository.delete(currentUser);
+            authenticatedUserCache.evictAfterCommit(userId);
 
             // Log successful deletion operation
             ApiLogger.info("UserService.deleteCurrentUser", "delete authenticated user" + currentUser.getName());
@@ -19,10 +19,11 @@ import java.util.Optional;
 
 /**
  * SQLite-specific implementation of PaymentService
- * This is a simplified implementation for development/testing with SQLite
+ * This is a simplified implementation for development/testing with SQLite,
+ * also used by the offline profile where Stripe is not reachable
  */
 @Service
-@Profile("sqlite")
+@Profile("sqlite | offline")
 @Deprecated  // use payment module instead
 public class SqlitePaymentServiceImpl implements PaymentService {
 
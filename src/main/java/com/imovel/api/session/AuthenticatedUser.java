@@ -0,0 +1,45 @@
+package com.imovel.api.session;
+
+/**
+ * Immutable snapshot of the authenticated user, holding only what authorization checks need
+ */
+public final class AuthenticatedUser {
+
+    private final Long id;
+    private final String email;
+    private final Long roleId;
+    private final String roleName;
+
+    public AuthenticatedUser(Long id, String email, Long roleId, String roleName) {
+        this.id = id;
+        this.email = email;
+        this.roleId = roleId;
+        this.roleName = roleName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", roleId=" + roleId +
+                ", roleName='" + roleName + '\'' +
+                '}';
+    }
+}
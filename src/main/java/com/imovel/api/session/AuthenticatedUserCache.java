@@ -0,0 +1,156 @@
+package com.imovel.api.session;
+
+import com.imovel.api.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Snapshots of authenticated users by id, so that resolving the current user does not query the
+ * users table on every request.
+ * <p>
+ * Entries expire after {@link UserCacheConfig#getTtl()}, which bounds how long a change made on
+ * another node can go unseen here; changes made through this node evict the entry once they
+ * commit. Loads run outside the map's locks, and their result is only stored if no eviction
+ * happened since the load started, so an eviction is never overwritten by the value it replaced.
+ * A load inside a read-write transaction is stored only once that transaction commits, as it may
+ * have read the transaction's own uncommitted changes. When the map reaches its maximum size, the
+ * inserting thread drops expired entries and then those closest to expiry, down to 90% of the bound.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private final UserRepository userRepository;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // Bumped before every eviction, so a load that started earlier does not store what it read
+    private final AtomicLong evictions = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public AuthenticatedUserCache(UserRepository userRepository, UserCacheConfig config) {
+        this(userRepository, config, System::nanoTime);
+    }
+
+    AuthenticatedUserCache(UserRepository userRepository, UserCacheConfig config, LongSupplier nanoClock) {
+        if (config.getMaxSize() < 1) {
+            throw new IllegalArgumentException("session.user-cache.max-size must be positive");
+        }
+        this.userRepository = userRepository;
+        this.ttlNanos = config.getTtl().toNanos();
+        this.maxSize = config.getMaxSize();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * The snapshot of the user with the given id, or empty if the user does not exist
+     */
+    public Optional<AuthenticatedUser> get(Long userId) {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.isLive(now)) {
+            return Optional.of(entry.user);
+        }
+        if (entry == null && entries.size() >= maxSize) {
+            evict(now);
+        }
+        long generation = evictions.get();
+        Optional<AuthenticatedUser> loaded = userRepository.findSnapshotById(userId);
+        loaded.ifPresent(user -> {
+            Entry fresh = new Entry(user, now + ttlNanos);
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                afterCommit(() -> store(userId, fresh, generation));
+            } else {
+                store(userId, fresh, generation);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Drop the snapshot of a user once the current transaction commits
+     */
+    public void evictAfterCommit(Long userId) {
+        afterCommit(() -> {
+            evictions.incrementAndGet();
+            entries.remove(userId);
+        });
+    }
+
+    /**
+     * Drop the snapshots of every user with a role once the current transaction commits
+     */
+    public void evictRoleAfterCommit(Long roleId) {
+        afterCommit(() -> {
+            evictions.incrementAndGet();
+            entries.values().removeIf(entry -> roleId.equals(entry.user.getRoleId()));
+        });
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void store(Long userId, Entry fresh, long generation) {
+        entries.compute(userId, (id, current) -> evictions.get() != generation
+                || (current != null && current.expiresAt - fresh.expiresAt > 0) ? current : fresh);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> !entry.isLive(now));
+            int excess = entries.size() - Math.max(1, maxSize - Math.max(1, maxSize / 10));
+            if (excess > 0) {
+                long[] expiries = entries.values().stream().mapToLong(entry -> entry.expiresAt - now).toArray();
+                Arrays.sort(expiries);
+                long cutoff = expiries[Math.min(excess, expiries.length) - 1];
+                entries.values().removeIf(entry -> entry.expiresAt - now <= cutoff);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+
+        private final AuthenticatedUser user;
+        private final long expiresAt;
+
+        private Entry(AuthenticatedUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isLive(long now) {
+            return expiresAt - now > 0;
+        }
+    }
+}
@@ -3,10 +3,8 @@ package com.imovel.api.session;
 import com.imovel.api.error.ApiCode;
 import com.imovel.api.error.ErrorCode;
 import com.imovel.api.logger.ApiLogger;
-import com.imovel.api.model.User;
 import com.imovel.api.payment.dto.PaymentRefundRequest;
 import com.imovel.api.payment.dto.PaymentRequest;
-import com.imovel.api.repository.UserRepository;
 import com.imovel.api.response.ApplicationResponse;
 import com.imovel.api.services.TokenService;
 import jakarta.servlet.http.HttpSession;
@@ -19,12 +17,12 @@ import org.springframework.stereotype.Service;
 public class SessionManager {
     
     private final TokenService tokenService;
-    private final  UserRepository userRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
     
     // Constructor injection (recommended)
-    public SessionManager(TokenService tokenService,UserRepository userRepository) {
+    public SessionManager(TokenService tokenService, AuthenticatedUserCache authenticatedUserCache) {
         this.tokenService = tokenService;
-        this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
     
     public CurrentUser getCurrentUser(HttpSession session) {
@@ -45,9 +43,14 @@ public class SessionManager {
         return new CurrentUser(Long.parseLong(id), userName,role);
     }
 
-    public User getCurrentAuthenticatedUser(HttpSession session) {
+    /**
+     * Snapshot of the user the session belongs to, served from {@link AuthenticatedUserCache}
+     *
+     * @throws java.util.NoSuchElementException if the user no longer exists
+     */
+    public AuthenticatedUser getCurrentAuthenticatedUser(HttpSession session) {
 
-        return userRepository.findById(getCurrentUser(session).getUserId()).get();
+        return authenticatedUserCache.get(getCurrentUser(session).getUserId()).orElseThrow();
     }
 
 
@@ -0,0 +1,25 @@
+package com.imovel.api.session;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the authenticated user cache
+ */
+@Configuration
+@ConfigurationProperties(prefix = "session.user-cache")
+public class UserCacheConfig {
+
+    // How long a snapshot is trusted; bounds staleness of changes made on other nodes
+    private Duration ttl = Duration.ofMinutes(5);
+    private int maxSize = 10_000;
+
+    // Getters and setters
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+}
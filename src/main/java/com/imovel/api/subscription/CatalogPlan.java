@@ -0,0 +1,53 @@
+package com.imovel.api.subscription;
+
+import com.imovel.api.model.SubscriptionPlan;
+
+/**
+ * Immutable copy of a subscription plan's identity and prices, with prices in cents
+ */
+public final class CatalogPlan {
+
+    private final Long id;
+    private final String name;
+    private final long monthlyPriceMinor;
+    private final long yearlyPriceMinor;
+
+    public CatalogPlan(Long id, String name, long monthlyPriceMinor, long yearlyPriceMinor) {
+        this.id = id;
+        this.name = name;
+        this.monthlyPriceMinor = monthlyPriceMinor;
+        this.yearlyPriceMinor = yearlyPriceMinor;
+    }
+
+    /**
+     * Copy a plan; the entity is only read, so it may be detached afterwards
+     */
+    public static CatalogPlan of(SubscriptionPlan plan) {
+        return new CatalogPlan(plan.getId(), plan.getName(),
+                ProrationEngine.toMinorUnits(plan.getMonthlyPrice()),
+                ProrationEngine.toMinorUnits(plan.getYearlyPrice()));
+    }
+
+    /**
+     * Price of one period of the given billing cycle, in cents
+     */
+    public long priceMinor(String billingCycle) {
+        return "monthly".equals(billingCycle) ? monthlyPriceMinor : yearlyPriceMinor;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getMonthlyPriceMinor() {
+        return monthlyPriceMinor;
+    }
+
+    public long getYearlyPriceMinor() {
+        return yearlyPriceMinor;
+    }
+}
@@ -0,0 +1,94 @@
+package com.imovel.api.subscription;
+
+import com.imovel.api.logger.ApiLogger;
+import com.imovel.api.model.SubscriptionPlan;
+import com.imovel.api.repository.SubscriptionPlanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the subscription plan table, which {@code StartupConfig} seeds from the
+ * plans in {@code startup-config.yml}.
+ * <p>
+ * The snapshot is loaded on first use and replaced as a whole: after plan edits on this node
+ * commit, and periodically to pick up edits made on other nodes. A plan missing from the snapshot
+ * is looked up in the table once, and the snapshot is reloaded if it exists.
+ */
+@Component
+public class PlanCatalog {
+
+    private final SubscriptionPlanRepository planRepository;
+    private volatile Map<Long, CatalogPlan> plans;
+
+    @Autowired
+    public PlanCatalog(SubscriptionPlanRepository planRepository) {
+        this.planRepository = planRepository;
+    }
+
+    /**
+     * The plan with the given id, or empty if it does not exist
+     */
+    public Optional<CatalogPlan> find(Long planId) {
+        CatalogPlan plan = plans().get(planId);
+        if (plan == null && planId != null && planRepository.existsById(planId)) {
+            plan = reload().get(planId);
+        }
+        return Optional.ofNullable(plan);
+    }
+
+    /**
+     * Every plan, in id order
+     */
+    public List<CatalogPlan> all() {
+        return List.copyOf(plans().values());
+    }
+
+    /**
+     * Reload the snapshot once the current transaction commits
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${subscription.plan-catalog.refresh-interval:PT5M}",
+            initialDelayString = "${subscription.plan-catalog.refresh-interval:PT5M}")
+    public void refresh() {
+        if (plans != null) {
+            reload();
+        }
+    }
+
+    synchronized Map<Long, CatalogPlan> reload() {
+        Map<Long, CatalogPlan> loaded = new LinkedHashMap<>();
+        for (SubscriptionPlan plan : planRepository.findAllByOrderByIdAsc()) {
+            loaded.put(plan.getId(), CatalogPlan.of(plan));
+        }
+        Map<Long, CatalogPlan> snapshot = Collections.unmodifiableMap(loaded);
+        plans = snapshot;
+        ApiLogger.debug("PlanCatalog", () -> "Loaded " + snapshot.size() + " subscription plans");
+        return snapshot;
+    }
+
+    private Map<Long, CatalogPlan> plans() {
+        Map<Long, CatalogPlan> current = plans;
+        return current != null ? current : reload();
+    }
+}
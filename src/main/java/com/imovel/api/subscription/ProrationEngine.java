@@ -0,0 +1,76 @@
+package com.imovel.api.subscription;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Plan change proration in integer minor units (cents).
+ * <p>
+ * A period is 30 days for monthly and 365 days for yearly billing. The amount due for switching
+ * plans with {@code remainingDays} left is the price difference scaled by
+ * {@code remainingDays / daysInPeriod}, rounded once at the end, half up (ties away from zero). A
+ * charge and the matching credit are therefore always the same amount with opposite signs.
+ */
+public final class ProrationEngine {
+
+    public static final int MONTHLY_PERIOD_DAYS = 30;
+    public static final int YEARLY_PERIOD_DAYS = 365;
+
+    private ProrationEngine() {
+    }
+
+    /**
+     * Days in a billing period, as used for daily rates
+     */
+    public static int periodDays(String billingCycle) {
+        return "monthly".equals(billingCycle) ? MONTHLY_PERIOD_DAYS : YEARLY_PERIOD_DAYS;
+    }
+
+    /**
+     * Value of {@code days} out of a period priced at {@code priceMinor}
+     */
+    public static long prorate(long priceMinor, long days, int periodDays) {
+        return divideHalfUp(Math.multiplyExact(priceMinor, days), periodDays);
+    }
+
+    /**
+     * Amount due for switching plans; positive is a charge, negative a credit
+     */
+    public static long amountDue(long currentPriceMinor, long newPriceMinor, long remainingDays, int periodDays) {
+        return prorate(Math.subtractExact(newPriceMinor, currentPriceMinor), remainingDays, periodDays);
+    }
+
+    /**
+     * Amounts due for switching from the current plan to each of the given plans
+     */
+    public static long[] quote(long currentPriceMinor, long[] newPricesMinor, long remainingDays, int periodDays) {
+        long[] due = new long[newPricesMinor.length];
+        for (int i = 0; i < newPricesMinor.length; i++) {
+            due[i] = amountDue(currentPriceMinor, newPricesMinor[i], remainingDays, periodDays);
+        }
+        return due;
+    }
+
+    /**
+     * An amount in the currency's major unit, in whole cents rounded half up
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long amount) {
+        return BigDecimal.valueOf(amount, 2);
+    }
+
+    private static long divideHalfUp(long numerator, long denominator) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("Period must have at least one day");
+        }
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (Math.abs(remainder) * 2 >= denominator) {
+            quotient += Long.signum(numerator);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,44 @@
+package com.imovel.api.subscription;
+
+import java.time.LocalDateTime;
+
+/**
+ * The plan and billing period of a subscription, read without loading the subscription or its plan
+ */
+public final class SubscriptionTerm {
+
+    private final Long subscriptionId;
+    private final Long planId;
+    private final String billingCycle;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+
+    public SubscriptionTerm(Long subscriptionId, Long planId, String billingCycle,
+                            LocalDateTime startDate, LocalDateTime endDate) {
+        this.subscriptionId = subscriptionId;
+        this.planId = planId;
+        this.billingCycle = billingCycle;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public String getBillingCycle() {
+        return billingCycle;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+}
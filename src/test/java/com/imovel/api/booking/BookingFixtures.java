@@ -0,0 +1,62 @@
+package com.imovel.api.booking;
+
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.enums.BookingStatus;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.model.enums.PropertyCategory;
+import com.imovel.api.model.enums.PropertyStatus;
+import com.imovel.api.model.enums.PropertyType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Unsaved users, properties and bookings for repository and service tests
+ */
+public final class BookingFixtures {
+
+    private BookingFixtures() {}
+
+    public static User user(String email, Role role) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        user.setRole(role);
+        return user;
+    }
+
+    /**
+     * An available house for rent at 250 a night
+     */
+    public static Property property(User owner) {
+        Property property = new Property();
+        property.setMainTitle("Beach house");
+        property.setType(PropertyType.RENT);
+        property.setCategory(PropertyCategory.HOUSE);
+        property.setPrice(new BigDecimal("250"));
+        property.setStatus(PropertyStatus.AVAILABLE);
+        property.setCreatedBy(owner);
+        return property;
+    }
+
+    /**
+     * A booking of the property by the guest, hosted by the property's owner
+     */
+    public static Booking booking(Property property, User guest) {
+        Booking booking = new Booking();
+        booking.setProperty(property);
+        booking.setHost(property.getCreatedBy());
+        booking.setGuest(guest);
+        return booking;
+    }
+
+    public static Booking booking(Property property, User guest, BookingStatus status, LocalDate checkIn, LocalDate checkOut) {
+        Booking booking = booking(property, guest);
+        booking.setStatus(status);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        return booking;
+    }
+}
@@ -0,0 +1,155 @@
+package com.imovel.api.booking.repository;
+
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.BookingGuest;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.imovel.api.booking.BookingFixtures.booking;
+import static com.imovel.api.booking.BookingFixtures.property;
+import static com.imovel.api.booking.BookingFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class BookingGuestRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingGuestRepository guestRepository;
+
+    private User host;
+    private User otherHost;
+    private Property property;
+    private Booking booking;
+    private Booking otherBooking;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role("HOST", "Host"));
+        host = entityManager.persist(user("host@example.com", role));
+        otherHost = entityManager.persist(user("other@example.com", role));
+        property = entityManager.persist(property(host));
+        booking = entityManager.persist(booking(property, host));
+        otherBooking = entityManager.persist(booking(entityManager.persist(property(otherHost)), otherHost));
+    }
+
+    @Test
+    void save_ShouldCopyTheBookingScopeAndNormalizeTheLookupKeys() {
+        // When
+        BookingGuest guest = guestRepository.saveAndFlush(
+                new BookingGuest(booking, "Ana Maria", "Ana.Maria@Example.COM", "+55 (11) 98765-4321"));
+
+        // Then
+        assertEquals(host.getId(), guest.getHostId());
+        assertEquals(property.getId(), guest.getPropertyId());
+        assertEquals("ana.maria@example.com", guest.getEmailNormalized());
+        assertEquals("+5511987654321", guest.getPhoneE164());
+        assertEquals(Set.of("ana", "na ", "a m", " ma", "mar", "ari", "ria"), guest.getNameGrams());
+    }
+
+    @Test
+    void findByEmailAndPhone_ShouldIgnoreCaseAndFormatting() {
+        // Given
+        guestRepository.save(new BookingGuest(booking, "Ana Maria", "ana@example.com", "0055 11 98765 4321"));
+        guestRepository.save(new BookingGuest(booking, "Bruno", "bruno@example.com", "11 5555-0000"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When / Then
+        assertEquals(List.of("Ana Maria"), names(guestRepository.findByEmail("ANA@example.com ")));
+        assertEquals(List.of("Ana Maria"), names(guestRepository.findByPhone("+55 11 987654321")));
+        assertEquals(List.of("Bruno"), names(guestRepository.findByPhone("(11) 5555 0000")));
+        assertTrue(guestRepository.findByEmail("nobody@example.com").isEmpty());
+    }
+
+    @Test
+    void findByHostId_ShouldPageWithoutOtherHostsGuests() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            guestRepository.save(new BookingGuest(booking, "Guest " + i, "guest" + i + "@example.com", null));
+        }
+        guestRepository.save(new BookingGuest(otherBooking, "Elsewhere", "elsewhere@example.com", null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        Page<BookingGuest> first = guestRepository.findByHostId(host.getId(), PageRequest.of(0, 2));
+        Page<BookingGuest> last = guestRepository.findByHostId(host.getId(), PageRequest.of(2, 2));
+
+        // Then
+        assertEquals(5, first.getTotalElements());
+        assertEquals(2, first.getContent().size());
+        assertEquals(1, last.getContent().size());
+        assertEquals(5, guestRepository.findByPropertyId(property.getId(), PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(List.of("Elsewhere"), names(guestRepository.findByHostId(otherHost.getId())));
+    }
+
+    @Test
+    void searchByName_ShouldMatchSubstringsLikeTheLikeScan() {
+        // Given
+        guestRepository.save(new BookingGuest(booking, "Ana Maria Souza", "a@example.com", null));
+        guestRepository.save(new BookingGuest(booking, "Mariana Lima", "b@example.com", null));
+        guestRepository.save(new BookingGuest(booking, "Ramona Iris", "c@example.com", null));
+        guestRepository.save(new BookingGuest(otherBooking, "Maria Elsewhere", "d@example.com", null));
+        entityManager.flush();
+        entityManager.clear();
+
+        for (String term : List.of("MARIA", "ana", "ria ", "a", "ma", "zzz", "mar", "ona iri")) {
+            // When
+            List<BookingGuest> found = guestRepository.searchByName(term);
+            Page<BookingGuest> hostPage = guestRepository.searchByNameForHost(host.getId(), term, PageRequest.of(0, 10));
+
+            // Then - same guests as the LOWER(...) LIKE scan the search replaces
+            String lower = term.toLowerCase(Locale.ROOT);
+            List<String> expected = names(guestRepository.findAll()).stream()
+                    .filter(name -> name.toLowerCase(Locale.ROOT).contains(lower))
+                    .sorted().toList();
+            assertEquals(expected, names(found).stream().sorted().toList(), term);
+            assertEquals(expected.stream().filter(name -> !name.equals("Maria Elsewhere")).toList(),
+                    names(hostPage.getContent()).stream().sorted().toList(), term);
+            assertEquals(hostPage.getContent().size(), hostPage.getTotalElements(), term);
+        }
+    }
+
+    @Test
+    void explain_HostAndLookupQueries_ShouldUseTheirIndexes() {
+        // Plain SQL that Postgres accepts as well; only the plan output differs
+        assertPlanUses("SELECT id FROM booking_guests WHERE host_id = 1 ORDER BY created_at DESC",
+                "idx_booking_guests_host_created");
+        assertPlanUses("SELECT id FROM booking_guests WHERE property_id = 1 ORDER BY created_at DESC",
+                "idx_booking_guests_property_created");
+        assertPlanUses("SELECT id FROM booking_guests WHERE email_normalized = 'ana@example.com'",
+                "idx_booking_guests_email_normalized");
+        assertPlanUses("SELECT id FROM booking_guests WHERE phone_e164 = '+5511987654321'",
+                "idx_booking_guests_phone_e164");
+        assertPlanUses("SELECT guest_id FROM booking_guest_name_grams WHERE gram IN ('mar', 'ari', 'ria') " +
+                "GROUP BY guest_id HAVING COUNT(gram) = 3", "primary_key");
+    }
+
+    private void assertPlanUses(String sql, String index) {
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + sql).getSingleResult()).toLowerCase(Locale.ROOT);
+        assertTrue(plan.contains(index), () -> index + " not used by:\n" + plan);
+        assertFalse(plan.contains("tablescan"), () -> "table scan in:\n" + plan);
+    }
+
+    private static List<String> names(List<BookingGuest> guests) {
+        return guests.stream().map(BookingGuest::getFullName).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.AvailabilityTerms;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void edit_InsideARun_ShouldSplitItAndMergeBackWhenReverted() {
+        // Given - one year at 120
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        calendar.add(DAY, DAY.plusDays(365), priced("120"));
+
+        // When - ten nights in March are blocked
+        calendar.edit(DAY.plusDays(60), DAY.plusDays(70), terms -> terms.blocked("Maintenance"));
+
+        // Then
+        List<AvailabilityCalendar.Run> runs = calendar.runs();
+        assertEquals(3, runs.size());
+        assertEquals(DAY.plusDays(60), runs.get(1).getStart());
+        assertEquals(DAY.plusDays(70), runs.get(1).getEnd());
+        assertFalse(runs.get(1).getTerms().getIsAvailable());
+        assertEquals(0, new BigDecimal("120").compareTo(runs.get(1).getTerms().getPrice()));
+
+        // When - they are released again
+        calendar.edit(DAY.plusDays(60), DAY.plusDays(70), AvailabilityTerms::released);
+
+        // Then
+        assertEquals(1, calendar.runs().size());
+        assertEquals(DAY.plusDays(365), calendar.runs().get(0).getEnd());
+    }
+
+    @Test
+    void edit_AcrossGapsAndRuns_ShouldFillGapsFromDefaults() {
+        // Given
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        calendar.add(DAY.plusDays(5), DAY.plusDays(10), priced("80"));
+        calendar.add(DAY.plusDays(20), DAY.plusDays(25), priced("90"));
+
+        // When
+        calendar.edit(DAY, DAY.plusDays(30), terms -> terms.blocked("Closed"));
+
+        // Then - the runs keep their prices, the gaps get none
+        assertNull(calendar.termsAt(DAY).getPrice());
+        assertEquals(0, new BigDecimal("80").compareTo(calendar.termsAt(DAY.plusDays(7)).getPrice()));
+        assertNull(calendar.termsAt(DAY.plusDays(15)).getPrice());
+        assertFalse(calendar.termsAt(DAY.plusDays(29)).getIsAvailable());
+        assertNull(calendar.termsAt(DAY.plusDays(30)));
+        assertEquals(5, calendar.runs().size());
+    }
+
+    @Test
+    void assign_AtTheEdgeOfARun_ShouldMergeWithEqualNeighbours() {
+        // Given
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        calendar.add(DAY, DAY.plusDays(10), priced("100"));
+        calendar.add(DAY.plusDays(11), DAY.plusDays(20), priced("100"));
+
+        // When - the night in between gets the same price, with a different scale
+        calendar.assign(DAY.plusDays(10), DAY.plusDays(11), priced("100.00"));
+
+        // Then
+        List<AvailabilityCalendar.Run> runs = calendar.runs();
+        assertEquals(1, runs.size());
+        assertEquals(DAY, runs.get(0).getStart());
+        assertEquals(DAY.plusDays(20), runs.get(0).getEnd());
+    }
+
+    private static AvailabilityTerms priced(String price) {
+        return AvailabilityTerms.DEFAULT.patchedWith(
+                new AvailabilityTerms(null, new BigDecimal(price), null, null, null, null, null, null, null));
+    }
+}
@@ -0,0 +1,177 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.BookingGuest;
+import com.imovel.api.booking.repository.BookingGuestRepository;
+import com.imovel.api.booking.repository.BookingRepository;
+import com.imovel.api.booking.request.AvailabilityCheckRequest;
+import com.imovel.api.booking.request.BookingCreateRequest;
+import com.imovel.api.booking.request.BookingGuestRequest;
+import com.imovel.api.booking.response.AvailabilityCheckResponse;
+import com.imovel.api.booking.response.BookingResponse;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.repository.PropertyRepository;
+import com.imovel.api.repository.UserRepository;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
+import com.imovel.api.session.SessionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.imovel.api.booking.BookingFixtures.property;
+import static com.imovel.api.booking.BookingFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.imovel.api.booking.service.BookingServiceGuestBatchTest$RecordingInspector"
+})
+@ActiveProfiles("test")
+class BookingServiceGuestBatchTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingGuestRepository guestRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private BookingService bookingService;
+    private Property property;
+    private User guest;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role("HOST", "Host"));
+        User host = entityManager.persist(user("host@example.com", role));
+        guest = entityManager.persist(user("guest@example.com", role));
+        property = entityManager.persist(property(host));
+        entityManager.flush();
+
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getCurrentAuthenticatedUser(any()))
+                .thenReturn(new AuthenticatedUser(guest.getId(), guest.getEmail(), role.getId(), "GUEST"));
+        PropertyAvailabilityService availabilityService = mock(PropertyAvailabilityService.class);
+        AvailabilityCheckResponse availability = new AvailabilityCheckResponse();
+        availability.setIsAvailable(true);
+        availability.setIsInstantBookable(true);
+        availability.setTotalPrice(new BigDecimal("750"));
+        availability.setAverageNightlyRate(new BigDecimal("250"));
+        when(availabilityService.checkAvailability(any(AvailabilityCheckRequest.class)))
+                .thenReturn(ApplicationResponse.success(availability));
+
+        bookingService = new BookingService(bookingRepository, guestRepository, propertyRepository, userRepository,
+                availabilityService, mock(CancellationPolicyService.class), sessionManager,
+                mock(HostDashboardProjector.class));
+    }
+
+    @Test
+    void createBooking_WithTenGuests_ShouldInsertThemInOneBatch() {
+        // Given
+        BookingCreateRequest request = request();
+        List<BookingGuestRequest> guests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            guests.add(new BookingGuestRequest("Guest", String.valueOf(i), "guest" + i + "@example.com",
+                    "+351 912 000 00" + i, 30 + i));
+        }
+        request.setAdditionalGuests(guests);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RecordingInspector.STATEMENTS.clear();
+
+        // When
+        ApplicationResponse<BookingResponse> response = bookingService.createBooking(request, new MockHttpSession());
+
+        // Then - ten rows, one prepared insert statement
+        assertTrue(response.isSuccess());
+        assertEquals(10, statistics.getEntityStatistics(BookingGuest.class.getName()).getInsertCount());
+        assertEquals(1, RecordingInspector.count("insert into booking_guests "), RecordingInspector.STATEMENTS::toString);
+        assertEquals(1, RecordingInspector.count("insert into bookings "));
+        assertEquals(1, RecordingInspector.count("insert into booking_guest_name_grams "));
+
+        entityManager.clear();
+        List<BookingGuest> saved = guestRepository.findByBookingId(response.getData().getId());
+        assertEquals(10, saved.size());
+        assertTrue(saved.stream().allMatch(row -> property.getId().equals(row.getPropertyId())));
+        assertEquals(List.of("Guest 3"), saved.stream().map(BookingGuest::getFullName)
+                .filter("Guest 3"::equals).toList());
+        assertNotNull(response.getData().getCreatedAt());
+    }
+
+    @Test
+    void createBooking_WithoutGuests_ShouldInsertOnlyTheBooking() {
+        // Given
+        RecordingInspector.STATEMENTS.clear();
+
+        // When
+        ApplicationResponse<BookingResponse> response = bookingService.createBooking(request(), new MockHttpSession());
+
+        // Then
+        assertTrue(response.isSuccess());
+        Booking booking = bookingRepository.findById(response.getData().getId()).orElseThrow();
+        assertEquals(guest.getId(), booking.getGuest().getId());
+        assertEquals(0, RecordingInspector.count("insert into booking_guests "));
+    }
+
+    private BookingCreateRequest request() {
+        BookingCreateRequest request = new BookingCreateRequest();
+        request.setPropertyId(property.getId());
+        request.setGuestId(guest.getId());
+        request.setCheckInDate(LocalDate.now().plusDays(10));
+        request.setCheckOutDate(LocalDate.now().plusDays(13));
+        request.setNumberOfAdults(2);
+        request.setNumberOfChildren(0);
+        return request;
+    }
+
+    /**
+     * Records every statement Hibernate prepares; a JDBC batch is prepared once
+     */
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+
+        static long count(String prefix) {
+            return STATEMENTS.stream().filter(sql -> sql.strip().startsWith(prefix)).count();
+        }
+    }
+}
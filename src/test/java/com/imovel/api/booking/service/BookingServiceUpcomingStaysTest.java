@@ -0,0 +1,135 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.enums.BookingStatus;
+import com.imovel.api.booking.repository.BookingGuestRepository;
+import com.imovel.api.booking.repository.BookingRepository;
+import com.imovel.api.booking.response.BookingResponse;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.repository.PropertyRepository;
+import com.imovel.api.repository.UserRepository;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
+import com.imovel.api.session.SessionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.imovel.api.booking.BookingFixtures.booking;
+import static com.imovel.api.booking.BookingFixtures.property;
+import static com.imovel.api.booking.BookingFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class BookingServiceUpcomingStaysTest {
+
+    private static final int HOSTS = 100;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingGuestRepository guestRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private BookingService bookingService;
+    private User host;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role("HOST", "Host"));
+        User guest = entityManager.persist(user("guest@example.com", role));
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < HOSTS; i++) {
+            User owner = entityManager.persist(user("host" + i + "@example.com", role));
+            Property property = entityManager.persist(property(owner));
+            entityManager.persist(booking(property, guest, BookingStatus.CONFIRMED, today.plusDays(2), today.plusDays(5)));
+            entityManager.persist(booking(property, guest, BookingStatus.CHECKED_IN, today.minusDays(2), today.plusDays(1)));
+            if (i == 0) {
+                host = owner;
+                entityManager.persist(booking(property, guest, BookingStatus.CONFIRMED, today.plusDays(30), today.plusDays(33)));
+                entityManager.persist(booking(property, guest, BookingStatus.PENDING, today.plusDays(3), today.plusDays(4)));
+                entityManager.persist(booking(property, guest, BookingStatus.CHECKED_OUT, today.minusDays(5), today));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getCurrentAuthenticatedUser(any()))
+                .thenReturn(new AuthenticatedUser(host.getId(), host.getEmail(), role.getId(), "HOST"));
+        bookingService = new BookingService(bookingRepository, guestRepository, propertyRepository, userRepository,
+                mock(PropertyAvailabilityService.class), mock(CancellationPolicyService.class), sessionManager,
+                mock(HostDashboardProjector.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getUpcomingCheckIns_ShouldReadOnlyTheHostsBookings() {
+        // When
+        ApplicationResponse<List<BookingResponse>> response = bookingService.getUpcomingCheckIns(7, new MockHttpSession());
+
+        // Then - one statement, one booking loaded out of the whole platform
+        assertTrue(response.isSuccess());
+        assertEquals(1, response.getData().size());
+        assertEquals(host.getId(), response.getData().get(0).getHostId());
+        assertEquals(BookingStatus.CONFIRMED, response.getData().get(0).getStatus());
+        assertEquals(1, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUpcomingCheckOuts_ShouldReadOnlyTheHostsBookings() {
+        // When
+        ApplicationResponse<List<BookingResponse>> response = bookingService.getUpcomingCheckOuts(7, new MockHttpSession());
+
+        // Then
+        assertTrue(response.isSuccess());
+        assertEquals(1, response.getData().size());
+        assertEquals(host.getId(), response.getData().get(0).getHostId());
+        assertEquals(BookingStatus.CHECKED_IN, response.getData().get(0).getStatus());
+        assertEquals(1, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void hostCheckInQuery_ShouldUseTheHostCheckInIndex() {
+        // When
+        String plan = entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT * FROM bookings WHERE host_id = " + host.getId()
+                        + " AND status = 'CONFIRMED' AND check_in_date BETWEEN CURRENT_DATE AND CURRENT_DATE + 7")
+                .getSingleResult().toString().toLowerCase();
+
+        // Then
+        assertTrue(plan.contains("idx_bookings_host_check_in"), plan);
+    }
+}
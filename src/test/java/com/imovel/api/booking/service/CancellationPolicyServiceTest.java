@@ -0,0 +1,179 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.CancellationPolicy;
+import com.imovel.api.booking.model.enums.CancellationPolicyType;
+import com.imovel.api.booking.repository.CancellationPolicyRepository;
+import com.imovel.api.booking.request.CancellationPolicyRequest;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.User;
+import com.imovel.api.repository.PropertyRepository;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
+import com.imovel.api.session.SessionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CancellationPolicyServiceTest {
+
+    private CancellationPolicyRepository policyRepository;
+    private PropertyRepository propertyRepository;
+    private SessionManager sessionManager;
+    private CancellationPolicyService service;
+    private Property property;
+    private CancellationPolicy stored;
+
+    @BeforeEach
+    void setUp() {
+        policyRepository = mock(CancellationPolicyRepository.class);
+        propertyRepository = mock(PropertyRepository.class);
+        sessionManager = mock(SessionManager.class);
+        service = new CancellationPolicyService(policyRepository, propertyRepository, sessionManager,
+                new CancellationPolicyCache(policyRepository));
+
+        User host = new User();
+        host.setId(3L);
+        property = new Property();
+        property.setId(11L);
+        property.setCreatedBy(host);
+        stored = new CancellationPolicy();
+        stored.setId(7L);
+        stored.setProperty(property);
+        stored.setPolicyType(CancellationPolicyType.MODERATE);
+        stored.setRefundPercentage(BigDecimal.valueOf(100));
+        stored.setDaysBeforeCheckin(5);
+        stored.setIsActive(true);
+
+        when(policyRepository.findById(7L)).thenReturn(Optional.of(stored));
+        when(policyRepository.findByPropertyId(11L)).thenAnswer(invocation -> List.of(stored));
+        when(policyRepository.save(any(CancellationPolicy.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(propertyRepository.findById(11L)).thenReturn(Optional.of(property));
+        when(sessionManager.getCurrentAuthenticatedUser(any())).thenReturn(
+                new AuthenticatedUser(host.getId(), null, null, null));
+    }
+
+    @Test
+    void calculateRefund_OnceWarm_ShouldNotTouchTheRepository() {
+        // Given
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(10);
+        service.calculateRefund(7L, new BigDecimal("200.00"), checkIn, null);
+
+        // When
+        ApplicationResponse<BigDecimal> response = null;
+        for (int i = 0; i < 1000; i++) {
+            response = service.calculateRefund(7L, new BigDecimal("200.00"), checkIn, null);
+        }
+
+        // Then
+        assertTrue(response.isSuccess());
+        assertEquals(new BigDecimal("200.00"), response.getData());
+        verify(policyRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void createOrUpdatePolicy_ShouldEvictTheCompiledPolicy() {
+        // Given - quotes cached for the policy and for its property
+        Booking booking = new Booking();
+        booking.setProperty(property);
+        booking.setCheckInDate(LocalDate.of(2024, 6, 10));
+        booking.setTotalAmount(new BigDecimal("300.00"));
+        LocalDate cancelledOn = LocalDate.of(2024, 6, 7);
+        assertEquals(new BigDecimal("0.00"), service.calculateRefund(booking, cancelledOn).getData());
+        service.calculateRefund(7L, new BigDecimal("100.00"), LocalDateTime.now().plusDays(3), null);
+
+        // When - the host switches to a flexible policy
+        CancellationPolicyRequest request = new CancellationPolicyRequest();
+        request.setPropertyId(11L);
+        request.setPolicyType(CancellationPolicyType.FLEXIBLE);
+        request.setRefundPercentage(BigDecimal.valueOf(100));
+        request.setDaysBeforeCheckIn(1);
+        request.setIsActive(true);
+        assertTrue(service.createOrUpdatePolicy(request, null).isSuccess());
+
+        // Then
+        assertEquals(new BigDecimal("300.00"), service.calculateRefund(booking, cancelledOn).getData());
+        assertEquals(new BigDecimal("100.00"),
+                service.calculateRefund(7L, new BigDecimal("100.00"), LocalDateTime.now().plusDays(3), null).getData());
+        verify(policyRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    void getPolicy_WhenEvictedDuringTheLoad_ShouldNotStoreTheLoadedPolicy() {
+        // Given - the policy is changed and evicted while it is being read
+        CancellationPolicyCache cache = new CancellationPolicyCache(policyRepository);
+        when(policyRepository.findById(7L)).thenAnswer(invocation -> {
+            cache.evictAfterCommit(7L, 11L);
+            return Optional.of(stored);
+        });
+
+        // When
+        cache.getPolicy(7L);
+        cache.getPolicy(7L);
+
+        // Then - the caller gets what it read, but the eviction wins
+        verify(policyRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    void getPolicy_WhileAnotherLoadIsInFlight_ShouldNotWaitForIt() throws Exception {
+        // Given - a first load that stays inside the repository
+        CancellationPolicyCache cache = new CancellationPolicyCache(policyRepository);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(policyRepository.findById(7L)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                loading.countDown();
+                release.await();
+            }
+            return Optional.of(stored);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<CompiledCancellationPolicy>> slow = executor.submit(() -> cache.getPolicy(7L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // When
+            Future<Optional<CompiledCancellationPolicy>> fast = executor.submit(() -> cache.getPolicy(7L));
+
+            // Then - the second lookup completes while the first still holds its load
+            assertTrue(fast.get(5, TimeUnit.SECONDS).isPresent());
+            release.countDown();
+            assertTrue(slow.get(5, TimeUnit.SECONDS).isPresent());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void calculateRefund_WithoutActivePolicy_ShouldUseTheDefaultModeratePolicy() {
+        // Given
+        stored.setIsActive(false);
+        Booking booking = new Booking();
+        booking.setProperty(property);
+        booking.setCheckInDate(LocalDate.of(2024, 6, 10));
+        booking.setTotalAmount(new BigDecimal("99.99"));
+
+        // When / Then
+        assertEquals(new BigDecimal("50.00"), service.calculateRefund(booking, LocalDate.of(2024, 6, 5)).getData());
+        assertEquals(0, service.calculateRefund(booking, LocalDate.of(2024, 6, 6)).getData().signum());
+        assertFalse(service.calculateRefund(7L, BigDecimal.TEN, LocalDateTime.now(), null).isSuccess());
+    }
+}
@@ -0,0 +1,103 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.CancellationPolicy;
+import com.imovel.api.booking.model.enums.CancellationPolicyType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledCancellationPolicyTest {
+
+    @Test
+    void refund_AcrossRandomPoliciesAndDates_ShouldMatchTheDecimalCalculation() {
+        // Given
+        Random random = new Random(20240101L);
+        CancellationPolicyType[] types = CancellationPolicyType.values();
+
+        for (int i = 0; i < 20_000; i++) {
+            CancellationPolicy policy = policy(types[random.nextInt(types.length)],
+                    BigDecimal.valueOf(random.nextInt(12_001), random.nextInt(4)), random.nextInt(91));
+            CompiledCancellationPolicy compiled = CompiledCancellationPolicy.compile(policy);
+            long days = random.nextInt(131) - 10;
+            // Mostly whole cents, sometimes fractions of a cent
+            BigDecimal total = BigDecimal.valueOf(random.nextInt(100_000_000), random.nextInt(10) == 0 ? 3 : 2);
+
+            // When
+            BigDecimal refund = compiled.refund(total, days);
+
+            // Then
+            BigDecimal expected = legacyRefund(policy, total, days);
+            assertEquals(0, expected.compareTo(refund),
+                    () -> policy + " total=" + total + " days=" + days + " expected=" + expected + " got=" + refund);
+        }
+    }
+
+    @Test
+    void refundCents_ShouldPickTheTierForTheDaysBeforeCheckIn() {
+        // Given - full refund from 5 days, half from 1 day
+        CompiledCancellationPolicy compiled = CompiledCancellationPolicy.compile(
+                policy(CancellationPolicyType.FLEXIBLE, BigDecimal.valueOf(100), 5));
+
+        // When / Then
+        assertEquals(0, compiled.refundCents(10_001, 0));
+        assertEquals(5_001, compiled.refundCents(10_001, 1));
+        assertEquals(5_001, compiled.refundCents(10_001, 4));
+        assertEquals(10_001, compiled.refundCents(10_001, 5));
+        assertEquals(10_001, compiled.refundCents(10_001, Long.MAX_VALUE));
+        assertEquals(0, compiled.refundCents(10_001, -3));
+    }
+
+    @Test
+    void refund_AbovePolicyLimit_ShouldBeCappedAtTheTotal() {
+        // Given
+        CompiledCancellationPolicy compiled = CompiledCancellationPolicy.compile(
+                policy(CancellationPolicyType.STRICT, new BigDecimal("150"), 7));
+
+        // When / Then
+        assertEquals(new BigDecimal("80.00"), compiled.refund(new BigDecimal("80.00"), 10));
+        assertEquals(0, compiled.refund(new BigDecimal("80.00"), 6).signum());
+    }
+
+    private static CancellationPolicy policy(CancellationPolicyType type, BigDecimal refundPercentage, int days) {
+        CancellationPolicy policy = new CancellationPolicy();
+        policy.setPolicyType(type);
+        policy.setRefundPercentage(refundPercentage);
+        policy.setDaysBeforeCheckin(days);
+        policy.setIsActive(true);
+        return policy;
+    }
+
+    /**
+     * The refund rules as CancellationPolicyService applied them with decimals
+     */
+    private static BigDecimal legacyRefund(CancellationPolicy policy, BigDecimal totalAmount, long daysUntilCheckIn) {
+        BigDecimal refundAmount = BigDecimal.ZERO;
+        if (daysUntilCheckIn >= policy.getDaysBeforeCheckin()) {
+            BigDecimal refundPercentage = policy.getRefundPercentage().divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
+            refundAmount = totalAmount.multiply(refundPercentage).setScale(2, RoundingMode.HALF_UP);
+        } else {
+            switch (policy.getPolicyType()) {
+                case FLEXIBLE:
+                    if (daysUntilCheckIn >= 1) {
+                        refundAmount = totalAmount.multiply(BigDecimal.valueOf(0.5)).setScale(2, RoundingMode.HALF_UP);
+                    }
+                    break;
+                case MODERATE:
+                    if (daysUntilCheckIn >= 5) {
+                        refundAmount = totalAmount.multiply(BigDecimal.valueOf(0.5)).setScale(2, RoundingMode.HALF_UP);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (refundAmount.compareTo(totalAmount) > 0) {
+            refundAmount = totalAmount;
+        }
+        return refundAmount;
+    }
+}
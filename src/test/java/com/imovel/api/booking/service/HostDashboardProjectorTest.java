@@ -0,0 +1,226 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.BookingPayment;
+import com.imovel.api.booking.model.HostDashboardDay;
+import com.imovel.api.booking.model.enums.BookingStatus;
+import com.imovel.api.booking.model.enums.PaymentStatus;
+import com.imovel.api.booking.model.enums.PaymentType;
+import com.imovel.api.booking.repository.BookingGuestRepository;
+import com.imovel.api.booking.repository.BookingPaymentRepository;
+import com.imovel.api.booking.repository.BookingRepository;
+import com.imovel.api.booking.repository.HostDashboardDayRepository;
+import com.imovel.api.booking.request.BookingUpdateRequest;
+import com.imovel.api.booking.response.BookingResponse;
+import com.imovel.api.booking.response.HostDashboardResponse;
+import com.imovel.api.model.OutboxMessage;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.outbox.OutboxService;
+import com.imovel.api.repository.OutboxMessageRepository;
+import com.imovel.api.repository.PropertyRepository;
+import com.imovel.api.repository.UserRepository;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
+import com.imovel.api.session.SessionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.imovel.api.booking.BookingFixtures.booking;
+import static com.imovel.api.booking.BookingFixtures.property;
+import static com.imovel.api.booking.BookingFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class HostDashboardProjectorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingPaymentRepository paymentRepository;
+
+    @Autowired
+    private HostDashboardDayRepository dashboardRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private BookingGuestRepository guestRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HostDashboardProjector projector;
+    private HostDashboardService dashboardService;
+    private User host;
+    private User otherHost;
+    private Booking arriving;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role("HOST", "Host"));
+        host = entityManager.persist(user("host@example.com", role));
+        otherHost = entityManager.persist(user("other@example.com", role));
+        Property property = entityManager.persist(property(host));
+        Property otherProperty = entityManager.persist(property(otherHost));
+
+        arriving = entityManager.persist(booking(property, host, BookingStatus.CONFIRMED, TODAY.plusDays(2), TODAY.plusDays(5)));
+        Booking staying = entityManager.persist(booking(property, host, BookingStatus.CHECKED_IN, TODAY.minusDays(2), TODAY.plusDays(1)));
+        entityManager.persist(booking(property, host, BookingStatus.COMPLETED, LocalDate.of(2026, 2, 27), LocalDate.of(2026, 3, 2)));
+        entityManager.persist(booking(property, host, BookingStatus.CANCELLED, TODAY.plusDays(3), TODAY.plusDays(6)));
+        entityManager.persist(booking(property, host, BookingStatus.PENDING, TODAY.plusDays(2), TODAY.plusDays(4)));
+        entityManager.persist(booking(otherProperty, otherHost, BookingStatus.CONFIRMED, TODAY.plusDays(2), TODAY.plusDays(4)));
+
+        entityManager.persist(payment(staying, "300.00", PaymentStatus.COMPLETED, LocalDate.of(2026, 2, 20)));
+        entityManager.persist(payment(staying, "200.00", PaymentStatus.COMPLETED, LocalDate.of(2026, 3, 5)));
+        entityManager.persist(payment(staying, "999.00", PaymentStatus.PENDING, LocalDate.of(2026, 3, 5)));
+        entityManager.flush();
+
+        projector = new HostDashboardProjector(bookingRepository, paymentRepository, dashboardRepository,
+                new OutboxService(outboxMessageRepository), transactionManager);
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        dashboardService = new HostDashboardService(dashboardRepository, mock(SessionManager.class), clock);
+    }
+
+    @Test
+    void rebuildAll_ShouldMatchTheLiveQueries() {
+        // When
+        int hosts = projector.rebuildAll();
+        HostDashboardResponse dashboard = dashboardService.buildDashboard(host.getId(), 7, 2);
+
+        // Then
+        assertEquals(2, hosts);
+        long liveArrivals = bookingRepository.findUpcomingBookings(TODAY, TODAY.plusDays(7)).stream()
+                .filter(booking -> booking.getHost().getId().equals(host.getId()))
+                .count();
+        long liveDepartures = bookingRepository.findByHostIdAndStatus(host.getId(), BookingStatus.CHECKED_IN).stream()
+                .filter(booking -> !booking.getCheckOutDate().isBefore(TODAY)
+                        && !booking.getCheckOutDate().isAfter(TODAY.plusDays(7)))
+                .count();
+        assertEquals(liveArrivals, dashboard.getUpcomingArrivals());
+        assertEquals(liveDepartures, dashboard.getUpcomingDepartures());
+
+        assertEquals(List.of("2026-02", "2026-03"),
+                dashboard.getMonths().stream().map(HostDashboardResponse.MonthSummary::getMonth).toList());
+        for (HostDashboardResponse.MonthSummary summary : dashboard.getMonths()) {
+            YearMonth month = YearMonth.parse(summary.getMonth());
+            BigDecimal liveRevenue = paymentRepository.calculateHostRevenue(host.getId(),
+                    month.atDay(1).atStartOfDay(), month.atEndOfMonth().atTime(LocalTime.MAX));
+            assertEquals(0, liveRevenue.compareTo(summary.getRevenue()), summary.getMonth());
+        }
+        // Feb 27-28 and Mar 1 of the completed stay, three nights each for the current and next stay
+        assertEquals(2, dashboard.getMonths().get(0).getOccupiedNights());
+        assertEquals(7, dashboard.getMonths().get(1).getOccupiedNights());
+
+        HostDashboardResponse other = dashboardService.buildDashboard(otherHost.getId(), 7, 2);
+        assertEquals(1, other.getUpcomingArrivals());
+        assertEquals(0, other.getMonths().get(0).getRevenue().signum());
+    }
+
+    @Test
+    void bookingChanged_ShouldRefreshTheDashboardThroughTheOutbox() {
+        // Given
+        projector.rebuildAll();
+        arriving.setStatus(BookingStatus.CANCELLED);
+        bookingRepository.save(arriving);
+
+        // When
+        projector.bookingChanged(arriving);
+        HostDashboardOutboxHandler handler = new HostDashboardOutboxHandler(projector);
+        List<OutboxMessage> messages = outboxMessageRepository.findAll().stream()
+                .filter(message -> HostDashboardOutboxHandler.TYPE.equals(message.getType()))
+                .toList();
+        messages.forEach(handler::handle);
+        messages.forEach(handler::handle);
+
+        // Then - delivered twice, applied once
+        assertEquals(1, messages.size());
+        HostDashboardResponse dashboard = dashboardService.buildDashboard(host.getId(), 7, 1);
+        assertEquals(0, dashboard.getUpcomingArrivals());
+        assertEquals(1, dashboard.getUpcomingDepartures());
+        assertEquals(4, dashboard.getMonths().get(0).getOccupiedNights());
+        assertEquals(0, new BigDecimal("200.00").compareTo(dashboard.getMonths().get(0).getRevenue()));
+    }
+
+    @Test
+    void updateBooking_WhenTheDatesMove_ShouldRefreshTheOldAndTheNewDays() {
+        // Given - a confirmed stay from day 2 to day 5 moved to day 12 to day 15
+        projector.rebuildAll();
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getCurrentAuthenticatedUser(any()))
+                .thenReturn(new AuthenticatedUser(host.getId(), host.getEmail(), host.getRole().getId(), "HOST"));
+        BookingService bookingService = new BookingService(bookingRepository, guestRepository, propertyRepository,
+                userRepository, mock(PropertyAvailabilityService.class), mock(CancellationPolicyService.class),
+                sessionManager, projector);
+        BookingUpdateRequest request = new BookingUpdateRequest();
+        request.setCheckInDate(TODAY.plusDays(12));
+        request.setCheckOutDate(TODAY.plusDays(15));
+
+        // When
+        ApplicationResponse<BookingResponse> response = bookingService.updateBooking(arriving.getId(), request, new MockHttpSession());
+        HostDashboardOutboxHandler handler = new HostDashboardOutboxHandler(projector);
+        outboxMessageRepository.findAll().stream()
+                .filter(message -> HostDashboardOutboxHandler.TYPE.equals(message.getType()))
+                .forEach(handler::handle);
+        List<String> refreshed = rows(host.getId());
+
+        // Then - the old days are cleared, the new days are filled, and a full rebuild agrees
+        assertTrue(response.isSuccess());
+        assertTrue(dashboardRepository.findByHostIdAndDayBetween(host.getId(), TODAY.plusDays(2), TODAY.plusDays(4)).isEmpty());
+        assertEquals(0, dashboardService.buildDashboard(host.getId(), 7, 1).getUpcomingArrivals());
+        assertEquals(1, dashboardService.buildDashboard(host.getId(), 14, 1).getUpcomingArrivals());
+        assertEquals(7, dashboardService.buildDashboard(host.getId(), 7, 1).getMonths().get(0).getOccupiedNights());
+        projector.rebuildAll();
+        assertEquals(rows(host.getId()), refreshed);
+    }
+
+    private List<String> rows(Long hostId) {
+        return dashboardRepository.findByHostIdAndDayBetween(hostId, TODAY.minusYears(1), TODAY.plusYears(1)).stream()
+                .map(HostDashboardProjectorTest::describe)
+                .toList();
+    }
+
+    private static String describe(HostDashboardDay day) {
+        return day.getDay() + " arrivals=" + day.getArrivals() + " departures=" + day.getDepartures()
+                + " nights=" + day.getOccupiedNights() + " revenue=" + day.getRevenue().stripTrailingZeros().toPlainString();
+    }
+
+    private static BookingPayment payment(Booking booking, String amount, PaymentStatus status, LocalDate paid) {
+        BookingPayment payment = new BookingPayment(booking, new BigDecimal(amount), PaymentType.FULL_PAYMENT);
+        payment.setPaymentStatus(status);
+        payment.setPaymentDate(paid.atTime(10, 0));
+        return payment;
+    }
+}
@@ -0,0 +1,627 @@
+package com.imovel.api.booking.service;
+
+import com.imovel.api.booking.model.AvailabilityRange;
+import com.imovel.api.booking.model.AvailabilityTerms;
+import com.imovel.api.booking.model.Booking;
+import com.imovel.api.booking.model.PropertyAvailability;
+import com.imovel.api.booking.model.enums.BookingStatus;
+import com.imovel.api.booking.repository.AvailabilityRangeRepository;
+import com.imovel.api.booking.repository.BookingRepository;
+import com.imovel.api.booking.repository.PropertyAvailabilityRepository;
+import com.imovel.api.booking.request.AvailabilityCheckRequest;
+import com.imovel.api.booking.request.AvailabilityRangeRequest;
+import com.imovel.api.booking.request.AvailabilitySearchRequest;
+import com.imovel.api.booking.request.PropertyAvailabilityRequest;
+import com.imovel.api.booking.response.AvailabilityCheckResponse;
+import com.imovel.api.booking.response.AvailabilityRangeResponse;
+import com.imovel.api.booking.response.AvailablePropertyResponse;
+import com.imovel.api.booking.response.CompactCalendarResponse;
+import com.imovel.api.booking.response.PropertyAvailabilityResponse;
+import com.imovel.api.model.Location;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.model.enums.PropertyCategory;
+import com.imovel.api.model.enums.PropertyStatus;
+import com.imovel.api.model.enums.PropertyType;
+import com.imovel.api.pagination.PaginationResult;
+import com.imovel.api.repository.PropertyRepository;
+import com.imovel.api.error.ApiCode;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.session.AuthenticatedUser;
+import com.imovel.api.session.SessionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.imovel.api.booking.BookingFixtures.property;
+import static com.imovel.api.booking.BookingFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class PropertyAvailabilityServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PropertyAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AvailabilityRangeRepository rangeRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private PropertyAvailabilityService service;
+    private Statistics statistics;
+    private Property property;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role("HOST", "Host"));
+        User host = entityManager.persist(user("host@example.com", role));
+        property = property(host);
+        property.setPrice(new BigDecimal("100.00"));
+        entityManager.persist(property);
+        entityManager.flush();
+
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getCurrentAuthenticatedUser(any())).thenReturn(
+                new AuthenticatedUser(host.getId(), host.getEmail(), role.getId(), role.getRoleName()));
+        service = new PropertyAvailabilityService(availabilityRepository, propertyRepository, bookingRepository,
+                sessionManager, new AvailabilityRangeService(rangeRepository, availabilityRepository));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bulkUpdateAvailability_ForAYear_ShouldWriteOneRangeInAFewStatements() {
+        // Given - a price for each of the next 365 nights
+        List<PropertyAvailabilityRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 365; i++) {
+            requests.add(night(START.plusDays(i), new BigDecimal("150.00")));
+        }
+
+        // When
+        statistics.clear();
+        ApplicationResponse<List<PropertyAvailabilityResponse>> response = service.bulkUpdateAvailability(requests, null);
+        entityManager.flush();
+
+        // Then
+        assertTrue(response.isSuccess(), response.getMessage());
+        assertEquals(365, response.getData().size());
+        assertTrue(statistics.getPrepareStatementCount() <= 4, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(1, rangeRepository.count());
+        assertEquals(0, availabilityRepository.count());
+        List<PropertyAvailability> nights = new AvailabilityRangeService(rangeRepository, availabilityRepository)
+                .findNights(property.getId(), START, START.plusDays(364));
+        assertEquals(365, nights.size());
+        assertTrue(nights.stream().allMatch(n -> n.getPrice().compareTo(new BigDecimal("150")) == 0));
+    }
+
+    @Test
+    void blockAndReleaseDates_ShouldSplitAndMergeRanges() {
+        // Given - a blocked year
+        assertTrue(service.blockDates(property.getId(), START, START.plusDays(364), "Renovation", null).isSuccess());
+
+        // When - ten nights in the middle are released
+        ApplicationResponse<List<PropertyAvailabilityResponse>> released =
+                service.releaseDates(property.getId(), START.plusDays(100), START.plusDays(109), null);
+
+        // Then
+        assertEquals(10, released.getData().size());
+        List<AvailabilityRangeResponse> ranges = service.getAvailabilityRanges(property.getId(), START, START.plusDays(364)).getData();
+        assertEquals(3, ranges.size());
+        assertEquals(START.plusDays(100), ranges.get(1).getStartDate());
+        assertEquals(START.plusDays(110), ranges.get(1).getEndDate());
+        assertTrue(ranges.get(1).getIsAvailable());
+        assertNull(ranges.get(1).getBlockedReason());
+        assertEquals("Renovation", ranges.get(2).getBlockedReason());
+        assertEquals(355, service.getBlockedDates(property.getId(), START, START.plusDays(364)).getData().size());
+
+        // When - they are blocked again
+        service.blockDates(property.getId(), START.plusDays(100), START.plusDays(109), "Renovation", null);
+
+        // Then
+        assertEquals(1, service.getAvailabilityRanges(property.getId(), START, START.plusDays(364)).getData().size());
+    }
+
+    @Test
+    void editAvailabilityRanges_ShouldKeepNightOverridesUnderThePatch() {
+        // Given - one night priced on its own
+        PropertyAvailabilityRequest single = night(START.plusDays(3), new BigDecimal("99.00"));
+        single.setPropertyId(property.getId());
+        assertTrue(service.setPropertyAvailability(single, null).isSuccess());
+        assertEquals(1, availabilityRepository.count());
+
+        // When - the week gets a minimum stay
+        AvailabilityRangeRequest request = new AvailabilityRangeRequest(START, START.plusDays(7));
+        request.setMinStay(3);
+        ApplicationResponse<List<AvailabilityRangeResponse>> response =
+                service.editAvailabilityRanges(property.getId(), List.of(request), null);
+
+        // Then - the night keeps its price, now as a range of its own
+        assertTrue(response.isSuccess(), response.getMessage());
+        assertEquals(3, response.getData().size());
+        assertEquals(0, availabilityRepository.count());
+        PropertyAvailability night = new AvailabilityRangeService(rangeRepository, availabilityRepository)
+                .findNights(property.getId(), START.plusDays(3), START.plusDays(3)).get(0);
+        assertEquals(0, new BigDecimal("99").compareTo(night.getPrice()));
+        assertEquals(3, night.getMinStay());
+    }
+
+    @Test
+    void checkAvailability_ShouldSeeRangesAndNightOverrides() {
+        // Given - a week at 150 with one blocked night
+        AvailabilityRangeRequest week = new AvailabilityRangeRequest(START, START.plusDays(7));
+        week.setPrice(new BigDecimal("150.00"));
+        service.editAvailabilityRanges(property.getId(), List.of(week), null);
+
+        // When / Then
+        assertEquals(new BigDecimal("450.00"), check(START, START.plusDays(3)).getTotalPrice());
+
+        // When - a night inside is booked
+        PropertyAvailabilityRequest booked = night(START.plusDays(1), null);
+        booked.setPropertyId(property.getId());
+        booked.setIsAvailable(false);
+        booked.setBlockedReason("Booked");
+        service.setPropertyAvailability(booked, null);
+
+        // Then
+        AvailabilityCheckResponse response = check(START, START.plusDays(3));
+        assertFalse(response.getIsAvailable());
+        assertEquals(List.of(START.plusDays(1).toString()), response.getUnavailableDates());
+    }
+
+    @Test
+    void getAvailabilityCalendar_ForTwoYears_ShouldLoadOnlyEachPage() {
+        // Given - a first year of per-night rows and a second year of ranges with a few nights overridden
+        LocalDate end = START.plusDays(729);
+        for (int i = 0; i < 365; i++) {
+            PropertyAvailability night = new PropertyAvailability(property, START.plusDays(i), i % 7 != 0, new BigDecimal("120.00"));
+            entityManager.persist(night);
+        }
+        service.blockDates(property.getId(), START.plusDays(400), START.plusDays(499), "Renovation", null);
+        AvailabilityRangeRequest season = new AvailabilityRangeRequest(START.plusDays(500), START.plusDays(700));
+        season.setPrice(new BigDecimal("180.00"));
+        service.editAvailabilityRanges(property.getId(), List.of(season), null);
+        for (int i : new int[] {450, 451, 600}) {
+            PropertyAvailabilityRequest single = night(START.plusDays(i), new BigDecimal("90.00"));
+            single.setIsAvailable(i != 600);
+            service.setPropertyAvailability(single, null);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<PropertyAvailability> expected = new AvailabilityRangeService(rangeRepository, availabilityRepository)
+                .findNights(property.getId(), START, end);
+        entityManager.clear();
+
+        // When - the calendar is read a month at a time
+        List<PropertyAvailabilityResponse> served = new ArrayList<>();
+        int pages = 0;
+        int lastPage;
+        do {
+            statistics.clear();
+            PaginationResult<PropertyAvailabilityResponse> page = service.getAvailabilityCalendar(
+                    property.getId(), START, end, PageRequest.of(pages, 31)).getData();
+            // Then - each page loads its own nights, a row overriding each range night at most, and the property
+            assertTrue(statistics.getEntityLoadCount() <= 2 * 31 + 3, "entities: " + statistics.getEntityLoadCount());
+            assertTrue(statistics.getPrepareStatementCount() <= 16, "statements: " + statistics.getPrepareStatementCount());
+            assertEquals(expected.size(), page.getTotalRecords());
+            served.addAll(page.getRecords());
+            lastPage = page.getLastPageNumber();
+            pages++;
+            entityManager.clear();
+        } while (pages < lastPage);
+
+        // Then - the pages together are the whole calendar
+        assertEquals(expected.size(), served.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDate(), served.get(i).getDate());
+            assertEquals(expected.get(i).getIsAvailable(), served.get(i).getIsAvailable());
+            assertEquals(expected.get(i).getPrice(), served.get(i).getPrice());
+        }
+        Map<LocalDate, PropertyAvailabilityResponse> byDate = served.stream()
+                .collect(Collectors.toMap(PropertyAvailabilityResponse::getDate, Function.identity()));
+        assertFalse(byDate.containsKey(START.plusDays(380)));
+        assertEquals(0, new BigDecimal("90").compareTo(byDate.get(START.plusDays(450)).getPrice()));
+        assertFalse(byDate.get(START.plusDays(600)).getIsAvailable());
+
+        // Then - blocked and available nights are the calendar split by status
+        List<PropertyAvailabilityResponse> blocked = service.getBlockedDates(property.getId(), START, end).getData();
+        List<PropertyAvailabilityResponse> available = service.getAvailableDates(property.getId(), START, end, false).getData();
+        assertEquals(served.stream().filter(n -> !n.getIsAvailable()).map(PropertyAvailabilityResponse::getDate).toList(),
+                blocked.stream().map(PropertyAvailabilityResponse::getDate).toList());
+        assertEquals(served.stream().filter(PropertyAvailabilityResponse::getIsAvailable).map(PropertyAvailabilityResponse::getDate).toList(),
+                available.stream().map(PropertyAvailabilityResponse::getDate).toList());
+    }
+
+    @Test
+    void getCompactCalendar_ShouldEncodeEveryNight() {
+        // Given - ten blocked nights with one released in the middle
+        service.blockDates(property.getId(), START.plusDays(5), START.plusDays(14), "Owner stay", null);
+        PropertyAvailabilityRequest released = night(START.plusDays(9), null);
+        released.setPropertyId(property.getId());
+        service.setPropertyAvailability(released, null);
+
+        // When
+        CompactCalendarResponse bitmap = service.getCompactCalendar(property.getId(), START, START.plusDays(19), "bitmap").getData();
+        CompactCalendarResponse runs = service.getCompactCalendar(property.getId(), START, START.plusDays(19), "runs").getData();
+
+        // Then
+        assertEquals("11111000010000011111", bitmap.getBitmap());
+        assertEquals(5, runs.getRuns().size());
+        assertEquals(START.plusDays(9), runs.getRuns().get(2).getStartDate());
+        assertEquals(START.plusDays(10), runs.getRuns().get(2).getEndDate());
+        assertEquals("Owner stay", runs.getRuns().get(3).getBlockedReason());
+        assertFalse(service.getCompactCalendar(property.getId(), START, START, "json").isSuccess());
+    }
+
+    @Test
+    void getCompactCalendar_ShouldRejectWindowsAboveTheCap() {
+        // When
+        ApplicationResponse<CompactCalendarResponse> atCap = service.getCompactCalendar(property.getId(),
+                START, START.plusDays(PropertyAvailabilityService.MAX_CALENDAR_DAYS), "bitmap");
+        ApplicationResponse<CompactCalendarResponse> aboveCap = service.getCompactCalendar(property.getId(),
+                START, START.plusYears(50), "bitmap");
+
+        // Then
+        assertTrue(atCap.isSuccess());
+        assertEquals(PropertyAvailabilityService.MAX_CALENDAR_DAYS + 1, atCap.getData().getBitmap().length());
+        assertFalse(aboveCap.isSuccess());
+        assertEquals(ApiCode.VALIDATION_ERROR.getCode().longValue(), aboveCap.getError().getCode());
+    }
+
+    @Test
+    void blockAndReleaseDatesForBooking_ShouldKeepTheRangeTerms() {
+        // Given - a week at 150 with a two-night minimum, and a booking for three nights of it
+        AvailabilityRangeRequest week = new AvailabilityRangeRequest(START, START.plusDays(7));
+        week.setPrice(new BigDecimal("150.00"));
+        week.setMinStay(2);
+        service.editAvailabilityRanges(property.getId(), List.of(week), null);
+        Booking booking = new Booking(property, property.getCreatedBy(), property.getCreatedBy(),
+                START.plusDays(2), START.plusDays(5), 3, new BigDecimal("450"));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        entityManager.persist(booking);
+
+        // When
+        service.blockDatesForBooking(booking);
+        entityManager.flush();
+
+        // Then - the booked nights are blocked at the range's price and stay rules
+        AvailabilityRangeService rangeService = new AvailabilityRangeService(rangeRepository, availabilityRepository);
+        List<PropertyAvailability> booked = rangeService.findNights(property.getId(), START.plusDays(2), START.plusDays(4));
+        assertEquals(3, booked.size());
+        for (PropertyAvailability night : booked) {
+            assertFalse(night.getIsAvailable());
+            assertEquals(0, new BigDecimal("150").compareTo(night.getPrice()));
+            assertEquals(2, night.getMinStay());
+        }
+
+        // When - the booking is cancelled
+        booking.setStatus(BookingStatus.CANCELLED);
+        service.releaseDatesForBooking(booking);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then - the nights fold back into the range and the week is priced as before
+        assertEquals(0, availabilityRepository.count());
+        assertEquals(1, rangeRepository.count());
+        AvailabilityCheckResponse response = check(START, START.plusDays(7));
+        assertTrue(response.getIsAvailable());
+        assertEquals(0, new BigDecimal("1050").compareTo(response.getTotalPrice()));
+    }
+
+    @Test
+    void searchAvailableProperties_ShouldMatchCheckingEachProperty() {
+        // Given - listings in three cities with random calendars and bookings, besides the one without a city
+        Random random = new Random(42);
+        List<Property> listings = new ArrayList<>(List.of(property));
+        String[] cities = {"Lisbon", "Porto", "Faro"};
+        for (int i = 0; i < 45; i++) {
+            Property listing = listing(cities[i % 3], BigDecimal.valueOf(50 + random.nextInt(150)), 1 + random.nextInt(4));
+            if (i % 11 == 0) {
+                listing.setStatus(PropertyStatus.RENTED);
+            }
+            randomCalendar(listing, random, 120);
+            listings.add(listing);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (int stay = 0; stay < 40; stay++) {
+            AvailabilitySearchRequest request = new AvailabilitySearchRequest();
+            request.setCheckInDate(START.plusDays(random.nextInt(110)));
+            request.setCheckOutDate(request.getCheckInDate().plusDays(1 + random.nextInt(7)));
+            request.setCity(stay % 4 == 0 ? null : cities[stay % 3].toUpperCase());
+            request.setMaxPrice(stay % 2 == 0 ? null : new BigDecimal("150"));
+            request.setNumberOfAdults(2);
+
+            // When
+            PaginationResult<AvailablePropertyResponse> found = service.searchAvailableProperties(
+                    request, PageRequest.of(0, 100, Sort.by("id"))).getData();
+
+            // Then - the same properties as checking them one by one
+            List<Long> expected = new ArrayList<>();
+            for (Property listing : listings) {
+                boolean matches = listing.getStatus() == PropertyStatus.AVAILABLE
+                        && (request.getCity() == null
+                            || listing.getLocation() != null && request.getCity().equalsIgnoreCase(listing.getLocation().getCity()))
+                        && (request.getMaxPrice() == null || listing.getPrice().compareTo(request.getMaxPrice()) <= 0);
+                if (matches && check(listing.getId(), request.getCheckInDate(), request.getCheckOutDate()).getIsAvailable()) {
+                    expected.add(listing.getId());
+                }
+            }
+            assertEquals(expected, found.getRecords().stream().map(AvailablePropertyResponse::getPropertyId).toList(),
+                    "stay " + request.getCheckInDate() + " to " + request.getCheckOutDate() + " in " + request.getCity());
+            assertEquals(expected.size(), found.getTotalRecords());
+        }
+    }
+
+    @Test
+    void searchAvailableProperties_ShouldPageInOneQueryEach() {
+        // Given - five free listings in Lisbon and one booked
+        for (int i = 0; i < 5; i++) {
+            listing("Lisbon", BigDecimal.valueOf(100 + i), 4);
+        }
+        Property booked = listing("Lisbon", new BigDecimal("90"), 4);
+        Booking booking = new Booking(booked, booked.getCreatedBy(), booked.getCreatedBy(),
+                START.plusDays(2), START.plusDays(5), 3, new BigDecimal("270"));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        entityManager.persist(booking);
+        entityManager.flush();
+        entityManager.clear();
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest(START, START.plusDays(3));
+        request.setCity("lisbon");
+
+        // When
+        statistics.clear();
+        PaginationResult<AvailablePropertyResponse> first = service.searchAvailableProperties(
+                request, PageRequest.of(0, 2, Sort.by("price"))).getData();
+
+        // Then - one query for the page and one for the total
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(5, first.getTotalRecords());
+        assertEquals(3, first.getLastPageNumber());
+        assertEquals(0, new BigDecimal("100").compareTo(first.getRecords().get(0).getPrice()));
+        assertEquals("Lisbon", first.getRecords().get(0).getCity());
+
+        // When - the stay ends on the booking's check-in day
+        request.setCheckOutDate(START.plusDays(2));
+
+        // Then
+        assertEquals(6, service.searchAvailableProperties(request, PageRequest.of(0, 10)).getData().getTotalRecords());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "availability.benchmark", matches = "true")
+    void benchmark_SearchTwentyThousandPropertiesOverAYear() {
+        // Given - 20k listings in ten cities, each with a year of calendar as ranges and a few bookings
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            Property listing = listing("City " + (i % 10), BigDecimal.valueOf(50 + random.nextInt(150)), 4);
+            LocalDate cursor = START;
+            while (cursor.isBefore(START.plusDays(365))) {
+                LocalDate end = cursor.plusDays(20 + random.nextInt(60));
+                AvailabilityTerms terms = new AvailabilityTerms(random.nextInt(5) > 0, BigDecimal.valueOf(80 + random.nextInt(100)),
+                        1 + random.nextInt(3), 365, null, false, true, true, null);
+                entityManager.persist(new AvailabilityRange(listing, cursor, end, terms));
+                cursor = end;
+            }
+            for (int b = 0; b < 3; b++) {
+                LocalDate checkIn = START.plusDays(random.nextInt(360));
+                Booking booking = new Booking(listing, listing.getCreatedBy(), listing.getCreatedBy(),
+                        checkIn, checkIn.plusDays(1 + random.nextInt(6)), 1, BigDecimal.TEN);
+                booking.setStatus(BookingStatus.CONFIRMED);
+                entityManager.persist(booking);
+            }
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest(START.plusDays(100), START.plusDays(107));
+        request.setCity("City 3");
+        request.setNumberOfAdults(2);
+
+        // When
+        long searchStart = System.nanoTime();
+        long found = service.searchAvailableProperties(request, PageRequest.of(0, 20, Sort.by("price"))).getData().getTotalRecords();
+        long searchNanos = System.nanoTime() - searchStart;
+
+        List<Long> candidates = propertyRepository.findAll().stream()
+                .filter(p -> p.getLocation() != null && "City 3".equals(p.getLocation().getCity()))
+                .map(Property::getId)
+                .toList();
+        entityManager.clear();
+        long checkStart = System.nanoTime();
+        long checked = 0;
+        for (Long id : candidates) {
+            if (check(id, request.getCheckInDate(), request.getCheckOutDate()).getIsAvailable()) {
+                checked++;
+            }
+            entityManager.clear();
+        }
+        long checkNanos = System.nanoTime() - checkStart;
+
+        // Then
+        assertEquals(checked, found);
+        System.out.printf("Search over 20k properties: one query %d ms, checking each property %d ms (%d free)%n",
+                searchNanos / 1_000_000, checkNanos / 1_000_000, found);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "availability.benchmark", matches = "true")
+    void benchmark_365NightUpdateAndRead() {
+        // Given
+        List<PropertyAvailabilityRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 365; i++) {
+            requests.add(night(START.plusDays(i), new BigDecimal("150.00")));
+        }
+        Property other = new Property();
+        other.setMainTitle("City flat");
+        other.setType(PropertyType.RENT);
+        other.setCategory(PropertyCategory.APARTMENT);
+        other.setStatus(PropertyStatus.AVAILABLE);
+        other.setPrice(new BigDecimal("80.00"));
+        other.setCreatedBy(property.getCreatedBy());
+        entityManager.persist(other);
+
+        // When
+        statistics.clear();
+        long legacyStart = System.nanoTime();
+        legacyBulkUpdate(other, requests);
+        entityManager.flush();
+        long legacyUpdateNanos = System.nanoTime() - legacyStart;
+        long legacyStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long rangeStart = System.nanoTime();
+        service.bulkUpdateAvailability(requests, null);
+        entityManager.flush();
+        long rangeUpdateNanos = System.nanoTime() - rangeStart;
+        long rangeStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        long legacyReadStart = System.nanoTime();
+        int legacyNights = availabilityRepository.findByPropertyIdAndDateRange(other.getId(), START, START.plusDays(364)).size();
+        long legacyReadNanos = System.nanoTime() - legacyReadStart;
+        long rangeReadStart = System.nanoTime();
+        int rangeNights = new AvailabilityRangeService(rangeRepository, availabilityRepository)
+                .findNights(property.getId(), START, START.plusDays(364)).size();
+        long rangeReadNanos = System.nanoTime() - rangeReadStart;
+
+        // Then
+        assertEquals(legacyNights, rangeNights);
+        System.out.printf("365-night update: per night %d ms / %d statements, ranges %d ms / %d statements%n",
+                legacyUpdateNanos / 1_000_000, legacyStatements, rangeUpdateNanos / 1_000_000, rangeStatements);
+        System.out.printf("365-night read: per night %d ms, ranges %d ms%n",
+                legacyReadNanos / 1_000_000, rangeReadNanos / 1_000_000);
+    }
+
+    private AvailabilityCheckResponse check(LocalDate checkIn, LocalDate checkOut) {
+        return check(property.getId(), checkIn, checkOut);
+    }
+
+    private AvailabilityCheckResponse check(Long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        AvailabilityCheckRequest request = new AvailabilityCheckRequest();
+        request.setPropertyId(propertyId);
+        request.setCheckInDate(checkIn);
+        request.setCheckOutDate(checkOut);
+        request.setNumberOfAdults(2);
+        return service.checkAvailability(request).getData();
+    }
+
+    /**
+     * The per-night update that bulkUpdateAvailability used to run
+     */
+    private void legacyBulkUpdate(Property target, List<PropertyAvailabilityRequest> requests) {
+        for (PropertyAvailabilityRequest req : requests) {
+            PropertyAvailability availability = availabilityRepository
+                    .findByPropertyIdAndDate(target.getId(), req.getDate())
+                    .orElse(new PropertyAvailability());
+            if (availability.getId() == null) {
+                availability.setProperty(target);
+                availability.setDate(req.getDate());
+            }
+            availability.setIsAvailable(req.getIsAvailable());
+            availability.setPrice(req.getPrice());
+            availability.setMinStay(req.getMinStay());
+            availability.setMaxStay(req.getMaxStay());
+            availabilityRepository.save(availability);
+        }
+    }
+
+    private Property listing(String city, BigDecimal price, int maxAdults) {
+        Location location = new Location();
+        location.setCity(city);
+        Property listing = new Property();
+        listing.setMainTitle("Listing in " + city);
+        listing.setType(PropertyType.RENT);
+        listing.setCategory(PropertyCategory.APARTMENT);
+        listing.setStatus(PropertyStatus.AVAILABLE);
+        listing.setPrice(price);
+        listing.setLocation(location);
+        listing.setMaxAdultsAccommodation(maxAdults);
+        listing.setMaxChildrenAccommodation(0);
+        listing.setCreatedBy(entityManager.getEntityManager().getReference(User.class, property.getCreatedBy().getId()));
+        return entityManager.persist(listing);
+    }
+
+    /**
+     * Ranges, rows overriding some of their nights and bookings of any status over the first days after START
+     */
+    private void randomCalendar(Property listing, Random random, int days) {
+        LocalDate cursor = START;
+        while (cursor.isBefore(START.plusDays(days))) {
+            LocalDate end = cursor.plusDays(1 + random.nextInt(15));
+            if (random.nextBoolean()) {
+                AvailabilityTerms terms = new AvailabilityTerms(random.nextInt(4) > 0, null,
+                        random.nextInt(4) == 0 ? 3 : 1, random.nextInt(6) == 0 ? 4 : 365, null, false, true, true, null);
+                entityManager.persist(new AvailabilityRange(listing, cursor, end, terms));
+            }
+            cursor = end;
+        }
+        Set<LocalDate> nights = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            LocalDate date = START.plusDays(random.nextInt(days));
+            if (nights.add(date)) {
+                PropertyAvailability row = new PropertyAvailability(listing, date, random.nextInt(3) > 0, null);
+                row.setMinStay(random.nextInt(5) == 0 ? 2 : 1);
+                entityManager.persist(row);
+            }
+        }
+        for (int i = random.nextInt(3); i > 0; i--) {
+            LocalDate checkIn = START.plusDays(random.nextInt(days));
+            Booking booking = new Booking(listing, listing.getCreatedBy(), listing.getCreatedBy(),
+                    checkIn, checkIn.plusDays(1 + random.nextInt(5)), 1, BigDecimal.TEN);
+            booking.setStatus(BookingStatus.values()[random.nextInt(BookingStatus.values().length)]);
+            entityManager.persist(booking);
+        }
+    }
+
+    private PropertyAvailabilityRequest night(LocalDate date, BigDecimal price) {
+        PropertyAvailabilityRequest request = new PropertyAvailabilityRequest(property.getId(), date, true);
+        request.setPrice(price);
+        request.setMinStay(1);
+        request.setMaxStay(365);
+        request.setIsInstantBook(false);
+        request.setCheckInAllowed(true);
+        request.setCheckOutAllowed(true);
+        return request;
+    }
+}
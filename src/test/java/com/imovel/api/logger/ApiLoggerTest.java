@@ -0,0 +1,91 @@
+package com.imovel.api.logger;
+
+import com.imovel.api.filter.LoggingContextFilter;
+import jakarta.servlet.FilterChain;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiLoggerTest {
+
+    private static final String LOGGER_NAME = "com.imovel.api.logger";
+
+    @AfterEach
+    void tearDown() {
+        ThreadContext.clearMap();
+        Configurator.setLevel(LOGGER_NAME, Level.DEBUG);
+    }
+
+    @Test
+    void supplier_WhenLevelDisabled_ShouldNotBuildMessage() {
+        // Given
+        Configurator.setLevel(LOGGER_NAME, Level.WARN);
+        AtomicInteger invocations = new AtomicInteger();
+
+        // When
+        ApiLogger.debug("ApiLoggerTest", () -> "debug " + invocations.incrementAndGet());
+        ApiLogger.info("ApiLoggerTest", () -> "info " + invocations.incrementAndGet());
+
+        // Then
+        assertEquals(0, invocations.get());
+    }
+
+    @Test
+    void supplier_WhenLevelEnabled_ShouldBuildMessageOnce() {
+        // Given
+        Configurator.setLevel(LOGGER_NAME, Level.DEBUG);
+        AtomicInteger invocations = new AtomicInteger();
+
+        // When
+        ApiLogger.info("ApiLoggerTest", () -> "info " + invocations.incrementAndGet());
+
+        // Then
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void logging_ShouldNotClearThreadContext() {
+        // Given
+        ApiLogger.setContext("requestId", "REQ-1");
+
+        // When
+        ApiLogger.info("ApiLoggerTest", "first");
+        ApiLogger.error("ApiLoggerTest", "second", new IllegalStateException("boom"));
+
+        // Then
+        assertEquals("REQ-1", ThreadContext.get("requestId"));
+    }
+
+    @Test
+    void loggingContextFilter_ShouldExposeIdsDuringRequestAndClearAfterwards() throws Exception {
+        // Given
+        LoggingContextFilter filter = new LoggingContextFilter();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        request.addHeader(LoggingContextFilter.CORRELATION_ID_HEADER, "CORR-42");
+        AtomicReference<String> requestId = new AtomicReference<>();
+        AtomicReference<String> correlationId = new AtomicReference<>();
+        FilterChain chain = (req, res) -> {
+            requestId.set(ThreadContext.get(LoggingContextFilter.REQUEST_ID_KEY));
+            correlationId.set(ThreadContext.get(LoggingContextFilter.CORRELATION_ID_KEY));
+        };
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(requestId.get());
+        assertEquals("CORR-42", correlationId.get());
+        assertTrue(ThreadContext.isEmpty());
+        assertTrue(LogManager.getLogger(LOGGER_NAME).isDebugEnabled());
+    }
+}
@@ -0,0 +1,187 @@
+package com.imovel.api.outbox;
+
+import com.imovel.api.model.OutboxMessage;
+import com.imovel.api.model.enums.OutboxStatus;
+import com.imovel.api.repository.OutboxMessageRepository;
+import com.imovel.api.support.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+    private OutboxConfig config;
+    private OutboxService outboxService;
+    private RecordingHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        config = new OutboxConfig();
+        config.setBatchSize(4);
+        config.setMaxAttempts(3);
+        config.setInitialBackoff(Duration.ofSeconds(1));
+        config.setLease(Duration.ofMinutes(1));
+        outboxService = new OutboxService(outboxMessageRepository, clock);
+        handler = new RecordingHandler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void enqueue_InRolledBackTransaction_ShouldNotQueueMessage() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            outboxService.enqueue("test", Map.of("n", 1));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> outboxService.enqueue("test", Map.of("n", 2)));
+
+        // Then
+        List<OutboxMessage> messages = outboxMessageRepository.findAll();
+        assertEquals(1, messages.size());
+        assertEquals("{\"n\":2}", messages.get(0).getPayload());
+    }
+
+    @Test
+    void dispatchBatch_ShouldDeliverInOrderAndAcknowledge() {
+        // Given
+        List<Long> ids = enqueue(6);
+        OutboxDispatcher dispatcher = dispatcher();
+
+        // When
+        int first = dispatcher.dispatchBatch();
+        int second = dispatcher.dispatchBatch();
+        int third = dispatcher.dispatchBatch();
+
+        // Then
+        assertEquals(List.of(4, 2, 0), List.of(first, second, third));
+        assertEquals(ids, handler.delivered);
+        assertEquals(6, outboxMessageRepository.countByStatus(OutboxStatus.DELIVERED));
+    }
+
+    @Test
+    void dispatchBatch_KilledMidBatch_ShouldRedeliverAfterLeaseWithoutLoss() {
+        // Given - the dispatcher dies while delivering the sixth message
+        List<Long> ids = enqueue(10);
+        handler.killOnDelivery = 6;
+        OutboxDispatcher crashing = dispatcher();
+        crashing.dispatchBatch();
+        assertThrows(KilledError.class, crashing::dispatchBatch);
+
+        // When - a fresh dispatcher takes over
+        OutboxDispatcher restarted = dispatcher();
+        drain(restarted);
+        long stillLeased = outboxMessageRepository.countByStatus(OutboxStatus.PROCESSING);
+        clock.advance(config.getLease().plusSeconds(1));
+        drain(restarted);
+
+        // Then - every message is delivered, the interrupted batch at least once more
+        assertEquals(4, stillLeased);
+        assertEquals(new HashSet<>(ids), new HashSet<>(handler.delivered));
+        assertEquals(10, outboxMessageRepository.countByStatus(OutboxStatus.DELIVERED));
+        assertEquals(2, handler.delivered.stream().filter(ids.get(4)::equals).count());
+    }
+
+    @Test
+    void dispatchBatch_WithFailingHandler_ShouldBackOffThenMarkDead() {
+        // Given
+        Long id = enqueue(1).get(0);
+        handler.failing = true;
+        OutboxDispatcher dispatcher = dispatcher();
+
+        // When / Then - retried only once the backoff has elapsed
+        dispatcher.dispatchBatch();
+        assertEquals(0, dispatcher.dispatchBatch());
+        clock.advance(Duration.ofSeconds(1));
+        dispatcher.dispatchBatch();
+        clock.advance(Duration.ofSeconds(2));
+        dispatcher.dispatchBatch();
+
+        OutboxMessage message = outboxMessageRepository.findById(id).orElseThrow();
+        assertEquals(OutboxStatus.DEAD, message.getStatus());
+        assertEquals(3, message.getAttempts());
+        assertTrue(message.getLastError().contains("smtp down"));
+    }
+
+    private OutboxDispatcher dispatcher() {
+        return new OutboxDispatcher(outboxMessageRepository, List.of(handler), config, clock);
+    }
+
+    private List<Long> enqueue(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(outboxService.enqueue(RecordingHandler.TYPE, Map.of("n", i)).getId());
+        }
+        return ids;
+    }
+
+    private static void drain(OutboxDispatcher dispatcher) {
+        while (dispatcher.dispatchBatch() > 0) {
+            // keep dispatching
+        }
+    }
+
+    private static final class KilledError extends Error {
+        KilledError() {
+            super("dispatcher killed");
+        }
+    }
+
+    private static final class RecordingHandler implements OutboxHandler {
+        static final String TYPE = "test";
+
+        private final List<Long> delivered = new ArrayList<>();
+        private int killOnDelivery;
+        private boolean failing;
+        private int deliveries;
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+
+        @Override
+        public void handle(OutboxMessage message) {
+            if (failing) {
+                throw new IllegalStateException("smtp down");
+            }
+            if (++deliveries == killOnDelivery) {
+                throw new KilledError();
+            }
+            delivered.add(message.getId());
+        }
+    }
+}
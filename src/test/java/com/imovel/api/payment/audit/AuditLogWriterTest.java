@@ -0,0 +1,416 @@
+package com.imovel.api.payment.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writer_ShouldPersistRecordsInEnqueueOrder() throws IOException {
+        // Given
+        AuditLogWriter writer = new AuditLogWriter(directory, 10_000, 64, 1024 * 1024);
+        writer.start();
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(writer.offer(AuditRecord.of("PAYMENT_CREATED", 7L, "sequence", i, "amount", new BigDecimal("9.99"))));
+        }
+        writer.close();
+
+        // Then
+        List<String> records = AuditLogVerifier.readRecords(directory);
+        assertEquals(1000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertTrue(records.get(i).contains("\"sequence\":" + i + ","), records.get(i));
+        }
+        assertEquals(1000, writer.getWrittenCount());
+        assertTrue(AuditLogVerifier.verify(directory).isValid());
+    }
+
+    @Test
+    void writer_ShouldKeepPerProducerOrderWithConcurrentProducers() throws Exception {
+        // Given
+        AuditLogWriter writer = new AuditLogWriter(directory, 100_000, 128, 1024 * 1024);
+        writer.start();
+        int producers = 8;
+        int perProducer = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < perProducer; i++) {
+                    writer.offer(AuditRecord.of("PAYMENT_PROCESSING", producer, "sequence", i));
+                }
+                return null;
+            });
+        }
+        startGate.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        writer.close();
+
+        // Then
+        List<String> records = AuditLogVerifier.readRecords(directory);
+        assertEquals(producers * perProducer, records.size());
+        int[] lastSequence = new int[producers];
+        Arrays.fill(lastSequence, -1);
+        for (String record : records) {
+            int producer = Integer.parseInt(record.replaceAll(".*\"userId\":(\\d+).*", "$1"));
+            int sequence = Integer.parseInt(record.replaceAll(".*\"sequence\":(\\d+).*", "$1"));
+            assertEquals(lastSequence[producer] + 1, sequence);
+            lastSequence[producer] = sequence;
+        }
+    }
+
+    @Test
+    void offer_WhenQueueIsFull_ShouldDropWithoutBlocking() {
+        // Given - writer thread not started, so nothing drains the queue
+        AuditLogWriter writer = new AuditLogWriter(directory, 4, 2, 1024);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertTrue(writer.offer(AuditRecord.of("PAYMENT_CREATED", null, "sequence", i)));
+        }
+        long start = System.nanoTime();
+        boolean accepted = writer.offer(AuditRecord.of("PAYMENT_CREATED", null, "sequence", 4));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(1, writer.getDroppedCount());
+        assertEquals(4, writer.getQueueSize());
+        assertTrue(elapsedMs < 50, "offer blocked for " + elapsedMs + "ms");
+    }
+
+    @Test
+    void verify_ShouldDetectTamperedRecord() throws IOException {
+        // Given
+        AuditLogWriter writer = new AuditLogWriter(directory, 100, 10, 1024 * 1024);
+        writer.start();
+        for (int i = 0; i < 20; i++) {
+            writer.offer(AuditRecord.of("REFUND_COMPLETED", 1L, "amount", new BigDecimal("10.00")));
+        }
+        writer.close();
+        Path segment = AuditLogWriter.listSegments(directory).get(0);
+
+        // When
+        String content = Files.readString(segment, StandardCharsets.UTF_8);
+        int fifthLine = nthLineStart(content, 4);
+        String tampered = content.substring(0, fifthLine)
+                + content.substring(fifthLine).replaceFirst("10\\.00", "99.00");
+        Files.writeString(segment, tampered, StandardCharsets.UTF_8);
+
+        // Then
+        AuditLogVerifier.Result result = AuditLogVerifier.verify(directory);
+        assertFalse(result.isValid());
+        assertEquals(4, result.getRecords());
+        assertEquals(5, result.getLine());
+    }
+
+    @Test
+    void verify_ShouldDetectRemovedRecord() throws IOException {
+        // Given
+        AuditLogWriter writer = new AuditLogWriter(directory, 100, 10, 1024 * 1024);
+        writer.start();
+        for (int i = 0; i < 5; i++) {
+            writer.offer(AuditRecord.of("PAYMENT_CREATED", 1L, "sequence", i));
+        }
+        writer.close();
+        Path segment = AuditLogWriter.listSegments(directory).get(0);
+
+        // When
+        List<String> lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+        lines.remove(2);
+        Files.write(segment, lines, StandardCharsets.UTF_8);
+
+        // Then
+        assertFalse(AuditLogVerifier.verify(directory).isValid());
+    }
+
+    @Test
+    void restart_ShouldContinueHashChainAcrossSegments() throws IOException {
+        // Given - small segments force rollover, then a second writer continues the chain
+        AuditLogWriter first = new AuditLogWriter(directory, 100, 5, 512);
+        first.start();
+        for (int i = 0; i < 30; i++) {
+            first.offer(AuditRecord.of("PAYMENT_CREATED", 1L, "sequence", i));
+        }
+        first.close();
+
+        // When
+        AuditLogWriter second = new AuditLogWriter(directory, 100, 5, 512);
+        second.start();
+        for (int i = 30; i < 40; i++) {
+            second.offer(AuditRecord.of("PAYMENT_CREATED", 1L, "sequence", i));
+        }
+        second.close();
+
+        // Then
+        assertTrue(AuditLogWriter.listSegments(directory).size() > 2);
+        AuditLogVerifier.Result result = AuditLogVerifier.verify(directory);
+        assertTrue(result.isValid(), result.toString());
+        assertEquals(40, result.getRecords());
+    }
+
+    @Test
+    void writeBatch_WhenAWriteFailsMidBatch_ShouldCutTheTornLineAndKeepTheChainValid() throws Exception {
+        // Given - the second batch fails after half of it reached the file
+        FlakyChannels channels = new FlakyChannels();
+        AuditLogWriter writer = new AuditLogWriter(directory, 100, 5, 1024 * 1024, channels::open);
+        writer.start();
+        writeAndWait(writer, 0, 5, () -> writer.getWrittenCount() == 5);
+        channels.failNextWrite = true;
+
+        // When - the writer may split the records into several batches, only the first one fails
+        writeAndWait(writer, 5, 10, () -> writer.getWrittenCount() + writer.getFailedCount() == 10);
+        writeAndWait(writer, 10, 15, () -> writer.getWrittenCount() + writer.getFailedCount() == 15);
+        writer.close();
+
+        // Then - same segment, no torn line, and the records around the failure chain up
+        assertTrue(writer.getFailedCount() > 0);
+        assertEquals(1, AuditLogWriter.listSegments(directory).size());
+        AuditLogVerifier.Result result = AuditLogVerifier.verify(directory);
+        assertTrue(result.isValid(), result.toString());
+        assertEquals(writer.getWrittenCount(), result.getRecords());
+    }
+
+    @Test
+    void writeBatch_WhenTheTornLineCannotBeCut_ShouldContinueInANewSegment() throws Exception {
+        // Given - the failed segment cannot be truncated either
+        FlakyChannels channels = new FlakyChannels();
+        AuditLogWriter writer = new AuditLogWriter(directory, 100, 5, 1024 * 1024, channels::open);
+        writer.start();
+        writeAndWait(writer, 0, 5, () -> writer.getWrittenCount() == 5);
+        channels.failNextWrite = true;
+        channels.failTruncate = true;
+
+        // When
+        writeAndWait(writer, 5, 10, () -> writer.getWrittenCount() + writer.getFailedCount() == 10);
+        writeAndWait(writer, 10, 15, () -> writer.getWrittenCount() + writer.getFailedCount() == 15);
+        writer.close();
+
+        // Then - the torn line stays behind in the first segment, which the verifier accepts
+        assertTrue(writer.getFailedCount() > 0);
+        assertEquals(2, AuditLogWriter.listSegments(directory).size());
+        AuditLogVerifier.Result result = AuditLogVerifier.verify(directory);
+        assertTrue(result.isValid(), result.toString());
+        assertEquals(writer.getWrittenCount(), result.getRecords());
+    }
+
+    @Test
+    void writeBatch_WhenTheUncutFailureLeftCompleteLines_ShouldChainTheNewSegmentFromThem() throws Exception {
+        // Given - the failed write gets one full line and half of the next to disk, and cannot be cut
+        FlakyChannels channels = new FlakyChannels();
+        AuditLogWriter writer = new AuditLogWriter(directory, 100, 5, 1024 * 1024, channels::open);
+        writer.start();
+        writeAndWait(writer, 0, 5, () -> writer.getWrittenCount() == 5);
+        channels.failNextWrite = true;
+        channels.keepFirstLine = true;
+        channels.failTruncate = true;
+
+        // When
+        writeAndWait(writer, 5, 10, () -> writer.getWrittenCount() + writer.getFailedCount() == 10);
+        writeAndWait(writer, 10, 15, () -> writer.getWrittenCount() + writer.getFailedCount() == 15);
+        writer.close();
+
+        // Then - the complete line counts as written and the next segment follows it
+        assertTrue(writer.getWrittenCount() >= 11);
+        assertEquals(2, AuditLogWriter.listSegments(directory).size());
+        AuditLogVerifier.Result result = AuditLogVerifier.verify(directory);
+        assertTrue(result.isValid(), result.toString());
+        assertEquals(writer.getWrittenCount(), result.getRecords());
+    }
+
+    @Test
+    void bindTo_ShouldPublishDroppedRecords() {
+        // Given - writer thread not started, so nothing drains the queue
+        AuditLogWriter writer = new AuditLogWriter(directory, 1, 1, 1024);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        writer.bindTo(registry);
+
+        // When
+        writer.offer(AuditRecord.of("PAYMENT_CREATED", null, "sequence", 0));
+        writer.offer(AuditRecord.of("PAYMENT_CREATED", null, "sequence", 1));
+        writer.offer(AuditRecord.of("PAYMENT_CREATED", null, "sequence", 2));
+
+        // Then
+        assertEquals(2.0, registry.get(AuditLogWriter.RECORDS_COUNTER).tag("outcome", "dropped").functionCounter().count());
+        assertEquals(0.0, registry.get(AuditLogWriter.RECORDS_COUNTER).tag("outcome", "written").functionCounter().count());
+        assertEquals(1.0, registry.get("payment.audit.queue.size").gauge().value());
+    }
+
+    private static void writeAndWait(AuditLogWriter writer, int from, int to, BooleanSupplier done) throws InterruptedException {
+        for (int i = from; i < to; i++) {
+            assertTrue(writer.offer(AuditRecord.of("PAYMENT_CREATED", 1L, "sequence", i)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!done.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "writer did not catch up");
+            Thread.sleep(5);
+        }
+    }
+
+    private static int nthLineStart(String content, int n) {
+        int index = 0;
+        for (int i = 0; i < n; i++) {
+            index = content.indexOf('\n', index) + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Opens real segment files whose next write can be made to fail after writing half its bytes,
+     * or its first line and half of the rest
+     */
+    private static final class FlakyChannels {
+        private volatile boolean failNextWrite;
+        private volatile boolean keepFirstLine;
+        private volatile boolean failTruncate;
+
+        FileChannel open(Path segment) throws IOException {
+            return new FlakyChannel(FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        }
+
+        private final class FlakyChannel extends FileChannel {
+            private final FileChannel delegate;
+
+            FlakyChannel(FileChannel delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                if (failNextWrite) {
+                    failNextWrite = false;
+                    int kept = 0;
+                    if (keepFirstLine) {
+                        while (src.get(src.position() + kept) != '\n') {
+                            kept++;
+                        }
+                        kept++;
+                    }
+                    ByteBuffer half = src.duplicate();
+                    half.limit(src.position() + kept + (src.remaining() - kept) / 2);
+                    delegate.write(half);
+                    throw new IOException("disk full");
+                }
+                return delegate.write(src);
+            }
+
+            @Override
+            public FileChannel truncate(long size) throws IOException {
+                if (failTruncate) {
+                    throw new IOException("read-only file system");
+                }
+                delegate.truncate(size);
+                return this;
+            }
+
+            @Override
+            public FileChannel position(long newPosition) throws IOException {
+                delegate.position(newPosition);
+                return this;
+            }
+
+            @Override
+            public long position() throws IOException {
+                return delegate.position();
+            }
+
+            @Override
+            public long size() throws IOException {
+                return delegate.size();
+            }
+
+            @Override
+            public void force(boolean metaData) throws IOException {
+                delegate.force(metaData);
+            }
+
+            @Override
+            protected void implCloseChannel() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public int read(ByteBuffer dst) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long read(ByteBuffer[] dsts, int offset, int length) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long write(ByteBuffer[] srcs, int offset, int length) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long transferTo(long position, long count, WritableByteChannel target) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long transferFrom(ReadableByteChannel src, long position, long count) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(ByteBuffer dst, long position) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int write(ByteBuffer src, long position) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public MappedByteBuffer map(MapMode mode, long position, long size) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public FileLock lock(long position, long size, boolean shared) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public FileLock tryLock(long position, long size, boolean shared) {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+}
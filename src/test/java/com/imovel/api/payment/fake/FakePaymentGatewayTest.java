@@ -0,0 +1,186 @@
+package com.imovel.api.payment.fake;
+
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.dto.PaymentResponse;
+import com.imovel.api.payment.gateway.GatewayResilience;
+import com.imovel.api.payment.model.Payment;
+import com.imovel.api.payment.model.enums.PaymentGateway;
+import com.imovel.api.payment.model.enums.PaymentMethod;
+import com.imovel.api.payment.repository.PaymentRepository;
+import com.imovel.api.response.ApplicationResponse;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FakePaymentGatewayTest {
+
+    private PaymentConfig paymentConfig;
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void setUp() {
+        paymentConfig = new PaymentConfig();
+        paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void processPayment_SubmittedTwice_ShouldReuseIdempotentResult() {
+        // Given
+        FakePaymentGateway gateway = gateway(1, 100, Duration.ofSeconds(1));
+
+        // When - the same payment submitted twice
+        ApplicationResponse<PaymentResponse> first = gateway.processPayment(payment(1L), 7L);
+        ApplicationResponse<PaymentResponse> second = gateway.processPayment(payment(1L), 7L);
+
+        // Then
+        assertTrue(first.isSuccess());
+        assertEquals(first.getData().getGatewayPaymentId(), second.getData().getGatewayPaymentId());
+        assertNotEquals(first.getData().getGatewayPaymentId(),
+                gateway.processPayment(payment(2L), 7L).getData().getGatewayPaymentId());
+    }
+
+    @Test
+    void processPayment_WhenBreakerIsOpen_ShouldFailFastWithoutCallingProvider() {
+        // Given - every call fails, so the breaker opens after its minimum of four calls
+        paymentConfig.getFake().setErrorRate(1.0);
+        FakePaymentGateway gateway = gateway(4, 100, Duration.ofSeconds(1));
+        for (long id = 1; id <= 4; id++) {
+            assertFalse(gateway.processPayment(payment(id), 7L).isSuccess());
+        }
+        int callsBeforeOpen = gateway.getCallCount();
+
+        // When
+        long start = System.nanoTime();
+        ApplicationResponse<PaymentResponse> response = gateway.processPayment(payment(5L), 7L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getError().getStatus());
+        assertEquals(callsBeforeOpen, gateway.getCallCount());
+        assertTrue(elapsedMillis < 100, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void processPayment_WithTenSecondLatency_ShouldBoundThreadsAndWaitingTime() throws Exception {
+        // Given - a 4-thread bulkhead with a small queue and a 200 ms budget
+        paymentConfig.getFake().setLatencyMs(10_000);
+        FakePaymentGateway gateway = gateway(1000, 4, Duration.ofMillis(200));
+        ExecutorService callers = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+
+        try {
+            // When - 32 request threads pay at once
+            for (long id = 1; id <= 32; id++) {
+                Payment payment = payment(id);
+                results.add(callers.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    ApplicationResponse<PaymentResponse> response = gateway.processPayment(payment, 7L);
+                    return new long[]{response.getError().getStatus().value(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)};
+                }));
+            }
+            start.countDown();
+
+            // Then - nobody waits for the provider, and at most four threads are parked on it
+            for (Future<long[]> result : results) {
+                long[] outcome = result.get(5, TimeUnit.SECONDS);
+                assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), outcome[0]);
+                assertTrue(outcome[1] < 2_000, "caller waited " + outcome[1] + " ms");
+            }
+            assertTrue(gateway.getMaxConcurrentCalls() <= 4, "max concurrent calls " + gateway.getMaxConcurrentCalls());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void processPayment_WhenAttemptTimesOut_ShouldNotRetry() {
+        // Given - the provider answers after the time limit
+        paymentConfig.getFake().setLatencyMs(1_000);
+        FakePaymentGateway gateway = gateway(1000, 4, Duration.ofMillis(100));
+
+        // When
+        long start = System.nanoTime();
+        ApplicationResponse<PaymentResponse> response = gateway.processPayment(payment(1L), 7L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then - one provider call, answered within one time limit
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getError().getStatus());
+        assertEquals(1, gateway.getCallCount());
+        assertTrue(elapsedMillis < 500, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void processPayment_WhenProviderFailsOnce_ShouldRetry() {
+        // Given - every call fails, so each payment is attempted twice
+        paymentConfig.getFake().setErrorRate(1.0);
+        FakePaymentGateway gateway = gateway(1000, 4, Duration.ofSeconds(1));
+
+        // When
+        ApplicationResponse<PaymentResponse> response = gateway.processPayment(payment(1L), 7L);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals(2, gateway.getCallCount());
+    }
+
+    private FakePaymentGateway gateway(int minimumCalls, int bulkheadThreads, Duration timeout) {
+        CircuitBreakerConfig breaker = CircuitBreakerConfig.custom()
+                .slidingWindowSize(Math.max(minimumCalls, 10))
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(BulkheadFullException.class)
+                .build();
+        ThreadPoolBulkheadConfig bulkhead = ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(Math.min(bulkheadThreads, 4))
+                .maxThreadPoolSize(bulkheadThreads)
+                .queueCapacity(2)
+                .build();
+        RetryConfig retry = RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(10))
+                .retryExceptions(FakePaymentGateway.InjectedFailureException.class)
+                .build();
+        GatewayResilience resilience = new GatewayResilience(
+                CircuitBreakerRegistry.of(breaker),
+                ThreadPoolBulkheadRegistry.of(bulkhead),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(timeout).build()),
+                RetryRegistry.of(retry));
+        return new FakePaymentGateway(paymentRepository, paymentConfig, resilience);
+    }
+
+    private static Payment payment(Long id) {
+        Payment payment = new Payment(7L, new BigDecimal("25.00"), "USD", 1L, "Guest",
+                PaymentGateway.STRIPE, PaymentMethod.CREDIT_CARD);
+        payment.setId(id);
+        return payment;
+    }
+}
@@ -0,0 +1,158 @@
+package com.imovel.api.payment.monitoring;
+
+import com.imovel.api.services.MailService;
+import com.imovel.api.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PaymentAlertServiceTest {
+
+    private MailService mailService;
+    private MutableClock clock;
+    private PaymentAlertService alertService;
+
+    @BeforeEach
+    void setUp() {
+        mailService = mock(MailService.class);
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        AlertConfig config = new AlertConfig();
+        config.getEmail().setSubject("Imovel");
+        alertService = new PaymentAlertService(mailService, config, clock, null);
+    }
+
+    @Test
+    void evaluate_AboveThreshold_ShouldMailGatewayAndErrorCodeAlertsInOneBatch() {
+        // Given - 10 of 50 payments declined in the last minute
+        record(40, 10, 5111L);
+
+        // When
+        alertService.evaluate();
+        verifyNoInteractions(mailService);
+        int sent = alertService.flush();
+
+        // Then
+        assertEquals(2, sent);
+        String body = lastBody("2 PAYMENT ALERTS - Imovel");
+        assertTrue(body.contains("Error Code: 5111"), body);
+        assertTrue(body.contains("Failure Rate: 20.0% (1m), 20.0% (5m), 20.0% (15m)"), body);
+    }
+
+    @Test
+    void evaluate_WithOnlyOldFailures_ShouldNotAlert() {
+        // Given - the failures happened four minutes ago and the last minute is clean
+        record(40, 10, 5111L);
+        clock.advance(Duration.ofMinutes(4));
+        record(20, 0, 5111L);
+
+        // When
+        alertService.evaluate();
+
+        // Then
+        assertEquals(0, alertService.flush());
+        verifyNoInteractions(mailService);
+    }
+
+    @Test
+    void evaluate_BetweenClearAndAlertRates_ShouldKeepAlertingUntilBelowClearRate() {
+        // Given - alerting at 20%
+        record(40, 10, 5111L);
+        alertService.evaluate();
+        alertService.flush();
+
+        // When - the burst rolls out of the 5m window and the rate settles at 7.5%
+        clock.advance(Duration.ofMinutes(6));
+        record(74, 6, 5111L);
+        alertService.evaluate();
+
+        // Then - below 10% but above the 5% clear rate, so nothing changes
+        assertEquals(0, alertService.flush());
+
+        // When - the rate drops to 3%
+        record(120, 0, 5111L);
+        alertService.evaluate();
+
+        // Then
+        assertEquals(2, alertService.flush());
+        assertTrue(lastBody("2 PAYMENT ALERTS - Imovel").contains("PAYMENT FAILURE RATE RESOLVED"));
+    }
+
+    @Test
+    void evaluate_WhenAlertReturnsWithinCooldown_ShouldSuppressItAndItsResolution() {
+        // Given - an alert that fired and cleared
+        record(40, 10, 5111L);
+        alertService.evaluate();
+        alertService.flush();
+        clock.advance(Duration.ofMinutes(6));
+        record(100, 0, 5111L);
+        alertService.evaluate();
+        alertService.flush();
+
+        // When - it flaps back five minutes later, then clears again
+        clock.advance(Duration.ofMinutes(5));
+        record(40, 10, 5111L);
+        alertService.evaluate();
+        int refired = alertService.flush();
+        clock.advance(Duration.ofMinutes(6));
+        record(100, 0, 5111L);
+        alertService.evaluate();
+        int recleared = alertService.flush();
+
+        // Then - the 15 minute cooldown swallows both
+        assertEquals(0, refired);
+        assertEquals(0, recleared);
+        verify(mailService, times(2)).enqueue(anyList(), any(), anyString(), anyString());
+
+        // When - the next incident comes after the cooldown
+        clock.advance(Duration.ofMinutes(5));
+        record(40, 10, 5111L);
+        alertService.evaluate();
+
+        // Then
+        assertEquals(2, alertService.flush());
+    }
+
+    @Test
+    void sendRateLimitAlert_RepeatedBeforeFlush_ShouldBeMailedOnceWithItsCount() {
+        // When
+        for (int i = 0; i < 1000; i++) {
+            alertService.sendRateLimitAlert("/api/payments/process", i % 2 == 0 ? "42" : null);
+        }
+        verifyNoInteractions(mailService);
+        int sent = alertService.flush();
+
+        // Then
+        assertEquals(1, sent);
+        assertTrue(lastBody("🚦 RATE LIMIT ALERT - Imovel").contains("Occurrences: 1000"));
+        alertService.sendRateLimitAlert("/api/payments/process", null);
+        assertEquals(0, alertService.flush());
+    }
+
+    private void record(int successes, int failures, long errorCode) {
+        for (int i = 0; i < successes; i++) {
+            alertService.recordPaymentSuccess("STRIPE");
+        }
+        for (int i = 0; i < failures; i++) {
+            alertService.recordPaymentFailure("stripe", errorCode, "Your card was declined.");
+        }
+    }
+
+    private String lastBody(String expectedSubject) {
+        ArgumentCaptor<String> subject = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(mailService, atLeastOnce()).enqueue(eq(List.of("admin@example.com")), eq("noreply@example.com"),
+                subject.capture(), body.capture());
+        assertEquals(expectedSubject, subject.getValue());
+        return body.getValue();
+    }
+}
@@ -0,0 +1,145 @@
+package com.imovel.api.payment.monitoring;
+
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.model.Payment;
+import com.imovel.api.payment.model.enums.PaymentGateway;
+import com.imovel.api.payment.model.enums.PaymentMethod;
+import com.imovel.api.payment.model.enums.PaymentStatus;
+import com.imovel.api.payment.repository.PaymentRepository;
+import com.imovel.api.support.MutableClock;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class PaymentHealthIndicatorTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MutableClock clock;
+    private PaymentConfig.Health config;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.now(), ZoneId.systemDefault());
+        config = new PaymentConfig.Health();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void health_ShouldAnswerProbesWithoutAnySqlStatement() {
+        // Given - a reconciled snapshot of four payments, one failed
+        for (int i = 0; i < 3; i++) {
+            paymentRepository.save(payment(PaymentStatus.SUCCEEDED));
+        }
+        paymentRepository.save(payment(PaymentStatus.FAILED));
+        PaymentHealthIndicator indicator = new PaymentHealthIndicator(paymentRepository, config, clock);
+        config.setFailureRateThreshold(30.0);
+        statistics.clear();
+        indicator.reconcile();
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+
+        // When - a thousand probes, with payments arriving in between
+        statistics.clear();
+        Health health = null;
+        for (int i = 0; i < 1000; i++) {
+            health = indicator.health();
+        }
+        indicator.recordPayment(false);
+        health = indicator.health();
+
+        // Then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(5L, health.getDetails().get("totalPayments"));
+        assertEquals(5L, health.getDetails().get("recentPayments1h"));
+        assertEquals(1L, health.getDetails().get("recentFailedPayments1h"));
+        assertEquals("20.00%", health.getDetails().get("failureRate1h"));
+    }
+
+    @Test
+    void health_ShouldReflectIncrementalFailuresUntilTheNextReconcile() {
+        // Given
+        PaymentRepository repository = mock(PaymentRepository.class);
+        when(repository.count()).thenReturn(100L);
+        when(repository.countByCreatedAtAfter(any())).thenReturn(10L);
+        PaymentHealthIndicator indicator = new PaymentHealthIndicator(repository, config, clock);
+        indicator.reconcile();
+
+        // When - ten failures in a row on this node
+        for (int i = 0; i < 10; i++) {
+            indicator.recordPayment(true);
+        }
+
+        // Then - 10 of 20 recent payments failed
+        Health health = indicator.health();
+        assertEquals(PaymentHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals("50.00%", health.getDetails().get("failureRate1h"));
+
+        // When - the database has seen more traffic from other nodes
+        when(repository.countByCreatedAtAfter(any())).thenReturn(40L);
+        when(repository.countByCreatedAtAfterAndStatus(any(), eq(PaymentStatus.FAILED))).thenReturn(2L);
+        indicator.reconcile();
+
+        // Then - the deltas were folded into the snapshot
+        health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("5.00%", health.getDetails().get("failureRate1h"));
+    }
+
+    @Test
+    void health_WhenSnapshotIsStaleOrReconcileFails_ShouldNotReportUp() {
+        // Given
+        PaymentRepository repository = mock(PaymentRepository.class);
+        PaymentHealthIndicator indicator = new PaymentHealthIndicator(repository, config, clock);
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+        indicator.reconcile();
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        // When - no reconcile for longer than the allowed staleness
+        clock.advance(Duration.ofMillis(config.getMaxStalenessMs() + 1));
+
+        // Then
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+
+        // When - the database is unreachable
+        when(repository.count()).thenThrow(new IllegalStateException("Connection refused"));
+        indicator.reconcile();
+
+        // Then
+        Health health = indicator.health();
+        assertEquals(PaymentHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(false, health.getDetails().get("databaseConnected"));
+    }
+
+    private static Payment payment(PaymentStatus status) {
+        Payment payment = new Payment(7L, new BigDecimal("25.00"), "USD", 1L, "Guest",
+                PaymentGateway.STRIPE, PaymentMethod.CREDIT_CARD);
+        payment.setStatus(status);
+        return payment;
+    }
+}
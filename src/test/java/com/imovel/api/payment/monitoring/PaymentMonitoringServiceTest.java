@@ -0,0 +1,74 @@
+package com.imovel.api.payment.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PaymentMonitoringServiceTest {
+
+    private PrometheusMeterRegistry registry;
+    private PaymentAlertService alertService;
+    private PaymentMonitoringService monitoringService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        alertService = mock(PaymentAlertService.class);
+        monitoringService = new PaymentMonitoringService(registry, alertService, mock(PaymentHealthIndicator.class));
+    }
+
+    @Test
+    void constructor_ShouldPreRegisterEveryGatewayOperationAndOutcome() {
+        // When
+        String scrape = registry.scrape();
+
+        // Then - 4 gateways + "other", 3 operations, 2 outcomes
+        assertEquals(30, registry.find(PaymentMonitoringService.OPERATIONS_COUNTER).counters().size());
+        assertEquals(30, registry.find(PaymentMonitoringService.DURATION_TIMER).timers().size());
+        assertTrue(scrape.contains("payment_operations_total{gateway=\"paypal\",operation=\"refund\",outcome=\"failure\",} 0.0"));
+    }
+
+    @Test
+    void recordPaymentSuccessAndFailure_ShouldIncrementTaggedSeries() {
+        // When
+        monitoringService.recordPaymentSuccess("STRIPE", new BigDecimal("25.00"));
+        monitoringService.recordPaymentSuccess("stripe", new BigDecimal("75.00"));
+        monitoringService.recordPaymentFailure("stripe", 5101L, "card_declined", new BigDecimal("10.00"));
+        monitoringService.recordPaymentSuccess("acme", BigDecimal.ONE);
+
+        // Then
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("payment_operations_total{gateway=\"stripe\",operation=\"payment\",outcome=\"success\",} 2.0"));
+        assertTrue(scrape.contains("payment_operations_total{gateway=\"stripe\",operation=\"payment\",outcome=\"failure\",} 1.0"));
+        assertTrue(scrape.contains("payment_operations_total{gateway=\"other\",operation=\"payment\",outcome=\"success\",} 1.0"));
+        assertTrue(scrape.contains("payment_operation_amount_sum{gateway=\"stripe\",operation=\"payment\",outcome=\"success\",} 100.0"));
+        assertFalse(scrape.contains("card_declined"));
+        verify(alertService).recordPaymentFailure("stripe", 5101L, "card_declined");
+        verify(alertService).recordPaymentSuccess("acme");
+    }
+
+    @Test
+    void recordProcessingTime_ShouldPublishSloBucketsUnderOutcomeTags() {
+        // When
+        monitoringService.recordPaymentProcessingTime(Duration.ofMillis(200), "stripe", true);
+        monitoringService.recordRefundProcessingTime(Duration.ofMillis(700), "stripe", false);
+        Timer.Sample sample = monitoringService.startTimer();
+        monitoringService.stopWebhookTimer(sample, "stripe", true);
+
+        // Then
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("payment_operation_duration_seconds_bucket{gateway=\"stripe\",operation=\"payment\",outcome=\"success\",le=\"0.25\",} 1.0"));
+        assertTrue(scrape.contains("payment_operation_duration_seconds_bucket{gateway=\"stripe\",operation=\"payment\",outcome=\"success\",le=\"0.1\",} 0.0"));
+        assertTrue(scrape.contains("payment_operation_duration_seconds_bucket{gateway=\"stripe\",operation=\"refund\",outcome=\"failure\",le=\"1.0\",} 1.0"));
+        assertTrue(scrape.contains("payment_operation_duration_seconds_count{gateway=\"stripe\",operation=\"webhook\",outcome=\"success\",} 1.0"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.imovel.api.payment.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long BUCKET = 10_000;
+
+    @Test
+    void sum_ShouldDropBucketsThatRolledOutOfTheWindow() {
+        // Given - a one minute ring of 10s buckets
+        SlidingWindowCounter counter = new SlidingWindowCounter(BUCKET, 6);
+        long start = 1_700_000_000_000L;
+        counter.increment(start);
+        counter.increment(start + 5_000);
+        counter.increment(start + 25_000);
+
+        // When / Then
+        assertEquals(3, counter.sum(start + 25_000, 6));
+        assertEquals(1, counter.sum(start + 25_000, 1));
+        assertEquals(1, counter.sum(start + 60_000, 6));
+        assertEquals(0, counter.sum(start + 90_000, 6));
+    }
+
+    @Test
+    void increment_AfterTheRingWrapped_ShouldResetTheReusedSlot() {
+        // Given
+        SlidingWindowCounter counter = new SlidingWindowCounter(BUCKET, 6);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < 5; i++) {
+            counter.increment(start);
+        }
+
+        // When - exactly one ring later the same slot is reused
+        counter.increment(start + 6 * BUCKET);
+
+        // Then
+        assertEquals(1, counter.sum(start + 6 * BUCKET, 6));
+        assertEquals(6, counter.bucketsFor(TimeUnit.MINUTES.toMillis(15)));
+        assertEquals(2, counter.bucketsFor(15_000));
+    }
+
+    @Test
+    void increment_FromManyThreadsRollingOverTheSameSlot_ShouldNotLoseCounts() throws Exception {
+        // Given - the slot still holds counts from one ring earlier
+        SlidingWindowCounter counter = new SlidingWindowCounter(BUCKET, 90);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < 1000; i++) {
+            counter.increment(start - 90 * BUCKET);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch ready = new CountDownLatch(1);
+        Future<?>[] futures = new Future<?>[16];
+
+        try {
+            // When - every thread races to reset the slot for the new bucket
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    ready.await();
+                    for (int i = 0; i < 50_000; i++) {
+                        counter.increment(start);
+                    }
+                    return null;
+                });
+            }
+            ready.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then - a late event for the old bucket does not clobber the new one either
+        counter.increment(start - 90 * BUCKET);
+        assertEquals(800_000, counter.sum(start, 90));
+    }
+}
@@ -0,0 +1,226 @@
+package com.imovel.api.payment.statistics;
+
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.model.Payment;
+import com.imovel.api.payment.model.enums.PaymentStatus;
+import com.imovel.api.payment.repository.PaymentDailyStatRepository;
+import com.imovel.api.payment.repository.PaymentRepository;
+import com.imovel.api.payment.service.PaymentService.PaymentStatistics;
+import com.imovel.api.repository.ConfigurationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class PaymentStatisticsServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    private static final int DAYS = 60;
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP"};
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentDailyStatRepository paymentDailyStatRepository;
+
+    @Autowired
+    private ConfigurationRepository configurationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PaymentConfig paymentConfig;
+    private PaymentStatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() {
+        paymentConfig = new PaymentConfig();
+        statisticsService = new PaymentStatisticsService(paymentRepository, paymentDailyStatRepository,
+                configurationRepository, paymentConfig);
+    }
+
+    @Test
+    void getStatistics_ShouldMatchInMemoryAggregation() {
+        // Given
+        insertPayments(3000, 5, new Random(42));
+
+        // When / Then
+        for (Long userId : List.of(1L, 3L, 99L)) {
+            for (LocalDateTime[] range : ranges()) {
+                assertSameStatistics(legacyStatistics(userId, range[0], range[1]),
+                        statisticsService.getStatistics(userId, range[0], range[1]));
+            }
+        }
+    }
+
+    @Test
+    void getStatistics_WithDailyRollup_ShouldMatchInMemoryAggregation() {
+        // Given - rollup covers every day before day 45
+        insertPayments(3000, 5, new Random(7));
+        paymentConfig.getStatistics().setRollupEnabled(true);
+        PaymentDailyRollupService rollup = rollupAt(FIRST_DAY.plusDays(45).atTime(0, 10));
+
+        // When
+        int days = rollup.rollUp();
+
+        // Then
+        assertEquals(45, days);
+        for (LocalDateTime[] range : ranges()) {
+            assertSameStatistics(legacyStatistics(2L, range[0], range[1]),
+                    statisticsService.getStatistics(2L, range[0], range[1]));
+        }
+    }
+
+    @Test
+    void rollUp_AfterLateStatusChanges_ShouldOnlyRecomputeChangedDays() {
+        // Given
+        insertPayments(2000, 3, new Random(11));
+        paymentConfig.getStatistics().setRollupEnabled(true);
+        LocalDateTime firstRun = FIRST_DAY.plusDays(30).atTime(1, 0);
+        rollupAt(firstRun).rollUp();
+
+        // When - payments from day 3 are refunded a day later
+        LocalDateTime refundTime = firstRun.plusDays(1);
+        jdbcTemplate.update("UPDATE payments SET status = 'REFUNDED', updated_at = ? WHERE created_at >= ? AND created_at < ?",
+                Timestamp.valueOf(refundTime), Timestamp.valueOf(FIRST_DAY.plusDays(3).atStartOfDay()),
+                Timestamp.valueOf(FIRST_DAY.plusDays(4).atStartOfDay()));
+        int days = rollupAt(refundTime.plusHours(1)).rollUp();
+
+        // Then
+        assertEquals(2, days); // day 3 and the newly closed day 30
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        LocalDateTime end = FIRST_DAY.plusDays(29).atTime(23, 59, 59);
+        for (long userId = 1; userId <= 3; userId++) {
+            assertSameStatistics(legacyStatistics(userId, start, end), statisticsService.getStatistics(userId, start, end));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "payment.statistics.benchmark", matches = "true")
+    void benchmark_500kPayments() {
+        // Given
+        insertPayments(500_000, 20, new Random(1));
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        LocalDateTime end = FIRST_DAY.plusDays(DAYS).atStartOfDay();
+
+        // When
+        long legacyStart = System.nanoTime();
+        PaymentStatistics legacy = legacyStatistics(5L, start, end);
+        long legacyNanos = System.nanoTime() - legacyStart;
+
+        long aggregateStart = System.nanoTime();
+        PaymentStatistics aggregated = statisticsService.getStatistics(5L, start, end);
+        long aggregateNanos = System.nanoTime() - aggregateStart;
+
+        // Then
+        assertSameStatistics(legacy, aggregated);
+        System.out.printf("payment statistics over %d payments: in-memory %d ms, grouped query %d ms%n",
+                legacy.getTotalCount(), legacyNanos / 1_000_000, aggregateNanos / 1_000_000);
+    }
+
+    private PaymentDailyRollupService rollupAt(LocalDateTime now) {
+        ZoneId zone = ZoneId.systemDefault();
+        Clock clock = Clock.fixed(now.atZone(zone).toInstant(), zone);
+        return new PaymentDailyRollupService(paymentRepository, paymentDailyStatRepository,
+                configurationRepository, paymentConfig, clock);
+    }
+
+    private static List<LocalDateTime[]> ranges() {
+        return List.of(
+                new LocalDateTime[]{FIRST_DAY.atStartOfDay(), FIRST_DAY.plusDays(DAYS).atStartOfDay()},
+                new LocalDateTime[]{FIRST_DAY.plusDays(3).atTime(13, 17), FIRST_DAY.plusDays(50).atTime(8, 5)},
+                new LocalDateTime[]{FIRST_DAY.plusDays(10).atStartOfDay(), FIRST_DAY.plusDays(20).atStartOfDay()},
+                new LocalDateTime[]{FIRST_DAY.plusDays(44).atTime(6, 0), FIRST_DAY.plusDays(46).atTime(18, 0)},
+                new LocalDateTime[]{FIRST_DAY.plusDays(5).atTime(9, 0), FIRST_DAY.plusDays(5).atTime(17, 0)});
+    }
+
+    /**
+     * The previous implementation: load the entities and aggregate in Java.
+     */
+    private PaymentStatistics legacyStatistics(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
+        List<Payment> payments = paymentRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal successfulAmount = BigDecimal.ZERO;
+        BigDecimal failedAmount = BigDecimal.ZERO;
+        BigDecimal refundedAmount = BigDecimal.ZERO;
+        long successfulCount = 0;
+        long failedCount = 0;
+        long refundedCount = 0;
+        for (Payment payment : payments) {
+            totalAmount = totalAmount.add(payment.getAmount());
+            switch (payment.getStatus()) {
+                case SUCCEEDED:
+                    successfulAmount = successfulAmount.add(payment.getAmount());
+                    successfulCount++;
+                    break;
+                case FAILED:
+                    failedAmount = failedAmount.add(payment.getAmount());
+                    failedCount++;
+                    break;
+                case REFUNDED:
+                case PARTIALLY_REFUNDED:
+                    refundedAmount = refundedAmount.add(payment.getAmount());
+                    refundedCount++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new PaymentStatistics(totalAmount, successfulAmount, failedAmount, refundedAmount,
+                payments.size(), successfulCount, failedCount, refundedCount);
+    }
+
+    private void insertPayments(int count, int users, Random random) {
+        PaymentStatus[] statuses = PaymentStatus.values();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime createdAt = FIRST_DAY.atStartOfDay().plusSeconds(random.nextInt(DAYS * 24 * 3600));
+            if (i % 50 == 0) {
+                // Make sure day boundaries are exercised
+                createdAt = createdAt.toLocalDate().atStartOfDay();
+            }
+            rows.add(new Object[]{
+                    (long) (random.nextInt(users) + 1),
+                    BigDecimal.valueOf(random.nextInt(100_000) + 50, 2),
+                    CURRENCIES[random.nextInt(CURRENCIES.length)],
+                    "Customer " + i,
+                    "STRIPE",
+                    "CREDIT_CARD",
+                    statuses[random.nextInt(statuses.length)].name(),
+                    Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(createdAt)
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO payments (user_id, amount, currency, customer_name, gateway, method, " +
+                "status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static void assertSameStatistics(PaymentStatistics expected, PaymentStatistics actual) {
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        assertEquals(expected.getSuccessfulCount(), actual.getSuccessfulCount());
+        assertEquals(expected.getFailedCount(), actual.getFailedCount());
+        assertEquals(expected.getRefundedCount(), actual.getRefundedCount());
+        assertEquals(0, expected.getTotalAmount().compareTo(actual.getTotalAmount()));
+        assertEquals(0, expected.getSuccessfulAmount().compareTo(actual.getSuccessfulAmount()));
+        assertEquals(0, expected.getFailedAmount().compareTo(actual.getFailedAmount()));
+        assertEquals(0, expected.getRefundedAmount().compareTo(actual.getRefundedAmount()));
+    }
+}
@@ -0,0 +1,256 @@
+package com.imovel.api.payment.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imovel.api.payment.config.PaymentConfig;
+import com.imovel.api.payment.dto.PaymentResponse;
+import com.imovel.api.payment.factory.PaymentGatewayFactory;
+import com.imovel.api.payment.gateway.PaymentGatewayInterface;
+import com.imovel.api.payment.model.Payment;
+import com.imovel.api.payment.model.WebhookEvent;
+import com.imovel.api.payment.model.enums.WebhookEventStatus;
+import com.imovel.api.payment.repository.WebhookEventRepository;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.support.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WebhookInboxServiceTest {
+
+    @Autowired
+    private WebhookEventRepository webhookEventRepository;
+
+    private FakeGateway gateway;
+    private MutableClock clock;
+    private PaymentConfig.Webhook config;
+    private WebhookInboxService inbox;
+
+    @BeforeEach
+    void setUp() {
+        gateway = new FakeGateway();
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        config = new PaymentConfig.Webhook();
+        config.setMaxAttempts(3);
+        config.setInitialBackoffMs(1000);
+        config.setLeaseMs(60000);
+
+        PaymentGatewayFactory factory = mock(PaymentGatewayFactory.class);
+        when(factory.getPaymentGateway("fake")).thenReturn(gateway);
+        inbox = new WebhookInboxService(webhookEventRepository, factory, config, clock, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhookEventRepository.deleteAll();
+    }
+
+    @Test
+    void accept_WithRedeliveredEvent_ShouldStoreAndApplyOnce() {
+        // Given
+        String payload = event("evt_1", "pi_1", 100);
+
+        // When
+        boolean first = inbox.accept(gateway, payload, "sig");
+        boolean second = inbox.accept(gateway, payload, "sig");
+        inbox.processDueEvents();
+        inbox.accept(gateway, payload, "sig");
+        inbox.processDueEvents();
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, webhookEventRepository.count());
+        assertEquals(List.of("evt_1"), gateway.applied);
+    }
+
+    @Test
+    void processDueEvents_WithEventsReceivedOutOfOrder_ShouldApplyInCreationOrder() {
+        // Given
+        inbox.accept(gateway, event("evt_late", "pi_1", 200), "sig");
+        inbox.accept(gateway, event("evt_early", "pi_1", 100), "sig");
+
+        // When
+        inbox.processDueEvents();
+
+        // Then
+        assertEquals(List.of("evt_early", "evt_late"), gateway.applied);
+        assertEquals(2, webhookEventRepository.countByStatus(WebhookEventStatus.PROCESSED));
+    }
+
+    @Test
+    void processDueEvents_WithOlderEventArrivingAfterNewerApplied_ShouldSupersedeIt() {
+        // Given
+        inbox.accept(gateway, event("evt_new", "pi_1", 200), "sig");
+        inbox.processDueEvents();
+
+        // When
+        inbox.accept(gateway, event("evt_old", "pi_1", 100), "sig");
+        inbox.processDueEvents();
+
+        // Then
+        assertEquals(List.of("evt_new"), gateway.applied);
+        assertEquals(WebhookEventStatus.SUPERSEDED, status("evt_old"));
+    }
+
+    @Test
+    void processDueEvents_WithChargeEventBeforeItsPaymentIntentEvent_ShouldStillApplyThePaymentIntentEvent() {
+        // Given - a newer charge event for the same intent is handled first
+        inbox.accept(gateway, event("evt_charge", "charge.succeeded", "pi_1", 200), "sig");
+        inbox.processDueEvents();
+
+        // When
+        inbox.accept(gateway, event("evt_intent", "payment_intent.succeeded", "pi_1", 100), "sig");
+        inbox.processDueEvents();
+
+        // Then
+        assertEquals(WebhookEventStatus.IGNORED, status("evt_charge"));
+        assertEquals(WebhookEventStatus.PROCESSED, status("evt_intent"));
+        assertEquals(List.of("evt_intent"), gateway.applied);
+    }
+
+    @Test
+    void processDueEvents_WithLeaseLeftByCrashedWorker_ShouldReclaimAfterExpiry() {
+        // Given - a worker claimed the event and died before finishing
+        inbox.accept(gateway, event("evt_1", "pi_1", 100), "sig");
+        WebhookEvent stored = webhookEventRepository.findByEventId("evt_1").orElseThrow();
+        webhookEventRepository.claim(stored.getId(), clock.instant(), clock.instant().plusMillis(config.getLeaseMs()));
+
+        // When
+        inbox.processDueEvents();
+        List<String> appliedWhileLeased = new ArrayList<>(gateway.applied);
+        clock.advance(Duration.ofMillis(config.getLeaseMs() + 1));
+        inbox.processDueEvents();
+
+        // Then
+        assertTrue(appliedWhileLeased.isEmpty());
+        assertEquals(List.of("evt_1"), gateway.applied);
+        WebhookEvent processed = webhookEventRepository.findByEventId("evt_1").orElseThrow();
+        assertEquals(WebhookEventStatus.PROCESSED, processed.getStatus());
+        assertEquals(2, processed.getAttempts());
+    }
+
+    @Test
+    void processDueEvents_WithPersistentFailure_ShouldBackOffThenDeadLetter() {
+        // Given
+        gateway.failing = true;
+        inbox.accept(gateway, event("evt_1", "pi_1", 100), "sig");
+        inbox.accept(gateway, event("evt_2", "pi_1", 200), "sig");
+
+        // When / Then - the first failure is retried only once its backoff has elapsed
+        inbox.processDueEvents();
+        assertEquals(WebhookEventStatus.FAILED, status("evt_1"));
+        inbox.processDueEvents();
+        assertEquals(1, webhookEventRepository.findByEventId("evt_1").orElseThrow().getAttempts());
+        assertEquals(WebhookEventStatus.RECEIVED, status("evt_2"));
+
+        clock.advance(Duration.ofSeconds(1));
+        inbox.processDueEvents();
+        clock.advance(Duration.ofSeconds(2));
+        inbox.processDueEvents();
+        assertEquals(WebhookEventStatus.DEAD_LETTER, status("evt_1"));
+
+        // Later events for the same payment continue once the blocking one is dead-lettered
+        gateway.failing = false;
+        inbox.processDueEvents();
+        assertEquals(WebhookEventStatus.PROCESSED, status("evt_2"));
+    }
+
+    private WebhookEventStatus status(String eventId) {
+        return webhookEventRepository.findByEventId(eventId).orElseThrow().getStatus();
+    }
+
+    private static String event(String id, String paymentIntentId, long created) {
+        return event(id, "payment_intent.succeeded", paymentIntentId, created);
+    }
+
+    private static String event(String id, String type, String paymentIntentId, long created) {
+        return "{\"id\":\"" + id + "\",\"type\":\"" + type + "\",\"payment_intent\":\""
+                + paymentIntentId + "\",\"created\":" + created + "}";
+    }
+
+    private static final class FakeGateway implements PaymentGatewayInterface {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final List<String> applied = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public WebhookEventEnvelope verifyWebhook(String webhookPayload, String signature) {
+            try {
+                JsonNode node = objectMapper.readTree(webhookPayload);
+                return new WebhookEventEnvelope(node.path("id").asText(), node.path("type").asText(),
+                        node.path("payment_intent").asText(), node.path("created").asLong());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean applyWebhookEvent(WebhookEvent event) {
+            if (failing) {
+                throw new IllegalStateException("downstream unavailable");
+            }
+            // Like Stripe, only payment intent events change a payment
+            if (!event.getEventType().startsWith("payment_intent.")) {
+                return false;
+            }
+            applied.add(event.getEventId());
+            return true;
+        }
+
+        @Override
+        public String getGatewayName() {
+            return "fake";
+        }
+
+        @Override
+        public ApplicationResponse<PaymentResponse> processPayment(Payment payment, Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ApplicationResponse<PaymentResponse> processRefund(Payment payment, BigDecimal refundAmount, String reason) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ApplicationResponse<PaymentResponse> verifyPaymentStatus(String gatewayPaymentId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ApplicationResponse<PaymentResponse> cancelPayment(Payment payment) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean supportsCurrency(String currency) {
+            return true;
+        }
+
+        @Override
+        public BigDecimal getMinimumAmount(String currency) {
+            return BigDecimal.ONE;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.imovel.api.purge;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ChunkedPurger.class, PurgeConfig.class, SimpleMeterRegistry.class})
+// Each batch commits on its own, as in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChunkedPurgerTest {
+
+    private static final PurgeTarget REVOKED_TOKENS =
+            new PurgeTarget("revoked_tokens", "RevokedToken", "expiresAt", now -> now);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ChunkedPurger purger;
+
+    @Autowired
+    private PurgeConfig config;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        config.setPause(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createQuery("DELETE FROM RevokedToken").executeUpdate());
+    }
+
+    @Test
+    void purge_ShouldNeverDeleteMoreThanABatchPerStatement() {
+        assertPurgedInBoundedBatches(20_000, 1_000);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "purge.large", matches = "true")
+    void purge_TwoMillionRows_ShouldNeverDeleteMoreThanABatchPerStatement() {
+        assertPurgedInBoundedBatches(2_000_000, 10_000);
+    }
+
+    @Test
+    void purge_ShouldStopWhenToldTo() {
+        // Given
+        config.setBatchSize(100);
+        insertRevocations(1_000);
+        AtomicInteger batches = new AtomicInteger();
+
+        // When - the lease is lost after three batches
+        long deleted = purger.purge(REVOKED_TOKENS, Instant.now(), () -> batches.incrementAndGet() <= 3);
+
+        // Then
+        assertEquals(150, deleted);
+        assertEquals(850L, count("SELECT COUNT(r) FROM RevokedToken r"));
+    }
+
+    @Test
+    void purge_WithNothingExpired_ShouldRunOnlyTheBoundsQuery() {
+        // Given
+        insertRevocations(1);
+
+        // When
+        long deleted = purger.purge(REVOKED_TOKENS, Instant.now(), () -> fail("no batch expected"));
+
+        // Then
+        assertEquals(0, deleted);
+    }
+
+    private void assertPurgedInBoundedBatches(int rows, int batchSize) {
+        // Given - every other revocation expired
+        config.setBatchSize(batchSize);
+        insertRevocations(rows);
+
+        // When - under a target name of its own, so the meters start empty
+        String name = "revoked_tokens_" + rows;
+        long deleted = purger.purge(new PurgeTarget(name, "RevokedToken", "expiresAt", now -> now), Instant.now(), () -> true);
+
+        // Then
+        assertEquals(rows / 2L, deleted);
+        assertEquals(rows / 2L, count("SELECT COUNT(r) FROM RevokedToken r"));
+        assertEquals(0L, count("SELECT COUNT(r) FROM RevokedToken r WHERE r.expiresAt < CURRENT_TIMESTAMP"));
+        DistributionSummary batches = meterRegistry.get("purge.batch.rows").tag("target", name).summary();
+        assertEquals(rows / batchSize, batches.count());
+        assertEquals(rows / 2, batches.totalAmount());
+        assertTrue(batches.max() <= batchSize, "largest batch " + batches.max());
+        assertEquals(0, meterRegistry.get("purge.remaining.ids").tag("target", name).gauge().value());
+    }
+
+    private void insertRevocations(int rows) {
+        // Even ids expired an hour ago, odd ids expire in an hour
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.createNativeQuery(
+                "INSERT INTO revoked_tokens (jti, expires_at, revoked_at) " +
+                "SELECT 'jti-' || X, DATEADD('HOUR', CASE WHEN MOD(X, 2) = 0 THEN -1 ELSE 1 END, CURRENT_TIMESTAMP), " +
+                "CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?1)")
+                .setParameter(1, rows)
+                .executeUpdate());
+    }
+
+    private long count(String query) {
+        return entityManager.createQuery(query, Long.class).getSingleResult();
+    }
+}
@@ -0,0 +1,143 @@
+package com.imovel.api.purge;
+
+import com.imovel.api.booking.BookingFixtures;
+import com.imovel.api.booking.model.AvailabilityRange;
+import com.imovel.api.booking.model.AvailabilityTerms;
+import com.imovel.api.model.Property;
+import com.imovel.api.model.RevokedToken;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.repository.JobLeaseRepository;
+import com.imovel.api.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static com.imovel.api.booking.BookingFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ChunkedPurger.class, PurgeConfig.class, SimpleMeterRegistry.class})
+class ExpiredDataPurgeJobTest {
+
+    @Autowired
+    private ChunkedPurger purger;
+
+    @Autowired
+    private PurgeConfig config;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        config.setPause(Duration.ZERO);
+        now = Instant.now();
+    }
+
+    @Test
+    void acquireLease_ShouldAllowOneNodeAtATime() {
+        // Given
+        ExpiredDataPurgeJob first = job(now);
+        ExpiredDataPurgeJob second = job(now);
+
+        // When / Then
+        assertTrue(first.acquireLease());
+        assertFalse(second.acquireLease());
+        assertTrue(first.acquireLease(), "the owner can extend its lease");
+    }
+
+    @Test
+    void acquireLease_AfterExpiry_ShouldMoveToAnotherNode() {
+        // Given
+        assertTrue(job(now).acquireLease());
+
+        // When
+        ExpiredDataPurgeJob later = job(now.plus(config.getLease()).plusSeconds(1));
+
+        // Then
+        assertTrue(later.acquireLease());
+    }
+
+    @Test
+    void run_ShouldPurgeExpiredRowsAndReleaseTheLease() {
+        // Given
+        revokedTokenRepository.save(new RevokedToken("expired", now.minusSeconds(60), now.minusSeconds(600)));
+        revokedTokenRepository.save(new RevokedToken("live", now.plusSeconds(600), now));
+        revokedTokenRepository.flush();
+
+        // When
+        job(now).run();
+
+        // Then
+        assertFalse(revokedTokenRepository.existsByJtiAndExpiresAtAfter("expired", Instant.MIN));
+        assertTrue(revokedTokenRepository.existsByJtiAndExpiresAtAfter("live", now));
+        assertTrue(job(now.plusSeconds(1)).acquireLease(), "the lease is released after the run");
+    }
+
+    @Test
+    void run_ShouldPurgeAvailabilityRangesEndingBeforeTheCutoff() {
+        // Given - the last night of the first two ranges is before the cutoff
+        LocalDate cutoff = LocalDate.ofInstant(now.minus(config.getAvailabilityRetention()), ZoneId.systemDefault());
+        Property property = property();
+        AvailabilityRange old = entityManager.persist(
+                new AvailabilityRange(property, cutoff.minusDays(30), cutoff.minusDays(10), AvailabilityTerms.DEFAULT));
+        AvailabilityRange endingOnCutoff = entityManager.persist(
+                new AvailabilityRange(property, cutoff.minusDays(10), cutoff, AvailabilityTerms.DEFAULT.blocked("Owner stay")));
+        AvailabilityRange current = entityManager.persist(
+                new AvailabilityRange(property, cutoff, cutoff.plusDays(30), AvailabilityTerms.DEFAULT));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        job(now).run();
+
+        // Then
+        assertNull(entityManager.find(AvailabilityRange.class, old.getId()));
+        assertNull(entityManager.find(AvailabilityRange.class, endingOnCutoff.getId()));
+        assertNotNull(entityManager.find(AvailabilityRange.class, current.getId()));
+    }
+
+    @Test
+    void run_WhileAnotherNodeHoldsTheLease_ShouldNotPurge() {
+        // Given
+        revokedTokenRepository.saveAndFlush(new RevokedToken("expired", now.minusSeconds(60), now.minusSeconds(600)));
+        assertTrue(job(now).acquireLease());
+
+        // When
+        job(now).run();
+
+        // Then
+        assertTrue(revokedTokenRepository.existsByJtiAndExpiresAtAfter("expired", Instant.MIN));
+    }
+
+    private Property property() {
+        User owner = entityManager.persist(user("host@example.com", entityManager.persist(new Role("HOST", "Host"))));
+        return entityManager.persist(BookingFixtures.property(owner));
+    }
+
+    private ExpiredDataPurgeJob job(Instant at) {
+        return new ExpiredDataPurgeJob(purger, jobLeaseRepository, config, Clock.fixed(at, ZoneOffset.UTC));
+    }
+}
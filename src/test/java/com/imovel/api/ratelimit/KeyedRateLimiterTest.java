@@ -0,0 +1,170 @@
+package com.imovel.api.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedRateLimiterTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong now;
+    private RateLimitConfig config;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(-5_000_000_000L);
+        config = new RateLimitConfig();
+        config.setRules(List.of(
+                rule("refund", 5, Duration.ofMinutes(1), "/api/payments/refund"),
+                rule("payments", 50, Duration.ofSeconds(50), "/api/payments/**")));
+    }
+
+    @Test
+    void resolve_ShouldPickFirstMatchingRule() {
+        // Given
+        KeyedRateLimiter limiter = limiter();
+
+        // When / Then
+        assertEquals("refund", limiter.resolve("/api/payments/refund").getName());
+        assertEquals("payments", limiter.resolve("/api/payments/12/verify").getName());
+        assertNull(limiter.resolve("/api/properties/1"));
+    }
+
+    @Test
+    void tryAcquire_ShouldIsolateClientsAndReportRetryAfter() {
+        // Given
+        KeyedRateLimiter limiter = limiter();
+        KeyedRateLimiter.Limit refund = limiter.resolve("/api/payments/refund");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(refund, "user:1"));
+        }
+
+        // When
+        long wait = limiter.tryAcquire(refund, "user:1");
+
+        // Then - one token refills every 12s, and other clients are unaffected
+        assertEquals(TimeUnit.SECONDS.toNanos(12), wait);
+        assertEquals(0, limiter.tryAcquire(refund, "user:2"));
+        assertEquals(0, limiter.tryAcquire(refund, "ip:10.0.0.1"));
+        now.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire(refund, "user:1"));
+        assertTrue(limiter.tryAcquire(refund, "user:1") > 0);
+    }
+
+    @Test
+    void tryAcquire_With64ConcurrentThreads_ShouldAdmitExactlyTheRefilledTokens() throws Exception {
+        // Given - capacity 50 refilled at one token per second
+        KeyedRateLimiter limiter = limiter();
+        KeyedRateLimiter.Limit payments = limiter.resolve("/api/payments/process");
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+
+        try {
+            // When - 64 threads hammer the same key while time stands still, then after 7 seconds
+            int firstRound = hammer(executor, limiter, payments);
+            now.addAndGet(7 * INTERVAL);
+            int secondRound = hammer(executor, limiter, payments);
+            now.addAndGet(1000 * INTERVAL);
+            int afterIdle = hammer(executor, limiter, payments);
+
+            // Then - never more than the bucket holds, however the CAS races play out
+            assertEquals(50, firstRound);
+            assertEquals(7, secondRound);
+            assertEquals(50, afterIdle);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void tryAcquire_WithOneMillionDistinctKeys_ShouldStayBounded() {
+        // Given
+        config.setMaxKeys(10_000);
+        KeyedRateLimiter limiter = limiter();
+        KeyedRateLimiter.Limit refund = limiter.resolve("/api/payments/refund");
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(refund, "user:abuser");
+        }
+        int maxSize = 0;
+
+        // When - a million one-off clients, with the abuser coming back every so often
+        for (int i = 0; i < 1_000_000; i++) {
+            now.addAndGet(1_000);
+            limiter.tryAcquire(refund, "ip:" + i);
+            if (i % 1000 == 0) {
+                assertTrue(limiter.tryAcquire(refund, "user:abuser") > 0);
+            }
+            maxSize = Math.max(maxSize, limiter.size());
+        }
+
+        // Then - the recently used, still-draining bucket survives eviction
+        assertTrue(maxSize <= 10_000, "size reached " + maxSize);
+        assertTrue(limiter.tryAcquire(refund, "user:abuser") > 0);
+    }
+
+    @Test
+    void sweep_ShouldDropOnlyFullBuckets() {
+        // Given
+        KeyedRateLimiter limiter = limiter();
+        KeyedRateLimiter.Limit refund = limiter.resolve("/api/payments/refund");
+        limiter.tryAcquire(refund, "user:1");
+        now.addAndGet(INTERVAL);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(refund, "user:2");
+        }
+
+        // When - user 1 has refilled after 12s, user 2 still needs more time
+        now.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        limiter.sweep();
+
+        // Then
+        assertEquals(1, limiter.size());
+    }
+
+    private int hammer(ExecutorService executor, KeyedRateLimiter limiter, KeyedRateLimiter.Limit limit)
+            throws Exception {
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] futures = new Future<?>[64];
+        for (int t = 0; t < futures.length; t++) {
+            futures[t] = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    if (limiter.tryAcquire(limit, "user:1") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        return admitted.get();
+    }
+
+    private KeyedRateLimiter limiter() {
+        return new KeyedRateLimiter(config, now::get);
+    }
+
+    private static RateLimitConfig.Rule rule(String name, int capacity, Duration period, String path) {
+        RateLimitConfig.Rule rule = new RateLimitConfig.Rule();
+        rule.setName(name);
+        rule.setCapacity(capacity);
+        rule.setPeriod(period);
+        rule.setPaths(List.of(path));
+        return rule;
+    }
+}
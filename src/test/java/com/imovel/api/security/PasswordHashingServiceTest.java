@@ -0,0 +1,183 @@
+package com.imovel.api.security;
+
+import com.imovel.api.error.ApiCode;
+import com.imovel.api.exception.ServiceUnavailableException;
+import com.imovel.api.model.AuthDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private static final int TEST_ITERATIONS = 1_000;
+
+    private final List<PasswordHashingService> services = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(PasswordHashingService::shutdown);
+    }
+
+    @Test
+    void createAuthDetails_ShouldRecordTheConfiguredIterations() {
+        // Given
+        PasswordHashingService service = service(TEST_ITERATIONS, 1, 4);
+
+        // When
+        AuthDetails authDetails = service.createAuthDetails("s3cret-Pass");
+
+        // Then
+        assertEquals(TEST_ITERATIONS, authDetails.getIterations());
+        assertTrue(service.verify(authDetails, "s3cret-Pass"));
+        assertFalse(service.verify(authDetails, "s3cret-Pasz"));
+        assertFalse(service.needsRehash(authDetails));
+    }
+
+    @Test
+    void verify_ShouldAcceptHashesStoredBeforeIterationsWereRecorded() {
+        // Given - a hash from before the column existed, made with the legacy cost
+        AuthDetails legacy = new PasswordManager().createAuthDetails("s3cret-Pass");
+        legacy.setIterations(null);
+        PasswordHashingService service = service(PasswordManager.LEGACY_ITERATIONS * 2, 1, 4);
+
+        // When / Then
+        assertTrue(service.verify(legacy, "s3cret-Pass"));
+        assertTrue(service.needsRehash(legacy));
+        assertFalse(service(PasswordManager.LEGACY_ITERATIONS, 1, 4).needsRehash(legacy));
+    }
+
+    @Test
+    void createAuthDetails_ShouldUseAFreshSaltEachTime() {
+        // Given
+        PasswordHashingService service = service(TEST_ITERATIONS, 1, 4);
+
+        // When
+        AuthDetails first = service.createAuthDetails("s3cret-Pass");
+        AuthDetails second = service.createAuthDetails("s3cret-Pass");
+
+        // Then
+        assertNotEquals(first.getSalt(), second.getSalt());
+        assertNotEquals(first.getHash(), second.getHash());
+    }
+
+    @Test
+    void verify_ShouldRejectWithServiceUnavailableWhenTheQueueIsFull() throws Exception {
+        // Given - the only thread and the only queue slot are taken by slow hashes
+        PasswordHashingService service = service(PasswordManager.LEGACY_ITERATIONS * 16, 1, 1);
+        AuthDetails stored = service(TEST_ITERATIONS, 1, 1).createAuthDetails("s3cret-Pass");
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> service.createAuthDetails("busy-1"));
+            callers.submit(() -> service.createAuthDetails("busy-2"));
+            awaitQueueDepth(service, 1);
+
+            // When
+            ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                    () -> service.verify(stored, "s3cret-Pass"));
+
+            // Then
+            assertEquals(ApiCode.SERVICE_UNAVAILABLE.getHttpStatus(), exception.getErrorCode().getStatus());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "password.hashing.benchmark", matches = "true")
+    void benchmark_OtherRequestsDuringALoginStorm() throws Exception {
+        // Given - 32 threads logging in continuously while one thread serves booking-sized requests
+        int processors = Runtime.getRuntime().availableProcessors();
+        PasswordHashingService service = service(PasswordManager.LEGACY_ITERATIONS, 0, 32);
+        AuthDetails stored = service.createAuthDetails("s3cret-Pass");
+        PasswordManager direct = new PasswordManager();
+
+        long baseline = medianBookingNanos(Duration.ofSeconds(2));
+        long inline = duringStorm(() -> direct.verifyPassword("s3cret-Pass", stored), 32);
+        AtomicInteger rejected = new AtomicInteger();
+        long pooled = duringStorm(() -> {
+            try {
+                service.verify(stored, "s3cret-Pass");
+            } catch (ServiceUnavailableException e) {
+                rejected.incrementAndGet();
+            }
+        }, 32);
+
+        // Then
+        System.out.printf("%d processors: booking median %d us idle, %d us during inline login storm, "
+                        + "%d us with the hashing pool (%d logins turned away)%n",
+                processors, baseline / 1_000, inline / 1_000, pooled / 1_000, rejected.get());
+    }
+
+    private long duringStorm(Runnable login, int loginThreads) throws Exception {
+        ExecutorService storm = Executors.newFixedThreadPool(loginThreads);
+        CountDownLatch started = new CountDownLatch(loginThreads);
+        for (int i = 0; i < loginThreads; i++) {
+            storm.submit(() -> {
+                started.countDown();
+                while (!Thread.currentThread().isInterrupted()) {
+                    login.run();
+                }
+            });
+        }
+        started.await();
+        try {
+            return medianBookingNanos(Duration.ofSeconds(5));
+        } finally {
+            storm.shutdownNow();
+            storm.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Median latency of a booking-sized unit of CPU work, run on its own thread
+     */
+    private long medianBookingNanos(Duration duration) {
+        List<Long> samples = new ArrayList<>();
+        long end = System.nanoTime() + duration.toNanos();
+        long sink = 0;
+        while (System.nanoTime() < end) {
+            long start = System.nanoTime();
+            long[] prices = new long[2_000];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = (i * 31L) % 997;
+            }
+            Arrays.sort(prices);
+            sink += prices[prices.length / 2];
+            samples.add(System.nanoTime() - start);
+        }
+        assertTrue(sink >= 0);
+        samples.sort(Long::compare);
+        return samples.get(samples.size() / 2);
+    }
+
+    private void awaitQueueDepth(PasswordHashingService service, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getQueueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, service.getQueueDepth());
+    }
+
+    private PasswordHashingService service(int iterations, int threads, int queueCapacity) {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setIterations(iterations);
+        config.setThreads(threads);
+        config.setQueueCapacity(queueCapacity);
+        config.setTimeout(Duration.ofSeconds(30));
+        PasswordHashingService service = new PasswordHashingService(new PasswordManager(), config);
+        services.add(service);
+        return service;
+    }
+}
@@ -0,0 +1,59 @@
+package com.imovel.api.security.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissAnAddedValue() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        String[] values = new String[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.add(values[i]);
+        }
+
+        // When / Then
+        for (String value : values) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+
+    @Test
+    void mightContain_AtCapacity_ShouldStayNearTheConfiguredFalsePositiveRate() {
+        // Given - a filter filled to the number of values it was sized for
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        // When
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false positive rate " + rate);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    void mightContain_WhenEmpty_ShouldRejectEverything() {
+        // Given
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        // When / Then
+        assertFalse(filter.mightContain("anything"));
+        assertTrue(filter.bitCount() >= 64);
+    }
+}
@@ -0,0 +1,123 @@
+package com.imovel.api.security.token;
+
+import com.imovel.api.exception.TokenRefreshException;
+import com.imovel.api.model.RefreshToken;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.repository.RefreshTokenRepository;
+import com.imovel.api.repository.RoleRepository;
+import com.imovel.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenStoreConcurrencyTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RefreshTokenStore store;
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.save(new Role("TENANT", "Tenant"));
+        User created = new User();
+        created.setName("tenant@example.com");
+        created.setEmail("tenant@example.com");
+        created.setRole(role);
+        user = userRepository.save(created);
+
+        store = new RefreshTokenStore(refreshTokenRepository);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void rotate_WithTheSameTokenFromTwoThreads_ShouldLetOnlyOneRefreshSucceed() throws Exception {
+        // Given - two requests that both found the token usable
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> store.issueAfterLogin("current", record(now), now));
+        List<RefreshToken> presented = List.of(
+                store.findActive("current").orElseThrow(),
+                store.findActive("current").orElseThrow());
+
+        // When - both rotate at once
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Boolean>> outcomes = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                RefreshToken token = presented.get(i);
+                String next = "next-" + i;
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> store.rotate(token, next, record(now), 5, now));
+                        return true;
+                    } catch (TokenRefreshException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        int succeeded = 0;
+        for (Future<Boolean> outcome : outcomes) {
+            if (outcome.get()) {
+                succeeded++;
+            }
+        }
+
+        // Then - one new pair, and the presented token is spent
+        assertEquals(1, succeeded);
+        assertTrue(store.findActive("current").isEmpty());
+        assertNotEquals(store.findActive("next-0").isPresent(), store.findActive("next-1").isPresent());
+    }
+
+    private RefreshToken record(Instant now) {
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setExpiresAt(now.plus(1, ChronoUnit.DAYS));
+        return token;
+    }
+}
@@ -0,0 +1,240 @@
+package com.imovel.api.security.token;
+
+import com.imovel.api.model.RefreshToken;
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.repository.RefreshTokenRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class RefreshTokenStoreTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenStore store;
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role("TENANT", "Tenant"));
+        user = user(role, "tenant@example.com");
+        entityManager.flush();
+
+        store = new RefreshTokenStore(refreshTokenRepository);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void hash_ShouldBeFixedLengthHex() {
+        // When
+        String hash = RefreshTokenStore.hash("header.payload.signature");
+
+        // Then
+        assertEquals(64, hash.length());
+        assertTrue(hash.matches("[0-9a-f]{64}"));
+        assertEquals(hash, RefreshTokenStore.hash("header.payload.signature"));
+        assertNotEquals(hash, RefreshTokenStore.hash("header.payload.signaturf"));
+    }
+
+    @Test
+    void issueAfterLogin_ShouldRevokeEveryTokenInOneUpdateAndOneInsert() {
+        // Given
+        Instant now = Instant.now();
+        store.issueAfterLogin("first", record(now), now);
+        store.issueAfterLogin("second", record(now), now);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        statistics.clear();
+        store.issueAfterLogin("third", record(now), now);
+        entityManager.flush();
+
+        // Then
+        assertEquals(2, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        assertTrue(store.findActive("first").isEmpty());
+        assertTrue(store.findActive("second").isEmpty());
+        assertTrue(store.findActive("third").isPresent());
+        assertTrue(refreshTokenRepository.findByTokenHash(RefreshTokenStore.hash("second")).orElseThrow().isRevoked());
+    }
+
+    @Test
+    void refresh_ShouldLookUpAndRotateInFourStatements() {
+        // Given
+        Instant now = Instant.now();
+        store.issueAfterLogin("current", record(now), now);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        statistics.clear();
+        RefreshToken presented = store.findActive("current").orElseThrow();
+        String role = presented.getUser().getRole().getRoleName();
+        store.rotate(presented, "next", record(now), 5, now);
+        entityManager.flush();
+
+        // Then
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals("TENANT", role);
+        entityManager.clear();
+        assertTrue(store.findActive("current").isEmpty(), "a refresh token is single use");
+        assertTrue(store.findActive("next").isPresent());
+    }
+
+    @Test
+    void rotate_ShouldKeepAtMostTheLimitRetiringTheOldest() {
+        // Given - five usable tokens of the user, another user's token, and a limit of three
+        Instant now = Instant.now();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tokens.add("device-" + i);
+            refreshTokenRepository.save(stored("device-" + i, user, now));
+        }
+        User other = user(user.getRole(), "other@example.com");
+        refreshTokenRepository.save(stored("other", other, now));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - the newest device refreshes
+        RefreshToken presented = store.findActive("device-4").orElseThrow();
+        store.rotate(presented, "device-5", record(now), 3, now);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then - the two newest older devices and the new token remain
+        List<String> usable = new ArrayList<>();
+        for (String token : List.of("device-0", "device-1", "device-2", "device-3", "device-4", "device-5")) {
+            if (store.findActive(token).isPresent()) {
+                usable.add(token);
+            }
+        }
+        assertEquals(List.of("device-2", "device-3", "device-5"), usable);
+        assertTrue(store.findActive("other").isPresent());
+    }
+
+    @Test
+    void revoke_ShouldRevokeByHashAndIgnoreUnknownTokens() {
+        // Given
+        Instant now = Instant.now();
+        store.issueAfterLogin("current", record(now), now);
+        entityManager.flush();
+
+        // When
+        store.revoke("current", now);
+        store.revoke("unknown", now);
+        entityManager.clear();
+
+        // Then
+        assertTrue(store.findActive("current").isEmpty());
+        assertTrue(refreshTokenRepository.findByTokenHash(RefreshTokenStore.hash("current")).orElseThrow().isRevoked());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "refresh.token.benchmark", matches = "true")
+    void benchmark_LookupAndRotateAmongOneMillionTokens() {
+        // Given - 1M historical tokens over 100 users, stored both hashed and, as before, as raw JWT-sized strings
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            userIds.add(user(user.getRole(), "user" + i + "@example.com").getId());
+        }
+        entityManager.flush();
+        long firstUserId = userIds.get(0);
+        String padding = "x".repeat(300);
+        entityManager.getEntityManager().createNativeQuery(
+                "INSERT INTO refresh_tokens (token_hash, user_id, revoked, superseded, created_at, expires_at) " +
+                "SELECT RAWTOHEX(HASH('SHA-256', STRINGTOUTF8('" + padding + "' || X))), " + firstUserId + " + MOD(X, 100), " +
+                "TRUE, FALSE, CURRENT_TIMESTAMP, DATEADD('DAY', 1, CURRENT_TIMESTAMP) FROM SYSTEM_RANGE(1, 1000000)")
+                .executeUpdate();
+        entityManager.getEntityManager().createNativeQuery(
+                "CREATE TABLE legacy_refresh_tokens (id BIGINT PRIMARY KEY, token VARCHAR(1000), revoked BOOLEAN, superseded BOOLEAN)")
+                .executeUpdate();
+        entityManager.getEntityManager().createNativeQuery(
+                "INSERT INTO legacy_refresh_tokens SELECT X, '" + padding + "' || X, TRUE, FALSE FROM SYSTEM_RANGE(1, 1000000)")
+                .executeUpdate();
+        assertEquals(RefreshTokenStore.hash(padding + "42"),
+                refreshTokenRepository.findByTokenHash(RefreshTokenStore.hash(padding + "42")).orElseThrow().getTokenHash());
+
+        Instant now = Instant.now();
+        for (int i = 0; i < 100; i++) {
+            store.issueAfterLogin("login-" + i, record(entityManager.find(User.class, userIds.get(i)), now), now);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When - 1,000 refreshes through the hashed index, and 20 lookups by raw token as before
+        long rotateStart = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            String current = i < 100 ? "login-" + i : "refresh-" + (i - 100);
+            RefreshToken presented = store.findActive(current).orElseThrow();
+            store.rotate(presented, "refresh-" + i, record(presented.getUser(), now), 5, now);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        long rotateNanos = System.nanoTime() - rotateStart;
+
+        long legacyStart = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            entityManager.getEntityManager().createNativeQuery(
+                    "SELECT id FROM legacy_refresh_tokens WHERE token = ?1 AND revoked = FALSE AND superseded = FALSE")
+                    .setParameter(1, padding + (i * 50_000 + 1))
+                    .getResultList();
+        }
+        long legacyNanos = System.nanoTime() - legacyStart;
+        entityManager.getEntityManager().createNativeQuery("DROP TABLE legacy_refresh_tokens").executeUpdate();
+
+        // Then
+        System.out.printf("1M stored tokens: hashed lookup + rotation %d us per refresh, raw token lookup %d us%n",
+                rotateNanos / 1_000 / 1_000, legacyNanos / 1_000 / 20);
+    }
+
+    private User user(Role role, String email) {
+        User created = new User();
+        created.setName(email);
+        created.setEmail(email);
+        created.setRole(role);
+        return entityManager.persist(created);
+    }
+
+    private RefreshToken record(Instant now) {
+        return record(user, now);
+    }
+
+    private RefreshToken record(User owner, Instant now) {
+        RefreshToken token = new RefreshToken();
+        token.setUser(owner);
+        token.setExpiresAt(now.plus(1, ChronoUnit.DAYS));
+        return token;
+    }
+
+    private RefreshToken stored(String value, User owner, Instant now) {
+        RefreshToken token = record(owner, now);
+        token.setTokenHash(RefreshTokenStore.hash(value));
+        return token;
+    }
+}
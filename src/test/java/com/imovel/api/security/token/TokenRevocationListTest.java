@@ -0,0 +1,159 @@
+package com.imovel.api.security.token;
+
+import com.imovel.api.model.RevokedToken;
+import com.imovel.api.repository.RevokedTokenRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TokenRevocationListTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationConfig config;
+    private TokenRevocationList revocationList;
+    private Statistics statistics;
+    private Instant expiry;
+
+    @BeforeEach
+    void setUp() {
+        config = new TokenRevocationConfig();
+        config.setMinCapacity(1_000);
+        revocationList = new TokenRevocationList(revokedTokenRepository, config);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        expiry = Instant.now().plus(15, ChronoUnit.MINUTES);
+    }
+
+    @Test
+    void isRevoked_ForTokensNotRevoked_ShouldNotQueryTheDatabase() {
+        // Given - 500 revoked tokens, loaded into the filter
+        for (int i = 0; i < 500; i++) {
+            revokedTokenRepository.save(new RevokedToken(UUID.randomUUID().toString(), expiry, Instant.now()));
+        }
+        revokedTokenRepository.flush();
+        config.setFalsePositiveRate(0.0001);
+        revocationList.rebuild();
+
+        // When - 10k live tokens are checked
+        statistics.clear();
+        int revoked = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (revocationList.isRevoked(UUID.randomUUID().toString())) {
+                revoked++;
+            }
+        }
+
+        // Then - none are revoked and, with at most a rare false positive, no query ran
+        assertEquals(0, revoked);
+        assertTrue(statistics.getPrepareStatementCount() <= 3, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void isRevoked_ShouldSeeALocalRevocationAtOnceWithoutAQuery() {
+        // Given
+        revocationList.rebuild();
+        String jti = UUID.randomUUID().toString();
+        assertFalse(revocationList.isRevoked(jti));
+
+        // When
+        revocationList.revoke(Map.of(jti, expiry));
+        statistics.clear();
+
+        // Then
+        assertTrue(revocationList.isRevoked(jti));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(revokedTokenRepository.existsByJtiAndExpiresAtAfter(jti, Instant.now()));
+    }
+
+    @Test
+    void rebuild_ShouldMoveRecentRevocationsIntoTheFilter() {
+        // Given
+        String jti = UUID.randomUUID().toString();
+        revocationList.revoke(Map.of(jti, expiry));
+        revokedTokenRepository.flush();
+        assertEquals(1, revocationList.recentSize());
+
+        // When
+        revocationList.rebuild();
+
+        // Then - confirmed by one query on the filter hit
+        assertEquals(0, revocationList.recentSize());
+        statistics.clear();
+        assertTrue(revocationList.isRevoked(jti));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rebuild_ShouldPickUpRevocationsMadeOnAnotherNode() {
+        // Given - a revocation written straight to the table after the filter was built
+        revocationList.rebuild();
+        String jti = UUID.randomUUID().toString();
+        revokedTokenRepository.saveAndFlush(new RevokedToken(jti, expiry, Instant.now()));
+
+        // When
+        boolean before = revocationList.isRevoked(jti);
+        revocationList.rebuild();
+
+        // Then
+        assertFalse(before);
+        assertTrue(revocationList.isRevoked(jti));
+    }
+
+    @Test
+    void isRevoked_OnAFalsePositive_ShouldBeClearedByTheDatabase() {
+        // Given - a tiny, overfull filter that answers yes for almost everything
+        config.setMinCapacity(1);
+        config.setFalsePositiveRate(0.5);
+        for (int i = 0; i < 200; i++) {
+            revokedTokenRepository.save(new RevokedToken("revoked-" + i, expiry, Instant.now()));
+        }
+        revokedTokenRepository.flush();
+        revocationList.rebuild();
+        List<String> probes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            probes.add("live-" + i);
+        }
+
+        // When
+        statistics.clear();
+        long revoked = probes.stream().filter(revocationList::isRevoked).count();
+
+        // Then - false positives cost a query each but never reject a live token
+        assertEquals(0, revoked);
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+        assertTrue(revocationList.isRevoked("revoked-7"));
+    }
+
+    @Test
+    void isRevoked_ShouldIgnoreExpiredRevocations() {
+        // Given
+        String jti = UUID.randomUUID().toString();
+        revocationList.revoke(Map.of(jti, Instant.now().minusSeconds(1)));
+
+        // When / Then
+        assertFalse(revocationList.isRevoked(jti));
+        revocationList.rebuild();
+        assertEquals(0, revocationList.recentSize());
+        assertFalse(revocationList.isRevoked(jti));
+    }
+}
@@ -0,0 +1,109 @@
+package com.imovel.api.services;
+
+import com.imovel.api.model.AuthDetails;
+import com.imovel.api.repository.AuthDetailRepository;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.security.PasswordHashingConfig;
+import com.imovel.api.security.PasswordHashingService;
+import com.imovel.api.security.PasswordManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthDetailsServiceTest {
+
+    private static final int OLD_ITERATIONS = 1_000;
+    private static final int NEW_ITERATIONS = 2_000;
+
+    @Autowired
+    private AuthDetailRepository authDetailRepository;
+
+    private final List<Boolean> verifiedInTransaction = new ArrayList<>();
+    private Runnable duringVerify = () -> { };
+    private PasswordHashingService hashingService;
+
+    @AfterEach
+    void tearDown() {
+        authDetailRepository.deleteAll();
+    }
+
+    @Test
+    void verifyUserCredentials_ShouldHashOutsideAnyTransactionAndUpgradeTheCost() {
+        // Given - a password stored at a lower cost than the configured one
+        AuthDetails stored = store("s3cret-Pass");
+        AuthDetailsService service = service();
+
+        // When
+        ApplicationResponse<Boolean> response = service.verifyUserCredentials(stored.getUserId(), "s3cret-Pass");
+
+        // Then - no connection was held while hashing, and the hash was rewritten at the new cost
+        assertTrue(response.isSuccess());
+        assertEquals(List.of(false), verifiedInTransaction);
+        AuthDetails upgraded = authDetailRepository.findByUserId(stored.getUserId()).orElseThrow();
+        assertEquals(NEW_ITERATIONS, upgraded.getIterations());
+        assertNotEquals(stored.getHash(), upgraded.getHash());
+        assertTrue(hashingService.verify(upgraded, "s3cret-Pass"));
+    }
+
+    @Test
+    void verifyUserCredentials_WhenThePasswordChangesMeanwhile_ShouldKeepTheNewPassword() {
+        // Given - the password is changed while the old one is being verified
+        AuthDetails stored = store("s3cret-Pass");
+        AuthDetails changed = new PasswordManager().createAuthDetails("n3w-Pass", NEW_ITERATIONS);
+        duringVerify = () -> {
+            AuthDetails current = authDetailRepository.findByUserId(stored.getUserId()).orElseThrow();
+            current.setSalt(changed.getSalt());
+            current.setHash(changed.getHash());
+            current.setIterations(changed.getIterations());
+            authDetailRepository.save(current);
+        };
+        AuthDetailsService service = service();
+
+        // When
+        ApplicationResponse<Boolean> response = service.verifyUserCredentials(stored.getUserId(), "s3cret-Pass");
+
+        // Then - the login succeeds, but the upgrade does not overwrite the new password
+        assertTrue(response.isSuccess());
+        AuthDetails current = authDetailRepository.findByUserId(stored.getUserId()).orElseThrow();
+        assertEquals(changed.getHash(), current.getHash());
+        assertTrue(hashingService.verify(current, "n3w-Pass"));
+    }
+
+    private AuthDetails store(String password) {
+        AuthDetails authDetails = new PasswordManager().createAuthDetails(password, OLD_ITERATIONS);
+        authDetails.setUserId(42L);
+        return authDetailRepository.save(authDetails);
+    }
+
+    private AuthDetailsService service() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setIterations(NEW_ITERATIONS);
+        config.setThreads(1);
+        config.setQueueCapacity(4);
+        config.setTimeout(Duration.ofSeconds(30));
+        hashingService = new PasswordHashingService(new PasswordManager(), config) {
+            @Override
+            public boolean verify(AuthDetails authDetails, String password) {
+                verifiedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+                boolean valid = super.verify(authDetails, password);
+                duringVerify.run();
+                return valid;
+            }
+        };
+        return new AuthDetailsService(authDetailRepository, hashingService);
+    }
+}
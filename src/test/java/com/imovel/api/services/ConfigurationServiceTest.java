@@ -0,0 +1,124 @@
+package com.imovel.api.services;
+
+import com.imovel.api.repository.ConfigurationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConfigurationServiceTest {
+
+    @Autowired
+    private ConfigurationRepository configurationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        configurationRepository.deleteAll();
+    }
+
+    @Test
+    void put_OnAnotherInstance_ShouldBeVisibleAfterOneRefreshWithoutPerReadQueries() {
+        // Given - two instances sharing the table
+        ConfigurationService writer = instance();
+        ConfigurationService reader = instance();
+        writer.setDefaultConfigurations();
+        reader.refresh();
+        assertEquals(5, reader.getInt(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY));
+
+        // When - one instance changes a value
+        writer.put(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY, "7");
+
+        // Then - the writer sees it at once, and the other instance reads its snapshot without queries
+        assertEquals(7, writer.getInt(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY));
+        statistics.clear();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(5, reader.getInt(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY));
+            assertEquals(900000L, reader.getLong(ConfigurationService.ACCESS_EXPIRATION_KEY));
+            assertTrue(reader.findByConfigKey(ConfigurationService.REFRESH_EXPIRATION_KEY).isPresent());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // When - its next scheduled refresh runs
+        reader.refresh();
+
+        // Then
+        assertEquals(7, reader.getInt(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY));
+        assertEquals("7", reader.findByConfigKey(ConfigurationService.MAX_REFRESH_TOKEN_PER_USER_KEY)
+                .orElseThrow().getConfigValue());
+    }
+
+    @Test
+    void refresh_WithoutChanges_ShouldOnlyReadTheVersionRow() {
+        // Given
+        ConfigurationService service = instance();
+        service.setDefaultConfigurations();
+
+        // When
+        statistics.clear();
+        service.refresh();
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void addMissing_ShouldKeepExistingValuesAndSkipLookupsForKnownKeys() {
+        // Given
+        ConfigurationService service = instance();
+        service.put("LISTING_LIMIT", "10");
+
+        // When
+        int created = service.addMissing(Map.of("LISTING_LIMIT", "3", "PAGE_SIZE", "20"));
+        statistics.clear();
+        int createdAgain = service.addMissing(Map.of("LISTING_LIMIT", "3", "PAGE_SIZE", "20"));
+
+        // Then
+        assertEquals(1, created);
+        assertEquals(0, createdAgain);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(10, service.getInt("LISTING_LIMIT"));
+        assertEquals(20, service.getInt("PAGE_SIZE"));
+    }
+
+    @Test
+    void getInt_WithMissingOrInvalidValue_ShouldFailClearly() {
+        // Given
+        ConfigurationService service = instance();
+        service.put("PAGE_SIZE", "twenty");
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> service.getInt("PAGE_SIZE"));
+        assertThrows(IllegalStateException.class, () -> service.getInt("UNKNOWN_KEY"));
+        assertEquals("twenty", service.getString("PAGE_SIZE").orElseThrow());
+    }
+
+    private ConfigurationService instance() {
+        ConfigurationService service = new ConfigurationService(configurationRepository);
+        service.loadSnapshot();
+        return service;
+    }
+}
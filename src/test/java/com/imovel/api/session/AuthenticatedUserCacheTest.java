@@ -0,0 +1,232 @@
+package com.imovel.api.session;
+
+import com.imovel.api.model.Role;
+import com.imovel.api.model.User;
+import com.imovel.api.repository.RoleRepository;
+import com.imovel.api.repository.UserRepository;
+import com.imovel.api.request.UserUpdateRequest;
+import com.imovel.api.services.RoleService;
+import com.imovel.api.services.TokenService;
+import com.imovel.api.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({AuthenticatedUserCache.class, UserCacheConfig.class})
+// Evictions happen after commit, so the test commits like production does
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthenticatedUserCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private AuthenticatedUserCache cache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private SessionManager sessionManager;
+    private MockHttpSession session;
+    private Statistics statistics;
+    private Role role;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        role = roleRepository.save(new Role("HOST", "Host"));
+        user = new User();
+        user.setName("Host");
+        user.setEmail("host@example.com");
+        user.setRole(role);
+        user = userRepository.save(user);
+
+        TokenService tokenService = mock(TokenService.class);
+        when(tokenService.getClaim(eq("userId"), anyString())).thenReturn(user.getId().toString());
+        when(tokenService.getClaim(eq("username"), anyString())).thenReturn(user.getEmail());
+        when(tokenService.getClaim(eq("role"), anyString())).thenReturn("HOST");
+        sessionManager = new SessionManager(tokenService, cache);
+        session = new MockHttpSession();
+        session.setAttribute("token", "access-token");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        cache.evictAfterCommit(user.getId());
+    }
+
+    @Test
+    void getCurrentAuthenticatedUser_RepeatedCalls_ShouldNotQueryUsers() {
+        // Given
+        statistics.clear();
+        AuthenticatedUser first = sessionManager.getCurrentAuthenticatedUser(session);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // When
+        statistics.clear();
+        for (int i = 0; i < 100; i++) {
+            assertSame(first, sessionManager.getCurrentAuthenticatedUser(session));
+        }
+
+        // Then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(user.getId(), first.getId());
+        assertEquals("host@example.com", first.getEmail());
+        assertEquals(role.getId(), first.getRoleId());
+        assertEquals("HOST", first.getRoleName());
+    }
+
+    @Test
+    void updateCurrentUser_ShouldEvictTheSnapshotOnceItCommits() {
+        // Given
+        UserService userService = new UserService(userRepository, null, sessionManager, cache);
+        sessionManager.getCurrentAuthenticatedUser(session);
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setName("Renamed");
+
+        // When / Then - a request in flight still sees the snapshot until the update commits
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(userService.updateCurrentUser(request, session).isSuccess());
+            assertEquals(1, cache.size());
+        });
+        assertEquals(0, cache.size());
+
+        statistics.clear();
+        sessionManager.getCurrentAuthenticatedUser(session);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteCurrentUser_ShouldStopResolvingTheUser() {
+        // Given
+        UserService userService = new UserService(userRepository, null, sessionManager, cache);
+        sessionManager.getCurrentAuthenticatedUser(session);
+
+        // When
+        transactionTemplate.executeWithoutResult(status ->
+                assertTrue(userService.deleteCurrentUser(session).isSuccess()));
+
+        // Then
+        assertThrows(NoSuchElementException.class, () -> sessionManager.getCurrentAuthenticatedUser(session));
+    }
+
+    @Test
+    void updateRole_ShouldEvictTheSnapshotsOfItsUsers() {
+        // Given
+        RoleService roleService = new RoleService(roleRepository, userRepository, cache);
+        assertEquals("HOST", sessionManager.getCurrentAuthenticatedUser(session).getRoleName());
+
+        // When
+        transactionTemplate.executeWithoutResult(status ->
+                assertTrue(roleService.updateRole(role.getId(), new Role("LANDLORD", null)).isSuccess()));
+
+        // Then
+        assertEquals("LANDLORD", sessionManager.getCurrentAuthenticatedUser(session).getRoleName());
+    }
+
+    @Test
+    void get_WhenEvictedDuringTheLoad_ShouldNotStoreTheLoadedSnapshot() {
+        // Given - the user is changed and evicted while its snapshot is being read
+        UserRepository slowRepository = mock(UserRepository.class);
+        AuthenticatedUserCache racing = new AuthenticatedUserCache(slowRepository, new UserCacheConfig());
+        AuthenticatedUser stale = new AuthenticatedUser(user.getId(), user.getEmail(), role.getId(), "HOST");
+        when(slowRepository.findSnapshotById(user.getId())).thenAnswer(invocation -> {
+            racing.evictAfterCommit(user.getId());
+            return Optional.of(stale);
+        });
+
+        // When
+        Optional<AuthenticatedUser> loaded = racing.get(user.getId());
+
+        // Then - the caller gets what it read, but the eviction wins
+        assertSame(stale, loaded.orElseThrow());
+        assertEquals(0, racing.size());
+    }
+
+    @Test
+    void get_InATransactionThatRollsBack_ShouldNotStoreItsUncommittedChanges() {
+        // When - a transaction changes the user, resolves it, and rolls back
+        transactionTemplate.executeWithoutResult(status -> {
+            user.setEmail("uncommitted@example.com");
+            userRepository.saveAndFlush(user);
+            assertEquals("uncommitted@example.com", cache.get(user.getId()).orElseThrow().getEmail());
+            assertEquals(0, cache.size());
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(0, cache.size());
+        assertEquals("host@example.com", cache.get(user.getId()).orElseThrow().getEmail());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_ShouldReloadAfterTheTtlAndStayWithinTheBound() {
+        // Given
+        UserCacheConfig config = new UserCacheConfig();
+        config.setTtl(Duration.ofMinutes(1));
+        config.setMaxSize(10);
+        AtomicLong now = new AtomicLong();
+        AuthenticatedUserCache bounded = new AuthenticatedUserCache(userRepository, config, now::get);
+        bounded.get(user.getId());
+
+        // When - the entry expires
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        statistics.clear();
+        bounded.get(user.getId());
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // When - more users are looked up than the cache holds
+        for (int i = 0; i < 20; i++) {
+            User other = new User();
+            other.setName("Guest " + i);
+            other.setEmail("guest" + i + "@example.com");
+            other.setRole(role);
+            now.incrementAndGet();
+            bounded.get(userRepository.save(other).getId());
+        }
+
+        // Then
+        assertTrue(bounded.size() <= 10, "size " + bounded.size());
+        assertTrue(bounded.get(-1L).isEmpty());
+    }
+}
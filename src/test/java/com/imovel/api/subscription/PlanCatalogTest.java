@@ -0,0 +1,187 @@
+package com.imovel.api.subscription;
+
+import com.imovel.api.model.Subscription;
+import com.imovel.api.model.SubscriptionPlan;
+import com.imovel.api.model.UserSubscription;
+import com.imovel.api.repository.SubscriptionPlanRepository;
+import com.imovel.api.repository.SubscriptionRepository;
+import com.imovel.api.repository.UserSubscriptionRepository;
+import com.imovel.api.response.ApplicationResponse;
+import com.imovel.api.services.SubscriptionPlanService;
+import com.imovel.api.services.SubscriptionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class PlanCatalogTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SubscriptionPlanRepository planRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private UserSubscriptionRepository userSubscriptionRepository;
+
+    private PlanCatalog catalog;
+    private Statistics statistics;
+    private SubscriptionPlan basic;
+    private SubscriptionPlan premium;
+
+    @BeforeEach
+    void setUp() {
+        basic = planRepository.save(plan("Basic", "49", "530"));
+        premium = planRepository.save(plan("Premium", "149", "1430"));
+        entityManager.flush();
+        entityManager.clear();
+
+        catalog = new PlanCatalog(planRepository);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void find_AfterTheFirstLoad_ShouldNotQueryPlans() {
+        // Given
+        catalog.find(basic.getId());
+
+        // When
+        statistics.clear();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(catalog.find(premium.getId()).isPresent());
+        }
+
+        // Then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        CatalogPlan plan = catalog.find(premium.getId()).orElseThrow();
+        assertEquals(14_900, plan.priceMinor("monthly"));
+        assertEquals(143_000, plan.priceMinor("yearly"));
+        assertEquals(List.of(basic.getId(), premium.getId()), catalog.all().stream().map(CatalogPlan::getId).toList());
+    }
+
+    @Test
+    void updateSubscriptionPlan_ShouldReloadTheCatalog() {
+        // Given
+        SubscriptionPlanService planService = new SubscriptionPlanService(planRepository, catalog);
+        assertEquals(4_900, catalog.find(basic.getId()).orElseThrow().priceMinor("monthly"));
+        SubscriptionPlan edited = plan("Basic", "59.90", "600");
+
+        // When
+        assertTrue(planService.updateSubscriptionPlan(basic.getId(), edited).isSuccess());
+
+        // Then - the catalog changes once the edit commits
+        assertEquals(4_900, catalog.find(basic.getId()).orElseThrow().priceMinor("monthly"));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            assertEquals(5_990, catalog.find(basic.getId()).orElseThrow().priceMinor("monthly"));
+        } finally {
+            TestTransaction.start();
+            planRepository.deleteAll();
+            TestTransaction.flagForCommit();
+            TestTransaction.end();
+        }
+    }
+
+    @Test
+    void find_PlanAddedElsewhere_ShouldReloadOnceAndUnknownPlansShouldBeEmpty() {
+        // Given
+        catalog.find(basic.getId());
+        SubscriptionPlan extended = planRepository.save(plan("Extended", "109", "1100"));
+        entityManager.flush();
+
+        // When / Then
+        assertEquals(10_900, catalog.find(extended.getId()).orElseThrow().priceMinor("monthly"));
+        assertTrue(catalog.find(-1L).isEmpty());
+    }
+
+    @Test
+    void calculatePlanChange_ShouldReadOnlyTheSubscriptionTerm() {
+        // Given - a monthly Basic subscription with about 15 days left
+        SubscriptionService service = new SubscriptionService(planRepository, subscriptionRepository,
+                userSubscriptionRepository, catalog);
+        Subscription subscription = subscription(basic, LocalDateTime.now().plusDays(15).plusHours(1));
+        catalog.find(basic.getId());
+        entityManager.clear();
+
+        // When
+        statistics.clear();
+        ApplicationResponse<BigDecimal> quote = service.calculatePlanChange(subscription.getId(), premium.getId());
+        ApplicationResponse<Map<Long, BigDecimal>> quotes = service.quotePlanChanges(subscription.getId(),
+                List.of(premium.getId(), basic.getId()));
+
+        // Then - 100.00 a month more for half a month
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(new BigDecimal("50.00"), quote.getData());
+        assertEquals(new BigDecimal("50.00"), quotes.getData().get(premium.getId()));
+        assertEquals(new BigDecimal("0.00"), quotes.getData().get(basic.getId()));
+        assertEquals(List.of(premium.getId(), basic.getId()), List.copyOf(quotes.getData().keySet()));
+    }
+
+    @Test
+    void changePlan_ShouldChargeTheProratedDifference() {
+        // Given
+        SubscriptionService service = new SubscriptionService(planRepository, subscriptionRepository,
+                userSubscriptionRepository, catalog);
+        Subscription subscription = subscription(basic, LocalDateTime.now().plusDays(15).plusHours(1));
+        userSubscriptionRepository.save(new UserSubscription(subscription.getId(), 1L, basic));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        assertTrue(service.changePlan(subscription.getId(), premium.getId(), false).isSuccess());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertEquals(premium.getId(), subscriptionRepository.findById(subscription.getId()).orElseThrow().getPlan().getId());
+        UserSubscription userSubscription = userSubscriptionRepository.findBySubscriptionId(subscription.getId()).orElseThrow();
+        assertEquals(premium.getId(), userSubscription.getCurrentPlan().getId());
+        assertEquals(0, new BigDecimal("50.00").compareTo(userSubscription.getCurrentPlanCharge()));
+    }
+
+    private Subscription subscription(SubscriptionPlan plan, LocalDateTime endDate) {
+        Subscription subscription = new Subscription();
+        subscription.setPlan(plan);
+        subscription.setUserId(1L);
+        subscription.setBillingCycle("monthly");
+        subscription.setStartDate(endDate.minusMonths(1));
+        subscription.setEndDate(endDate);
+        subscription.setStatus("active");
+        subscription = subscriptionRepository.save(subscription);
+        entityManager.flush();
+        return subscription;
+    }
+
+    private static SubscriptionPlan plan(String name, String monthly, String yearly) {
+        SubscriptionPlan plan = new SubscriptionPlan();
+        plan.setName(name);
+        plan.setDescription(name + " plan");
+        plan.setMonthlyPrice(new BigDecimal(monthly));
+        plan.setYearlyPrice(new BigDecimal(yearly));
+        plan.setSupportType("limited");
+        return plan;
+    }
+}
@@ -0,0 +1,172 @@
+package com.imovel.api.subscription;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProrationEngineTest {
+
+    @Test
+    void amountDue_AcrossRandomPlansAndDates_ShouldMatchTheDecimalCalculation() {
+        // Given
+        Random random = new Random(20250301L);
+        int ties = 0;
+
+        for (int i = 0; i < 50_000; i++) {
+            String cycle = random.nextBoolean() ? "monthly" : "yearly";
+            // Mostly whole currency units as in the catalog, sometimes cents
+            long current = price(random);
+            long next = price(random);
+            long remainingDays = random.nextInt(411) - 10;
+            int periodDays = ProrationEngine.periodDays(cycle);
+
+            // When
+            long due = ProrationEngine.amountDue(current, next, remainingDays, periodDays);
+
+            // Then - integer result is the exact value rounded half up once
+            BigDecimal exact = BigDecimal.valueOf((next - current) * remainingDays)
+                    .divide(BigDecimal.valueOf(periodDays), 20, RoundingMode.HALF_UP);
+            assertEquals(exact.setScale(0, RoundingMode.HALF_UP).longValueExact(), due,
+                    () -> cycle + " " + current + " -> " + next + " days=" + remainingDays);
+
+            // The decimal route rounds its daily rates to 10 places first, which can only tip an
+            // exact half cent the other way
+            long legacy = legacyAmountDue(current, next, remainingDays, cycle);
+            if (legacy != due) {
+                ties++;
+                BigDecimal distanceToTie = exact.subtract(BigDecimal.valueOf(due))
+                        .abs().subtract(new BigDecimal("0.5")).abs();
+                assertEquals(1, Math.abs(legacy - due));
+                assertTrue(distanceToTie.compareTo(new BigDecimal("0.000001")) < 0,
+                        () -> cycle + " " + current + " -> " + next + " days=" + remainingDays
+                                + " legacy=" + legacy + " due=" + due);
+            }
+        }
+        assertTrue(ties < 1_000, "differences only at half cents, got " + ties);
+    }
+
+    @Test
+    void amountDue_ShouldRoundAnExactHalfCentAwayFromZero() {
+        // Given - half a period of a one cent plan is exactly half a cent
+        int periodDays = ProrationEngine.periodDays("monthly");
+
+        // When / Then
+        assertEquals(1, ProrationEngine.amountDue(0, 1, 15, periodDays));
+        assertEquals(-1, ProrationEngine.amountDue(1, 0, 15, periodDays));
+        assertEquals(0, legacyAmountDue(0, 1, 15, "monthly"), "the decimal route rounds it down");
+    }
+
+    @Test
+    void amountDue_ChargeAndCredit_ShouldBeSymmetric() {
+        // Given
+        Random random = new Random(7L);
+
+        for (int i = 0; i < 10_000; i++) {
+            long current = price(random);
+            long next = price(random);
+            long remainingDays = random.nextInt(366);
+
+            // When / Then
+            assertEquals(-ProrationEngine.amountDue(current, next, remainingDays, 365),
+                    ProrationEngine.amountDue(next, current, remainingDays, 365));
+        }
+    }
+
+    @Test
+    void quote_ShouldMatchSingleQuotes() {
+        // Given - the default catalog, yearly prices
+        long current = 53_000;
+        long[] plans = {0, 53_000, 110_000, 143_000};
+
+        // When
+        long[] due = ProrationEngine.quote(current, plans, 200, 365);
+
+        // Then
+        assertEquals(plans.length, due.length);
+        for (int i = 0; i < plans.length; i++) {
+            assertEquals(ProrationEngine.amountDue(current, plans[i], 200, 365), due[i]);
+        }
+        assertEquals(-29_041, due[0]);
+        assertEquals(0, due[1]);
+        assertEquals(31_233, due[2]);
+    }
+
+    @Test
+    void toMinorUnits_ShouldRoundToWholeCents() {
+        assertEquals(4_900, ProrationEngine.toMinorUnits(new BigDecimal("49")));
+        assertEquals(4_999, ProrationEngine.toMinorUnits(new BigDecimal("49.99")));
+        assertEquals(5_000, ProrationEngine.toMinorUnits(new BigDecimal("49.995")));
+        assertEquals(new BigDecimal("-1.05"), ProrationEngine.fromMinorUnits(-105));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "subscription.proration.benchmark", matches = "true")
+    void benchmark_QuoteAllPlansAgainstTheDecimalRoute() {
+        // Given - quoting the four default plans, as a plan comparison page does
+        long[] plans = {0, 4_900, 10_900, 14_900};
+        int rounds = 2_000_000;
+        long sink = 0;
+        for (int warmup = 0; warmup < 3; warmup++) {
+            sink += runLegacy(plans, rounds / 10) + runEngine(plans, rounds / 10);
+        }
+
+        // When
+        long legacyStart = System.nanoTime();
+        sink += runLegacy(plans, rounds);
+        long legacyNanos = System.nanoTime() - legacyStart;
+
+        long engineStart = System.nanoTime();
+        sink += runEngine(plans, rounds);
+        long engineNanos = System.nanoTime() - engineStart;
+
+        // Then
+        assertNotEquals(0, sink);
+        System.out.printf("Quote 4 plans: BigDecimal %d ns, integer %d ns%n",
+                legacyNanos / rounds, engineNanos / rounds);
+    }
+
+    private static long runLegacy(long[] plans, int rounds) {
+        long sink = 0;
+        for (int i = 0; i < rounds; i++) {
+            for (long plan : plans) {
+                sink += legacyAmountDue(plans[i & 3], plan, i % 31, "monthly");
+            }
+        }
+        return sink;
+    }
+
+    private static long runEngine(long[] plans, int rounds) {
+        long sink = 0;
+        for (int i = 0; i < rounds; i++) {
+            for (long due : ProrationEngine.quote(plans[i & 3], plans, i % 31, ProrationEngine.MONTHLY_PERIOD_DAYS)) {
+                sink += due;
+            }
+        }
+        return sink;
+    }
+
+    private static long price(Random random) {
+        return random.nextInt(4) == 0 ? random.nextInt(2_000_000) : random.nextInt(20_000) * 100L;
+    }
+
+    /**
+     * The proration SubscriptionService computed before, with BigDecimal daily rates, in cents
+     */
+    private static long legacyAmountDue(long currentMinor, long newMinor, long remainingDays, String cycle) {
+        BigDecimal currentRate = dailyRate(BigDecimal.valueOf(currentMinor, 2), cycle);
+        BigDecimal newRate = dailyRate(BigDecimal.valueOf(newMinor, 2), cycle);
+        BigDecimal unusedValue = currentRate.multiply(BigDecimal.valueOf(remainingDays));
+        BigDecimal newPlanCost = newRate.multiply(BigDecimal.valueOf(remainingDays));
+        return newPlanCost.subtract(unusedValue).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal dailyRate(BigDecimal price, String cycle) {
+        int daysInPeriod = cycle.equals("monthly") ? 30 : 365;
+        return price.divide(BigDecimal.valueOf(daysInPeriod), 10, RoundingMode.HALF_UP);
+    }
+}
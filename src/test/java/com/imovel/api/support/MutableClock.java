@@ -0,0 +1,44 @@
+package com.imovel.api.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A clock for tests that only moves when told to. Defaults to UTC.
+ */
+public final class MutableClock extends Clock {
+
+    private final ZoneId zone;
+    private Instant now;
+
+    public MutableClock(Instant now) {
+        this(now, ZoneOffset.UTC);
+    }
+
+    public MutableClock(Instant now, ZoneId zone) {
+        this.now = now;
+        this.zone = zone;
+    }
+
+    public void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}